@@ -2,6 +2,7 @@ package com.godam.config;
 
 import com.godam.common.User;
 import com.godam.common.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,14 +12,18 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class DataInitializer {
 
+  // Seeds the admin account only when it is missing, so restarts keep existing users and
+  // passwords and skip the BCrypt hash entirely.
   @Bean
-  public CommandLineRunner initializeUsers(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public CommandLineRunner initializeUsers(
+      UserRepository userRepository,
+      PasswordEncoder passwordEncoder,
+      @Value("${godam.seed.admin-password:admin}") String adminPassword) {
     return args -> {
-      System.out.println("Purging existing users and starting fresh admin setup.");
-      userRepository.deleteAll();
-
-      createUser(userRepository, passwordEncoder, "admin", "admin", "ADMIN", "admin@godam.com");
-      System.out.println("User initialization complete! Only 'admin'/'admin' exists with ADMIN privileges.");
+      if (userRepository.existsByUsername("admin")) {
+        return;
+      }
+      createUser(userRepository, passwordEncoder, "admin", adminPassword, "ADMIN", "admin@godam.com");
     };
   }
 
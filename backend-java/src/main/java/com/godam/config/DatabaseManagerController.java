@@ -2,6 +2,7 @@ package com.godam.config;
 
 import com.godam.security.UploadValidationPipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +10,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.*;
 import java.util.stream.Collectors;
 
+// Rarely used admin tool: created on its first request instead of at startup.
+@Lazy
 @RestController
 @RequestMapping("/db")
 public class DatabaseManagerController {
@@ -0,0 +1,77 @@
+package com.godam.config;
+
+import com.godam.delivery.service.DeliveryNoteDocumentService;
+import com.godam.dn.service.DnViewCache;
+import com.godam.masters.service.MasterDataCache;
+import com.godam.stock.service.PartHierarchyCache;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  @Bean
+  public MeterBinder cacheMetrics(
+      PartHierarchyCache partHierarchyCache,
+      DeliveryNoteDocumentService documentService,
+      MasterDataCache masterDataCache,
+      DnViewCache dnViewCache) {
+    return registry -> {
+      bindCache(registry, "part-hierarchy", partHierarchyCache,
+          PartHierarchyCache::getHits, PartHierarchyCache::getMisses, PartHierarchyCache::size);
+      bindCache(registry, "delivery-note-pdf", documentService,
+          DeliveryNoteDocumentService::getCacheHits,
+          DeliveryNoteDocumentService::getCacheMisses,
+          DeliveryNoteDocumentService::getCacheSize);
+      bindCache(registry, "master-data", masterDataCache,
+          MasterDataCache::getHits, MasterDataCache::getMisses, MasterDataCache::size);
+      FunctionCounter.builder("godam.masters.not.modified", masterDataCache,
+              MasterDataCache::getNotModified)
+          .description("Master-data list requests answered with 304")
+          .register(registry);
+      bindCache(registry, "dn-view", dnViewCache,
+          DnViewCache::getViewHits, DnViewCache::getViewMisses, DnViewCache::size);
+      bindCache(registry, "dn-print-html", dnViewCache,
+          DnViewCache::getHtmlHits, DnViewCache::getHtmlMisses, DnViewCache::size);
+    };
+  }
+
+  // Same meter names as Micrometer's cache binders so dashboards treat these caches alike.
+  private static <T> void bindCache(
+      MeterRegistry registry,
+      String cache,
+      T source,
+      ToLongFunction<T> hits,
+      ToLongFunction<T> misses,
+      ToDoubleFunction<T> size) {
+    FunctionCounter.builder("cache.gets", source, value -> hits.applyAsLong(value))
+        .tag("cache", cache)
+        .tag("result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", source, value -> misses.applyAsLong(value))
+        .tag("cache", cache)
+        .tag("result", "miss")
+        .register(registry);
+    Gauge.builder("cache.size", source, size)
+        .tag("cache", cache)
+        .register(registry);
+    Gauge.builder("godam.cache.hit.ratio", source, value -> {
+          long hitCount = hits.applyAsLong(value);
+          long total = hitCount + misses.applyAsLong(value);
+          return total == 0 ? Double.NaN : (double) hitCount / total;
+        })
+        .tag("cache", cache)
+        .register(registry);
+  }
+}
@@ -0,0 +1,73 @@
+package com.godam.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the pooled id sequences ahead of ids that were issued by the old IDENTITY columns,
+ * so existing databases can switch to batched inserts without primary key collisions.
+ */
+@Component
+public class PooledSequenceAligner implements SmartInitializingSingleton {
+  private static final Logger log = LoggerFactory.getLogger(PooledSequenceAligner.class);
+  private static final int ALLOCATION_SIZE = 50;
+  private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+  static {
+    SEQUENCES.put("stock_seq", "stock");
+    SEQUENCES.put("stock_movements_seq", "stock_movements");
+    SEQUENCES.put("order_workflows_seq", "order_workflows");
+    SEQUENCES.put("order_items_seq", "order_items");
+    SEQUENCES.put("order_admin_audits_seq", "order_admin_audits");
+    SEQUENCES.put("delivery_note_qty_seq", "delivery_note_qty");
+  }
+
+  private final DataSource dataSource;
+  private final boolean enabled;
+
+  public PooledSequenceAligner(
+      DataSource dataSource,
+      @Value("${godam.persistence.align-sequences:true}") boolean enabled) {
+    this.dataSource = dataSource;
+    this.enabled = enabled;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!enabled || !isPostgres()) {
+      return;
+    }
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    for (Map.Entry<String, String> entry : SEQUENCES.entrySet()) {
+      String sequence = entry.getKey();
+      String table = entry.getValue();
+      try {
+        jdbcTemplate.queryForObject(
+            "SELECT setval('" + sequence + "', GREATEST("
+                + "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + ALLOCATION_SIZE + ", "
+                + "(SELECT last_value FROM " + sequence + ")))",
+            Long.class);
+      } catch (RuntimeException ex) {
+        log.warn("Unable to align sequence {} with table {}: {}", sequence, table, ex.getMessage());
+      }
+    }
+  }
+
+  private boolean isPostgres() {
+    try (Connection connection = dataSource.getConnection()) {
+      return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    } catch (SQLException ex) {
+      log.warn("Unable to detect database for sequence alignment: {}", ex.getMessage());
+      return false;
+    }
+  }
+}
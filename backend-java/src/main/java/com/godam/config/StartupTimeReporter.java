@@ -0,0 +1,55 @@
+package com.godam.config;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the time from JVM launch to ready as {@code godam.startup.time}. Unlike Boot's
+ * {@code application.ready.time} it includes JVM start and class loading before {@code main},
+ * which is what the class-data-sharing archive speeds up; the {@code cds} tag tells runs with the
+ * application archive ({@code app}), only the JDK's default archive ({@code jdk}) or none apart.
+ */
+@Component
+public class StartupTimeReporter {
+  private static final Logger log = LoggerFactory.getLogger(StartupTimeReporter.class);
+
+  private final MeterRegistry registry;
+
+  public StartupTimeReporter(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onReady() {
+    Duration sinceLaunch = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+    String cds = classDataSharing();
+    Gauge.builder("godam.startup.time", sinceLaunch, duration -> duration.toMillis() / 1000.0)
+        .baseUnit("seconds")
+        .tag("cds", cds)
+        .description("Time from JVM launch until the application was ready")
+        .register(registry);
+    log.info("Ready {} ms after JVM launch (class data sharing: {})", sinceLaunch.toMillis(), cds);
+  }
+
+  private static String classDataSharing() {
+    try {
+      HotSpotDiagnosticMXBean hotSpot =
+          ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+      if (!Boolean.parseBoolean(hotSpot.getVMOption("UseSharedSpaces").getValue())) {
+        return "off";
+      }
+      String archive = hotSpot.getVMOption("SharedArchiveFile").getValue();
+      return archive == null || archive.isBlank() ? "jdk" : "app";
+    } catch (RuntimeException ex) {
+      return "unknown";
+    }
+  }
+}
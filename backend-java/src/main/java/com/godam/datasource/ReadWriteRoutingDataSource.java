@@ -0,0 +1,57 @@
+package com.godam.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. The route is
+ * decided when the physical connection is opened, so this must sit behind a
+ * LazyConnectionDataSourceProxy for the transaction's read-only flag to be visible. Reads fall
+ * back to the primary while the replica lags too far behind or the request has already written.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+  static final String PRIMARY = "primary";
+  static final String REPLICA = "replica";
+
+  private final ReplicaLagMonitor lagMonitor;
+  private final Counter primaryRoutes;
+  private final Counter replicaRoutes;
+
+  public ReadWriteRoutingDataSource(
+      DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor, MeterRegistry registry) {
+    this.lagMonitor = lagMonitor;
+    this.primaryRoutes = routeCounter(registry, PRIMARY);
+    this.replicaRoutes = routeCounter(registry, REPLICA);
+    setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      if (TransactionSynchronizationManager.isActualTransactionActive()) {
+        ReadYourWrites.markWrite();
+      }
+      primaryRoutes.increment();
+      return PRIMARY;
+    }
+    if (ReadYourWrites.isPinned() || !lagMonitor.isReplicaUsable()) {
+      primaryRoutes.increment();
+      return PRIMARY;
+    }
+    replicaRoutes.increment();
+    return REPLICA;
+  }
+
+  private static Counter routeCounter(MeterRegistry registry, String target) {
+    return Counter.builder("godam.datasource.route")
+        .description("Physical connections opened per routing target")
+        .tag("target", target)
+        .register(registry);
+  }
+}
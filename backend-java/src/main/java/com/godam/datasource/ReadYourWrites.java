@@ -0,0 +1,79 @@
+package com.godam.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Per-request read-your-writes state. While a request is open, a write pins every later read of
+ * that request to the primary, and {@link ReadYourWritesFilter} carries the pin over to the
+ * client's next requests. Threads without an open request never pin, unless they run work the
+ * request handed over through {@link #propagate(Callable)}.
+ */
+public final class ReadYourWrites {
+  private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+  private ReadYourWrites() {
+  }
+
+  public static State open(boolean pinned) {
+    State state = new State();
+    state.pinned = pinned;
+    CURRENT.set(state);
+    return state;
+  }
+
+  /** Wraps work for another thread so its reads and writes count towards the calling request. */
+  public static <T> Callable<T> propagate(Callable<T> work) {
+    State state = CURRENT.get();
+    if (state == null) {
+      return work;
+    }
+    return () -> {
+      State previous = CURRENT.get();
+      CURRENT.set(state);
+      try {
+        return work.call();
+      } finally {
+        if (previous == null) {
+          CURRENT.remove();
+        } else {
+          CURRENT.set(previous);
+        }
+      }
+    };
+  }
+
+  public static void close() {
+    CURRENT.remove();
+  }
+
+  public static boolean isPinned() {
+    State state = CURRENT.get();
+    return state != null && state.pinned;
+  }
+
+  public static boolean hasWritten() {
+    State state = CURRENT.get();
+    return state != null && state.hasWritten();
+  }
+
+  static void markWrite() {
+    State state = CURRENT.get();
+    if (state != null) {
+      state.pinned = true;
+      state.written = true;
+    }
+  }
+
+  /** State of one request; shared with any thread the request handed work to. */
+  public static final class State {
+    private volatile boolean pinned;
+    private volatile boolean written;
+
+    private State() {
+    }
+
+    public boolean hasWritten() {
+      return written;
+    }
+  }
+}
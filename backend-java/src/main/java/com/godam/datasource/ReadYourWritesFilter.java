@@ -0,0 +1,87 @@
+package com.godam.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Keeps a client on the primary for a short window after it wrote. A request that writes gets a
+ * cookie holding the write time; requests presenting a cookie younger than the window read from
+ * the primary, so a client never reads a replica that has not caught up with its own write.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+  static final String COOKIE_NAME = "GODAM_RYW";
+
+  private final Duration stickyWindow;
+
+  public ReadYourWritesFilter(Duration stickyWindow) {
+    this.stickyWindow = stickyWindow;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    ReadYourWrites.State state = ReadYourWrites.open(wroteRecently(request));
+    StickyResponse stickyResponse = new StickyResponse(response, state);
+    try {
+      filterChain.doFilter(request, stickyResponse);
+      stickyResponse.addStickyCookie();
+    } finally {
+      ReadYourWrites.close();
+    }
+  }
+
+  private boolean wroteRecently(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return false;
+    }
+    for (Cookie cookie : cookies) {
+      if (COOKIE_NAME.equals(cookie.getName())) {
+        try {
+          long age = System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+          return age >= 0 && age < stickyWindow.toMillis();
+        } catch (NumberFormatException ex) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+
+  // The cookie has to go out before the body commits the headers. An async response commits on
+  // another thread after this filter returned, so the request's state is held here.
+  private final class StickyResponse extends OnCommittedResponseWrapper {
+    private final ReadYourWrites.State state;
+    private boolean cookieAdded;
+
+    private StickyResponse(HttpServletResponse response, ReadYourWrites.State state) {
+      super(response);
+      this.state = state;
+    }
+
+    @Override
+    protected void onResponseCommitted() {
+      addStickyCookie();
+    }
+
+    private void addStickyCookie() {
+      if (cookieAdded || !state.hasWritten() || isCommitted()) {
+        return;
+      }
+      cookieAdded = true;
+      Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis()));
+      cookie.setPath("/");
+      cookie.setHttpOnly(true);
+      cookie.setMaxAge((int) Math.max(1, stickyWindow.toSeconds()));
+      addCookie(cookie);
+    }
+  }
+}
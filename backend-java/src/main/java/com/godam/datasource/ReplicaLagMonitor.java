@@ -0,0 +1,90 @@
+package com.godam.datasource;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Polls the replica's replay lag. The replica only serves reads while the last check succeeded
+ * and the lag was within tolerance; until the first check it is treated as unusable.
+ */
+public class ReplicaLagMonitor {
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  // Zero when the replica is a primary itself or has replayed everything it received; an idle
+  // primary would otherwise make pg_last_xact_replay_timestamp() look arbitrarily old.
+  static final String POSTGRES_LAG_QUERY =
+      "select case when not pg_is_in_recovery() then 0"
+          + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+          + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final String lagQuery;
+  private final Duration maxLag;
+  private final Duration checkInterval;
+  private volatile boolean replicaUsable;
+  private volatile double lagSeconds = Double.NaN;
+  private ScheduledExecutorService scheduler;
+
+  public ReplicaLagMonitor(
+      DataSource replica, String lagQuery, Duration maxLag, Duration checkInterval) {
+    this.jdbcTemplate = new JdbcTemplate(replica);
+    this.jdbcTemplate.setQueryTimeout(Math.max(1, (int) checkInterval.toSeconds()));
+    this.lagQuery = lagQuery;
+    this.maxLag = maxLag;
+    this.checkInterval = checkInterval;
+  }
+
+  @PostConstruct
+  public void start() {
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replica-lag-monitor");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(
+        this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  public void check() {
+    boolean usable;
+    try {
+      Number lag = jdbcTemplate.queryForObject(lagQuery, Number.class);
+      lagSeconds = lag == null ? 0 : lag.doubleValue();
+      usable = lagSeconds * 1000 <= maxLag.toMillis();
+    } catch (RuntimeException ex) {
+      lagSeconds = Double.NaN;
+      usable = false;
+      if (replicaUsable) {
+        log.warn("Replica lag check failed, reads fall back to the primary: {}", ex.getMessage());
+      }
+    }
+    if (usable != replicaUsable) {
+      log.info("Replica {} for reads (lag {} s, tolerance {} s)",
+          usable ? "enabled" : "disabled", lagSeconds, maxLag.toSeconds());
+    }
+    replicaUsable = usable;
+  }
+
+  public boolean isReplicaUsable() {
+    return replicaUsable;
+  }
+
+  public double getLagSeconds() {
+    return lagSeconds;
+  }
+}
@@ -0,0 +1,99 @@
+package com.godam.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the application DataSource into a primary and a read replica pool. Only
+ * {@code @Transactional(readOnly = true)} work is eligible for the replica; see
+ * {@link ReadWriteRoutingDataSource} for the fallback rules. Both pools may point at the same
+ * server, which is how the routing is exercised locally.
+ */
+@Configuration
+@ConditionalOnProperty(name = "godam.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("godam-primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("godam.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(
+      DataSourceProperties properties,
+      @Value("${godam.datasource.replica.url}") String url,
+      @Value("${godam.datasource.replica.username:}") String username,
+      @Value("${godam.datasource.replica.password:}") String password) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .url(url)
+        .username(username.isBlank() ? properties.determineUsername() : username)
+        .password(password.isBlank() ? properties.determinePassword() : password)
+        .build();
+    dataSource.setPoolName("godam-replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(
+      @Qualifier("replicaDataSource") DataSource replica,
+      @Value("${godam.datasource.replica.lag-query:}") String lagQuery,
+      @Value("${godam.datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+      @Value("${godam.datasource.replica.lag-check-interval-ms:5000}") long checkIntervalMs,
+      MeterRegistry registry) {
+    ReplicaLagMonitor monitor = new ReplicaLagMonitor(
+        replica,
+        lagQuery.isBlank() ? ReplicaLagMonitor.POSTGRES_LAG_QUERY : lagQuery,
+        Duration.ofSeconds(maxLagSeconds),
+        Duration.ofMillis(checkIntervalMs));
+    Gauge.builder("godam.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+        .description("Replica replay lag seen by the last check")
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("godam.datasource.replica.usable", monitor, m -> m.isReplicaUsable() ? 1 : 0)
+        .description("1 while read-only transactions may use the replica")
+        .register(registry);
+    return monitor;
+  }
+
+  // The lazy proxy defers the routing decision until the first statement, by which point the
+  // transaction manager has published the read-only flag.
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryDataSource") DataSource primary,
+      @Qualifier("replicaDataSource") DataSource replica,
+      ReplicaLagMonitor replicaLagMonitor,
+      MeterRegistry registry) {
+    return new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor, registry));
+  }
+
+  @Bean
+  public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+      @Value("${godam.datasource.replica.sticky-seconds:10}") long stickySeconds) {
+    FilterRegistrationBean<ReadYourWritesFilter> registration =
+        new FilterRegistrationBean<>(new ReadYourWritesFilter(Duration.ofSeconds(stickySeconds)));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+}
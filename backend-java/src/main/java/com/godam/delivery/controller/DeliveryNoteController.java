@@ -6,7 +6,9 @@ import com.godam.delivery.dto.DeliveryNoteResponse;
 import com.godam.delivery.service.DeliveryNoteDocumentService;
 import com.godam.delivery.service.DeliveryNoteEmailService;
 import com.godam.delivery.service.DeliveryNoteService;
+import com.godam.execution.OffloadExecutors;
 import jakarta.validation.Valid;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -25,14 +27,17 @@ public class DeliveryNoteController {
   private final DeliveryNoteService deliveryNoteService;
   private final DeliveryNoteDocumentService documentService;
   private final DeliveryNoteEmailService emailService;
+  private final OffloadExecutors offloadExecutors;
 
   public DeliveryNoteController(
       DeliveryNoteService deliveryNoteService,
       DeliveryNoteDocumentService documentService,
-      DeliveryNoteEmailService emailService) {
+      DeliveryNoteEmailService emailService,
+      OffloadExecutors offloadExecutors) {
     this.deliveryNoteService = deliveryNoteService;
     this.documentService = documentService;
     this.emailService = emailService;
+    this.offloadExecutors = offloadExecutors;
   }
 
   @GetMapping("/{id}")
@@ -53,9 +58,23 @@ public class DeliveryNoteController {
   }
 
   @GetMapping("/{id}/pdf")
-  public ResponseEntity<byte[]> downloadPdf(@PathVariable("id") Long id) {
+  public CompletableFuture<ResponseEntity<byte[]>> downloadPdf(@PathVariable("id") Long id) {
     DeliveryNoteResponse response = deliveryNoteService.getDeliveryNoteById(id);
-    byte[] pdf = documentService.getCachedOrGenerate(response);
+    return offloadExecutors.cpu(() -> documentService.getCachedOrGenerate(response))
+        .thenApply(pdf -> pdfResponse(response, id, pdf));
+  }
+
+  @PostMapping("/{id}/email")
+  public CompletableFuture<Void> email(
+      @PathVariable("id") Long id,
+      @Valid @RequestBody DeliveryNoteEmailRequest request) {
+    return offloadExecutors.io(() -> {
+      emailService.sendDeliveryNote(id, request);
+      return null;
+    });
+  }
+
+  private ResponseEntity<byte[]> pdfResponse(DeliveryNoteResponse response, Long id, byte[] pdf) {
     HttpHeaders headers = new HttpHeaders();
     headers.setContentType(MediaType.APPLICATION_PDF);
     headers.setContentDisposition(
@@ -67,11 +86,4 @@ public class DeliveryNoteController {
             .build());
     return ResponseEntity.ok().headers(headers).body(pdf);
   }
-
-  @PostMapping("/{id}/email")
-  public void email(
-      @PathVariable("id") Long id,
-      @Valid @RequestBody DeliveryNoteEmailRequest request) {
-    emailService.sendDeliveryNote(id, request);
-  }
 }
@@ -14,6 +14,8 @@ import com.godam.masters.Transporter;
 import com.godam.masters.repository.CustomerRepository;
 import com.godam.masters.repository.DriverRepository;
 import com.godam.masters.repository.TransporterRepository;
+import com.godam.masters.service.MasterDataCache;
+import com.godam.masters.service.MasterDataCache.Kind;
 import com.godam.orders.OrderWorkflow;
 import com.godam.orders.repository.OrderWorkflowRepository;
 import jakarta.validation.Valid;
@@ -23,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,6 +36,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api")
@@ -41,16 +45,19 @@ public class DeliveryNoteSupportController {
   private final DriverRepository driverRepository;
   private final TransporterRepository transporterRepository;
   private final OrderWorkflowRepository orderWorkflowRepository;
+  private final MasterDataCache masterDataCache;
 
   public DeliveryNoteSupportController(
       CustomerRepository customerRepository,
       DriverRepository driverRepository,
       TransporterRepository transporterRepository,
-      OrderWorkflowRepository orderWorkflowRepository) {
+      OrderWorkflowRepository orderWorkflowRepository,
+      MasterDataCache masterDataCache) {
     this.customerRepository = customerRepository;
     this.driverRepository = driverRepository;
     this.transporterRepository = transporterRepository;
     this.orderWorkflowRepository = orderWorkflowRepository;
+    this.masterDataCache = masterDataCache;
   }
 
   @GetMapping("/outbound/{orderId}")
@@ -183,13 +190,16 @@ public class DeliveryNoteSupportController {
   }
 
   @GetMapping("/customer/search")
-  public List<CustomerLookupDto> searchCustomers(@RequestParam(name = "q", required = false) String query) {
-    List<Customer> customers = (query == null || query.isBlank())
-        ? customerRepository.findAllByActiveTrueOrderByNameAsc()
-        : customerRepository.searchActive(query);
-    return customers.stream()
-        .map(this::toCustomerLookup)
-        .collect(Collectors.toList());
+  public ResponseEntity<List<CustomerLookupDto>> searchCustomers(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(Kind.CUSTOMERS, "active:" + query, request, () -> {
+      List<Customer> customers = (query == null || query.isBlank())
+          ? customerRepository.findAllByActiveTrueOrderByNameAsc()
+          : customerRepository.searchActive(query);
+      return customers.stream()
+          .map(this::toCustomerLookup)
+          .collect(Collectors.toList());
+    });
   }
 
   @PostMapping("/customer")
@@ -258,11 +268,14 @@ public class DeliveryNoteSupportController {
   }
 
   @GetMapping("/driver")
-  public List<DriverDto> searchDrivers(@RequestParam(name = "q", required = false) String query) {
-    List<Driver> drivers = (query == null || query.isBlank())
-        ? driverRepository.findByIsActiveTrue()
-        : driverRepository.searchActive(query);
-    return drivers.stream().map(this::toDriverDto).collect(Collectors.toList());
+  public ResponseEntity<List<DriverDto>> searchDrivers(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(Kind.DRIVERS, "active:" + query, request, () -> {
+      List<Driver> drivers = (query == null || query.isBlank())
+          ? driverRepository.findByIsActiveTrue()
+          : driverRepository.searchActive(query);
+      return drivers.stream().map(this::toDriverDto).collect(Collectors.toList());
+    });
   }
 
   @PostMapping("/driver")
@@ -280,11 +293,14 @@ public class DeliveryNoteSupportController {
   }
 
   @GetMapping("/transporter")
-  public List<TransporterDto> searchTransporters(@RequestParam(name = "q", required = false) String query) {
-    List<Transporter> transporters = (query == null || query.isBlank())
-        ? transporterRepository.findByIsActiveTrue()
-        : transporterRepository.searchActive(query);
-    return transporters.stream().map(this::toTransporterDto).collect(Collectors.toList());
+  public ResponseEntity<List<TransporterDto>> searchTransporters(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(Kind.TRANSPORTERS, "active:" + query, request, () -> {
+      List<Transporter> transporters = (query == null || query.isBlank())
+          ? transporterRepository.findByIsActiveTrue()
+          : transporterRepository.searchActive(query);
+      return transporters.stream().map(this::toTransporterDto).collect(Collectors.toList());
+    });
   }
 
   @PostMapping("/transporter")
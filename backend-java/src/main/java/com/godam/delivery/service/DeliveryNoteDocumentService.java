@@ -2,9 +2,12 @@ package com.godam.delivery.service;
 
 import com.godam.delivery.dto.DeliveryNoteResponse;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.ByteArrayOutputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import org.springframework.stereotype.Service;
@@ -13,19 +16,48 @@ import org.springframework.stereotype.Service;
 public class DeliveryNoteDocumentService {
   private final SpringTemplateEngine templateEngine;
   private final Map<Long, byte[]> pdfCache = new ConcurrentHashMap<>();
+  private final Timer renderTimer;
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
 
-  public DeliveryNoteDocumentService(SpringTemplateEngine templateEngine) {
+  public DeliveryNoteDocumentService(SpringTemplateEngine templateEngine, MeterRegistry registry) {
     this.templateEngine = templateEngine;
+    this.renderTimer = Timer.builder("godam.pdf.render")
+        .description("Template and PDF rendering time")
+        .tag("document", "delivery-note")
+        .register(registry);
   }
 
   public byte[] generatePdf(DeliveryNoteResponse response) {
-    byte[] pdf = renderToPdf(renderHtml(response));
+    byte[] pdf = render(response);
     pdfCache.put(response.getId(), pdf);
     return pdf;
   }
 
   public byte[] getCachedOrGenerate(DeliveryNoteResponse response) {
-    return pdfCache.computeIfAbsent(response.getId(), key -> renderToPdf(renderHtml(response)));
+    byte[] cached = pdfCache.get(response.getId());
+    if (cached != null) {
+      cacheHits.incrementAndGet();
+      return cached;
+    }
+    cacheMisses.incrementAndGet();
+    return pdfCache.computeIfAbsent(response.getId(), key -> render(response));
+  }
+
+  public long getCacheHits() {
+    return cacheHits.get();
+  }
+
+  public long getCacheMisses() {
+    return cacheMisses.get();
+  }
+
+  public int getCacheSize() {
+    return pdfCache.size();
+  }
+
+  private byte[] render(DeliveryNoteResponse response) {
+    return renderTimer.record(() -> renderToPdf(renderHtml(response)));
   }
 
   private String renderHtml(DeliveryNoteResponse response) {
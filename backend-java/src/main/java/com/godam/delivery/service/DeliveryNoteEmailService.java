@@ -3,6 +3,7 @@ package com.godam.delivery.service;
 import com.godam.common.exception.BusinessRuleException;
 import com.godam.delivery.dto.DeliveryNoteEmailRequest;
 import com.godam.delivery.dto.DeliveryNoteResponse;
+import io.micrometer.core.annotation.Timed;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import java.util.List;
@@ -26,6 +27,7 @@ public class DeliveryNoteEmailService {
     this.deliveryNoteService = deliveryNoteService;
   }
 
+  @Timed(value = "godam.email.send", extraTags = {"document", "delivery-note"})
   public void sendDeliveryNote(Long id, DeliveryNoteEmailRequest request) {
     DeliveryNoteResponse response = deliveryNoteService.getDeliveryNoteById(id);
     byte[] pdf = documentService.getCachedOrGenerate(response);
@@ -25,6 +25,7 @@ import com.godam.stock.dto.StockPickContext;
 import com.godam.stock.service.StockService;
 import jakarta.transaction.Transactional;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Service;
 
@@ -173,6 +174,7 @@ public class DeliveryNoteService {
     }
     List<OrderItem> items = order.getItems();
     String outbound = order.getOutboundNumber();
+    Map<String, String> pickedWarehouses = stockMovementService.findPickedWarehouses(outbound);
     for (OrderItem item : items) {
       int qty = item.getQty() == null ? 0 : item.getQty();
       if (qty <= 0) {
@@ -189,11 +191,16 @@ public class DeliveryNoteService {
       if (remaining <= 0) {
         continue;
       }
+      String warehouse = pickedWarehouses.get(item.getPartNumber());
+      if (warehouse == null && item.getPartNumber() != null) {
+        warehouse = pickedWarehouses.get(stockService.resolveMainPartNumber(item.getPartNumber()));
+      }
       StockPickContext context = stockService.preparePickContext(
+          warehouse,
           item.getPartNumber(),
           remaining,
           item.getPickedRack());
-      stockService.applyConfirmedDeduction(item.getPartNumber(), remaining, item.getPickedRack());
+      stockService.applyConfirmedDeduction(warehouse, item.getPartNumber(), remaining, item.getPickedRack());
       StockMovement movement = stockMovementService.logMovement(
           MovementType.O105_CONFIRMED,
           context.getWarehouseNo(),
@@ -4,9 +4,14 @@ import com.godam.dn.dto.DnCreateRequest;
 import com.godam.dn.dto.DnOptions;
 import com.godam.dn.dto.DnViewResponse;
 import com.godam.dn.service.DnService;
+import com.godam.dn.service.DnViewCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,15 +20,26 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
 
 @Controller
 @RequestMapping("/dn")
 @Validated
 public class DnController {
+  private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
   private final DnService dnService;
+  private final DnViewCache dnViewCache;
+  private final SpringTemplateEngine templateEngine;
 
-  public DnController(DnService dnService) {
+  public DnController(
+      DnService dnService, DnViewCache dnViewCache, SpringTemplateEngine templateEngine) {
     this.dnService = dnService;
+    this.dnViewCache = dnViewCache;
+    this.templateEngine = templateEngine;
   }
 
   @GetMapping("/{orderId}")
@@ -31,7 +47,7 @@ public class DnController {
   public DnViewResponse getDn(
       @PathVariable("orderId") Long orderId,
       DnOptions options) {
-    return dnService.getDnView(orderId, options);
+    return dnViewCache.getView(orderId, options);
   }
 
   @PostMapping("/{orderId}")
@@ -47,15 +63,23 @@ public class DnController {
     return view;
   }
 
+  // Rendered here rather than through the view resolver so the HTML can be cached.
   @GetMapping("/{orderId}/print")
-  public String printDn(
+  public ResponseEntity<String> printDn(
       @PathVariable("orderId") Long orderId,
       DnOptions options,
-      Model model) {
-    DnViewResponse view = dnService.getDnView(orderId, options);
-    model.addAttribute("dn", view);
-    model.addAttribute("options", view.getOptions());
-    return "dn/dn-print";
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    String html = dnViewCache.getPrintHtml(orderId, options, view -> {
+      IWebExchange exchange = JakartaServletWebApplication
+          .buildApplication(request.getServletContext())
+          .buildExchange(request, response);
+      WebContext context = new WebContext(exchange, request.getLocale());
+      context.setVariable("dn", view);
+      context.setVariable("options", view.getOptions());
+      return templateEngine.process("dn/dn-print", context);
+    });
+    return ResponseEntity.ok().contentType(TEXT_HTML_UTF8).body(html);
   }
 
   private void applyRequestFields(DnViewResponse view, DnCreateRequest request) {
@@ -12,11 +12,13 @@ import com.godam.movements.repository.StockMovementRepository;
 import com.godam.common.UserRepository;
 import com.godam.movements.MovementType;
 import com.godam.movements.StockMovement;
+import com.godam.movements.service.MovementWriteBuffer;
 import com.godam.orders.OrderItem;
 import com.godam.orders.OrderTransport;
 import com.godam.orders.OrderWorkflow;
 import com.godam.stock.Stock;
 import com.godam.stock.repository.StockRepository;
+import io.micrometer.core.annotation.Timed;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -39,21 +41,25 @@ public class DnService {
   private final StockRepository stockRepository;
   private final StockMovementRepository stockMovementRepository;
   private final UserRepository userRepository;
+  private final MovementWriteBuffer movementWriteBuffer;
 
   public DnService(
       OrderWorkflowRepository orderWorkflowRepository,
       OrderTransportRepository orderTransportRepository,
       StockRepository stockRepository,
       StockMovementRepository stockMovementRepository,
-      UserRepository userRepository) {
+      UserRepository userRepository,
+      MovementWriteBuffer movementWriteBuffer) {
     this.orderWorkflowRepository = orderWorkflowRepository;
     this.orderTransportRepository = orderTransportRepository;
     this.stockRepository = stockRepository;
     this.stockMovementRepository = stockMovementRepository;
     this.userRepository = userRepository;
+    this.movementWriteBuffer = movementWriteBuffer;
   }
 
 @Transactional(readOnly = true)
+  @Timed("godam.dn.view")
   public DnViewResponse getDnView(Long orderId, DnOptions options) {
     OrderWorkflow order = orderWorkflowRepository.findDetailedById(orderId)
         .orElseThrow(() -> new com.godam.common.exception.ResourceNotFoundException("Order not found"));
@@ -67,8 +73,7 @@ public class DnService {
     response.setGappPo(order.getGappPo());
     response.setCustomerPo(order.getCustomerPo());
     response.setCustomerName(order.getCustomerName());
-    response.setDate(getCurrentDate());
-    response.setTime(getCurrentTime());
+    applyPrintTime(response);
     response.setOptions(options == null ? new DnOptions() : options);
 
     // Set company info
@@ -105,6 +110,12 @@ public class DnService {
     response.setLogoUrl(null);
   }
 
+  /** Date and time printed on the DN; refreshed whenever a cached view is served. */
+  public void applyPrintTime(DnViewResponse response) {
+    response.setDate(getCurrentDate());
+    response.setTime(getCurrentTime());
+  }
+
   private String getCurrentDate() {
     java.time.LocalDate today = java.time.LocalDate.now();
     return String.format("%02d/%02d/%d", today.getDayOfMonth(), today.getMonthValue(), today.getYear());
@@ -147,6 +158,7 @@ public class DnService {
     String dnNumber = normalize(request.getDnNumber());
     if (dnNumber != null) {
       String outbound = valueOrDefault(request.getOutboundNumber(), order.getOutboundNumber());
+      movementWriteBuffer.awaitFlushed(outbound);
       List<StockMovement> movements = stockMovementRepository.findBySalesOrder(outbound);
       for (StockMovement movement : movements) {
         movement.setDnNumber(dnNumber);
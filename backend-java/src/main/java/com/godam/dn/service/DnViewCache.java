@@ -0,0 +1,163 @@
+package com.godam.dn.service;
+
+import com.godam.dn.dto.DnItemView;
+import com.godam.dn.dto.DnOptions;
+import com.godam.dn.dto.DnViewResponse;
+import com.godam.dn.dto.DriverPrintDto;
+import com.godam.orders.OrderVersionTracker;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computed DN views and their rendered print HTML, keyed by order and display options. An entry
+ * is served while the {@link OrderVersionTracker} stamp over its order, outbound number and parts
+ * is unchanged. Callers always get a copy stamped with the current print time; the HTML, which
+ * prints that time, is reused only within the same minute.
+ */
+@Component
+public class DnViewCache {
+  private final DnService dnService;
+  private final OrderVersionTracker versionTracker;
+  private final Map<String, Entry> entries;
+  private final AtomicLong viewHits = new AtomicLong();
+  private final AtomicLong viewMisses = new AtomicLong();
+  private final AtomicLong htmlHits = new AtomicLong();
+  private final AtomicLong htmlMisses = new AtomicLong();
+
+  public DnViewCache(
+      DnService dnService,
+      OrderVersionTracker versionTracker,
+      @Value("${godam.dn.view-cache.max-entries:256}") int maxEntries) {
+    this.dnService = dnService;
+    this.versionTracker = versionTracker;
+    int capacity = Math.max(1, maxEntries);
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  public DnViewResponse getView(Long orderId, DnOptions options) {
+    return copyOf(entry(orderId, options).view);
+  }
+
+  public String getPrintHtml(
+      Long orderId, DnOptions options, Function<DnViewResponse, String> renderer) {
+    Entry entry = entry(orderId, options);
+    DnViewResponse view = copyOf(entry.view);
+    String printedAt = view.getDate() + " " + view.getTime();
+    synchronized (entry) {
+      if (entry.html != null && printedAt.equals(entry.htmlPrintedAt)) {
+        htmlHits.incrementAndGet();
+        return entry.html;
+      }
+    }
+    htmlMisses.incrementAndGet();
+    String html = renderer.apply(view);
+    synchronized (entry) {
+      entry.html = html;
+      entry.htmlPrintedAt = printedAt;
+    }
+    return html;
+  }
+
+  public long getViewHits() {
+    return viewHits.get();
+  }
+
+  public long getViewMisses() {
+    return viewMisses.get();
+  }
+
+  public long getHtmlHits() {
+    return htmlHits.get();
+  }
+
+  public long getHtmlMisses() {
+    return htmlMisses.get();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private Entry entry(Long orderId, DnOptions options) {
+    DnOptions resolved = options == null ? new DnOptions() : options;
+    String key = orderId + "|" + optionsKey(resolved);
+    Entry cached;
+    synchronized (this) {
+      cached = entries.get(key);
+    }
+    if (cached != null
+        && versionTracker.stamp(orderId, cached.outboundNumber, cached.partNumbers) == cached.stamp) {
+      viewHits.incrementAndGet();
+      return cached;
+    }
+    viewMisses.incrementAndGet();
+    long sequenceBefore = versionTracker.currentSequence();
+    DnViewResponse view = dnService.getDnView(orderId, resolved);
+    List<String> partNumbers = view.getItems().stream()
+        .map(DnItemView::getPartNumber)
+        .filter(Objects::nonNull)
+        .distinct()
+        .toList();
+    long stamp = versionTracker.stamp(orderId, view.getOutboundNumber(), partNumbers);
+    Entry loaded = new Entry(stamp, view.getOutboundNumber(), partNumbers, view);
+    // A write that committed while the view was loading may or may not be in it.
+    if (stamp <= sequenceBefore) {
+      synchronized (this) {
+        entries.put(key, loaded);
+      }
+    }
+    return loaded;
+  }
+
+  private DnViewResponse copyOf(DnViewResponse view) {
+    DnViewResponse copy = new DnViewResponse();
+    BeanUtils.copyProperties(view, copy);
+    dnService.applyPrintTime(copy);
+    return copy;
+  }
+
+  private static String optionsKey(DnOptions options) {
+    StringBuilder key = new StringBuilder();
+    for (boolean flag : new boolean[] {
+        options.isShowQr(), options.isShowSalesman(), options.isShowProject(),
+        options.isShowPayment(), options.isShowArabic(), options.isShowQrCode(),
+        options.isShowCrNumber(), options.isShowVatInfo(), options.isShowBarcode(),
+        options.isShowCompanyLogo()}) {
+      key.append(flag ? '1' : '0');
+    }
+    if (options.getPrintDrivers() != null) {
+      for (DriverPrintDto driver : options.getPrintDrivers()) {
+        key.append('|').append(driver.getName()).append('/').append(driver.getMobile());
+      }
+    }
+    return key.toString();
+  }
+
+  private static final class Entry {
+    private final long stamp;
+    private final String outboundNumber;
+    private final List<String> partNumbers;
+    private final DnViewResponse view;
+    private String html;
+    private String htmlPrintedAt;
+
+    private Entry(long stamp, String outboundNumber, List<String> partNumbers, DnViewResponse view) {
+      this.stamp = stamp;
+      this.outboundNumber = outboundNumber;
+      this.partNumbers = partNumbers;
+      this.view = view;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.godam.execution;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.datasource.ReadYourWrites;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One isolated pool of offload capacity. Work beyond {@code capacity} (running plus queued) is
+ * rejected straight away rather than waiting, so a burst on one pool cannot hold servlet threads
+ * or spill into another pool.
+ */
+final class Bulkhead {
+  private final String name;
+  private final ExecutorService executor;
+  private final int capacity;
+  private final Semaphore permits;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+
+  Bulkhead(String name, ExecutorService executor, int capacity) {
+    this.name = name;
+    this.executor = executor;
+    this.capacity = Math.max(1, capacity);
+    this.permits = new Semaphore(this.capacity);
+  }
+
+  <T> CompletableFuture<T> submit(Callable<T> work) {
+    if (!permits.tryAcquire()) {
+      throw reject();
+    }
+    Callable<T> task = ReadYourWrites.propagate(work);
+    CompletableFuture<T> future = new CompletableFuture<>();
+    inFlight.incrementAndGet();
+    try {
+      executor.execute(() -> {
+        try {
+          future.complete(task.call());
+        } catch (Throwable ex) {
+          future.completeExceptionally(ex);
+        } finally {
+          inFlight.decrementAndGet();
+          permits.release();
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      inFlight.decrementAndGet();
+      permits.release();
+      throw reject();
+    }
+    return future;
+  }
+
+  private BusinessRuleException reject() {
+    rejected.increment();
+    return new BusinessRuleException(
+        "Server is busy with other " + name + " work; retry in a moment.");
+  }
+
+  String getName() {
+    return name;
+  }
+
+  ExecutorService getExecutor() {
+    return executor;
+  }
+
+  int getCapacity() {
+    return capacity;
+  }
+
+  int getInFlight() {
+    return inFlight.get();
+  }
+
+  long getRejected() {
+    return rejected.sum();
+  }
+
+  double saturation() {
+    return (double) inFlight.get() / capacity;
+  }
+}
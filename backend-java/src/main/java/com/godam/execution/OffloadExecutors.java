@@ -0,0 +1,156 @@
+package com.godam.execution;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulkheaded pools for work that should not run on Tomcat's request threads. Controllers return
+ * the {@link CompletableFuture} so the servlet thread is released while the work runs:
+ *
+ * <ul>
+ *   <li>{@code cpu} for rendering and parsing, sized to the processors so bursts queue instead of
+ *       oversubscribing the machine;
+ *   <li>{@code io} for SMTP, ZIP export and other blocking calls. With
+ *       {@code godam.execution.virtual-threads.enabled} on a JDK that has virtual threads, each
+ *       task gets its own virtual thread and only the concurrency limit bounds the pool.
+ * </ul>
+ *
+ * A full pool rejects with a 409 at once, like the upload job queue.
+ */
+@Component
+public class OffloadExecutors {
+  private static final Logger log = LoggerFactory.getLogger(OffloadExecutors.class);
+
+  private final Bulkhead cpu;
+  private final Bulkhead io;
+  private final boolean ioVirtual;
+  private final VirtualThreadPinningMonitor pinningMonitor;
+
+  public OffloadExecutors(
+      MeterRegistry registry,
+      @Value("${godam.execution.cpu.threads:0}") int cpuThreads,
+      @Value("${godam.execution.cpu.queue-capacity:64}") int cpuQueue,
+      @Value("${godam.execution.io.threads:16}") int ioThreads,
+      @Value("${godam.execution.io.queue-capacity:256}") int ioQueue,
+      @Value("${godam.execution.virtual-threads.enabled:false}") boolean virtualThreads,
+      @Value("${godam.execution.virtual-threads.max-concurrency:512}") int virtualConcurrency,
+      @Value("${godam.execution.virtual-threads.pinned-threshold-ms:20}") long pinnedThresholdMs) {
+    int cpuSize = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+    this.cpu = platformPool("cpu", cpuSize, cpuQueue);
+    ExecutorService virtual = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+    this.ioVirtual = virtual != null;
+    this.io = ioVirtual
+        ? new Bulkhead("io", virtual, virtualConcurrency)
+        : platformPool("io", ioThreads, ioQueue);
+    this.pinningMonitor = ioVirtual
+        ? VirtualThreadPinningMonitor.start(registry, Duration.ofMillis(pinnedThresholdMs))
+        : null;
+    for (Bulkhead bulkhead : List.of(cpu, io)) {
+      bindMetrics(registry, bulkhead);
+    }
+    log.info("Offload pools: cpu={} threads, io={}", cpuSize,
+        ioVirtual ? "virtual threads (max " + io.getCapacity() + ")" : ioThreads + " threads");
+  }
+
+  /** Rendering, parsing and other CPU-bound work. */
+  public <T> CompletableFuture<T> cpu(Callable<T> work) {
+    return cpu.submit(work);
+  }
+
+  /** Blocking I/O: mail, file export, remote calls. */
+  public <T> CompletableFuture<T> io(Callable<T> work) {
+    return io.submit(work);
+  }
+
+  public boolean isIoVirtual() {
+    return ioVirtual;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (pinningMonitor != null) {
+      pinningMonitor.close();
+    }
+    for (Bulkhead bulkhead : List.of(cpu, io)) {
+      bulkhead.getExecutor().shutdown();
+    }
+    for (Bulkhead bulkhead : List.of(cpu, io)) {
+      try {
+        if (!bulkhead.getExecutor().awaitTermination(10, TimeUnit.SECONDS)) {
+          bulkhead.getExecutor().shutdownNow();
+        }
+      } catch (InterruptedException ex) {
+        bulkhead.getExecutor().shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static Bulkhead platformPool(String name, int threads, int queueCapacity) {
+    int poolSize = Math.max(1, threads);
+    int queueSize = Math.max(1, queueCapacity);
+    AtomicInteger threadCounter = new AtomicInteger();
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueSize),
+        runnable -> {
+          Thread thread = new Thread(runnable, "offload-" + name + "-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    return new Bulkhead(name, executor, poolSize + queueSize);
+  }
+
+  // Looked up reflectively so the build keeps targeting Java 17; older JDKs fall back to threads.
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class
+          .getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException ex) {
+      log.warn("Virtual threads requested but not available on Java {}; io pool uses platform threads",
+          Runtime.version().feature());
+      return null;
+    }
+  }
+
+  private static void bindMetrics(MeterRegistry registry, Bulkhead bulkhead) {
+    Tags tags = Tags.of("pool", bulkhead.getName());
+    if (bulkhead.getExecutor() instanceof ThreadPoolExecutor) {
+      new ExecutorServiceMetrics(bulkhead.getExecutor(), "offload-" + bulkhead.getName(), Tags.empty())
+          .bindTo(registry);
+    }
+    Gauge.builder("godam.executor.saturation", bulkhead, Bulkhead::saturation)
+        .tags(tags)
+        .description("Running plus queued offload tasks as a share of the pool's capacity")
+        .register(registry);
+    Gauge.builder("godam.executor.in.flight", bulkhead, Bulkhead::getInFlight)
+        .tags(tags)
+        .register(registry);
+    FunctionCounter.builder("godam.executor.rejected", bulkhead, Bulkhead::getRejected)
+        .tags(tags)
+        .description("Offload tasks turned away because the pool was full")
+        .register(registry);
+  }
+}
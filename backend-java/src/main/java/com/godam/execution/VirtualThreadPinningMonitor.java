@@ -0,0 +1,65 @@
+package com.godam.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event: a virtual thread that blocks inside a
+ * {@code synchronized} block or native frame holds its carrier, which silently caps the io pool
+ * at the carrier count. Each occurrence above the threshold is counted and logged with the frame
+ * that pinned it.
+ */
+final class VirtualThreadPinningMonitor implements AutoCloseable {
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private final RecordingStream stream;
+
+  private VirtualThreadPinningMonitor(RecordingStream stream) {
+    this.stream = stream;
+  }
+
+  static VirtualThreadPinningMonitor start(MeterRegistry registry, Duration threshold) {
+    Counter pinned = Counter.builder("godam.executor.virtual.pinned")
+        .description("Virtual threads that blocked while pinned to their carrier")
+        .register(registry);
+    try {
+      RecordingStream stream = new RecordingStream();
+      stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+      stream.onEvent(PINNED_EVENT, event -> {
+        pinned.increment();
+        log.warn("Virtual thread pinned for {} ms at {}",
+            event.getDuration().toMillis(), topFrame(event));
+      });
+      stream.startAsync();
+      return new VirtualThreadPinningMonitor(stream);
+    } catch (RuntimeException ex) {
+      log.warn("Virtual thread pinning diagnostics unavailable: {}", ex.getMessage());
+      return null;
+    }
+  }
+
+  private static String topFrame(RecordedEvent event) {
+    if (event.getStackTrace() == null) {
+      return "unknown frame";
+    }
+    for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+      if (frame.isJavaFrame()) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+            + ":" + frame.getLineNumber();
+      }
+    }
+    return "unknown frame";
+  }
+
+  @Override
+  public void close() {
+    stream.close();
+  }
+}
@@ -0,0 +1,164 @@
+package com.godam.inbound;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(
+    name = "inbound_receipts",
+    indexes = {
+      @Index(name = "ux_inbound_receipts_number", columnList = "receipt_number", unique = true)
+    })
+public class InboundReceipt {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inbound_receipts_id_gen")
+  @SequenceGenerator(name = "inbound_receipts_id_gen", sequenceName = "inbound_receipts_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "receipt_number", nullable = false)
+  private String receiptNumber;
+
+  @Column(name = "warehouse_no", nullable = false)
+  private String warehouseNo;
+
+  @Column(name = "storage_location")
+  private String storageLocation;
+
+  @Column(name = "vendor_name")
+  private String vendorName;
+
+  @Column(name = "reference")
+  private String reference;
+
+  @Column(name = "dock_rack")
+  private String dockRack;
+
+  @Column(name = "status", nullable = false)
+  private String status;
+
+  @Column(name = "line_count")
+  private int lineCount;
+
+  @Column(name = "total_qty")
+  private long totalQty;
+
+  @Column(name = "received_by")
+  private String receivedBy;
+
+  @Column(name = "received_at")
+  private Instant receivedAt;
+
+  @Column(name = "completed_at")
+  private Instant completedAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getReceiptNumber() {
+    return receiptNumber;
+  }
+
+  public void setReceiptNumber(String receiptNumber) {
+    this.receiptNumber = receiptNumber;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getStorageLocation() {
+    return storageLocation;
+  }
+
+  public void setStorageLocation(String storageLocation) {
+    this.storageLocation = storageLocation;
+  }
+
+  public String getVendorName() {
+    return vendorName;
+  }
+
+  public void setVendorName(String vendorName) {
+    this.vendorName = vendorName;
+  }
+
+  public String getReference() {
+    return reference;
+  }
+
+  public void setReference(String reference) {
+    this.reference = reference;
+  }
+
+  public String getDockRack() {
+    return dockRack;
+  }
+
+  public void setDockRack(String dockRack) {
+    this.dockRack = dockRack;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public void setLineCount(int lineCount) {
+    this.lineCount = lineCount;
+  }
+
+  public long getTotalQty() {
+    return totalQty;
+  }
+
+  public void setTotalQty(long totalQty) {
+    this.totalQty = totalQty;
+  }
+
+  public String getReceivedBy() {
+    return receivedBy;
+  }
+
+  public void setReceivedBy(String receivedBy) {
+    this.receivedBy = receivedBy;
+  }
+
+  public Instant getReceivedAt() {
+    return receivedAt;
+  }
+
+  public void setReceivedAt(Instant receivedAt) {
+    this.receivedAt = receivedAt;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+}
@@ -0,0 +1,164 @@
+package com.godam.inbound;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(
+    name = "inbound_receipt_lines",
+    indexes = {
+      @Index(name = "ux_inbound_receipt_lines_line", columnList = "receipt_id, line_no", unique = true),
+      @Index(name = "ix_inbound_receipt_lines_part", columnList = "receipt_id, part_number")
+    })
+public class InboundReceiptLine {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inbound_receipt_lines_id_gen")
+  @SequenceGenerator(
+      name = "inbound_receipt_lines_id_gen", sequenceName = "inbound_receipt_lines_seq", allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "receipt_id", nullable = false)
+  private InboundReceipt receipt;
+
+  @Column(name = "line_no", nullable = false)
+  private int lineNo;
+
+  @Column(name = "part_number", nullable = false)
+  private String partNumber;
+
+  @Column(name = "description", columnDefinition = "TEXT")
+  private String description;
+
+  @Column(name = "qty", nullable = false)
+  private int qty;
+
+  @Column(name = "putaway_qty", nullable = false)
+  private int putawayQty;
+
+  // The lot created at the dock rack on receipt; putaway moves quantity out of it.
+  @Column(name = "stock_id")
+  private Long stockId;
+
+  @Column(name = "putaway_rack")
+  private String putawayRack;
+
+  @Column(name = "putaway_bin")
+  private String putawayBin;
+
+  @Column(name = "putaway_by")
+  private String putawayBy;
+
+  @Column(name = "putaway_at")
+  private Instant putawayAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public InboundReceipt getReceipt() {
+    return receipt;
+  }
+
+  public void setReceipt(InboundReceipt receipt) {
+    this.receipt = receipt;
+  }
+
+  public int getLineNo() {
+    return lineNo;
+  }
+
+  public void setLineNo(int lineNo) {
+    this.lineNo = lineNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public int getQty() {
+    return qty;
+  }
+
+  public void setQty(int qty) {
+    this.qty = qty;
+  }
+
+  public int getPutawayQty() {
+    return putawayQty;
+  }
+
+  public void setPutawayQty(int putawayQty) {
+    this.putawayQty = putawayQty;
+  }
+
+  public Long getStockId() {
+    return stockId;
+  }
+
+  public void setStockId(Long stockId) {
+    this.stockId = stockId;
+  }
+
+  public String getPutawayRack() {
+    return putawayRack;
+  }
+
+  public void setPutawayRack(String putawayRack) {
+    this.putawayRack = putawayRack;
+  }
+
+  public String getPutawayBin() {
+    return putawayBin;
+  }
+
+  public void setPutawayBin(String putawayBin) {
+    this.putawayBin = putawayBin;
+  }
+
+  public String getPutawayBy() {
+    return putawayBy;
+  }
+
+  public void setPutawayBy(String putawayBy) {
+    this.putawayBy = putawayBy;
+  }
+
+  public Instant getPutawayAt() {
+    return putawayAt;
+  }
+
+  public void setPutawayAt(Instant putawayAt) {
+    this.putawayAt = putawayAt;
+  }
+
+  public int getRemainingQty() {
+    return qty - putawayQty;
+  }
+}
@@ -0,0 +1,46 @@
+package com.godam.inbound.controller;
+
+import com.godam.inbound.dto.InboundPutawayRequest;
+import com.godam.inbound.dto.InboundPutawayResultDto;
+import com.godam.inbound.dto.InboundReceiptDto;
+import com.godam.inbound.dto.InboundReceiptRequest;
+import com.godam.inbound.service.InboundReceivingService;
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/inbound", "/api/inbound"})
+public class InboundController {
+  private final InboundReceivingService inboundReceivingService;
+
+  public InboundController(InboundReceivingService inboundReceivingService) {
+    this.inboundReceivingService = inboundReceivingService;
+  }
+
+  @PostMapping("/receipts")
+  public InboundReceiptDto receive(@RequestBody InboundReceiptRequest request) {
+    return inboundReceivingService.receive(request);
+  }
+
+  @GetMapping("/receipts")
+  public List<InboundReceiptDto> listOpenReceipts() {
+    return inboundReceivingService.listOpenReceipts();
+  }
+
+  @GetMapping("/receipts/{receiptId}")
+  public InboundReceiptDto getReceipt(@PathVariable("receiptId") Long receiptId) {
+    return inboundReceivingService.getReceipt(receiptId);
+  }
+
+  @PostMapping("/receipts/{receiptId}/putaway")
+  public InboundPutawayResultDto putaway(
+      @PathVariable("receiptId") Long receiptId,
+      @RequestBody InboundPutawayRequest request) {
+    return inboundReceivingService.putaway(receiptId, request);
+  }
+}
@@ -0,0 +1,49 @@
+package com.godam.inbound.dto;
+
+public class InboundPutawayLineRequest {
+  private Integer lineNo;
+  private String partNumber;
+  private Integer qty;
+  private String rack;
+  private String bin;
+
+  public Integer getLineNo() {
+    return lineNo;
+  }
+
+  public void setLineNo(Integer lineNo) {
+    this.lineNo = lineNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public Integer getQty() {
+    return qty;
+  }
+
+  public void setQty(Integer qty) {
+    this.qty = qty;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+}
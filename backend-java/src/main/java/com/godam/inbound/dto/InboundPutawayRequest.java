@@ -0,0 +1,24 @@
+package com.godam.inbound.dto;
+
+import java.util.List;
+
+public class InboundPutawayRequest {
+  private String putawayBy;
+  private List<InboundPutawayLineRequest> lines;
+
+  public String getPutawayBy() {
+    return putawayBy;
+  }
+
+  public void setPutawayBy(String putawayBy) {
+    this.putawayBy = putawayBy;
+  }
+
+  public List<InboundPutawayLineRequest> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<InboundPutawayLineRequest> lines) {
+    this.lines = lines;
+  }
+}
@@ -0,0 +1,78 @@
+package com.godam.inbound.dto;
+
+import java.util.List;
+
+public class InboundPutawayResultDto {
+  private Long receiptId;
+  private String receiptNumber;
+  private String status;
+  private int putawayLines;
+  private long putawayQty;
+  private long openLines;
+  private long elapsedMs;
+  private List<InboundReceiptLineDto> lines;
+
+  public Long getReceiptId() {
+    return receiptId;
+  }
+
+  public void setReceiptId(Long receiptId) {
+    this.receiptId = receiptId;
+  }
+
+  public String getReceiptNumber() {
+    return receiptNumber;
+  }
+
+  public void setReceiptNumber(String receiptNumber) {
+    this.receiptNumber = receiptNumber;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public int getPutawayLines() {
+    return putawayLines;
+  }
+
+  public void setPutawayLines(int putawayLines) {
+    this.putawayLines = putawayLines;
+  }
+
+  public long getPutawayQty() {
+    return putawayQty;
+  }
+
+  public void setPutawayQty(long putawayQty) {
+    this.putawayQty = putawayQty;
+  }
+
+  public long getOpenLines() {
+    return openLines;
+  }
+
+  public void setOpenLines(long openLines) {
+    this.openLines = openLines;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public void setElapsedMs(long elapsedMs) {
+    this.elapsedMs = elapsedMs;
+  }
+
+  public List<InboundReceiptLineDto> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<InboundReceiptLineDto> lines) {
+    this.lines = lines;
+  }
+}
@@ -0,0 +1,142 @@
+package com.godam.inbound.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class InboundReceiptDto {
+  private Long id;
+  private String receiptNumber;
+  private String warehouseNo;
+  private String storageLocation;
+  private String vendorName;
+  private String reference;
+  private String dockRack;
+  private String status;
+  private int lineCount;
+  private long totalQty;
+  private String receivedBy;
+  private Instant receivedAt;
+  private Instant completedAt;
+  private long elapsedMs;
+  private List<InboundReceiptLineDto> lines;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getReceiptNumber() {
+    return receiptNumber;
+  }
+
+  public void setReceiptNumber(String receiptNumber) {
+    this.receiptNumber = receiptNumber;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getStorageLocation() {
+    return storageLocation;
+  }
+
+  public void setStorageLocation(String storageLocation) {
+    this.storageLocation = storageLocation;
+  }
+
+  public String getVendorName() {
+    return vendorName;
+  }
+
+  public void setVendorName(String vendorName) {
+    this.vendorName = vendorName;
+  }
+
+  public String getReference() {
+    return reference;
+  }
+
+  public void setReference(String reference) {
+    this.reference = reference;
+  }
+
+  public String getDockRack() {
+    return dockRack;
+  }
+
+  public void setDockRack(String dockRack) {
+    this.dockRack = dockRack;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public void setLineCount(int lineCount) {
+    this.lineCount = lineCount;
+  }
+
+  public long getTotalQty() {
+    return totalQty;
+  }
+
+  public void setTotalQty(long totalQty) {
+    this.totalQty = totalQty;
+  }
+
+  public String getReceivedBy() {
+    return receivedBy;
+  }
+
+  public void setReceivedBy(String receivedBy) {
+    this.receivedBy = receivedBy;
+  }
+
+  public Instant getReceivedAt() {
+    return receivedAt;
+  }
+
+  public void setReceivedAt(Instant receivedAt) {
+    this.receivedAt = receivedAt;
+  }
+
+  public Instant getCompletedAt() {
+    return completedAt;
+  }
+
+  public void setCompletedAt(Instant completedAt) {
+    this.completedAt = completedAt;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public void setElapsedMs(long elapsedMs) {
+    this.elapsedMs = elapsedMs;
+  }
+
+  public List<InboundReceiptLineDto> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<InboundReceiptLineDto> lines) {
+    this.lines = lines;
+  }
+}
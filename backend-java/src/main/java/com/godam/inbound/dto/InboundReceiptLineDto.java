@@ -0,0 +1,85 @@
+package com.godam.inbound.dto;
+
+public class InboundReceiptLineDto {
+  private Long id;
+  private int lineNo;
+  private String partNumber;
+  private String description;
+  private int qty;
+  private int putawayQty;
+  private int remainingQty;
+  private String putawayRack;
+  private String putawayBin;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public int getLineNo() {
+    return lineNo;
+  }
+
+  public void setLineNo(int lineNo) {
+    this.lineNo = lineNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public int getQty() {
+    return qty;
+  }
+
+  public void setQty(int qty) {
+    this.qty = qty;
+  }
+
+  public int getPutawayQty() {
+    return putawayQty;
+  }
+
+  public void setPutawayQty(int putawayQty) {
+    this.putawayQty = putawayQty;
+  }
+
+  public int getRemainingQty() {
+    return remainingQty;
+  }
+
+  public void setRemainingQty(int remainingQty) {
+    this.remainingQty = remainingQty;
+  }
+
+  public String getPutawayRack() {
+    return putawayRack;
+  }
+
+  public void setPutawayRack(String putawayRack) {
+    this.putawayRack = putawayRack;
+  }
+
+  public String getPutawayBin() {
+    return putawayBin;
+  }
+
+  public void setPutawayBin(String putawayBin) {
+    this.putawayBin = putawayBin;
+  }
+}
@@ -0,0 +1,78 @@
+package com.godam.inbound.dto;
+
+import java.util.List;
+
+public class InboundReceiptRequest {
+  private String receiptNumber;
+  private String warehouseNo;
+  private String storageLocation;
+  private String vendorName;
+  private String reference;
+  private String dockRack;
+  private String receivedBy;
+  private List<InboundReceiptLineRequest> lines;
+
+  public String getReceiptNumber() {
+    return receiptNumber;
+  }
+
+  public void setReceiptNumber(String receiptNumber) {
+    this.receiptNumber = receiptNumber;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getStorageLocation() {
+    return storageLocation;
+  }
+
+  public void setStorageLocation(String storageLocation) {
+    this.storageLocation = storageLocation;
+  }
+
+  public String getVendorName() {
+    return vendorName;
+  }
+
+  public void setVendorName(String vendorName) {
+    this.vendorName = vendorName;
+  }
+
+  public String getReference() {
+    return reference;
+  }
+
+  public void setReference(String reference) {
+    this.reference = reference;
+  }
+
+  public String getDockRack() {
+    return dockRack;
+  }
+
+  public void setDockRack(String dockRack) {
+    this.dockRack = dockRack;
+  }
+
+  public String getReceivedBy() {
+    return receivedBy;
+  }
+
+  public void setReceivedBy(String receivedBy) {
+    this.receivedBy = receivedBy;
+  }
+
+  public List<InboundReceiptLineRequest> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<InboundReceiptLineRequest> lines) {
+    this.lines = lines;
+  }
+}
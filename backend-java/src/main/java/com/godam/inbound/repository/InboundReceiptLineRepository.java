@@ -0,0 +1,20 @@
+package com.godam.inbound.repository;
+
+import com.godam.inbound.InboundReceiptLine;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InboundReceiptLineRepository extends JpaRepository<InboundReceiptLine, Long> {
+  List<InboundReceiptLine> findByReceipt_IdOrderByLineNoAsc(Long receiptId);
+
+  List<InboundReceiptLine> findByReceipt_IdAndLineNoIn(Long receiptId, Collection<Integer> lineNos);
+
+  List<InboundReceiptLine> findByReceipt_IdAndPartNumberInOrderByLineNoAsc(
+      Long receiptId, Collection<String> partNumbers);
+
+  @Query("select count(l) from InboundReceiptLine l where l.receipt.id = :receiptId and l.putawayQty < l.qty")
+  long countOpenLines(@Param("receiptId") Long receiptId);
+}
@@ -0,0 +1,21 @@
+package com.godam.inbound.repository;
+
+import com.godam.inbound.InboundReceipt;
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InboundReceiptRepository extends JpaRepository<InboundReceipt, Long> {
+  boolean existsByReceiptNumber(String receiptNumber);
+
+  List<InboundReceipt> findByStatusInOrderByReceivedAtDesc(List<String> statuses);
+
+  /** Serializes putaway calls on one receipt; scanners on different receipts do not wait. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select r from InboundReceipt r where r.id = :id")
+  Optional<InboundReceipt> findForUpdate(@Param("id") Long id);
+}
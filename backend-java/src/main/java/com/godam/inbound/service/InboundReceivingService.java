@@ -0,0 +1,523 @@
+package com.godam.inbound.service;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.ResourceNotFoundException;
+import com.godam.common.exception.StockValidationException;
+import com.godam.inbound.InboundReceipt;
+import com.godam.inbound.InboundReceiptLine;
+import com.godam.inbound.dto.InboundPutawayLineRequest;
+import com.godam.inbound.dto.InboundPutawayRequest;
+import com.godam.inbound.dto.InboundPutawayResultDto;
+import com.godam.inbound.dto.InboundReceiptDto;
+import com.godam.inbound.dto.InboundReceiptLineDto;
+import com.godam.inbound.dto.InboundReceiptLineRequest;
+import com.godam.inbound.dto.InboundReceiptRequest;
+import com.godam.inbound.repository.InboundReceiptLineRepository;
+import com.godam.inbound.repository.InboundReceiptRepository;
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.service.StockMovementService;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ASN-style receiving and putaway. A receipt books every line as a stock lot on the dock rack with
+ * an I201 movement, and putaway moves quantity from those lots to storage racks with I202. Both
+ * run in one transaction per call and write in JDBC batches, so a container with thousands of
+ * lines costs a few hundred round trips rather than several per line.
+ */
+@Service
+public class InboundReceivingService {
+  static final String STATUS_RECEIVED = "RECEIVED";
+  static final String STATUS_PARTIALLY_PUT_AWAY = "PARTIALLY_PUT_AWAY";
+  static final String STATUS_PUT_AWAY = "PUT_AWAY";
+  private static final int IN_CLAUSE_CHUNK = 1000;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final InboundReceiptRepository receiptRepository;
+  private final InboundReceiptLineRepository lineRepository;
+  private final StockRepository stockRepository;
+  private final StockMovementService stockMovementService;
+  private final StockChangeListener stockChangeListener;
+  private final UploadValidationPipeline uploadValidationPipeline;
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+  private final int maxLines;
+  private final String defaultDockRack;
+
+  public InboundReceivingService(
+      InboundReceiptRepository receiptRepository,
+      InboundReceiptLineRepository lineRepository,
+      StockRepository stockRepository,
+      StockMovementService stockMovementService,
+      StockChangeListener stockChangeListener,
+      UploadValidationPipeline uploadValidationPipeline,
+      JdbcTemplate jdbcTemplate,
+      @Value("${godam.inbound.batch-size:500}") int batchSize,
+      @Value("${godam.inbound.max-lines:20000}") int maxLines,
+      @Value("${godam.inbound.dock-rack:DOCK}") String defaultDockRack) {
+    this.receiptRepository = receiptRepository;
+    this.lineRepository = lineRepository;
+    this.stockRepository = stockRepository;
+    this.stockMovementService = stockMovementService;
+    this.stockChangeListener = stockChangeListener;
+    this.uploadValidationPipeline = uploadValidationPipeline;
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = Math.max(1, batchSize);
+    this.maxLines = Math.max(1, maxLines);
+    this.defaultDockRack = defaultDockRack;
+  }
+
+  @Transactional
+  @Timed("godam.inbound.receive")
+  public InboundReceiptDto receive(InboundReceiptRequest request) {
+    long startedAt = System.nanoTime();
+    List<InboundReceiptLineRequest> lines = validateReceipt(request);
+    String receiptNumber = request.getReceiptNumber().trim();
+    if (receiptRepository.existsByReceiptNumber(receiptNumber)) {
+      throw new BusinessRuleException("Receipt " + receiptNumber + " was already received");
+    }
+    Map<String, Stock> masters = prefetchMasters(request.getWarehouseNo(), lines);
+
+    Instant now = Instant.now();
+    InboundReceipt receipt = new InboundReceipt();
+    receipt.setReceiptNumber(receiptNumber);
+    receipt.setWarehouseNo(request.getWarehouseNo());
+    receipt.setStorageLocation(request.getStorageLocation());
+    receipt.setVendorName(request.getVendorName());
+    receipt.setReference(request.getReference());
+    receipt.setDockRack(isBlank(request.getDockRack()) ? defaultDockRack : request.getDockRack().trim());
+    receipt.setStatus(STATUS_RECEIVED);
+    receipt.setLineCount(lines.size());
+    receipt.setTotalQty(lines.stream().mapToLong(InboundReceiptLineRequest::getQty).sum());
+    receipt.setReceivedBy(request.getReceivedBy());
+    receipt.setReceivedAt(now);
+    receiptRepository.save(receipt);
+    Long receiptId = receipt.getId();
+
+    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+    for (int from = 0; from < lines.size(); from += batchSize) {
+      InboundReceipt owner = entityManager.getReference(InboundReceipt.class, receiptId);
+      List<InboundReceiptLineRequest> chunk = lines.subList(from, Math.min(lines.size(), from + batchSize));
+      List<Stock> lots = new ArrayList<>(chunk.size());
+      for (InboundReceiptLineRequest line : chunk) {
+        lots.add(newLot(receipt, line, masters.get(line.getPartNumber()), now));
+      }
+      stockRepository.saveAll(lots);
+
+      List<InboundReceiptLine> entities = new ArrayList<>(chunk.size());
+      List<StockMovement> movements = new ArrayList<>(chunk.size());
+      for (int i = 0; i < chunk.size(); i++) {
+        InboundReceiptLineRequest line = chunk.get(i);
+        Stock lot = lots.get(i);
+        InboundReceiptLine entity = new InboundReceiptLine();
+        entity.setReceipt(owner);
+        entity.setLineNo(line.getLineNo());
+        entity.setPartNumber(line.getPartNumber());
+        entity.setDescription(lot.getDescription());
+        entity.setQty(line.getQty());
+        entity.setStockId(lot.getId());
+        entities.add(entity);
+        movements.add(movement(MovementType.I201_INBOUND_RECEIVED, lot, line.getQty(), receiptNumber,
+            line.getLineNo(), lot.getRack(), lot.getBin(), null, null, now));
+      }
+      lineRepository.saveAll(entities);
+      stockMovementService.logMovements(movements);
+      // Keep the persistence context to one chunk so flush-time dirty checking stays flat.
+      entityManager.flush();
+      entityManager.clear();
+    }
+
+    InboundReceiptDto dto = toDto(receipt);
+    dto.setElapsedMs((System.nanoTime() - startedAt) / 1_000_000);
+    return dto;
+  }
+
+  /**
+   * Confirms any number of scanned lines. Each names a receipt line by number, or by part number
+   * for the first line of that part with quantity left, and moves the quantity (all that is left
+   * by default) from the dock lot to a new lot on the target rack that keeps the received
+   * timestamp, so FIFO order is unchanged. Emptied dock lots are removed.
+   */
+  @Transactional
+  @Timed("godam.inbound.putaway")
+  public InboundPutawayResultDto putaway(Long receiptId, InboundPutawayRequest request) {
+    long startedAt = System.nanoTime();
+    InboundReceipt receipt = receiptRepository.findForUpdate(receiptId)
+        .orElseThrow(() -> new ResourceNotFoundException("Inbound receipt not found"));
+    List<InboundPutawayLineRequest> scans = validatePutaway(request);
+    Map<Integer, InboundReceiptLine> byLineNo = new HashMap<>();
+    Map<String, List<InboundReceiptLine>> byPart = new HashMap<>();
+    loadPutawayLines(receiptId, scans, byLineNo, byPart);
+
+    Set<Long> lotIds = new HashSet<>();
+    byLineNo.values().forEach(line -> lotIds.add(line.getStockId()));
+    byPart.values().forEach(lines -> lines.forEach(line -> lotIds.add(line.getStockId())));
+    lotIds.remove(null);
+    Map<Long, Stock> lots = new HashMap<>();
+    for (Stock lot : stockRepository.findAllById(lotIds)) {
+      lots.put(lot.getId(), lot);
+    }
+
+    Instant now = Instant.now();
+    Map<Long, Integer> taken = new LinkedHashMap<>();
+    Map<Long, InboundReceiptLine> touched = new LinkedHashMap<>();
+    List<Stock> placed = new ArrayList<>(scans.size());
+    List<StockMovement> movements = new ArrayList<>(scans.size());
+    long putawayQty = 0;
+    for (int i = 0; i < scans.size(); i++) {
+      InboundPutawayLineRequest scan = scans.get(i);
+      InboundReceiptLine line = resolveLine(scan, byLineNo, byPart);
+      if (line == null) {
+        throw new StockValidationException("Putaway row " + (i + 1) + ": no open line on receipt "
+            + receipt.getReceiptNumber() + " for " + describe(scan));
+      }
+      int qty = scan.getQty() == null ? line.getRemainingQty() : scan.getQty();
+      if (qty <= 0 || qty > line.getRemainingQty()) {
+        throw new StockValidationException("Putaway row " + (i + 1) + ": line " + line.getLineNo()
+            + " has " + line.getRemainingQty() + " left to put away");
+      }
+      Stock lot = lots.get(line.getStockId());
+      if (lot == null) {
+        throw new StockValidationException("Dock stock for line " + line.getLineNo() + " no longer exists");
+      }
+      String rack = scan.getRack().trim();
+      String bin = isBlank(scan.getBin()) ? null : scan.getBin().trim();
+      line.setPutawayQty(line.getPutawayQty() + qty);
+      line.setPutawayRack(rack);
+      line.setPutawayBin(bin);
+      line.setPutawayBy(request.getPutawayBy());
+      line.setPutawayAt(now);
+      touched.put(line.getId(), line);
+      taken.merge(lot.getId(), qty, Integer::sum);
+      placed.add(relocated(lot, qty, rack, bin));
+      movements.add(movement(MovementType.I202_PUTAWAY, lot, qty, receipt.getReceiptNumber(), line.getLineNo(),
+          rack, bin, lot.getRack(), rack, now));
+      putawayQty += qty;
+    }
+
+    takeFromDock(taken, lots);
+    stockRepository.saveAll(placed);
+    stockMovementService.logMovements(movements);
+
+    long openLines = lineRepository.countOpenLines(receiptId);
+    receipt.setStatus(openLines == 0 ? STATUS_PUT_AWAY : STATUS_PARTIALLY_PUT_AWAY);
+    receipt.setCompletedAt(openLines == 0 ? now : null);
+
+    InboundPutawayResultDto result = new InboundPutawayResultDto();
+    result.setReceiptId(receipt.getId());
+    result.setReceiptNumber(receipt.getReceiptNumber());
+    result.setStatus(receipt.getStatus());
+    result.setPutawayLines(scans.size());
+    result.setPutawayQty(putawayQty);
+    result.setOpenLines(openLines);
+    result.setLines(touched.values().stream().map(this::toLineDto).toList());
+    result.setElapsedMs((System.nanoTime() - startedAt) / 1_000_000);
+    return result;
+  }
+
+  @Transactional(readOnly = true)
+  public InboundReceiptDto getReceipt(Long receiptId) {
+    InboundReceipt receipt = receiptRepository.findById(receiptId)
+        .orElseThrow(() -> new ResourceNotFoundException("Inbound receipt not found"));
+    InboundReceiptDto dto = toDto(receipt);
+    dto.setLines(lineRepository.findByReceipt_IdOrderByLineNoAsc(receiptId).stream().map(this::toLineDto).toList());
+    return dto;
+  }
+
+  @Transactional(readOnly = true)
+  public List<InboundReceiptDto> listOpenReceipts() {
+    return receiptRepository
+        .findByStatusInOrderByReceivedAtDesc(List.of(STATUS_RECEIVED, STATUS_PARTIALLY_PUT_AWAY))
+        .stream()
+        .map(this::toDto)
+        .toList();
+  }
+
+  private List<InboundReceiptLineRequest> validateReceipt(InboundReceiptRequest request) {
+    if (request == null || isBlank(request.getReceiptNumber())) {
+      throw new StockValidationException("Receipt number is required");
+    }
+    if (isBlank(request.getWarehouseNo())) {
+      throw new StockValidationException("Warehouse is required");
+    }
+    List<InboundReceiptLineRequest> lines = request.getLines();
+    if (lines == null || lines.isEmpty()) {
+      throw new StockValidationException("Receipt has no lines");
+    }
+    if (lines.size() > maxLines) {
+      throw new StockValidationException("Receipt has " + lines.size() + " lines; the limit is " + maxLines);
+    }
+    validateColumn("receipt_number", request.getReceiptNumber(), null);
+    validateColumn("warehouse_no", request.getWarehouseNo(), null);
+    validateColumn("storage_location", request.getStorageLocation(), null);
+    validateColumn("vendor_name", request.getVendorName(), null);
+    validateColumn("reference", request.getReference(), null);
+    validateColumn("rack", request.getDockRack(), null);
+    Set<Integer> lineNos = new HashSet<>();
+    for (int i = 0; i < lines.size(); i++) {
+      InboundReceiptLineRequest line = lines.get(i);
+      int row = i + 1;
+      if (line.getLineNo() == null) {
+        line.setLineNo(row);
+      }
+      if (!lineNos.add(line.getLineNo())) {
+        throw new StockValidationException("Line " + line.getLineNo() + " appears more than once");
+      }
+      if (isBlank(line.getPartNumber())) {
+        throw new StockValidationException("Line " + line.getLineNo() + ": part number is required");
+      }
+      if (line.getQty() == null || line.getQty() <= 0) {
+        throw new StockValidationException("Line " + line.getLineNo() + ": qty must be greater than zero");
+      }
+      line.setPartNumber(line.getPartNumber().trim());
+      validateColumn("part_number", line.getPartNumber(), row);
+      validateColumn("description", line.getDescription(), row);
+      validateColumn("uom", line.getUom(), row);
+    }
+    return lines;
+  }
+
+  private List<InboundPutawayLineRequest> validatePutaway(InboundPutawayRequest request) {
+    List<InboundPutawayLineRequest> scans = request == null ? null : request.getLines();
+    if (scans == null || scans.isEmpty()) {
+      throw new StockValidationException("Putaway has no lines");
+    }
+    for (int i = 0; i < scans.size(); i++) {
+      InboundPutawayLineRequest scan = scans.get(i);
+      int row = i + 1;
+      if (scan.getLineNo() == null && isBlank(scan.getPartNumber())) {
+        throw new StockValidationException("Putaway row " + row + ": line number or part number is required");
+      }
+      if (isBlank(scan.getRack())) {
+        throw new StockValidationException("Putaway row " + row + ": target rack is required");
+      }
+      validateColumn("rack", scan.getRack(), row);
+      validateColumn("bin", scan.getBin(), row);
+    }
+    return scans;
+  }
+
+  private void loadPutawayLines(
+      Long receiptId,
+      List<InboundPutawayLineRequest> scans,
+      Map<Integer, InboundReceiptLine> byLineNo,
+      Map<String, List<InboundReceiptLine>> byPart) {
+    Set<Integer> lineNos = new HashSet<>();
+    Set<String> partNumbers = new HashSet<>();
+    for (InboundPutawayLineRequest scan : scans) {
+      if (scan.getLineNo() != null) {
+        lineNos.add(scan.getLineNo());
+      } else {
+        partNumbers.add(scan.getPartNumber().trim());
+      }
+    }
+    if (!lineNos.isEmpty()) {
+      for (InboundReceiptLine line : lineRepository.findByReceipt_IdAndLineNoIn(receiptId, lineNos)) {
+        byLineNo.put(line.getLineNo(), line);
+      }
+    }
+    if (!partNumbers.isEmpty()) {
+      for (InboundReceiptLine line
+          : lineRepository.findByReceipt_IdAndPartNumberInOrderByLineNoAsc(receiptId, partNumbers)) {
+        byPart.computeIfAbsent(line.getPartNumber(), key -> new ArrayList<>()).add(line);
+      }
+    }
+  }
+
+  private InboundReceiptLine resolveLine(
+      InboundPutawayLineRequest scan,
+      Map<Integer, InboundReceiptLine> byLineNo,
+      Map<String, List<InboundReceiptLine>> byPart) {
+    if (scan.getLineNo() != null) {
+      return byLineNo.get(scan.getLineNo());
+    }
+    for (InboundReceiptLine line : byPart.getOrDefault(scan.getPartNumber().trim(), List.of())) {
+      if (line.getRemainingQty() > 0) {
+        return line;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Takes the put-away quantity off the dock lots in one batch. Picks may have drawn on a dock lot
+   * meanwhile, so each decrement only applies while the lot still holds enough.
+   */
+  private void takeFromDock(Map<Long, Integer> taken, Map<Long, Stock> lots) {
+    List<Object[]> decrements = new ArrayList<>(taken.size());
+    List<Object[]> emptied = new ArrayList<>(taken.size());
+    for (Map.Entry<Long, Integer> entry : taken.entrySet()) {
+      decrements.add(new Object[] {entry.getValue(), entry.getKey(), entry.getValue()});
+      emptied.add(new Object[] {entry.getKey()});
+    }
+    int[] updated = jdbcTemplate.batchUpdate("update stock set qty = qty - ? where id = ? and qty >= ?", decrements);
+    int index = 0;
+    for (Map.Entry<Long, Integer> entry : taken.entrySet()) {
+      if (updated[index++] == 0) {
+        Stock lot = lots.get(entry.getKey());
+        throw new StockValidationException("Dock stock of part " + lot.getPartNumber() + " on rack " + lot.getRack()
+            + " holds less than " + entry.getValue() + "; it was picked from before putaway");
+      }
+    }
+    jdbcTemplate.batchUpdate("delete from stock where id = ? and qty = 0", emptied);
+    List<RowState> states = new ArrayList<>(taken.size());
+    for (Long lotId : taken.keySet()) {
+      Stock lot = lots.get(lotId);
+      states.add(RowState.touched(lot.getId(), lot.getPartNumber(), lot.getParentPn()));
+    }
+    stockChangeListener.invalidate(states);
+  }
+
+  private Map<String, Stock> prefetchMasters(String warehouseNo, List<InboundReceiptLineRequest> lines) {
+    Set<String> partNumbers = new HashSet<>();
+    lines.forEach(line -> partNumbers.add(line.getPartNumber()));
+    List<String> parts = new ArrayList<>(partNumbers);
+    Map<String, Stock> masters = new HashMap<>();
+    for (int from = 0; from < parts.size(); from += IN_CLAUSE_CHUNK) {
+      List<String> chunk = parts.subList(from, Math.min(parts.size(), from + IN_CLAUSE_CHUNK));
+      for (Stock row : stockRepository.findByWarehouseNoAndPartNumberIn(warehouseNo, chunk)) {
+        Stock known = masters.get(row.getPartNumber());
+        if (known == null || (isBlank(known.getDescription()) && !isBlank(row.getDescription()))) {
+          masters.put(row.getPartNumber(), row);
+        }
+      }
+    }
+    entityManager.clear();
+    return masters;
+  }
+
+  private Stock newLot(InboundReceipt receipt, InboundReceiptLineRequest line, Stock master, Instant now) {
+    Stock lot = new Stock();
+    lot.setWarehouseNo(receipt.getWarehouseNo());
+    lot.setStorageLocation(receipt.getStorageLocation());
+    lot.setPartNumber(line.getPartNumber());
+    lot.setQty(line.getQty());
+    lot.setRack(receipt.getDockRack());
+    lot.setDescription(isBlank(line.getDescription()) && master != null ? master.getDescription() : line.getDescription());
+    String uom = isBlank(line.getUom()) && master != null ? master.getUom() : line.getUom();
+    lot.setUom(isBlank(uom) ? "EA" : uom);
+    lot.setVendorName(isBlank(receipt.getVendorName()) && master != null ? master.getVendorName() : receipt.getVendorName());
+    if (master != null) {
+      lot.setSapPn(master.getSapPn());
+      lot.setCategory(master.getCategory());
+      lot.setSubCategory(master.getSubCategory());
+    }
+    lot.setBaseQty(1.0);
+    lot.setReceivedAt(now);
+    lot.setCreatedAt(now);
+    return lot;
+  }
+
+  private Stock relocated(Stock lot, int qty, String rack, String bin) {
+    Stock row = new Stock();
+    row.setWarehouseNo(lot.getWarehouseNo());
+    row.setStorageLocation(lot.getStorageLocation());
+    row.setPartNumber(lot.getPartNumber());
+    row.setSapPn(lot.getSapPn());
+    row.setDescription(lot.getDescription());
+    row.setUom(lot.getUom());
+    row.setVendorName(lot.getVendorName());
+    row.setCategory(lot.getCategory());
+    row.setSubCategory(lot.getSubCategory());
+    row.setBaseQty(lot.getBaseQty());
+    row.setQty(qty);
+    row.setRack(rack);
+    row.setBin(bin);
+    row.setReceivedAt(lot.getReceivedAt());
+    row.setCreatedAt(lot.getCreatedAt());
+    return row;
+  }
+
+  private StockMovement movement(
+      MovementType type,
+      Stock lot,
+      int qty,
+      String receiptNumber,
+      int lineNo,
+      String rack,
+      String bin,
+      String suggestedRack,
+      String actualRack,
+      Instant now) {
+    StockMovement movement = new StockMovement();
+    movement.setMovementType(type);
+    movement.setWarehouseNo(lot.getWarehouseNo());
+    movement.setStorageLocation(lot.getStorageLocation());
+    movement.setPartNumber(lot.getPartNumber());
+    movement.setQtyChange(qty);
+    movement.setRack(rack);
+    movement.setBin(bin);
+    movement.setSuggestedRack(suggestedRack);
+    movement.setActualRack(actualRack);
+    movement.setReference(receiptNumber);
+    movement.setRemark("line " + lineNo);
+    movement.setCreatedAt(now);
+    return movement;
+  }
+
+  private InboundReceiptDto toDto(InboundReceipt receipt) {
+    InboundReceiptDto dto = new InboundReceiptDto();
+    dto.setId(receipt.getId());
+    dto.setReceiptNumber(receipt.getReceiptNumber());
+    dto.setWarehouseNo(receipt.getWarehouseNo());
+    dto.setStorageLocation(receipt.getStorageLocation());
+    dto.setVendorName(receipt.getVendorName());
+    dto.setReference(receipt.getReference());
+    dto.setDockRack(receipt.getDockRack());
+    dto.setStatus(receipt.getStatus());
+    dto.setLineCount(receipt.getLineCount());
+    dto.setTotalQty(receipt.getTotalQty());
+    dto.setReceivedBy(receipt.getReceivedBy());
+    dto.setReceivedAt(receipt.getReceivedAt());
+    dto.setCompletedAt(receipt.getCompletedAt());
+    return dto;
+  }
+
+  private InboundReceiptLineDto toLineDto(InboundReceiptLine line) {
+    InboundReceiptLineDto dto = new InboundReceiptLineDto();
+    dto.setId(line.getId());
+    dto.setLineNo(line.getLineNo());
+    dto.setPartNumber(line.getPartNumber());
+    dto.setDescription(line.getDescription());
+    dto.setQty(line.getQty());
+    dto.setPutawayQty(line.getPutawayQty());
+    dto.setRemainingQty(line.getRemainingQty());
+    dto.setPutawayRack(line.getPutawayRack());
+    dto.setPutawayBin(line.getPutawayBin());
+    return dto;
+  }
+
+  private String describe(InboundPutawayLineRequest scan) {
+    return scan.getLineNo() != null ? "line " + scan.getLineNo() : "part " + scan.getPartNumber();
+  }
+
+  private void validateColumn(String columnName, String value, Integer rowNumber) {
+    uploadValidationPipeline.validate(columnName, value, rowNumber);
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+}
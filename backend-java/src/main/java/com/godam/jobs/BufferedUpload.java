@@ -0,0 +1,68 @@
+package com.godam.jobs;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import org.springframework.web.multipart.MultipartFile;
+
+/** In-memory copy of a multipart upload that outlives the request it arrived with. */
+public class BufferedUpload implements MultipartFile {
+  private final String name;
+  private final String originalFilename;
+  private final String contentType;
+  private final byte[] content;
+
+  private BufferedUpload(String name, String originalFilename, String contentType, byte[] content) {
+    this.name = name;
+    this.originalFilename = originalFilename;
+    this.contentType = contentType;
+    this.content = content;
+  }
+
+  public static BufferedUpload of(MultipartFile file) throws IOException {
+    return new BufferedUpload(
+        file.getName(), file.getOriginalFilename(), file.getContentType(), file.getBytes());
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public String getOriginalFilename() {
+    return originalFilename;
+  }
+
+  @Override
+  public String getContentType() {
+    return contentType;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return content.length == 0;
+  }
+
+  @Override
+  public long getSize() {
+    return content.length;
+  }
+
+  @Override
+  public byte[] getBytes() {
+    return content.clone();
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public void transferTo(File dest) throws IOException {
+    Files.write(dest.toPath(), content);
+  }
+}
@@ -0,0 +1,9 @@
+package com.godam.jobs;
+
+public enum JobPhase {
+  QUEUED,
+  PARSE,
+  VALIDATE,
+  COMMIT,
+  DONE
+}
@@ -0,0 +1,29 @@
+package com.godam.jobs;
+
+/**
+ * Progress sink handed to long running uploads. Row counters are per phase and an upload reports
+ * {@link JobPhase#DONE} once it has finished; implementations must tolerate calls from several
+ * threads.
+ */
+public interface JobProgress {
+  JobProgress NONE = new JobProgress() {
+    @Override
+    public void phase(JobPhase phase, long totalRows) {
+    }
+
+    @Override
+    public void advance(long rows) {
+    }
+
+    @Override
+    public void checkCancelled() {
+    }
+  };
+
+  void phase(JobPhase phase, long totalRows);
+
+  void advance(long rows);
+
+  /** Throws {@link JobCancelledException} once cancellation was requested. */
+  void checkCancelled();
+}
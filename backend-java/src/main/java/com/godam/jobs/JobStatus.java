@@ -0,0 +1,9 @@
+package com.godam.jobs;
+
+public enum JobStatus {
+  QUEUED,
+  RUNNING,
+  SUCCEEDED,
+  FAILED,
+  CANCELLED
+}
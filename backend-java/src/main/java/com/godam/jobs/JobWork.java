@@ -0,0 +1,6 @@
+package com.godam.jobs;
+
+@FunctionalInterface
+public interface JobWork<T> {
+  T run(JobProgress progress) throws Exception;
+}
@@ -0,0 +1,155 @@
+package com.godam.jobs;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** State of one submitted upload; status changes are serialized on the job itself. */
+public class UploadJob implements JobProgress {
+  private final String id = UUID.randomUUID().toString();
+  private final String type;
+  private final Instant submittedAt = Instant.now();
+  private final AtomicLong rowsProcessed = new AtomicLong();
+  private volatile JobStatus status = JobStatus.QUEUED;
+  private volatile JobPhase phase = JobPhase.QUEUED;
+  private volatile long rowsTotal;
+  private volatile long phaseStartedNanos = System.nanoTime();
+  private volatile boolean cancelRequested;
+  private volatile Instant startedAt;
+  private volatile Instant finishedAt;
+  private volatile Object result;
+  private volatile String errorMessage;
+  private volatile Future<?> future;
+
+  UploadJob(String type) {
+    this.type = type;
+  }
+
+  @Override
+  public void phase(JobPhase phase, long totalRows) {
+    checkCancelled();
+    this.rowsTotal = Math.max(0, totalRows);
+    this.rowsProcessed.set(0);
+    this.phaseStartedNanos = System.nanoTime();
+    this.phase = phase;
+  }
+
+  @Override
+  public void advance(long rows) {
+    rowsProcessed.addAndGet(rows);
+  }
+
+  @Override
+  public void checkCancelled() {
+    if (cancelRequested || Thread.currentThread().isInterrupted()) {
+      throw new JobCancelledException("Upload job " + id + " was cancelled");
+    }
+  }
+
+  synchronized boolean start() {
+    if (status != JobStatus.QUEUED) {
+      return false;
+    }
+    status = JobStatus.RUNNING;
+    startedAt = Instant.now();
+    return true;
+  }
+
+  synchronized void succeed(Object result) {
+    this.result = result;
+    finish(JobStatus.SUCCEEDED);
+  }
+
+  synchronized void fail(String errorMessage) {
+    this.errorMessage = errorMessage;
+    finish(JobStatus.FAILED);
+  }
+
+  synchronized void cancelled() {
+    finish(JobStatus.CANCELLED);
+  }
+
+  /** Queued jobs are cancelled at once; running jobs stop at their next progress check. */
+  synchronized void requestCancel() {
+    if (isFinished()) {
+      return;
+    }
+    cancelRequested = true;
+    if (status == JobStatus.QUEUED) {
+      Future<?> pending = future;
+      if (pending != null) {
+        pending.cancel(false);
+      }
+      finish(JobStatus.CANCELLED);
+    }
+  }
+
+  private void finish(JobStatus finalStatus) {
+    status = finalStatus;
+    if (finalStatus == JobStatus.SUCCEEDED) {
+      phase = JobPhase.DONE;
+    }
+    finishedAt = Instant.now();
+  }
+
+  boolean isFinished() {
+    return status == JobStatus.SUCCEEDED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+  }
+
+  void setFuture(Future<?> future) {
+    this.future = future;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  public JobStatus getStatus() {
+    return status;
+  }
+
+  public JobPhase getPhase() {
+    return phase;
+  }
+
+  public long getRowsTotal() {
+    return rowsTotal;
+  }
+
+  public long getRowsProcessed() {
+    return rowsProcessed.get();
+  }
+
+  public long getPhaseStartedNanos() {
+    return phaseStartedNanos;
+  }
+
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public Object getResult() {
+    return result;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+}
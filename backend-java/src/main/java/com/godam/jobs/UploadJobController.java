@@ -0,0 +1,33 @@
+package com.godam.jobs;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/jobs", "/api/jobs"})
+public class UploadJobController {
+  private final UploadJobService uploadJobService;
+
+  public UploadJobController(UploadJobService uploadJobService) {
+    this.uploadJobService = uploadJobService;
+  }
+
+  @GetMapping
+  public List<UploadJobDto> listJobs() {
+    return uploadJobService.listJobs();
+  }
+
+  @GetMapping("/{id}")
+  public UploadJobDto getJob(@PathVariable("id") String id) {
+    return uploadJobService.getJob(id);
+  }
+
+  @PostMapping("/{id}/cancel")
+  public UploadJobDto cancel(@PathVariable("id") String id) {
+    return uploadJobService.cancel(id);
+  }
+}
@@ -0,0 +1,150 @@
+package com.godam.jobs;
+
+import java.time.Instant;
+
+public class UploadJobDto {
+  private String id;
+  private String type;
+  private JobStatus status;
+  private JobPhase phase;
+  private boolean cancelRequested;
+  private long rowsTotal;
+  private long rowsProcessed;
+  private double percentComplete;
+  private double rowsPerSecond;
+  private Long etaSeconds;
+  private Instant submittedAt;
+  private Instant startedAt;
+  private Instant finishedAt;
+  private long elapsedMs;
+  private String errorMessage;
+  private Object result;
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public JobStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(JobStatus status) {
+    this.status = status;
+  }
+
+  public JobPhase getPhase() {
+    return phase;
+  }
+
+  public void setPhase(JobPhase phase) {
+    this.phase = phase;
+  }
+
+  public boolean isCancelRequested() {
+    return cancelRequested;
+  }
+
+  public void setCancelRequested(boolean cancelRequested) {
+    this.cancelRequested = cancelRequested;
+  }
+
+  public long getRowsTotal() {
+    return rowsTotal;
+  }
+
+  public void setRowsTotal(long rowsTotal) {
+    this.rowsTotal = rowsTotal;
+  }
+
+  public long getRowsProcessed() {
+    return rowsProcessed;
+  }
+
+  public void setRowsProcessed(long rowsProcessed) {
+    this.rowsProcessed = rowsProcessed;
+  }
+
+  public double getPercentComplete() {
+    return percentComplete;
+  }
+
+  public void setPercentComplete(double percentComplete) {
+    this.percentComplete = percentComplete;
+  }
+
+  public double getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  public void setRowsPerSecond(double rowsPerSecond) {
+    this.rowsPerSecond = rowsPerSecond;
+  }
+
+  public Long getEtaSeconds() {
+    return etaSeconds;
+  }
+
+  public void setEtaSeconds(Long etaSeconds) {
+    this.etaSeconds = etaSeconds;
+  }
+
+  public Instant getSubmittedAt() {
+    return submittedAt;
+  }
+
+  public void setSubmittedAt(Instant submittedAt) {
+    this.submittedAt = submittedAt;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(Instant startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Instant finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public void setElapsedMs(long elapsedMs) {
+    this.elapsedMs = elapsedMs;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public Object getResult() {
+    return result;
+  }
+
+  public void setResult(Object result) {
+    this.result = result;
+  }
+}
@@ -0,0 +1,163 @@
+package com.godam.jobs;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs large uploads off the servlet thread. Jobs go to a fixed pool with a bounded queue so a
+ * burst of submissions is rejected instead of piling up; finished jobs are kept in memory for the
+ * retention window so clients can collect the result.
+ */
+@Service
+public class UploadJobService {
+  private static final Logger log = LoggerFactory.getLogger(UploadJobService.class);
+
+  private final UploadPhaseMetrics uploadPhaseMetrics;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, UploadJob> jobs = new ConcurrentHashMap<>();
+  private final Duration retention;
+
+  public UploadJobService(
+      UploadPhaseMetrics uploadPhaseMetrics,
+      @Value("${godam.jobs.workers:2}") int workers,
+      @Value("${godam.jobs.queue-capacity:16}") int queueCapacity,
+      @Value("${godam.jobs.retention-minutes:60}") long retentionMinutes) {
+    this.uploadPhaseMetrics = uploadPhaseMetrics;
+    AtomicInteger threadCounter = new AtomicInteger();
+    int poolSize = Math.max(1, workers);
+    this.executor = new ThreadPoolExecutor(
+        poolSize,
+        poolSize,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+        runnable -> {
+          Thread thread = new Thread(runnable, "upload-job-" + threadCounter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.retention = Duration.ofMinutes(Math.max(1, retentionMinutes));
+  }
+
+  public <T> UploadJobDto submit(String type, JobWork<T> work) {
+    evictExpired();
+    UploadJob job = new UploadJob(type);
+    jobs.put(job.getId(), job);
+    try {
+      job.setFuture(executor.submit(() -> execute(job, work)));
+    } catch (RejectedExecutionException ex) {
+      jobs.remove(job.getId());
+      throw new BusinessRuleException("Upload job queue is full; retry once running uploads finish.");
+    }
+    return toDto(job);
+  }
+
+  public UploadJobDto getJob(String id) {
+    return toDto(find(id));
+  }
+
+  public List<UploadJobDto> listJobs() {
+    evictExpired();
+    return jobs.values().stream()
+        .sorted(Comparator.comparing(UploadJob::getSubmittedAt).reversed())
+        .map(this::toDto)
+        .collect(Collectors.toList());
+  }
+
+  public UploadJobDto cancel(String id) {
+    UploadJob job = find(id);
+    job.requestCancel();
+    return toDto(job);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private <T> void execute(UploadJob job, JobWork<T> work) {
+    if (!job.start()) {
+      return;
+    }
+    long startedAt = System.nanoTime();
+    try {
+      job.succeed(work.run(uploadPhaseMetrics.track(job.getType(), job)));
+    } catch (JobCancelledException ex) {
+      job.cancelled();
+    } catch (Exception ex) {
+      log.warn("Upload job {} ({}) failed", job.getId(), job.getType(), ex);
+      job.fail(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+    }
+    log.info("Upload job {} ({}) finished {} in {} ms", job.getId(), job.getType(), job.getStatus(),
+        (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  private UploadJob find(String id) {
+    UploadJob job = jobs.get(id);
+    if (job == null) {
+      throw new ResourceNotFoundException("Upload job not found: " + id);
+    }
+    return job;
+  }
+
+  private void evictExpired() {
+    Instant cutoff = Instant.now().minus(retention);
+    jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+  }
+
+  private UploadJobDto toDto(UploadJob job) {
+    UploadJobDto dto = new UploadJobDto();
+    dto.setId(job.getId());
+    dto.setType(job.getType());
+    dto.setStatus(job.getStatus());
+    dto.setPhase(job.getPhase());
+    dto.setCancelRequested(job.isCancelRequested());
+    dto.setSubmittedAt(job.getSubmittedAt());
+    dto.setStartedAt(job.getStartedAt());
+    dto.setFinishedAt(job.getFinishedAt());
+    dto.setErrorMessage(job.getErrorMessage());
+    dto.setResult(job.getResult());
+
+    long total = job.getRowsTotal();
+    long processed = Math.min(job.getRowsProcessed(), total > 0 ? total : Long.MAX_VALUE);
+    dto.setRowsTotal(total);
+    dto.setRowsProcessed(processed);
+    if (job.getPhase() == JobPhase.DONE) {
+      dto.setPercentComplete(100.0);
+    } else if (total > 0) {
+      dto.setPercentComplete(Math.round(processed * 1000.0 / total) / 10.0);
+    }
+    // Throughput and ETA describe the current phase only; phases move at very different speeds.
+    if (job.getStatus() == JobStatus.RUNNING) {
+      long phaseNanos = System.nanoTime() - job.getPhaseStartedNanos();
+      double rowsPerSecond = phaseNanos <= 0 ? 0 : processed * 1_000_000_000d / phaseNanos;
+      dto.setRowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0);
+      if (rowsPerSecond > 0 && total > 0) {
+        dto.setEtaSeconds((long) Math.ceil((total - processed) / rowsPerSecond));
+      }
+    }
+    Instant start = job.getStartedAt();
+    if (start != null) {
+      Instant end = job.getFinishedAt() == null ? Instant.now() : job.getFinishedAt();
+      dto.setElapsedMs(Math.max(0, Duration.between(start, end).toMillis()));
+    }
+    return dto;
+  }
+}
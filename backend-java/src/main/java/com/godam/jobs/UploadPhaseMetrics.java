@@ -0,0 +1,87 @@
+package com.godam.jobs;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Locale;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long each upload phase takes ({@code godam.upload.phase}) and how many rows it
+ * processed ({@code godam.upload.rows}); the rate of the row counter is the phase throughput.
+ * A phase is timed until the next {@link JobProgress#phase} call, so uploads report
+ * {@link JobPhase#DONE} when they finish.
+ */
+@Component
+public class UploadPhaseMetrics {
+  private final MeterRegistry registry;
+
+  public UploadPhaseMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public JobProgress track(String upload) {
+    return track(upload, JobProgress.NONE);
+  }
+
+  public JobProgress track(String upload, JobProgress delegate) {
+    return new PhaseTracker(upload.toLowerCase(Locale.ROOT), delegate);
+  }
+
+  private final class PhaseTracker implements JobProgress {
+    private final String upload;
+    private final JobProgress delegate;
+    private volatile Counter rows;
+    private JobPhase current;
+    private Timer.Sample sample;
+
+    private PhaseTracker(String upload, JobProgress delegate) {
+      this.upload = upload;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void phase(JobPhase phase, long totalRows) {
+      delegate.phase(phase, totalRows);
+      synchronized (this) {
+        if (sample != null) {
+          sample.stop(Timer.builder("godam.upload.phase")
+              .description("Time spent in one phase of an upload")
+              .tag("upload", upload)
+              .tag("phase", tagValue(current))
+              .register(registry));
+          sample = null;
+        }
+        if (phase == JobPhase.DONE) {
+          rows = null;
+          return;
+        }
+        current = phase;
+        sample = Timer.start(registry);
+        rows = Counter.builder("godam.upload.rows")
+            .description("Rows processed by an upload phase")
+            .tag("upload", upload)
+            .tag("phase", tagValue(phase))
+            .register(registry);
+      }
+    }
+
+    @Override
+    public void advance(long count) {
+      delegate.advance(count);
+      Counter counter = rows;
+      if (counter != null) {
+        counter.increment(count);
+      }
+    }
+
+    @Override
+    public void checkCancelled() {
+      delegate.checkCancelled();
+    }
+
+    private String tagValue(JobPhase phase) {
+      return phase.name().toLowerCase(Locale.ROOT);
+    }
+  }
+}
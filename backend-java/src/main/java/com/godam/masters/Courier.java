@@ -2,6 +2,7 @@ package com.godam.masters;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,6 +10,7 @@ import jakarta.persistence.Table;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(MasterDataChangeListener.class)
 @Table(name = "courier_master")
 public class Courier {
   @Id
@@ -0,0 +1,73 @@
+package com.godam.masters;
+
+import com.godam.masters.service.MasterDataCache;
+import com.godam.masters.service.MasterDataCache.Kind;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.util.EnumSet;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bumps the master-data version once the transaction that wrote a driver, transporter, courier or
+ * customer completes, so lists cached while it was open are dropped.
+ */
+@Component
+public class MasterDataChangeListener {
+  private static final Object PENDING_KEY = MasterDataChangeListener.class.getName() + ".pending";
+
+  private final ObjectProvider<MasterDataCache> masterDataCache;
+
+  public MasterDataChangeListener(ObjectProvider<MasterDataCache> masterDataCache) {
+    this.masterDataCache = masterDataCache;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onWrite(Object entity) {
+    Kind kind = kindOf(entity);
+    if (kind == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      masterDataCache.ifAvailable(cache -> cache.bump(kind));
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<Kind> pending = (Set<Kind>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+      pending = kinds;
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, kinds);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+          masterDataCache.ifAvailable(cache -> kinds.forEach(cache::bump));
+        }
+      });
+    }
+    pending.add(kind);
+  }
+
+  private static Kind kindOf(Object entity) {
+    if (entity instanceof Driver) {
+      return Kind.DRIVERS;
+    }
+    if (entity instanceof Transporter) {
+      return Kind.TRANSPORTERS;
+    }
+    if (entity instanceof Courier) {
+      return Kind.COURIERS;
+    }
+    if (entity instanceof Customer) {
+      return Kind.CUSTOMERS;
+    }
+    return null;
+  }
+}
@@ -5,10 +5,13 @@ import com.godam.masters.Courier;
 import com.godam.masters.dto.CourierDto;
 import com.godam.masters.dto.CourierRequest;
 import com.godam.masters.repository.CourierRepository;
+import com.godam.masters.service.MasterDataCache;
+import com.godam.masters.service.MasterDataCache.Kind;
 import jakarta.validation.Valid;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,26 +21,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/couriers")
 public class CourierController {
   private final CourierRepository courierRepository;
+  private final MasterDataCache masterDataCache;
 
-  public CourierController(CourierRepository courierRepository) {
+  public CourierController(CourierRepository courierRepository, MasterDataCache masterDataCache) {
     this.courierRepository = courierRepository;
+    this.masterDataCache = masterDataCache;
   }
 
   @GetMapping
-  public List<CourierDto> list(@RequestParam(name = "q", required = false) String query) {
-    List<Courier> rows = query == null || query.isBlank()
-        ? courierRepository.findAll()
-        : courierRepository.search(query.trim());
-    List<CourierDto> result = new ArrayList<>();
-    for (Courier courier : rows) {
-      result.add(toDto(courier));
-    }
-    return result;
+  public ResponseEntity<List<CourierDto>> list(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(Kind.COURIERS, "couriers:" + query, request, () -> {
+      List<Courier> rows = query == null || query.isBlank()
+          ? courierRepository.findAll()
+          : courierRepository.search(query.trim());
+      List<CourierDto> result = new ArrayList<>();
+      for (Courier courier : rows) {
+        result.add(toDto(courier));
+      }
+      return result;
+    });
   }
 
   @PostMapping
@@ -1,25 +1,45 @@
 package com.godam.masters.controller;
 
+import com.godam.execution.OffloadExecutors;
+import com.godam.jobs.BufferedUpload;
+import com.godam.jobs.UploadJobDto;
+import com.godam.jobs.UploadJobService;
+import com.godam.jobs.UploadPhaseMetrics;
 import com.godam.masters.dto.CustomerImportResultDto;
 import com.godam.masters.service.CustomerImportService;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerImportController {
+  private static final String IMPORT_UPLOAD = "CUSTOMER_IMPORT";
+
   private final CustomerImportService customerImportService;
+  private final UploadJobService uploadJobService;
+  private final UploadPhaseMetrics uploadPhaseMetrics;
+  private final OffloadExecutors offloadExecutors;
 
-  public CustomerImportController(CustomerImportService customerImportService) {
+  public CustomerImportController(
+      CustomerImportService customerImportService,
+      UploadJobService uploadJobService,
+      UploadPhaseMetrics uploadPhaseMetrics,
+      OffloadExecutors offloadExecutors) {
     this.customerImportService = customerImportService;
+    this.uploadJobService = uploadJobService;
+    this.uploadPhaseMetrics = uploadPhaseMetrics;
+    this.offloadExecutors = offloadExecutors;
   }
 
   @GetMapping("/template")
@@ -36,8 +56,19 @@ public class CustomerImportController {
   }
 
   @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-  public CustomerImportResultDto importCustomers(@RequestParam("file") MultipartFile file)
+  public CompletableFuture<CustomerImportResultDto> importCustomers(
+      @RequestParam("file") MultipartFile file) throws IOException {
+    BufferedUpload upload = BufferedUpload.of(file);
+    return offloadExecutors.cpu(() ->
+        customerImportService.importCustomers(upload, uploadPhaseMetrics.track(IMPORT_UPLOAD)));
+  }
+
+  @PostMapping(value = "/import/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public UploadJobDto importCustomersAsync(@RequestParam("file") MultipartFile file)
       throws IOException {
-    return customerImportService.importCustomers(file);
+    BufferedUpload upload = BufferedUpload.of(file);
+    return uploadJobService.submit(
+        IMPORT_UPLOAD, progress -> customerImportService.importCustomers(upload, progress));
   }
 }
@@ -1,15 +1,19 @@
 package com.godam.masters.controller;
 
+import com.godam.execution.OffloadExecutors;
 import com.godam.masters.dto.AdminDeleteRequest;
 import com.godam.masters.dto.DriverCreateRequest;
 import com.godam.masters.dto.DriverDto;
 import com.godam.masters.dto.DriverExportRequest;
 import com.godam.masters.dto.TransporterCreateRequest;
 import com.godam.masters.dto.TransporterDto;
+import com.godam.masters.service.MasterDataCache;
+import com.godam.masters.service.MasterDataCache.Kind;
 import com.godam.masters.service.MastersService;
 import jakarta.validation.Valid;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -23,6 +27,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
@@ -30,19 +35,30 @@ import org.springframework.web.multipart.MultipartFile;
 @Validated
 public class MastersController {
   private final MastersService mastersService;
+  private final MasterDataCache masterDataCache;
+  private final OffloadExecutors offloadExecutors;
 
-  public MastersController(MastersService mastersService) {
+  public MastersController(
+      MastersService mastersService,
+      MasterDataCache masterDataCache,
+      OffloadExecutors offloadExecutors) {
     this.mastersService = mastersService;
+    this.masterDataCache = masterDataCache;
+    this.offloadExecutors = offloadExecutors;
   }
 
   @GetMapping("/drivers")
-  public List<DriverDto> listDrivers(@RequestParam(name = "q", required = false) String query) {
-    return mastersService.searchDrivers(query);
+  public ResponseEntity<List<DriverDto>> listDrivers(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(
+        Kind.DRIVERS, "masters:" + query, request, () -> mastersService.searchDrivers(query));
   }
 
   @GetMapping("/drivers/search")
-  public List<DriverDto> searchDrivers(@RequestParam(name = "q", required = false) String query) {
-    return mastersService.searchDrivers(query);
+  public ResponseEntity<List<DriverDto>> searchDrivers(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(
+        Kind.DRIVERS, "masters:" + query, request, () -> mastersService.searchDrivers(query));
   }
 
   @PostMapping("/drivers")
@@ -75,22 +91,29 @@ public class MastersController {
   }
 
   @PostMapping("/drivers/export")
-  public ResponseEntity<byte[]> exportDrivers(@RequestBody DriverExportRequest request) throws IOException {
-    byte[] zip = mastersService.exportDrivers(request);
-    HttpHeaders headers = new HttpHeaders();
-    headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-    headers.setContentDispositionFormData("attachment", "drivers-export.zip");
-    return ResponseEntity.ok().headers(headers).body(zip);
+  public CompletableFuture<ResponseEntity<byte[]>> exportDrivers(
+      @RequestBody DriverExportRequest request) {
+    return offloadExecutors.io(() -> {
+      byte[] zip = mastersService.exportDrivers(request);
+      HttpHeaders headers = new HttpHeaders();
+      headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+      headers.setContentDispositionFormData("attachment", "drivers-export.zip");
+      return ResponseEntity.ok().headers(headers).body(zip);
+    });
   }
 
   @GetMapping("/transporters")
-  public List<TransporterDto> listTransporters(@RequestParam(name = "q", required = false) String query) {
-    return mastersService.searchTransporters(query);
+  public ResponseEntity<List<TransporterDto>> listTransporters(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(
+        Kind.TRANSPORTERS, "masters:" + query, request, () -> mastersService.searchTransporters(query));
   }
 
   @GetMapping("/transporters/search")
-  public List<TransporterDto> searchTransporters(@RequestParam(name = "q", required = false) String query) {
-    return mastersService.searchTransporters(query);
+  public ResponseEntity<List<TransporterDto>> searchTransporters(
+      @RequestParam(name = "q", required = false) String query, WebRequest request) {
+    return masterDataCache.respond(
+        Kind.TRANSPORTERS, "masters:" + query, request, () -> mastersService.searchTransporters(query));
   }
 
   @PostMapping("/transporters")
@@ -1,6 +1,7 @@
 package com.godam.masters.repository;
 
 import com.godam.masters.Customer;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -16,6 +17,9 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
   List<Customer> findAllBySapCustomerIdIgnoreCase(String sapCustomerId);
 
+  @Query("select c from Customer c where lower(c.sapCustomerId) in :sapCustomerIds")
+  List<Customer> findBySapCustomerIdLowerIn(@Param("sapCustomerIds") Collection<String> sapCustomerIds);
+
   @Query(
       "select c from Customer c where c.active = true and " +
       "(lower(c.name) like lower(concat('%', :query, '%')) " +
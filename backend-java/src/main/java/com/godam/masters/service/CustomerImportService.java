@@ -1,5 +1,7 @@
 package com.godam.masters.service;
 
+import com.godam.jobs.JobPhase;
+import com.godam.jobs.JobProgress;
 import com.godam.masters.Customer;
 import com.godam.masters.dto.CustomerImportErrorDto;
 import com.godam.masters.dto.CustomerImportResultDto;
@@ -33,6 +35,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -50,7 +53,15 @@ public class CustomerImportService {
     Files.createDirectories(this.uploadDirectory);
   }
 
+  @Transactional
   public CustomerImportResultDto importCustomers(MultipartFile file) throws IOException {
+    return importCustomers(file, JobProgress.NONE);
+  }
+
+  @Transactional
+  public CustomerImportResultDto importCustomers(MultipartFile file, JobProgress progress)
+      throws IOException {
+    progress.phase(JobPhase.PARSE, 0);
     String storedPath = storeFile(file);
     List<CustomerImportErrorDto> errors = new ArrayList<>();
     int imported = 0;
@@ -89,7 +100,10 @@ public class CustomerImportService {
         return new CustomerImportResultDto(total, imported, errors, storedPath);
       }
 
+      progress.phase(JobPhase.VALIDATE, Math.max(0, sheet.getLastRowNum()));
       while (iterator.hasNext()) {
+        progress.checkCancelled();
+        progress.advance(1);
         Row row = iterator.next();
         total++;
         String sapCustomerId = getCellValue(row, sapIdIndex);
@@ -133,14 +147,19 @@ public class CustomerImportService {
       }
     }
     if (!errors.isEmpty()) {
+      progress.phase(JobPhase.DONE, 0);
       return new CustomerImportResultDto(total, imported, errors, storedPath);
     }
 
+    progress.phase(JobPhase.COMMIT, pendingCustomers.size());
     for (Customer customer : pendingCustomers) {
+      progress.checkCancelled();
       customerRepository.save(customer);
       imported++;
+      progress.advance(1);
     }
 
+    progress.phase(JobPhase.DONE, 0);
     return new CustomerImportResultDto(total, imported, errors, storedPath);
   }
 
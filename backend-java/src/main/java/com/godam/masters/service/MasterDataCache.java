@@ -0,0 +1,169 @@
+package com.godam.masters.service;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Drivers, transporters, couriers and customers for the DN forms. Each kind carries a version that
+ * {@link com.godam.masters.MasterDataChangeListener} bumps after every committed write; cached
+ * lists are only served while their version is current, and the version doubles as the ETag so
+ * conditional GETs are answered without reading the database.
+ */
+@Component
+public class MasterDataCache {
+  public enum Kind {
+    DRIVERS,
+    TRANSPORTERS,
+    COURIERS,
+    CUSTOMERS
+  }
+
+  // Versions restart with the process; the boot id keeps old ETags from matching new data.
+  private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+  private final Map<Kind, KindState> states = new EnumMap<>(Kind.class);
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong notModified = new AtomicLong();
+
+  public MasterDataCache(@Value("${godam.masters.cache.max-entries:64}") int maxEntries) {
+    Instant now = Instant.now();
+    for (Kind kind : Kind.values()) {
+      states.put(kind, new KindState(Math.max(1, maxEntries), now));
+    }
+  }
+
+  /**
+   * Answers a list GET for {@code kind}: 304 when the client's ETag or Last-Modified is still
+   * current, otherwise the cached list for {@code key}, loading it on a miss.
+   */
+  public <T> ResponseEntity<List<T>> respond(
+      Kind kind, String key, WebRequest request, Supplier<List<T>> loader) {
+    Version version = states.get(kind).version();
+    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+    if (request.checkNotModified(etag(kind, version), version.lastModified.toEpochMilli())) {
+      notModified.incrementAndGet();
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+    return ResponseEntity.ok().cacheControl(cacheControl).body(get(kind, key, loader));
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> List<T> get(Kind kind, String key, Supplier<List<T>> loader) {
+    KindState state = states.get(kind);
+    String normalizedKey = key == null ? "" : key.trim();
+    Version version = state.version();
+    List<?> cached = state.lookup(normalizedKey, version);
+    if (cached != null) {
+      hits.incrementAndGet();
+      return (List<T>) cached;
+    }
+    misses.incrementAndGet();
+    // Tagged with the version seen before loading, so a write that lands mid-load is not masked.
+    List<T> loaded = List.copyOf(loader.get());
+    state.store(normalizedKey, version, loaded);
+    return loaded;
+  }
+
+  public void bump(Kind kind) {
+    states.get(kind).bump();
+  }
+
+  public long getVersion(Kind kind) {
+    return states.get(kind).version().number;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getNotModified() {
+    return notModified.get();
+  }
+
+  public int size() {
+    int size = 0;
+    for (KindState state : states.values()) {
+      size += state.size();
+    }
+    return size;
+  }
+
+  private String etag(Kind kind, Version version) {
+    return "\"" + kind.name().toLowerCase() + "-" + bootId + "-" + version.number + "\"";
+  }
+
+  private static final class Version {
+    private final long number;
+    private final Instant lastModified;
+
+    private Version(long number, Instant lastModified) {
+      this.number = number;
+      this.lastModified = lastModified;
+    }
+  }
+
+  private static final class Entry {
+    private final long version;
+    private final List<?> value;
+
+    private Entry(long version, List<?> value) {
+      this.version = version;
+      this.value = value;
+    }
+  }
+
+  private static final class KindState {
+    private final Map<String, Entry> entries;
+    private volatile Version version;
+
+    private KindState(int maxEntries, Instant created) {
+      this.version = new Version(1, created);
+      this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+          return size() > maxEntries;
+        }
+      };
+    }
+
+    private Version version() {
+      return version;
+    }
+
+    private synchronized List<?> lookup(String key, Version current) {
+      Entry entry = entries.get(key);
+      return entry != null && entry.version == current.number ? entry.value : null;
+    }
+
+    private synchronized void store(String key, Version loadedAt, List<?> value) {
+      if (loadedAt.number == version.number) {
+        entries.put(key, new Entry(loadedAt.number, value));
+      }
+    }
+
+    private synchronized void bump() {
+      version = new Version(version.number + 1, Instant.now());
+      entries.clear();
+    }
+
+    private synchronized int size() {
+      return entries.size();
+    }
+  }
+}
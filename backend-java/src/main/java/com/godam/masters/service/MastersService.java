@@ -17,6 +17,8 @@ import com.godam.orders.OrderAdminAction;
 import com.godam.orders.OrderAdminAudit;
 import com.godam.orders.repository.OrderAdminAuditRepository;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -51,6 +53,7 @@ public class MastersService {
   private final PasswordEncoder passwordEncoder;
   private final Path driverUploadDirectory;
   private final DateTimeFormatter dateFormatter = DateTimeFormatter.ISO_DATE;
+  private final Timer driverPdfTimer;
 
   public MastersService(
       DriverRepository driverRepository,
@@ -58,6 +61,7 @@ public class MastersService {
       OrderAdminAuditRepository orderAdminAuditRepository,
       UserRepository userRepository,
       PasswordEncoder passwordEncoder,
+      MeterRegistry registry,
       @Value("${godam.drivers.upload-dir:uploads/drivers}") String uploadDir) throws IOException {
     this.driverRepository = driverRepository;
     this.transporterRepository = transporterRepository;
@@ -66,6 +70,10 @@ public class MastersService {
     this.passwordEncoder = passwordEncoder;
     this.driverUploadDirectory = Path.of(uploadDir).toAbsolutePath().normalize();
     Files.createDirectories(this.driverUploadDirectory);
+    this.driverPdfTimer = Timer.builder("godam.pdf.render")
+        .description("Template and PDF rendering time")
+        .tag("document", "driver")
+        .register(registry);
   }
 
   @Transactional(readOnly = true)
@@ -271,7 +279,7 @@ public class MastersService {
       zip.closeEntry();
 
       for (Driver driver : drivers) {
-        byte[] pdf = buildDriverPdf(driver);
+        byte[] pdf = driverPdfTimer.record(() -> buildDriverPdf(driver));
         if (pdf.length == 0) {
           continue;
         }
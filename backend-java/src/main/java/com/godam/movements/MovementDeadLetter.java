@@ -0,0 +1,146 @@
+package com.godam.movements;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A buffered movement whose insert failed after its caller had committed. The full row is kept as
+ * JSON in {@code payload} until a replay writes it to {@code stock_movements}.
+ */
+@Entity
+@Table(name = "stock_movement_dead_letters")
+public class MovementDeadLetter {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_dead_letters_id_gen")
+  @SequenceGenerator(
+      name = "stock_movement_dead_letters_id_gen",
+      sequenceName = "stock_movement_dead_letters_seq",
+      allocationSize = 1)
+  private Long id;
+
+  @Convert(converter = MovementTypeConverter.class)
+  @Column(name = "movement_type", length = 20)
+  private MovementType movementType;
+
+  @Column(name = "warehouse_no")
+  private String warehouseNo;
+
+  @Column(name = "part_number")
+  private String partNumber;
+
+  @Column(name = "sales_order")
+  private String salesOrder;
+
+  @Column(name = "qty_change")
+  private int qtyChange;
+
+  @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+  private String payload;
+
+  @Column(name = "error_message", columnDefinition = "TEXT")
+  private String errorMessage;
+
+  @Column(name = "attempts", nullable = false)
+  private int attempts;
+
+  @Column(name = "failed_at", nullable = false)
+  private Instant failedAt;
+
+  @Column(name = "last_attempt_at")
+  private Instant lastAttemptAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public MovementType getMovementType() {
+    return movementType;
+  }
+
+  public void setMovementType(MovementType movementType) {
+    this.movementType = movementType;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getSalesOrder() {
+    return salesOrder;
+  }
+
+  public void setSalesOrder(String salesOrder) {
+    this.salesOrder = salesOrder;
+  }
+
+  public int getQtyChange() {
+    return qtyChange;
+  }
+
+  public void setQtyChange(int qtyChange) {
+    this.qtyChange = qtyChange;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public void setPayload(String payload) {
+    this.payload = payload;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public Instant getFailedAt() {
+    return failedAt;
+  }
+
+  public void setFailedAt(Instant failedAt) {
+    this.failedAt = failedAt;
+  }
+
+  public Instant getLastAttemptAt() {
+    return lastAttemptAt;
+  }
+
+  public void setLastAttemptAt(Instant lastAttemptAt) {
+    this.lastAttemptAt = lastAttemptAt;
+  }
+}
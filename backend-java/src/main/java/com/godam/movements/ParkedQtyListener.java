@@ -0,0 +1,77 @@
+package com.godam.movements;
+
+import com.godam.stock.service.StockSummaryIndex;
+import com.godam.stock.service.StockSummaryIndex.ParkedChange;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Forwards picked and checked movement writes to {@link StockSummaryIndex} once the surrounding
+ * transaction commits. Inserts and deletes carry their qty; updates only mark the part for a re-read
+ * since the previous qty and type are no longer known.
+ */
+@Component
+public class ParkedQtyListener {
+  private static final Object PENDING_KEY = ParkedQtyListener.class.getName() + ".pending";
+
+  private final ObjectProvider<StockSummaryIndex> summaryIndex;
+
+  public ParkedQtyListener(ObjectProvider<StockSummaryIndex> summaryIndex) {
+    this.summaryIndex = summaryIndex;
+  }
+
+  @PostPersist
+  public void onInsert(StockMovement movement) {
+    if (isParked(movement)) {
+      record(ParkedChange.delta(movement.getWarehouseNo(), movement.getPartNumber(), movement.getQtyChange()));
+    }
+  }
+
+  @PostRemove
+  public void onRemove(StockMovement movement) {
+    if (isParked(movement)) {
+      record(ParkedChange.delta(movement.getWarehouseNo(), movement.getPartNumber(), -movement.getQtyChange()));
+    }
+  }
+
+  @PostUpdate
+  public void onUpdate(StockMovement movement) {
+    record(ParkedChange.touched(movement.getWarehouseNo(), movement.getPartNumber()));
+  }
+
+  private static boolean isParked(StockMovement movement) {
+    return movement.getMovementType() == MovementType.O103_PICKED
+        || movement.getMovementType() == MovementType.O104_CHECKED;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void record(ParkedChange change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      summaryIndex.ifAvailable(index -> index.applyParked(List.of(change)));
+      return;
+    }
+    List<ParkedChange> pending = (List<ParkedChange>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      List<ParkedChange> changes = new ArrayList<>();
+      pending = changes;
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, changes);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+          if (status == STATUS_COMMITTED) {
+            summaryIndex.ifAvailable(index -> index.applyParked(changes));
+          }
+        }
+      });
+    }
+    pending.add(change);
+  }
+}
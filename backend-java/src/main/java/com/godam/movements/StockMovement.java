@@ -1,19 +1,24 @@
 package com.godam.movements;
 
+import com.godam.orders.OrderChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.Instant;
 
 @Entity
+@EntityListeners({OrderChangeListener.class, ParkedQtyListener.class})
 @Table(name = "stock_movements")
 public class StockMovement {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_id_gen")
+  @SequenceGenerator(name = "stock_movements_id_gen", sequenceName = "stock_movements_seq", allocationSize = 50)
   private Long id;
 
   @Convert(converter = MovementTypeConverter.class)
@@ -0,0 +1,111 @@
+package com.godam.movements;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+
+@Entity
+@Table(
+    name = "stock_movement_balances",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "ux_stock_movement_balances",
+          columnNames = {"warehouse_no", "part_number", "movement_type"})
+    })
+public class StockMovementBalance {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "warehouse_no", nullable = false)
+  private String warehouseNo;
+
+  @Column(name = "part_number", nullable = false)
+  private String partNumber;
+
+  @Convert(converter = MovementTypeConverter.class)
+  @Column(name = "movement_type", length = 20, nullable = false)
+  private MovementType movementType;
+
+  @Column(name = "qty", nullable = false)
+  private long qty;
+
+  @Column(name = "movement_count", nullable = false)
+  private long movementCount;
+
+  @Column(name = "archived_through")
+  private Instant archivedThrough;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public MovementType getMovementType() {
+    return movementType;
+  }
+
+  public void setMovementType(MovementType movementType) {
+    this.movementType = movementType;
+  }
+
+  public long getQty() {
+    return qty;
+  }
+
+  public void setQty(long qty) {
+    this.qty = qty;
+  }
+
+  public long getMovementCount() {
+    return movementCount;
+  }
+
+  public void setMovementCount(long movementCount) {
+    this.movementCount = movementCount;
+  }
+
+  public Instant getArchivedThrough() {
+    return archivedThrough;
+  }
+
+  public void setArchivedThrough(Instant archivedThrough) {
+    this.archivedThrough = archivedThrough;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
@@ -2,14 +2,17 @@ package com.godam.movements.controller;
 
 import com.godam.movements.MovementType;
 import com.godam.movements.StockMovement;
+import com.godam.movements.dto.MovementArchiveResultDto;
 import com.godam.movements.dto.MovementDeleteRequest;
 import com.godam.movements.dto.MovementViewDto;
 import com.godam.movements.service.MovementAdminService;
+import com.godam.movements.service.MovementArchiveService;
 import com.godam.movements.service.StockMovementService;
 import java.util.List;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -20,12 +23,15 @@ import org.springframework.web.bind.annotation.RestController;
 public class MovementController {
   private final StockMovementService stockMovementService;
   private final MovementAdminService movementAdminService;
+  private final MovementArchiveService movementArchiveService;
 
   public MovementController(
       StockMovementService stockMovementService,
-      MovementAdminService movementAdminService) {
+      MovementAdminService movementAdminService,
+      MovementArchiveService movementArchiveService) {
     this.stockMovementService = stockMovementService;
     this.movementAdminService = movementAdminService;
+    this.movementArchiveService = movementArchiveService;
   }
 
   @GetMapping
@@ -55,6 +61,11 @@ public class MovementController {
     movementAdminService.deleteMovement(id, request);
   }
 
+  @PostMapping("/archive")
+  public MovementArchiveResultDto archiveClosedOrders() {
+    return movementArchiveService.archive();
+  }
+
   public static class MovementStatusResponse {
     private String currentStatus;
     private String readableStatus;
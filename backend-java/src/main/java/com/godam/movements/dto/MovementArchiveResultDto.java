@@ -0,0 +1,78 @@
+package com.godam.movements.dto;
+
+import java.time.Instant;
+
+public class MovementArchiveResultDto {
+  private boolean executed;
+  private String message;
+  private Instant cutoff;
+  private Instant hotFrom;
+  private int createdPartitions;
+  private int droppedPartitions;
+  private int archivedOrders;
+  private long archivedMovements;
+
+  public boolean isExecuted() {
+    return executed;
+  }
+
+  public void setExecuted(boolean executed) {
+    this.executed = executed;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  public Instant getCutoff() {
+    return cutoff;
+  }
+
+  public void setCutoff(Instant cutoff) {
+    this.cutoff = cutoff;
+  }
+
+  public Instant getHotFrom() {
+    return hotFrom;
+  }
+
+  public void setHotFrom(Instant hotFrom) {
+    this.hotFrom = hotFrom;
+  }
+
+  public int getCreatedPartitions() {
+    return createdPartitions;
+  }
+
+  public void setCreatedPartitions(int createdPartitions) {
+    this.createdPartitions = createdPartitions;
+  }
+
+  public int getDroppedPartitions() {
+    return droppedPartitions;
+  }
+
+  public void setDroppedPartitions(int droppedPartitions) {
+    this.droppedPartitions = droppedPartitions;
+  }
+
+  public int getArchivedOrders() {
+    return archivedOrders;
+  }
+
+  public void setArchivedOrders(int archivedOrders) {
+    this.archivedOrders = archivedOrders;
+  }
+
+  public long getArchivedMovements() {
+    return archivedMovements;
+  }
+
+  public void setArchivedMovements(long archivedMovements) {
+    this.archivedMovements = archivedMovements;
+  }
+}
@@ -0,0 +1,32 @@
+package com.godam.movements.repository;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface StockMovementLedgerQueries {
+  int sumQtyByWarehousePartAndTypes(String warehouseNo, String partNumber, List<MovementType> types);
+
+  int sumQtyByPartNumberAndTypes(String partNumber, List<MovementType> types);
+
+  /** Per part number and movement type; parts without movements are absent from the map. */
+  Map<String, Map<MovementType, Integer>> sumQtyByPartNumbersAndTypes(
+      Collection<String> partNumbers, List<MovementType> types);
+
+  /** As {@link #sumQtyByPartNumbersAndTypes} but counting only one warehouse's movements; null means all. */
+  Map<String, Map<MovementType, Integer>> sumQtyByWarehousePartNumbersAndTypes(
+      String warehouseNo, Collection<String> partNumbers, List<MovementType> types);
+
+  int sumQtyBySalesOrderAndPartNumberAndType(String salesOrder, String partNumber, MovementType type);
+
+  /** Sums per sales order and part number, for reading many orders in one round trip. */
+  Map<String, Map<String, Integer>> sumQtyBySalesOrdersAndType(Collection<String> salesOrders, MovementType type);
+
+  List<StockMovement> findBySalesOrderOrderByCreatedAtAsc(String salesOrder);
+
+  Optional<StockMovement> findTopBySalesOrderAndMovementTypeOrderByCreatedAtDesc(
+      String salesOrder, MovementType movementType);
+}
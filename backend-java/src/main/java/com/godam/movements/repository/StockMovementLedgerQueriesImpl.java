@@ -0,0 +1,367 @@
+package com.godam.movements.repository;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Ledger reads that stay correct once closed orders are archived: per-part sums add the rolled-up
+ * balances, per-order reads fall back to the cold archive, and every live query is bounded by the
+ * hot window so PostgreSQL only scans the recent month partitions. Rows still waiting in the
+ * {@link MovementWriteBuffer} are added to the sums and flushed ahead of entity reads.
+ */
+public class StockMovementLedgerQueriesImpl implements StockMovementLedgerQueries {
+  private static final int IN_CLAUSE_CHUNK = 1000;
+  private static final String ARCHIVE_COLUMNS = "id, movement_type, warehouse_no, storage_location, "
+      + "part_number, qty_change, dn_number, invoice_number, sales_order, rack, bin, suggested_rack, "
+      + "actual_rack, picked_qty, requested_qty, reference, remark, created_by, created_at";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final MovementLedgerWindow ledgerWindow;
+  private final ObjectProvider<MovementWriteBuffer> writeBuffer;
+
+  public StockMovementLedgerQueriesImpl(
+      MovementLedgerWindow ledgerWindow, ObjectProvider<MovementWriteBuffer> writeBuffer) {
+    this.ledgerWindow = ledgerWindow;
+    this.writeBuffer = writeBuffer;
+  }
+
+  @Override
+  public int sumQtyByWarehousePartAndTypes(String warehouseNo, String partNumber, List<MovementType> types) {
+    return sumWithPending(
+        () -> committedSumByWarehousePartAndTypes(warehouseNo, partNumber, types),
+        m -> Objects.equals(warehouseNo, m.getWarehouseNo())
+            && Objects.equals(partNumber, m.getPartNumber())
+            && types.contains(m.getMovementType()));
+  }
+
+  private int committedSumByWarehousePartAndTypes(String warehouseNo, String partNumber, List<MovementType> types) {
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<Long> live = entityManager.createQuery(
+        "select coalesce(sum(m.qtyChange), 0) from StockMovement m "
+            + "where m.warehouseNo = :warehouseNo and m.partNumber = :partNumber and m.movementType in :types"
+            + hotWindow(hotFrom),
+        Long.class);
+    live.setParameter("warehouseNo", warehouseNo);
+    live.setParameter("partNumber", partNumber);
+    live.setParameter("types", types);
+    bindHotWindow(live, hotFrom);
+    long total = live.getSingleResult();
+    if (ledgerWindow.hasBalances()) {
+      TypedQuery<Long> balance = entityManager.createQuery(
+          "select coalesce(sum(b.qty), 0) from StockMovementBalance b "
+              + "where b.warehouseNo = :warehouseNo and b.partNumber = :partNumber and b.movementType in :types",
+          Long.class);
+      balance.setParameter("warehouseNo", warehouseNo);
+      balance.setParameter("partNumber", partNumber);
+      balance.setParameter("types", types);
+      total += balance.getSingleResult();
+    }
+    return Math.toIntExact(total);
+  }
+
+  @Override
+  public int sumQtyByPartNumberAndTypes(String partNumber, List<MovementType> types) {
+    return sumWithPending(
+        () -> committedSumByPartNumberAndTypes(partNumber, types),
+        m -> Objects.equals(partNumber, m.getPartNumber()) && types.contains(m.getMovementType()));
+  }
+
+  private int committedSumByPartNumberAndTypes(String partNumber, List<MovementType> types) {
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<Long> live = entityManager.createQuery(
+        "select coalesce(sum(m.qtyChange), 0) from StockMovement m "
+            + "where m.partNumber = :partNumber and m.movementType in :types"
+            + hotWindow(hotFrom),
+        Long.class);
+    live.setParameter("partNumber", partNumber);
+    live.setParameter("types", types);
+    bindHotWindow(live, hotFrom);
+    long total = live.getSingleResult();
+    if (ledgerWindow.hasBalances()) {
+      TypedQuery<Long> balance = entityManager.createQuery(
+          "select coalesce(sum(b.qty), 0) from StockMovementBalance b "
+              + "where b.partNumber = :partNumber and b.movementType in :types",
+          Long.class);
+      balance.setParameter("partNumber", partNumber);
+      balance.setParameter("types", types);
+      total += balance.getSingleResult();
+    }
+    return Math.toIntExact(total);
+  }
+
+  @Override
+  public Map<String, Map<MovementType, Integer>> sumQtyByPartNumbersAndTypes(
+      Collection<String> partNumbers, List<MovementType> types) {
+    return sumQtyByWarehousePartNumbersAndTypes(null, partNumbers, types);
+  }
+
+  @Override
+  public Map<String, Map<MovementType, Integer>> sumQtyByWarehousePartNumbersAndTypes(
+      String warehouseNo, Collection<String> partNumbers, List<MovementType> types) {
+    if (partNumbers == null || partNumbers.isEmpty()) {
+      return new HashMap<>();
+    }
+    Set<String> wanted = new HashSet<>(partNumbers);
+    Map<String, Map<MovementType, Integer>> result = new HashMap<>();
+    return readConsistent(
+        () -> committedSumByPartNumbersAndTypes(result, warehouseNo, partNumbers, types),
+        m -> {
+          if (wanted.contains(m.getPartNumber()) && types.contains(m.getMovementType())
+              && (warehouseNo == null || warehouseNo.equals(m.getWarehouseNo()))) {
+            Object[] row = {m.getPartNumber(), m.getMovementType(), m.getQtyChange()};
+            mergeTypeSums(result, List.<Object[]>of(row));
+          }
+        });
+  }
+
+  private Map<String, Map<MovementType, Integer>> committedSumByPartNumbersAndTypes(
+      Map<String, Map<MovementType, Integer>> result,
+      String warehouseNo,
+      Collection<String> partNumbers,
+      List<MovementType> types) {
+    Instant hotFrom = ledgerWindow.hotFrom();
+    String liveWarehouse = warehouseNo == null ? "" : " and m.warehouseNo = :warehouseNo";
+    String balanceWarehouse = warehouseNo == null ? "" : "and b.warehouseNo = :warehouseNo ";
+    List<String> parts = new ArrayList<>(partNumbers);
+    for (int from = 0; from < parts.size(); from += IN_CLAUSE_CHUNK) {
+      List<String> chunk = parts.subList(from, Math.min(parts.size(), from + IN_CLAUSE_CHUNK));
+      TypedQuery<Object[]> live = entityManager.createQuery(
+          "select m.partNumber, m.movementType, sum(m.qtyChange) from StockMovement m "
+              + "where m.partNumber in :partNumbers and m.movementType in :types"
+              + liveWarehouse
+              + hotWindow(hotFrom)
+              + " group by m.partNumber, m.movementType",
+          Object[].class);
+      live.setParameter("partNumbers", chunk);
+      live.setParameter("types", types);
+      if (warehouseNo != null) {
+        live.setParameter("warehouseNo", warehouseNo);
+      }
+      bindHotWindow(live, hotFrom);
+      mergeTypeSums(result, live.getResultList());
+      if (ledgerWindow.hasBalances()) {
+        TypedQuery<Object[]> balance = entityManager.createQuery(
+            "select b.partNumber, b.movementType, sum(b.qty) from StockMovementBalance b "
+                + "where b.partNumber in :partNumbers and b.movementType in :types "
+                + balanceWarehouse
+                + "group by b.partNumber, b.movementType",
+            Object[].class);
+        balance.setParameter("partNumbers", chunk);
+        balance.setParameter("types", types);
+        if (warehouseNo != null) {
+          balance.setParameter("warehouseNo", warehouseNo);
+        }
+        mergeTypeSums(result, balance.getResultList());
+      }
+    }
+    return result;
+  }
+
+  private void mergeTypeSums(Map<String, Map<MovementType, Integer>> target, List<Object[]> rows) {
+    for (Object[] row : rows) {
+      if (row[0] == null || row[1] == null || row[2] == null) {
+        continue;
+      }
+      target.computeIfAbsent((String) row[0], key -> new HashMap<>())
+          .merge((MovementType) row[1], Math.toIntExact(((Number) row[2]).longValue()), Integer::sum);
+    }
+  }
+
+  @Override
+  public int sumQtyBySalesOrderAndPartNumberAndType(String salesOrder, String partNumber, MovementType type) {
+    return sumWithPending(
+        () -> committedSumBySalesOrderAndPartNumberAndType(salesOrder, partNumber, type),
+        m -> Objects.equals(salesOrder, m.getSalesOrder())
+            && Objects.equals(partNumber, m.getPartNumber())
+            && type == m.getMovementType());
+  }
+
+  private int committedSumBySalesOrderAndPartNumberAndType(String salesOrder, String partNumber, MovementType type) {
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<Long> live = entityManager.createQuery(
+        "select coalesce(sum(m.qtyChange), 0) from StockMovement m "
+            + "where m.salesOrder = :salesOrder and m.partNumber = :partNumber and m.movementType = :type"
+            + hotWindow(hotFrom),
+        Long.class);
+    live.setParameter("salesOrder", salesOrder);
+    live.setParameter("partNumber", partNumber);
+    live.setParameter("type", type);
+    bindHotWindow(live, hotFrom);
+    long total = live.getSingleResult();
+    if (ledgerWindow.isArchiveAvailable()) {
+      Query archived = entityManager.createNativeQuery(
+          "select coalesce(sum(qty_change), 0) from stock_movements_archive "
+              + "where sales_order = :salesOrder and part_number = :partNumber and movement_type = :type");
+      archived.setParameter("salesOrder", salesOrder);
+      archived.setParameter("partNumber", partNumber);
+      archived.setParameter("type", type.getCode());
+      total += ((Number) archived.getSingleResult()).longValue();
+    }
+    return Math.toIntExact(total);
+  }
+
+  @Override
+  public Map<String, Map<String, Integer>> sumQtyBySalesOrdersAndType(
+      Collection<String> salesOrders, MovementType type) {
+    if (salesOrders == null || salesOrders.isEmpty()) {
+      return new HashMap<>();
+    }
+    Set<String> wanted = new HashSet<>(salesOrders);
+    Map<String, Map<String, Integer>> result = new HashMap<>();
+    return readConsistent(
+        () -> committedSumBySalesOrdersAndType(result, salesOrders, type),
+        m -> {
+          if (wanted.contains(m.getSalesOrder()) && type == m.getMovementType()) {
+            Object[] row = {m.getSalesOrder(), m.getPartNumber(), m.getQtyChange()};
+            mergeSums(result, List.<Object[]>of(row));
+          }
+        });
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<String, Map<String, Integer>> committedSumBySalesOrdersAndType(
+      Map<String, Map<String, Integer>> result, Collection<String> salesOrders, MovementType type) {
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<Object[]> live = entityManager.createQuery(
+        "select m.salesOrder, m.partNumber, sum(m.qtyChange) from StockMovement m "
+            + "where m.salesOrder in :salesOrders and m.movementType = :type"
+            + hotWindow(hotFrom)
+            + " group by m.salesOrder, m.partNumber",
+        Object[].class);
+    live.setParameter("salesOrders", salesOrders);
+    live.setParameter("type", type);
+    bindHotWindow(live, hotFrom);
+    mergeSums(result, live.getResultList());
+    if (ledgerWindow.isArchiveAvailable()) {
+      Query archived = entityManager.createNativeQuery(
+          "select sales_order, part_number, sum(qty_change) from stock_movements_archive "
+              + "where sales_order in (:salesOrders) and movement_type = :type group by sales_order, part_number");
+      archived.setParameter("salesOrders", salesOrders);
+      archived.setParameter("type", type.getCode());
+      mergeSums(result, archived.getResultList());
+    }
+    return result;
+  }
+
+  private void mergeSums(Map<String, Map<String, Integer>> target, List<Object[]> rows) {
+    for (Object[] row : rows) {
+      if (row[0] == null || row[1] == null || row[2] == null) {
+        continue;
+      }
+      target.computeIfAbsent((String) row[0], key -> new HashMap<>())
+          .merge((String) row[1], Math.toIntExact(((Number) row[2]).longValue()), Integer::sum);
+    }
+  }
+
+  @Override
+  public List<StockMovement> findBySalesOrderOrderByCreatedAtAsc(String salesOrder) {
+    awaitFlushed(salesOrder);
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<StockMovement> live = entityManager.createQuery(
+        "select m from StockMovement m where m.salesOrder = :salesOrder"
+            + hotWindow(hotFrom)
+            + " order by m.createdAt asc",
+        StockMovement.class);
+    live.setParameter("salesOrder", salesOrder);
+    bindHotWindow(live, hotFrom);
+    List<StockMovement> result = new ArrayList<>(live.getResultList());
+    if (ledgerWindow.isArchiveAvailable()) {
+      List<StockMovement> archived = findArchived(salesOrder, null);
+      if (!archived.isEmpty()) {
+        result.addAll(archived);
+        result.sort(Comparator.comparing(
+            StockMovement::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Optional<StockMovement> findTopBySalesOrderAndMovementTypeOrderByCreatedAtDesc(
+      String salesOrder, MovementType movementType) {
+    awaitFlushed(salesOrder);
+    Instant hotFrom = ledgerWindow.hotFrom();
+    TypedQuery<StockMovement> live = entityManager.createQuery(
+        "select m from StockMovement m where m.salesOrder = :salesOrder and m.movementType = :type"
+            + hotWindow(hotFrom)
+            + " order by m.createdAt desc",
+        StockMovement.class);
+    live.setParameter("salesOrder", salesOrder);
+    live.setParameter("type", movementType);
+    bindHotWindow(live, hotFrom);
+    live.setMaxResults(1);
+    List<StockMovement> rows = live.getResultList();
+    if (!rows.isEmpty()) {
+      return Optional.of(rows.get(0));
+    }
+    if (!ledgerWindow.isArchiveAvailable()) {
+      return Optional.empty();
+    }
+    List<StockMovement> archived = findArchived(salesOrder, movementType);
+    return archived.isEmpty() ? Optional.empty() : Optional.of(archived.get(archived.size() - 1));
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<StockMovement> findArchived(String salesOrder, MovementType type) {
+    Query query = entityManager.createNativeQuery(
+        "select " + ARCHIVE_COLUMNS + " from stock_movements_archive where sales_order = :salesOrder"
+            + (type == null ? "" : " and movement_type = :type")
+            + " order by created_at asc",
+        StockMovement.class);
+    query.setParameter("salesOrder", salesOrder);
+    if (type != null) {
+      query.setParameter("type", type.getCode());
+    }
+    List<StockMovement> rows = query.getResultList();
+    // Archived rows are read-only history; keep them out of dirty checking.
+    rows.forEach(entityManager::detach);
+    return rows;
+  }
+
+  private int sumWithPending(Supplier<Integer> committed, Predicate<StockMovement> matches) {
+    MovementWriteBuffer buffer = writeBuffer.getIfAvailable();
+    return buffer == null ? committed.get() : buffer.sumWithPending(committed, matches);
+  }
+
+  private <T> T readConsistent(Supplier<T> committed, Consumer<StockMovement> pending) {
+    MovementWriteBuffer buffer = writeBuffer.getIfAvailable();
+    return buffer == null ? committed.get() : buffer.readConsistent(committed, pending);
+  }
+
+  private void awaitFlushed(String salesOrder) {
+    writeBuffer.ifAvailable(buffer -> buffer.awaitFlushed(salesOrder));
+  }
+
+  private String hotWindow(Instant hotFrom) {
+    return hotFrom == null ? "" : " and m.createdAt >= :hotFrom";
+  }
+
+  private void bindHotWindow(Query query, Instant hotFrom) {
+    if (hotFrom != null) {
+      query.setParameter("hotFrom", hotFrom);
+    }
+  }
+}
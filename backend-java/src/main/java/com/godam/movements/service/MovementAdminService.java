@@ -39,22 +39,26 @@ public class MovementAdminService {
   private final UserRepository userRepository;
   private final OrderAdminAuditRepository orderAdminAuditRepository;
   private final PasswordEncoder passwordEncoder;
+  private final MovementWriteBuffer movementWriteBuffer;
 
   public MovementAdminService(
       StockMovementRepository stockMovementRepository,
       StockRepository stockRepository,
       UserRepository userRepository,
       OrderAdminAuditRepository orderAdminAuditRepository,
-      PasswordEncoder passwordEncoder) {
+      PasswordEncoder passwordEncoder,
+      MovementWriteBuffer movementWriteBuffer) {
     this.stockMovementRepository = stockMovementRepository;
     this.stockRepository = stockRepository;
     this.userRepository = userRepository;
     this.orderAdminAuditRepository = orderAdminAuditRepository;
     this.passwordEncoder = passwordEncoder;
+    this.movementWriteBuffer = movementWriteBuffer;
   }
 
   @Transactional(readOnly = true)
   public List<MovementViewDto> listMovements(String partNumber, String description, String movementType) {
+    movementWriteBuffer.awaitFlushed(null);
     List<StockMovement> movements = stockMovementRepository.findAllByOrderByCreatedAtDesc();
     List<StockMovement> filtered = new ArrayList<>();
     String partFilter = normalizeFilter(partNumber);
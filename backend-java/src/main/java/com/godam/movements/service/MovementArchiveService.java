@@ -0,0 +1,232 @@
+package com.godam.movements.service;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.dto.MovementArchiveResultDto;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the monthly partitions of stock_movements and moves closed orders, and anything older
+ * than {@link MovementLedgerWindow#archiveCutoff()}, out of the hot ledger. Archived rows are copied to stock_movements_archive and their quantities are folded into
+ * stock_movement_balances, so ledger sums stay unchanged while the hot partitions stay small.
+ */
+@Service
+public class MovementArchiveService {
+  private static final Logger log = LoggerFactory.getLogger(MovementArchiveService.class);
+  private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+  private static final String HOT_PREFIX = "stock_movements_p";
+  private static final String ARCHIVE_PREFIX = "stock_movements_archive_p";
+  private static final String COLUMNS = "id, movement_type, warehouse_no, storage_location, part_number, "
+      + "qty_change, dn_number, invoice_number, sales_order, rack, bin, suggested_rack, actual_rack, "
+      + "picked_qty, requested_qty, reference, remark, created_by, created_at";
+  private static final String MOVE_TO_ARCHIVE = "WITH moved AS ("
+      + " DELETE FROM stock_movements WHERE %s RETURNING " + COLUMNS
+      + "), archived AS ("
+      + " INSERT INTO stock_movements_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved"
+      + "), balanced AS ("
+      + " INSERT INTO stock_movement_balances"
+      + " (warehouse_no, part_number, movement_type, qty, movement_count, archived_through, updated_at)"
+      + " SELECT COALESCE(warehouse_no, ''), COALESCE(part_number, ''), movement_type,"
+      + " SUM(qty_change), COUNT(*), MAX(created_at), now()"
+      + " FROM moved WHERE movement_type IS NOT NULL"
+      + " GROUP BY COALESCE(warehouse_no, ''), COALESCE(part_number, ''), movement_type"
+      + " ON CONFLICT (warehouse_no, part_number, movement_type) DO UPDATE SET"
+      + " qty = stock_movement_balances.qty + EXCLUDED.qty,"
+      + " movement_count = stock_movement_balances.movement_count + EXCLUDED.movement_count,"
+      + " archived_through = GREATEST(stock_movement_balances.archived_through, EXCLUDED.archived_through),"
+      + " updated_at = now()"
+      + " RETURNING 1"
+      + ") SELECT COUNT(*) FROM moved";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final MovementLedgerWindow ledgerWindow;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final boolean enabled;
+  private final int premakeMonths;
+  private final int batchSize;
+
+  public MovementArchiveService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      MovementLedgerWindow ledgerWindow,
+      @Value("${godam.movements.archive.enabled:true}") boolean enabled,
+      @Value("${godam.movements.archive.premake-months:3}") int premakeMonths,
+      @Value("${godam.movements.archive.batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.ledgerWindow = ledgerWindow;
+    this.enabled = enabled;
+    this.premakeMonths = Math.max(1, premakeMonths);
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  @Scheduled(cron = "${godam.movements.archive.cron:0 30 2 * * *}")
+  public void runScheduled() {
+    if (!enabled) {
+      return;
+    }
+    MovementArchiveResultDto result = archive();
+    log.info("Movement archive run: executed={}, orders={}, movements={}, partitions +{}/-{}, hotFrom={}",
+        result.isExecuted(), result.getArchivedOrders(), result.getArchivedMovements(),
+        result.getCreatedPartitions(), result.getDroppedPartitions(), result.getHotFrom());
+  }
+
+  public MovementArchiveResultDto archive() {
+    MovementArchiveResultDto result = new MovementArchiveResultDto();
+    if (!running.compareAndSet(false, true)) {
+      result.setMessage("Archive run already in progress.");
+      return result;
+    }
+    try {
+      ledgerWindow.refresh();
+      if (!ledgerWindow.isPartitioned() || !ledgerWindow.isArchiveAvailable()) {
+        result.setMessage("stock_movements is not partitioned; apply migration_partition_stock_movements.sql.");
+        result.setHotFrom(ledgerWindow.hotFrom());
+        return result;
+      }
+      LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+      Instant cutoff = ledgerWindow.archiveCutoff();
+      LocalDate cutoffMonth = cutoff.atZone(ZoneOffset.UTC).toLocalDate();
+      result.setCutoff(cutoff);
+
+      int created = 0;
+      for (int i = 0; i <= premakeMonths; i++) {
+        created += createPartition("stock_movements", HOT_PREFIX, currentMonth.plusMonths(i)) ? 1 : 0;
+      }
+      Timestamp oldest = jdbcTemplate.queryForObject("select min(created_at) from stock_movements", Timestamp.class);
+      if (oldest != null) {
+        LocalDate month = oldest.toInstant().atZone(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+        for (; month.isBefore(cutoffMonth); month = month.plusMonths(1)) {
+          created += createPartition("stock_movements_archive", ARCHIVE_PREFIX, month) ? 1 : 0;
+        }
+      }
+      result.setCreatedPartitions(created);
+
+      archiveClosedOrders(cutoff, result);
+      archiveExpiredMovements(cutoff, result);
+      result.setDroppedPartitions(dropEmptyPartitions(cutoffMonth));
+
+      ledgerWindow.refresh();
+      result.setHotFrom(ledgerWindow.hotFrom());
+      result.setExecuted(true);
+      return result;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private void archiveClosedOrders(Instant cutoff, MovementArchiveResultDto result) {
+    while (true) {
+      List<String> orders = jdbcTemplate.queryForList(
+          "select distinct sales_order from stock_movements"
+              + " where movement_type = ? and created_at < ? and sales_order is not null limit ?",
+          String.class,
+          MovementType.O109_CLOSED.getCode(),
+          Timestamp.from(cutoff),
+          batchSize);
+      if (orders.isEmpty()) {
+        return;
+      }
+      Long moved = transactionTemplate.execute(status -> jdbcTemplate.query(
+          connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                String.format(MOVE_TO_ARCHIVE, "sales_order = ANY (?)"));
+            Array array = connection.createArrayOf("varchar", orders.toArray());
+            ps.setArray(1, array);
+            return ps;
+          },
+          rs -> rs.next() ? rs.getLong(1) : 0L));
+      result.setArchivedOrders(result.getArchivedOrders() + orders.size());
+      result.setArchivedMovements(result.getArchivedMovements() + (moved == null ? 0 : moved));
+      if (orders.size() < batchSize) {
+        return;
+      }
+    }
+  }
+
+  // Everything else before the cutoff (adjustments, inbound, and the early rows of orders still
+  // open) is rolled up the same way, so the ledger window can start at the cutoff. Sums read the
+  // balances and per-order reads fall back to the archive, so nothing goes missing.
+  private void archiveExpiredMovements(Instant cutoff, MovementArchiveResultDto result) {
+    String predicate = "id IN (select id from stock_movements"
+        + " where created_at < ? limit ?) and created_at < ?";
+    while (true) {
+      Long moved = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+          String.format(MOVE_TO_ARCHIVE, predicate),
+          Long.class,
+          Timestamp.from(cutoff),
+          batchSize,
+          Timestamp.from(cutoff)));
+      long count = moved == null ? 0 : moved;
+      result.setArchivedMovements(result.getArchivedMovements() + count);
+      if (count < batchSize) {
+        return;
+      }
+    }
+  }
+
+  private boolean createPartition(String parent, String prefix, LocalDate month) {
+    String name = prefix + month.format(PARTITION_SUFFIX);
+    if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+        "select to_regclass(?) is not null", Boolean.class, name))) {
+      return false;
+    }
+    try {
+      jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + parent
+          + " FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+      return true;
+    } catch (DataAccessException ex) {
+      // Rows for this month already sit in the default partition; they stay readable there.
+      log.warn("Unable to create partition {}: {}", name, ex.getMostSpecificCause().getMessage());
+      return false;
+    }
+  }
+
+  private int dropEmptyPartitions(LocalDate cutoffMonth) {
+    List<String> partitions = jdbcTemplate.queryForList(
+        "select c.relname from pg_inherits i"
+            + " join pg_class c on c.oid = i.inhrelid"
+            + " join pg_class p on p.oid = i.inhparent"
+            + " where p.relname = 'stock_movements' and c.relname like 'stock\\_movements\\_p%'",
+        String.class);
+    int dropped = 0;
+    for (String partition : partitions) {
+      LocalDate month;
+      try {
+        month = LocalDate.parse(partition.substring(HOT_PREFIX.length()) + "_01",
+            DateTimeFormatter.ofPattern("yyyy_MM_dd"));
+      } catch (RuntimeException ex) {
+        continue;
+      }
+      if (!month.isBefore(cutoffMonth)) {
+        continue;
+      }
+      Boolean empty = jdbcTemplate.queryForObject(
+          "select not exists (select 1 from " + partition + ")", Boolean.class);
+      if (!Boolean.TRUE.equals(empty)) {
+        continue;
+      }
+      jdbcTemplate.execute("ALTER TABLE stock_movements DETACH PARTITION " + partition);
+      jdbcTemplate.execute("DROP TABLE " + partition);
+      dropped++;
+    }
+    return dropped;
+  }
+}
@@ -0,0 +1,140 @@
+package com.godam.movements.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the hot window of the partitioned stock_movements ledger. Every live row is at or after
+ * {@link #hotFrom()}, so ledger queries can add it as a created_at predicate and let PostgreSQL
+ * prune the cold month partitions. The window is only active once the partitioning migration ran.
+ *
+ * <p>The window starts at the archive cutoff, the first day of the month {@code hot-months} back,
+ * since {@link MovementArchiveService} moves every older row out of the hot ledger. Until a run
+ * has done so, the window is widened to the oldest row still before the cutoff.
+ */
+@Component
+public class MovementLedgerWindow {
+  private static final Logger log = LoggerFactory.getLogger(MovementLedgerWindow.class);
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final int hotMonths;
+
+  private volatile boolean initialized;
+  private volatile boolean partitioned;
+  private volatile boolean archiveAvailable;
+  private volatile boolean balancesPresent;
+  private volatile Instant hotFrom;
+
+  public MovementLedgerWindow(
+      DataSource dataSource,
+      @Value("${godam.movements.archive.hot-months:6}") int hotMonths) {
+    this.dataSource = dataSource;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.hotMonths = Math.max(1, hotMonths);
+  }
+
+  /** Start of the first month kept in the hot ledger; everything before it is archived. */
+  public Instant archiveCutoff() {
+    return LocalDate.now(ZoneOffset.UTC)
+        .withDayOfMonth(1)
+        .minusMonths(hotMonths)
+        .atStartOfDay(ZoneOffset.UTC)
+        .toInstant();
+  }
+
+  public Instant hotFrom() {
+    ensureInitialized();
+    return hotFrom;
+  }
+
+  public boolean isPartitioned() {
+    ensureInitialized();
+    return partitioned;
+  }
+
+  public boolean isArchiveAvailable() {
+    ensureInitialized();
+    return archiveAvailable;
+  }
+
+  public boolean hasBalances() {
+    ensureInitialized();
+    return balancesPresent;
+  }
+
+  public synchronized void refresh() {
+    if (!isPostgres()) {
+      partitioned = false;
+      archiveAvailable = false;
+      balancesPresent = false;
+      hotFrom = null;
+      initialized = true;
+      return;
+    }
+    Integer partitionedCount = jdbcTemplate.queryForObject(
+        "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid "
+            + "where c.relname = 'stock_movements'",
+        Integer.class);
+    partitioned = partitionedCount != null && partitionedCount > 0;
+    archiveAvailable = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+        "select to_regclass('stock_movements_archive') is not null", Boolean.class));
+    Boolean balances = jdbcTemplate.queryForObject(
+        "select exists (select 1 from stock_movement_balances)", Boolean.class);
+    balancesPresent = Boolean.TRUE.equals(balances);
+    if (partitioned) {
+      Instant cutoff = archiveCutoff();
+      // Only the partitions before the cutoff are scanned; after an archive run they are empty.
+      Timestamp straggler = jdbcTemplate.queryForObject(
+          "select min(created_at) from stock_movements where created_at < ?", Timestamp.class,
+          Timestamp.from(cutoff));
+      hotFrom = hotFrom(cutoff, straggler == null ? null : straggler.toInstant());
+    } else {
+      hotFrom = null;
+    }
+    initialized = true;
+    log.debug("Movement ledger window: partitioned={}, archive={}, balances={}, hotFrom={}",
+        partitioned, archiveAvailable, balancesPresent, hotFrom);
+  }
+
+  /**
+   * The cutoff, or when rows older than it are still live, the partition boundary below the oldest
+   * of them (with a day of slack for the session time zone) so those rows are never cut off.
+   */
+  static Instant hotFrom(Instant cutoff, Instant oldestBeforeCutoff) {
+    if (oldestBeforeCutoff == null || !oldestBeforeCutoff.isBefore(cutoff)) {
+      return cutoff;
+    }
+    return oldestBeforeCutoff.atZone(ZoneOffset.UTC)
+        .toLocalDate()
+        .withDayOfMonth(1)
+        .minusDays(1)
+        .atStartOfDay(ZoneOffset.UTC)
+        .toInstant();
+  }
+
+  private void ensureInitialized() {
+    if (!initialized) {
+      refresh();
+    }
+  }
+
+  private boolean isPostgres() {
+    try (Connection connection = dataSource.getConnection()) {
+      return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+    } catch (SQLException ex) {
+      log.warn("Unable to detect database for movement ledger window: {}", ex.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,515 @@
+package com.godam.movements.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.godam.movements.MovementDeadLetter;
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Group commit for high-volume movement types. A buffered movement joins a bounded lock-free queue
+ * once the caller's transaction commits, and a single flusher thread inserts the queue in batches
+ * every {@code batch-size} rows or {@code flush-interval-ms}, whichever comes first. Other types,
+ * and any movement that finds the queue full, are inserted in the caller's transaction as before.
+ *
+ * <p>Ledger sums add the rows still waiting here under a read lock that a flush takes exclusively,
+ * so a reader counts every buffered row exactly once. Reads that return movement entities call
+ * {@link #awaitFlushed} first. The queue is drained on shutdown.
+ *
+ * <p>A row whose insert fails even on its own is never dropped: it goes to
+ * {@code stock_movement_dead_letters} and is replayed every {@code dead-letter-retry-ms}, and while
+ * it waits there ledger sums still count it. If the dead letter cannot be written either, the row
+ * stays in memory and both writes are retried on the next flush.
+ *
+ * <p>Off by default: a queued row lives only in memory until its flush, so a crash between the
+ * caller's commit and the flush loses it. Enable it only where that is acceptable.
+ */
+@Component
+public class MovementWriteBuffer {
+  private static final Logger log = LoggerFactory.getLogger(MovementWriteBuffer.class);
+  private static final Object PENDING_KEY = MovementWriteBuffer.class.getName() + ".pending";
+  private static final ObjectMapper PAYLOAD_MAPPER = JsonMapper.builder()
+      .findAndAddModules()
+      .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+      .build();
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final TransactionTemplate writeTransaction;
+  private final Set<MovementType> bufferedTypes;
+  private final int capacity;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final long deadLetterRetryNanos;
+  private final ConcurrentLinkedQueue<StockMovement> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger depth = new AtomicInteger();
+  private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+  private final LongAdder flushed = new LongAdder();
+  private final LongAdder overflowed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder replayed = new LongAdder();
+  // Both guarded by the flush write lock; readers walk them under the read lock.
+  private final Map<Long, StockMovement> deadLetters = new LinkedHashMap<>();
+  private final List<StockMovement> unsaved = new ArrayList<>();
+  private long nextReplayNanos;
+  private final Timer flushTimer;
+  private volatile List<StockMovement> inFlight = List.of();
+  private volatile boolean running = true;
+  private final Thread flusher;
+
+  public MovementWriteBuffer(
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${godam.movements.buffer.enabled:false}") boolean enabled,
+      @Value("${godam.movements.buffer.types:O102,O103,O104}") String[] types,
+      @Value("${godam.movements.buffer.capacity:10000}") int capacity,
+      @Value("${godam.movements.buffer.batch-size:200}") int batchSize,
+      @Value("${godam.movements.buffer.flush-interval-ms:50}") long flushIntervalMs,
+      @Value("${godam.movements.buffer.dead-letter-retry-ms:300000}") long deadLetterRetryMs) {
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.bufferedTypes = EnumSet.noneOf(MovementType.class);
+    if (enabled) {
+      for (String type : types) {
+        if (!type.isBlank()) {
+          bufferedTypes.add(MovementType.fromCode(type.trim()));
+        }
+      }
+    }
+    this.capacity = Math.max(1, capacity);
+    this.batchSize = Math.max(1, batchSize);
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMs));
+    this.deadLetterRetryNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, deadLetterRetryMs));
+    this.flushTimer = Timer.builder("godam.movements.buffer.flush")
+        .description("One batch insert of buffered movements")
+        .register(registry);
+    Gauge.builder("godam.movements.buffer.depth", depth, AtomicInteger::get)
+        .description("Movements waiting for the next group commit")
+        .register(registry);
+    Gauge.builder("godam.movements.buffer.utilization", this, buffer -> (double) buffer.depth.get() / buffer.capacity)
+        .register(registry);
+    FunctionCounter.builder("godam.movements.buffer.flushed", flushed, LongAdder::sum).register(registry);
+    FunctionCounter.builder("godam.movements.buffer.overflow", overflowed, LongAdder::sum)
+        .description("Buffered movements written synchronously because the queue was full")
+        .register(registry);
+    FunctionCounter.builder("godam.movements.buffer.failed", failed, LongAdder::sum)
+        .description("Buffered movements whose own insert failed and were dead-lettered")
+        .register(registry);
+    FunctionCounter.builder("godam.movements.buffer.replayed", replayed, LongAdder::sum).register(registry);
+    Gauge.builder("godam.movements.buffer.dead-letters", this, MovementWriteBuffer::getDeadLetterCount)
+        .description("Failed movements waiting for a replay")
+        .register(registry);
+    this.flusher = new Thread(this::runFlusher, "movement-group-commit");
+    this.flusher.setDaemon(true);
+  }
+
+  @PostConstruct
+  void start() {
+    if (bufferedTypes.isEmpty()) {
+      return;
+    }
+    flushLock.writeLock().lock();
+    try {
+      List<MovementDeadLetter> stored = writeTransaction.execute(status -> entityManager
+          .createQuery("select d from MovementDeadLetter d order by d.id", MovementDeadLetter.class)
+          .getResultList());
+      for (MovementDeadLetter letter : stored) {
+        deadLetters.put(letter.getId(), fromPayload(letter.getPayload()));
+      }
+    } finally {
+      flushLock.writeLock().unlock();
+    }
+    if (!deadLetters.isEmpty()) {
+      log.warn("{} dead-lettered movements are waiting for a replay", deadLetters.size());
+    }
+    nextReplayNanos = System.nanoTime();
+    flusher.start();
+    log.info("Movement group commit for {}: batch {} rows or {} ms, capacity {}",
+        bufferedTypes, batchSize, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos), capacity);
+  }
+
+  public boolean isBuffered(MovementType type) {
+    return running && type != null && bufferedTypes.contains(type);
+  }
+
+  /**
+   * Queues the movement once the current transaction commits; a rolled-back caller writes nothing.
+   * Outside a transaction the movement is queued straight away.
+   */
+  @SuppressWarnings("unchecked")
+  public void submit(StockMovement movement) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      enqueue(List.of(movement));
+      return;
+    }
+    List<StockMovement> pending = (List<StockMovement>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      List<StockMovement> movements = new ArrayList<>();
+      pending = movements;
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, movements);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+          if (status == STATUS_COMMITTED) {
+            enqueue(movements);
+          }
+        }
+      });
+    }
+    pending.add(movement);
+  }
+
+  /**
+   * Runs a ledger read with no flush in between, then lets the caller add the rows still buffered:
+   * those of the current transaction and those queued or being inserted.
+   */
+  public <T> T readConsistent(Supplier<T> committed, Consumer<StockMovement> pending) {
+    if (bufferedTypes.isEmpty()) {
+      return committed.get();
+    }
+    flushLock.readLock().lock();
+    try {
+      T result = committed.get();
+      forEachPending(pending);
+      return result;
+    } finally {
+      flushLock.readLock().unlock();
+    }
+  }
+
+  /** Sum of {@code qtyChange} over the committed ledger plus the matching buffered rows. */
+  public int sumWithPending(Supplier<Integer> committed, Predicate<StockMovement> matches) {
+    long[] pendingQty = new long[1];
+    int total = readConsistent(committed, movement -> {
+      if (matches.test(movement)) {
+        pendingQty[0] += movement.getQtyChange();
+      }
+    });
+    return Math.toIntExact(total + pendingQty[0]);
+  }
+
+  /** Inserts every queued movement for the sales order (all of them for null) before returning. */
+  public void awaitFlushed(String salesOrder) {
+    if (bufferedTypes.isEmpty()) {
+      return;
+    }
+    boolean[] found = new boolean[1];
+    forQueued(movement -> found[0] |= salesOrder == null || salesOrder.equals(movement.getSalesOrder()));
+    if (found[0]) {
+      flush();
+    }
+  }
+
+  /** Drains the queue in batches on the calling thread. */
+  public void flush() {
+    while (!queue.isEmpty()) {
+      flushBatch();
+    }
+  }
+
+  public int getDepth() {
+    return depth.get();
+  }
+
+  public int getDeadLetterCount() {
+    flushLock.readLock().lock();
+    try {
+      return deadLetters.size() + unsaved.size();
+    } finally {
+      flushLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Writes dead-lettered and unsaved movements to the ledger, keeping any that fail again. Returns
+   * how many are still waiting.
+   */
+  public int replayFailed() {
+    flushLock.writeLock().lock();
+    try {
+      retryUnsaved();
+      Iterator<Map.Entry<Long, StockMovement>> letters = deadLetters.entrySet().iterator();
+      while (letters.hasNext()) {
+        Map.Entry<Long, StockMovement> letter = letters.next();
+        StockMovement movement = letter.getValue();
+        movement.setId(null);
+        try {
+          writeTransaction.executeWithoutResult(status -> {
+            entityManager.persist(movement);
+            MovementDeadLetter stored = entityManager.find(MovementDeadLetter.class, letter.getKey());
+            if (stored != null) {
+              entityManager.remove(stored);
+            }
+          });
+          letters.remove();
+          replayed.increment();
+        } catch (RuntimeException ex) {
+          noteAttempt(letter.getKey(), ex);
+        }
+      }
+      return deadLetters.size() + unsaved.size();
+    } finally {
+      flushLock.writeLock().unlock();
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    running = false;
+    if (flusher.isAlive()) {
+      LockSupport.unpark(flusher);
+      try {
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    flush();
+    if (!unsaved.isEmpty()) {
+      replayFailed();
+    }
+    for (StockMovement movement : unsaved) {
+      log.error("Movement could not be written or dead-lettered before shutdown: {}", toPayload(movement));
+    }
+    log.info("Movement group commit stopped: {} rows flushed, {} overflowed, {} dead-lettered, {} replayed",
+        flushed.sum(), overflowed.sum(), failed.sum(), replayed.sum());
+  }
+
+  private void enqueue(List<StockMovement> movements) {
+    List<StockMovement> overflow = null;
+    for (StockMovement movement : movements) {
+      if (running && tryReserve()) {
+        queue.offer(movement);
+      } else {
+        if (overflow == null) {
+          overflow = new ArrayList<>();
+        }
+        overflow.add(movement);
+      }
+    }
+    if (depth.get() >= batchSize) {
+      LockSupport.unpark(flusher);
+    }
+    if (overflow != null) {
+      overflowed.add(overflow.size());
+      List<StockMovement> rows = overflow;
+      flushLock.writeLock().lock();
+      try {
+        writeTransaction.executeWithoutResult(status -> rows.forEach(entityManager::persist));
+        flushed.add(rows.size());
+      } finally {
+        flushLock.writeLock().unlock();
+      }
+    }
+  }
+
+  private boolean tryReserve() {
+    while (true) {
+      int current = depth.get();
+      if (current >= capacity) {
+        return false;
+      }
+      if (depth.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void runFlusher() {
+    while (running) {
+      LockSupport.parkNanos(this, flushIntervalNanos);
+      try {
+        flush();
+        retryFailed();
+      } catch (RuntimeException ex) {
+        log.error("Movement group commit failed", ex);
+      }
+    }
+  }
+
+  private void flushBatch() {
+    flushLock.writeLock().lock();
+    try {
+      List<StockMovement> batch = new ArrayList<>(Math.min(batchSize, depth.get()));
+      StockMovement next;
+      while (batch.size() < batchSize && (next = queue.poll()) != null) {
+        batch.add(next);
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      inFlight = Collections.unmodifiableList(batch);
+      long started = System.nanoTime();
+      try {
+        writeTransaction.executeWithoutResult(status -> batch.forEach(entityManager::persist));
+        flushed.add(batch.size());
+      } catch (RuntimeException ex) {
+        log.warn("Batch insert of {} buffered movements failed, retrying one by one: {}", batch.size(), ex.getMessage());
+        insertOneByOne(batch);
+      } finally {
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        inFlight = List.of();
+        depth.addAndGet(-batch.size());
+      }
+    } finally {
+      flushLock.writeLock().unlock();
+    }
+  }
+
+  private void insertOneByOne(List<StockMovement> batch) {
+    for (StockMovement movement : batch) {
+      if (!insertOrDeadLetter(movement)) {
+        unsaved.add(movement);
+      }
+    }
+  }
+
+  /** Called with the write lock held. Returns false when the row has to stay in memory. */
+  private boolean insertOrDeadLetter(StockMovement movement) {
+    movement.setId(null);
+    try {
+      writeTransaction.executeWithoutResult(status -> entityManager.persist(movement));
+      flushed.increment();
+      return true;
+    } catch (RuntimeException ex) {
+      movement.setId(null);
+      try {
+        MovementDeadLetter letter = writeTransaction.execute(status -> {
+          MovementDeadLetter created = new MovementDeadLetter();
+          created.setMovementType(movement.getMovementType());
+          created.setWarehouseNo(movement.getWarehouseNo());
+          created.setPartNumber(movement.getPartNumber());
+          created.setSalesOrder(movement.getSalesOrder());
+          created.setQtyChange(movement.getQtyChange());
+          created.setPayload(toPayload(movement));
+          created.setErrorMessage(ex.getMessage());
+          created.setAttempts(1);
+          created.setFailedAt(Instant.now());
+          entityManager.persist(created);
+          return created;
+        });
+        deadLetters.put(letter.getId(), movement);
+        failed.increment();
+        log.error("Buffered movement {} {} qty {} for order {} failed and was dead-lettered as {}: {}",
+            movement.getMovementType(), movement.getPartNumber(), movement.getQtyChange(),
+            movement.getSalesOrder(), letter.getId(), ex.getMessage());
+        return true;
+      } catch (RuntimeException deadLetterEx) {
+        log.error("Buffered movement {} {} qty {} for order {} could not be written or dead-lettered, "
+            + "keeping it for the next flush: {}", movement.getMovementType(), movement.getPartNumber(),
+            movement.getQtyChange(), movement.getSalesOrder(), deadLetterEx.getMessage());
+        return false;
+      }
+    }
+  }
+
+  private void retryFailed() {
+    boolean replayDue = System.nanoTime() - nextReplayNanos >= 0;
+    if (!replayDue && unsaved.isEmpty()) {
+      return;
+    }
+    if (replayDue) {
+      nextReplayNanos = System.nanoTime() + deadLetterRetryNanos;
+      replayFailed();
+      return;
+    }
+    flushLock.writeLock().lock();
+    try {
+      retryUnsaved();
+    } finally {
+      flushLock.writeLock().unlock();
+    }
+  }
+
+  private void retryUnsaved() {
+    unsaved.removeIf(this::insertOrDeadLetter);
+  }
+
+  private void noteAttempt(Long deadLetterId, RuntimeException ex) {
+    try {
+      writeTransaction.executeWithoutResult(status -> {
+        MovementDeadLetter stored = entityManager.find(MovementDeadLetter.class, deadLetterId);
+        if (stored != null) {
+          stored.setAttempts(stored.getAttempts() + 1);
+          stored.setLastAttemptAt(Instant.now());
+          stored.setErrorMessage(ex.getMessage());
+        }
+      });
+    } catch (RuntimeException ignored) {
+      // The attempt count is informational; the replay is tried again either way.
+    }
+  }
+
+  private static String toPayload(StockMovement movement) {
+    try {
+      return PAYLOAD_MAPPER.writeValueAsString(movement);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Movement cannot be serialized", ex);
+    }
+  }
+
+  private static StockMovement fromPayload(String payload) {
+    try {
+      return PAYLOAD_MAPPER.readValue(payload, StockMovement.class);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Dead-lettered movement cannot be read: " + payload, ex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void forEachPending(Consumer<StockMovement> action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      List<StockMovement> local = (List<StockMovement>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+      if (local != null) {
+        local.forEach(action);
+      }
+    }
+    forQueued(action);
+    deadLetters.values().forEach(action);
+    unsaved.forEach(action);
+  }
+
+  private void forQueued(Consumer<StockMovement> action) {
+    inFlight.forEach(action);
+    queue.forEach(action);
+  }
+}
@@ -3,20 +3,33 @@ package com.godam.movements.service;
 import com.godam.movements.MovementType;
 import com.godam.movements.StockMovement;
 import com.godam.movements.repository.StockMovementRepository;
+import io.micrometer.core.annotation.Timed;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class StockMovementService {
   private final StockMovementRepository stockMovementRepository;
+  private final MovementWriteBuffer movementWriteBuffer;
 
-  public StockMovementService(StockMovementRepository stockMovementRepository) {
+  public StockMovementService(
+      StockMovementRepository stockMovementRepository,
+      MovementWriteBuffer movementWriteBuffer) {
     this.stockMovementRepository = stockMovementRepository;
+    this.movementWriteBuffer = movementWriteBuffer;
   }
 
+  /**
+   * Types configured for group commit are queued and inserted shortly after the caller commits; the
+   * returned movement then has no id yet. All other types are inserted in the caller's transaction.
+   */
   @Transactional
+  @Timed("godam.movements.log")
   public StockMovement logMovement(
       MovementType type,
       String warehouseNo,
@@ -52,9 +65,32 @@ public class StockMovementService {
     movement.setReference(reference);
     movement.setRemark(remark);
     movement.setCreatedAt(Instant.now());
+    if (movementWriteBuffer.isBuffered(type)) {
+      movementWriteBuffer.submit(movement);
+      return movement;
+    }
     return stockMovementRepository.save(movement);
   }
 
+  /** {@link #logMovement} for many prepared movements; the direct ones go out as one batched insert. */
+  @Transactional
+  @Timed("godam.movements.log.batch")
+  public void logMovements(List<StockMovement> movements) {
+    Instant now = Instant.now();
+    List<StockMovement> direct = new ArrayList<>(movements.size());
+    for (StockMovement movement : movements) {
+      if (movement.getCreatedAt() == null) {
+        movement.setCreatedAt(now);
+      }
+      if (movementWriteBuffer.isBuffered(movement.getMovementType())) {
+        movementWriteBuffer.submit(movement);
+      } else {
+        direct.add(movement);
+      }
+    }
+    stockMovementRepository.saveAll(direct);
+  }
+
   @Transactional(readOnly = true)
   public int getParkedQty(String warehouseNo, String partNumber) {
     return stockMovementRepository.sumQtyByWarehousePartAndTypes(
@@ -67,4 +103,20 @@ public class StockMovementService {
   public List<StockMovement> getMovementsByOutbound(String outboundNumber) {
     return stockMovementRepository.findBySalesOrderOrderByCreatedAtAsc(outboundNumber);
   }
+
+  /** Warehouse of the latest O103 per part number of the order, i.e. where each part was picked. */
+  @Transactional(readOnly = true)
+  public Map<String, String> findPickedWarehouses(String outboundNumber) {
+    Map<String, String> warehouses = new HashMap<>();
+    if (outboundNumber == null) {
+      return warehouses;
+    }
+    for (StockMovement movement : stockMovementRepository.findBySalesOrderOrderByCreatedAtAsc(outboundNumber)) {
+      if (movement.getMovementType() == MovementType.O103_PICKED
+          && movement.getPartNumber() != null && movement.getWarehouseNo() != null) {
+        warehouses.put(movement.getPartNumber(), movement.getWarehouseNo());
+      }
+    }
+    return warehouses;
+  }
 }
@@ -8,13 +8,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "order_admin_audits")
 public class OrderAdminAudit {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_admin_audits_id_gen")
+  @SequenceGenerator(name = "order_admin_audits_id_gen", sequenceName = "order_admin_audits_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "order_id")
@@ -0,0 +1,82 @@
+package com.godam.orders;
+
+import com.godam.movements.StockMovement;
+import com.godam.stock.Stock;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bumps {@link OrderVersionTracker} stamps once the transaction that wrote an order, its items or
+ * transport, a movement or a stock row completes.
+ */
+@Component
+public class OrderChangeListener {
+  private static final Object PENDING_KEY = OrderChangeListener.class.getName() + ".pending";
+
+  private final ObjectProvider<OrderVersionTracker> versionTracker;
+
+  public OrderChangeListener(ObjectProvider<OrderVersionTracker> versionTracker) {
+    this.versionTracker = versionTracker;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onWrite(Object entity) {
+    String key = keyOf(entity);
+    if (key == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      versionTracker.ifAvailable(tracker -> tracker.bump(Set.of(key)));
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      Set<String> keys = new LinkedHashSet<>();
+      pending = keys;
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, keys);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+          versionTracker.ifAvailable(tracker -> tracker.bump(keys));
+        }
+      });
+    }
+    pending.add(key);
+  }
+
+  private static String keyOf(Object entity) {
+    if (entity instanceof OrderWorkflow order) {
+      return order.getId() == null ? null : OrderVersionTracker.orderKey(order.getId());
+    }
+    if (entity instanceof OrderItem item) {
+      return orderKeyOf(item.getOrder());
+    }
+    if (entity instanceof OrderTransport transport) {
+      return orderKeyOf(transport.getOrder());
+    }
+    if (entity instanceof StockMovement movement) {
+      return movement.getSalesOrder() == null
+          ? null
+          : OrderVersionTracker.outboundKey(movement.getSalesOrder());
+    }
+    if (entity instanceof Stock stock) {
+      return stock.getPartNumber() == null ? null : OrderVersionTracker.partKey(stock.getPartNumber());
+    }
+    return null;
+  }
+
+  private static String orderKeyOf(OrderWorkflow order) {
+    return order == null || order.getId() == null ? null : OrderVersionTracker.orderKey(order.getId());
+  }
+}
@@ -2,17 +2,21 @@ package com.godam.orders;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
+@EntityListeners(OrderChangeListener.class)
 @Table(name = "order_items")
 public class OrderItem {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id_gen")
+  @SequenceGenerator(name = "order_items_id_gen", sequenceName = "order_items_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "part_number")
@@ -0,0 +1,75 @@
+package com.godam.orders;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Write stamps for everything a rendered DN depends on: the order itself (header, items,
+ * transport), movements booked against its outbound number, and stock rows for its parts. Every
+ * bump draws from one sequence, so the highest stamp over an order's keys changes whenever any of
+ * them is written. Keys that were never written, or were dropped to bound memory, report the
+ * floor, which only ever moves up.
+ */
+@Component
+public class OrderVersionTracker {
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<String, Long> stamps = new ConcurrentHashMap<>();
+  private final int maxKeys;
+  private volatile long floor;
+
+  public OrderVersionTracker(@Value("${godam.orders.version-tracker.max-keys:100000}") int maxKeys) {
+    this.maxKeys = Math.max(1, maxKeys);
+  }
+
+  public long currentSequence() {
+    return sequence.get();
+  }
+
+  public long stamp(Long orderId, String outboundNumber, Collection<String> partNumbers) {
+    long stamp = stampOf(orderKey(orderId));
+    if (outboundNumber != null) {
+      stamp = Math.max(stamp, stampOf(outboundKey(outboundNumber)));
+    }
+    for (String partNumber : partNumbers) {
+      stamp = Math.max(stamp, stampOf(partKey(partNumber)));
+    }
+    return stamp;
+  }
+
+  public void bump(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    long next = sequence.incrementAndGet();
+    for (String key : keys) {
+      stamps.put(key, next);
+    }
+    if (stamps.size() > maxKeys) {
+      // Dropping stamps below the floor would let old entries look current again.
+      floor = sequence.get();
+      stamps.clear();
+    }
+  }
+
+  static String orderKey(Long orderId) {
+    return "order:" + orderId;
+  }
+
+  static String outboundKey(String outboundNumber) {
+    return "outbound:" + outboundNumber;
+  }
+
+  static String partKey(String partNumber) {
+    return "part:" + partNumber;
+  }
+
+  private long stampOf(String key) {
+    long current = floor;
+    Long stamp = stamps.get(key);
+    return stamp == null ? current : Math.max(stamp, current);
+  }
+}
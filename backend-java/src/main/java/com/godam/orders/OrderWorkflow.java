@@ -2,17 +2,20 @@ package com.godam.orders;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(OrderChangeListener.class)
 @Table(
     name = "order_workflows",
     indexes = {
@@ -20,7 +23,8 @@ import java.util.List;
     })
 public class OrderWorkflow {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_workflows_id_gen")
+  @SequenceGenerator(name = "order_workflows_id_gen", sequenceName = "order_workflows_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "invoice_number")
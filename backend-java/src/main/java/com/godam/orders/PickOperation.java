@@ -0,0 +1,122 @@
+package com.godam.orders;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/** A scanner pick applied through the batch endpoint, keyed by the client's operation id. */
+@Entity
+@Table(
+    name = "pick_operations",
+    indexes = {
+      @Index(name = "ux_pick_operations_operation_id", columnList = "operation_id", unique = true),
+      @Index(name = "ix_pick_operations_applied_at", columnList = "applied_at")
+    })
+public class PickOperation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pick_operations_id_gen")
+  @SequenceGenerator(name = "pick_operations_id_gen", sequenceName = "pick_operations_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "operation_id", nullable = false, length = 64)
+  private String operationId;
+
+  @Column(name = "order_id", nullable = false)
+  private Long orderId;
+
+  @Column(name = "outbound_number")
+  private String outboundNumber;
+
+  @Column(name = "part_number", nullable = false)
+  private String partNumber;
+
+  @Column(name = "qty", nullable = false)
+  private int qty;
+
+  @Column(name = "picked_rack")
+  private String pickedRack;
+
+  @Column(name = "picked_by")
+  private String pickedBy;
+
+  @Column(name = "applied_at", nullable = false)
+  private Instant appliedAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getOperationId() {
+    return operationId;
+  }
+
+  public void setOperationId(String operationId) {
+    this.operationId = operationId;
+  }
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId;
+  }
+
+  public String getOutboundNumber() {
+    return outboundNumber;
+  }
+
+  public void setOutboundNumber(String outboundNumber) {
+    this.outboundNumber = outboundNumber;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public int getQty() {
+    return qty;
+  }
+
+  public void setQty(int qty) {
+    this.qty = qty;
+  }
+
+  public String getPickedRack() {
+    return pickedRack;
+  }
+
+  public void setPickedRack(String pickedRack) {
+    this.pickedRack = pickedRack;
+  }
+
+  public String getPickedBy() {
+    return pickedBy;
+  }
+
+  public void setPickedBy(String pickedBy) {
+    this.pickedBy = pickedBy;
+  }
+
+  public Instant getAppliedAt() {
+    return appliedAt;
+  }
+
+  public void setAppliedAt(Instant appliedAt) {
+    this.appliedAt = appliedAt;
+  }
+}
@@ -1,5 +1,8 @@
 package com.godam.orders.controller;
 
+import com.godam.jobs.UploadJobDto;
+import com.godam.jobs.UploadJobService;
+import com.godam.jobs.UploadPhaseMetrics;
 import com.godam.orders.dto.OrderSummaryDto;
 import com.godam.orders.dto.OrderUploadItemDto;
 import com.godam.orders.dto.OrderUploadResultDto;
@@ -10,10 +13,13 @@ import com.godam.orders.dto.OrderItemDto;
 import com.godam.orders.dto.OrderItemUpdateRequest;
 import com.godam.orders.dto.OrderViewDto;
 import com.godam.orders.dto.OrderEditRequest;
+import com.godam.orders.dto.OrderBatchPickRequest;
+import com.godam.orders.dto.OrderBatchPickResultDto;
 import com.godam.orders.dto.OrderDeleteRequest;
 import com.godam.orders.dto.OrderSendForPickupRequest;
 import com.godam.orders.service.OrdersService;
 import java.util.List;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,15 +28,25 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping({"/orders", "/api/orders"})
 public class OrdersController {
+  private static final String BULK_UPLOAD = "ORDER_BULK_UPLOAD";
+
   private final OrdersService ordersService;
+  private final UploadJobService uploadJobService;
+  private final UploadPhaseMetrics uploadPhaseMetrics;
 
-  public OrdersController(OrdersService ordersService) {
+  public OrdersController(
+      OrdersService ordersService,
+      UploadJobService uploadJobService,
+      UploadPhaseMetrics uploadPhaseMetrics) {
     this.ordersService = ordersService;
+    this.uploadJobService = uploadJobService;
+    this.uploadPhaseMetrics = uploadPhaseMetrics;
   }
 
   @GetMapping("/{orderId}")
@@ -46,7 +62,13 @@ public class OrdersController {
 
   @PostMapping("/bulk")
   public OrderUploadResultDto uploadOrders(@RequestBody List<OrderUploadItemDto> rows) {
-    return ordersService.uploadOrders(rows);
+    return ordersService.uploadOrders(rows, uploadPhaseMetrics.track(BULK_UPLOAD));
+  }
+
+  @PostMapping("/bulk/async")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public UploadJobDto uploadOrdersAsync(@RequestBody List<OrderUploadItemDto> rows) {
+    return uploadJobService.submit(BULK_UPLOAD, progress -> ordersService.uploadOrders(rows, progress));
   }
 
   @PostMapping("/{orderId}/items/pick")
@@ -58,7 +80,13 @@ public class OrdersController {
         request.getPartNumber(),
         request.getPickedRack(),
         request.getPickedBy(),
-        request.getPickedQty());
+        request.getPickedQty(),
+        request.getWarehouseNo());
+  }
+
+  @PostMapping("/picks/batch")
+  public OrderBatchPickResultDto pickBatch(@RequestBody OrderBatchPickRequest request) {
+    return ordersService.pickBatch(request);
   }
 
   @PatchMapping("/{orderId}")
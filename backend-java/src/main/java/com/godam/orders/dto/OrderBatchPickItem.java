@@ -0,0 +1,49 @@
+package com.godam.orders.dto;
+
+public class OrderBatchPickItem {
+  private String operationId;
+  private Long orderId;
+  private String partNumber;
+  private String pickedRack;
+  private Integer pickedQty;
+
+  public String getOperationId() {
+    return operationId;
+  }
+
+  public void setOperationId(String operationId) {
+    this.operationId = operationId;
+  }
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getPickedRack() {
+    return pickedRack;
+  }
+
+  public void setPickedRack(String pickedRack) {
+    this.pickedRack = pickedRack;
+  }
+
+  public Integer getPickedQty() {
+    return pickedQty;
+  }
+
+  public void setPickedQty(Integer pickedQty) {
+    this.pickedQty = pickedQty;
+  }
+}
@@ -0,0 +1,33 @@
+package com.godam.orders.dto;
+
+import java.util.List;
+
+public class OrderBatchPickRequest {
+  private String warehouseNo;
+  private String pickedBy;
+  private List<OrderBatchPickItem> picks;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPickedBy() {
+    return pickedBy;
+  }
+
+  public void setPickedBy(String pickedBy) {
+    this.pickedBy = pickedBy;
+  }
+
+  public List<OrderBatchPickItem> getPicks() {
+    return picks;
+  }
+
+  public void setPicks(List<OrderBatchPickItem> picks) {
+    this.picks = picks;
+  }
+}
@@ -0,0 +1,42 @@
+package com.godam.orders.dto;
+
+import java.util.List;
+
+public class OrderBatchPickResultDto {
+  private int appliedCount;
+  private int duplicateCount;
+  private int failedCount;
+  private List<OrderPickOperationResultDto> operations;
+
+  public int getAppliedCount() {
+    return appliedCount;
+  }
+
+  public void setAppliedCount(int appliedCount) {
+    this.appliedCount = appliedCount;
+  }
+
+  public int getDuplicateCount() {
+    return duplicateCount;
+  }
+
+  public void setDuplicateCount(int duplicateCount) {
+    this.duplicateCount = duplicateCount;
+  }
+
+  public int getFailedCount() {
+    return failedCount;
+  }
+
+  public void setFailedCount(int failedCount) {
+    this.failedCount = failedCount;
+  }
+
+  public List<OrderPickOperationResultDto> getOperations() {
+    return operations;
+  }
+
+  public void setOperations(List<OrderPickOperationResultDto> operations) {
+    this.operations = operations;
+  }
+}
@@ -0,0 +1,67 @@
+package com.godam.orders.dto;
+
+public class OrderPickOperationResultDto {
+  private String operationId;
+  private Long orderId;
+  private String partNumber;
+  private String status;
+  private String message;
+  private Integer pickedQty;
+  private OrderItemDto item;
+
+  public String getOperationId() {
+    return operationId;
+  }
+
+  public void setOperationId(String operationId) {
+    this.operationId = operationId;
+  }
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  public Integer getPickedQty() {
+    return pickedQty;
+  }
+
+  public void setPickedQty(Integer pickedQty) {
+    this.pickedQty = pickedQty;
+  }
+
+  public OrderItemDto getItem() {
+    return item;
+  }
+
+  public void setItem(OrderItemDto item) {
+    this.item = item;
+  }
+}
@@ -5,6 +5,7 @@ public class OrderPickRequest {
   private String pickedRack;
   private String pickedBy;
   private Integer pickedQty;
+  private String warehouseNo;
 
   public String getPartNumber() {
     return partNumber;
@@ -37,4 +38,12 @@ public class OrderPickRequest {
   public void setPickedQty(Integer pickedQty) {
     this.pickedQty = pickedQty;
   }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
 }
@@ -4,6 +4,9 @@ public class OrderUploadResultDto {
   private int inserted;
   private int updated;
   private int total;
+  private int rows;
+  private long elapsedMs;
+  private long rowsPerSecond;
 
   public OrderUploadResultDto(int inserted, int updated, int total) {
     this.inserted = inserted;
@@ -22,4 +25,28 @@ public class OrderUploadResultDto {
   public int getTotal() {
     return total;
   }
+
+  public int getRows() {
+    return rows;
+  }
+
+  public void setRows(int rows) {
+    this.rows = rows;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public void setElapsedMs(long elapsedMs) {
+    this.elapsedMs = elapsedMs;
+  }
+
+  public long getRowsPerSecond() {
+    return rowsPerSecond;
+  }
+
+  public void setRowsPerSecond(long rowsPerSecond) {
+    this.rowsPerSecond = rowsPerSecond;
+  }
 }
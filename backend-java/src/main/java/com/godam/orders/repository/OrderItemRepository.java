@@ -1,13 +1,21 @@
 package com.godam.orders.repository;
 
 import com.godam.orders.OrderItem;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
   void deleteByOrder_Id(Long orderId);
 
+  @Modifying(flushAutomatically = true)
+  @Query("delete from OrderItem i where i.order.id in :orderIds")
+  int deleteAllByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
   Optional<OrderItem> findByOrder_IdAndPartNumber(Long orderId, String partNumber);
 
   List<OrderItem> findByOrder_Id(Long orderId);
@@ -1,6 +1,7 @@
 package com.godam.orders.repository;
 
 import com.godam.orders.OrderWorkflow;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -16,5 +17,10 @@ public interface OrderWorkflowRepository extends JpaRepository<OrderWorkflow, Lo
   @EntityGraph(attributePaths = {"items"})
   List<OrderWorkflow> findByDnCreated(boolean dnCreated);
 
+  @EntityGraph(attributePaths = {"items"})
+  List<OrderWorkflow> findByIdIn(Collection<Long> ids);
+
   Optional<OrderWorkflow> findByOutboundNumber(String outboundNumber);
+
+  List<OrderWorkflow> findByOutboundNumberIn(Collection<String> outboundNumbers);
 }
@@ -0,0 +1,18 @@
+package com.godam.orders.repository;
+
+import com.godam.orders.PickOperation;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface PickOperationRepository extends JpaRepository<PickOperation, Long> {
+  List<PickOperation> findByOperationIdIn(Collection<String> operationIds);
+
+  @Modifying
+  @Query("delete from PickOperation p where p.appliedAt < :cutoff")
+  int deleteAppliedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -4,7 +4,11 @@ import com.godam.common.User;
 import com.godam.common.UserRepository;
 import com.godam.common.exception.BusinessRuleException;
 import com.godam.common.exception.ResourceNotFoundException;
+import com.godam.common.exception.StockValidationException;
+import com.godam.jobs.JobPhase;
+import com.godam.jobs.JobProgress;
 import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
 import com.godam.movements.repository.StockMovementRepository;
 import com.godam.movements.service.StockMovementService;
 import com.godam.masters.Customer;
@@ -13,10 +17,15 @@ import com.godam.orders.OrderAdminAction;
 import com.godam.orders.OrderAdminAudit;
 import com.godam.orders.OrderItem;
 import com.godam.orders.OrderWorkflow;
+import com.godam.orders.PickOperation;
+import com.godam.orders.dto.OrderBatchPickItem;
+import com.godam.orders.dto.OrderBatchPickRequest;
+import com.godam.orders.dto.OrderBatchPickResultDto;
 import com.godam.orders.dto.OrderDeleteRequest;
 import com.godam.orders.dto.OrderEditRequest;
 import com.godam.orders.dto.OrderItemDto;
 import com.godam.orders.dto.OrderItemUpdateRequest;
+import com.godam.orders.dto.OrderPickOperationResultDto;
 import com.godam.orders.dto.OrderSendForPickupRequest;
 import com.godam.orders.dto.OrderSummaryDto;
 import com.godam.orders.dto.OrderUploadItemDto;
@@ -29,15 +38,22 @@ import com.godam.security.UploadValidationPipeline;
 import com.godam.stock.Stock;
 import com.godam.stock.dto.StockPickContext;
 import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.StockPickBatch;
 import com.godam.stock.service.StockService;
+import io.micrometer.core.annotation.Timed;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +62,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class OrdersService {
   private static final String OWNER_USERNAME = "godam_admin";
   private static final String OVERRIDE_STATUS = "COMPLETED";
+  private static final int UPLOAD_SAVE_CHUNK = 500;
+
+  public static final String PICK_APPLIED = "APPLIED";
+  public static final String PICK_DUPLICATE = "DUPLICATE";
+  public static final String PICK_FAILED = "FAILED";
 
   private final OrderWorkflowRepository orderWorkflowRepository;
   private final OrderItemRepository orderItemRepository;
@@ -58,6 +79,8 @@ public class OrdersService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final UploadValidationPipeline uploadValidationPipeline;
+  private final PickOperationStore pickOperationStore;
+  private final int maxBatchPicks;
 
   public OrdersService(
       OrderWorkflowRepository orderWorkflowRepository,
@@ -70,7 +93,9 @@ public class OrdersService {
       CustomerRepository customerRepository,
       UserRepository userRepository,
       PasswordEncoder passwordEncoder,
-      UploadValidationPipeline uploadValidationPipeline) {
+      UploadValidationPipeline uploadValidationPipeline,
+      PickOperationStore pickOperationStore,
+      @Value("${godam.orders.pick-batch.max-operations:500}") int maxBatchPicks) {
     this.orderWorkflowRepository = orderWorkflowRepository;
     this.orderItemRepository = orderItemRepository;
     this.orderAuditRepository = orderAuditRepository;
@@ -82,6 +107,8 @@ public class OrdersService {
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.uploadValidationPipeline = uploadValidationPipeline;
+    this.pickOperationStore = pickOperationStore;
+    this.maxBatchPicks = Math.max(1, maxBatchPicks);
   }
 
   @Transactional(readOnly = true)
@@ -95,8 +122,20 @@ public class OrdersService {
     return view;
   }
 
+  /**
+   * With a {@code warehouseNo} the FIFO rows, hierarchy checks, parked qty and returned
+   * availability read only that warehouse's stock; without one, every warehouse as before.
+   */
   @Transactional
-  public OrderItemDto pickItem(Long orderId, String partNumber, String pickedRack, String pickedBy, Integer pickedQty) {
+  @Timed("godam.orders.pick")
+  public OrderItemDto pickItem(
+      Long orderId,
+      String partNumber,
+      String pickedRack,
+      String pickedBy,
+      Integer pickedQty,
+      String warehouseNo) {
+    String warehouse = warehouseNo == null || warehouseNo.isBlank() ? null : warehouseNo.trim();
     OrderItem item = orderItemRepository.findByOrder_IdAndPartNumber(orderId, partNumber)
         .orElseThrow(() -> new com.godam.common.exception.ResourceNotFoundException("Order item not found"));
     int requestedQty = item.getQty() == null ? 0 : item.getQty();
@@ -125,8 +164,8 @@ public class OrdersService {
         && order.getPickingStatus() != null
         && "PICK_REQUESTED_OVERRIDE".equalsIgnoreCase(order.getPickingStatus());
     StockPickContext context = allowNegative
-        ? stockService.preparePickContextAllowNegative(partNumber, pickQty, pickedRack)
-        : stockService.preparePickContext(partNumber, pickQty, pickedRack);
+        ? stockService.preparePickContextAllowNegative(warehouse, partNumber, pickQty, pickedRack)
+        : stockService.preparePickContext(warehouse, partNumber, pickQty, pickedRack);
     item.setPickedRack(pickedRack);
     item.setPickedBy(pickedBy == null || pickedBy.isBlank() ? "Picker" : pickedBy);
     item.setIsPicked(alreadyPicked + pickQty >= requestedQty);
@@ -150,11 +189,215 @@ public class OrdersService {
         requestedQty,
         context.getReference(),
         context.getRemark());
-    PartAvailability updatedAvailability = buildPartAvailability(List.of(item)).get(item.getPartNumber());
+    PartAvailability updatedAvailability =
+        buildPartAvailability(warehouse, Set.of(item.getPartNumber())).get(item.getPartNumber());
     return toItemDto(saved, updatedAvailability);
   }
 
+  /**
+   * Many scanner picks in one call, e.g. a queue synced after the scanner was offline. Each pick
+   * carries a client operation id; one already applied (by an earlier call or earlier in this batch)
+   * is reported as a duplicate and changes nothing. Orders, picked totals, FIFO rows, parked qty and
+   * known operation ids are read once for the whole batch, and picks run in request order with the
+   * same checks as {@link #pickItem}. A pick that fails is reported and skipped; the others still
+   * apply, so the scanner only retries what failed.
+   */
+  @Transactional
+  @Timed("godam.orders.pick.batch")
+  public OrderBatchPickResultDto pickBatch(OrderBatchPickRequest request) {
+    List<OrderBatchPickItem> picks = request == null || request.getPicks() == null ? List.of() : request.getPicks();
+    if (picks.isEmpty()) {
+      throw new BusinessRuleException("Batch pick has no operations.");
+    }
+    if (picks.size() > maxBatchPicks) {
+      throw new BusinessRuleException("Batch pick is limited to " + maxBatchPicks + " operations.");
+    }
+    String warehouse = request.getWarehouseNo() == null || request.getWarehouseNo().isBlank()
+        ? null
+        : request.getWarehouseNo().trim();
+    String pickedBy = request.getPickedBy() == null || request.getPickedBy().isBlank()
+        ? "Picker"
+        : request.getPickedBy();
+
+    Set<String> operationIds = new LinkedHashSet<>();
+    for (OrderBatchPickItem pick : picks) {
+      if (pick.getOperationId() != null && !pick.getOperationId().isBlank()) {
+        operationIds.add(pick.getOperationId().trim());
+      }
+    }
+    Map<String, PickOperation> applied = pickOperationStore.findApplied(operationIds);
+    Set<Long> orderIds = new HashSet<>();
+    Set<String> partNumbers = new HashSet<>();
+    for (OrderBatchPickItem pick : picks) {
+      String operationId = pick.getOperationId() == null ? null : pick.getOperationId().trim();
+      if (operationId != null && !applied.containsKey(operationId) && pick.getOrderId() != null
+          && pick.getPartNumber() != null) {
+        orderIds.add(pick.getOrderId());
+        partNumbers.add(pick.getPartNumber());
+      }
+    }
+    Map<Long, OrderWorkflow> orders = new HashMap<>();
+    Set<String> outbounds = new HashSet<>();
+    if (!orderIds.isEmpty()) {
+      for (OrderWorkflow order : orderWorkflowRepository.findByIdIn(orderIds)) {
+        orders.put(order.getId(), order);
+        if (order.getOutboundNumber() != null) {
+          outbounds.add(order.getOutboundNumber());
+        }
+      }
+    }
+    Map<String, Map<String, Integer>> picked = outbounds.isEmpty()
+        ? new HashMap<>()
+        : new HashMap<>(stockMovementRepository.sumQtyBySalesOrdersAndType(outbounds, MovementType.O103_PICKED));
+    StockPickBatch stock = stockService.preparePickBatch(warehouse, partNumbers);
+
+    Map<String, PickOperation> recorded = new LinkedHashMap<>();
+    Map<OrderItem, OrderPickOperationResultDto> appliedItems = new LinkedHashMap<>();
+    List<StockMovement> movements = new ArrayList<>();
+    List<OrderPickOperationResultDto> results = new ArrayList<>(picks.size());
+    OrderBatchPickResultDto dto = new OrderBatchPickResultDto();
+    for (OrderBatchPickItem pick : picks) {
+      OrderPickOperationResultDto result = new OrderPickOperationResultDto();
+      String operationId = pick.getOperationId() == null ? null : pick.getOperationId().trim();
+      result.setOperationId(operationId);
+      result.setOrderId(pick.getOrderId());
+      result.setPartNumber(pick.getPartNumber());
+      results.add(result);
+      if (operationId == null || operationId.isEmpty() || operationId.length() > 64) {
+        fail(dto, result, "operationId is required (at most 64 characters)");
+        continue;
+      }
+      // Only applied operations count as duplicates; a repeat of one that failed is tried again.
+      PickOperation previous = applied.get(operationId);
+      boolean inThisBatch = previous == null && recorded.containsKey(operationId);
+      if (inThisBatch) {
+        previous = recorded.get(operationId);
+      }
+      if (previous != null) {
+        result.setStatus(PICK_DUPLICATE);
+        result.setMessage(inThisBatch
+            ? "Operation repeated in this batch"
+            : "Already applied at " + previous.getAppliedAt());
+        result.setOrderId(previous.getOrderId());
+        result.setPartNumber(previous.getPartNumber());
+        result.setPickedQty(previous.getQty());
+        dto.setDuplicateCount(dto.getDuplicateCount() + 1);
+        continue;
+      }
+      try {
+        OrderItem item = applyBatchPick(pick, orders, picked, stock, pickedBy, movements);
+        PickOperation operation = new PickOperation();
+        operation.setOperationId(operationId);
+        operation.setOrderId(pick.getOrderId());
+        operation.setOutboundNumber(item.getOrder() == null ? null : item.getOrder().getOutboundNumber());
+        operation.setPartNumber(item.getPartNumber());
+        operation.setQty(movements.get(movements.size() - 1).getQtyChange());
+        operation.setPickedRack(pick.getPickedRack());
+        operation.setPickedBy(pickedBy);
+        operation.setAppliedAt(Instant.now());
+        recorded.put(operationId, operation);
+        result.setStatus(PICK_APPLIED);
+        result.setPickedQty(operation.getQty());
+        appliedItems.put(item, result);
+        dto.setAppliedCount(dto.getAppliedCount() + 1);
+      } catch (StockValidationException | ResourceNotFoundException | BusinessRuleException ex) {
+        fail(dto, result, ex.getMessage());
+      }
+    }
+
+    if (!recorded.isEmpty()) {
+      orderItemRepository.saveAll(appliedItems.keySet());
+      stockMovementService.logMovements(movements);
+      pickOperationStore.record(new ArrayList<>(recorded.values()));
+      Set<String> pickedParts = new HashSet<>();
+      appliedItems.keySet().forEach(item -> pickedParts.add(item.getPartNumber()));
+      Map<String, PartAvailability> availability = buildPartAvailability(warehouse, pickedParts);
+      appliedItems.forEach((item, result) -> result.setItem(toItemDto(item, availability.get(item.getPartNumber()))));
+    }
+    dto.setOperations(results);
+    return dto;
+  }
+
+  /** Where the item was picked: its O103 by part number, or by the main part it was picked as. */
+  private String pickedWarehouse(Map<String, String> pickedWarehouses, String partNumber) {
+    String warehouse = pickedWarehouses.get(partNumber);
+    return warehouse != null || partNumber == null
+        ? warehouse
+        : pickedWarehouses.get(stockService.resolveMainPartNumber(partNumber));
+  }
+
+  private OrderItem applyBatchPick(
+      OrderBatchPickItem pick,
+      Map<Long, OrderWorkflow> orders,
+      Map<String, Map<String, Integer>> picked,
+      StockPickBatch stock,
+      String pickedBy,
+      List<StockMovement> movements) {
+    OrderWorkflow order = pick.getOrderId() == null ? null : orders.get(pick.getOrderId());
+    if (order == null) {
+      throw new ResourceNotFoundException("Order not found");
+    }
+    OrderItem item = order.getItems() == null ? null : order.getItems().stream()
+        .filter(candidate -> Objects.equals(candidate.getPartNumber(), pick.getPartNumber()))
+        .findFirst()
+        .orElse(null);
+    if (item == null) {
+      throw new ResourceNotFoundException("Order item not found");
+    }
+    int requestedQty = item.getQty() == null ? 0 : item.getQty();
+    if (requestedQty <= 0) {
+      throw new StockValidationException("Requested qty must be greater than zero");
+    }
+    int pickQty = pick.getPickedQty() == null ? requestedQty : pick.getPickedQty();
+    if (pickQty <= 0) {
+      throw new StockValidationException("Pick qty must be greater than zero");
+    }
+    String outbound = order.getOutboundNumber();
+    Map<String, Integer> pickedByPart = outbound == null
+        ? new HashMap<>()
+        : picked.computeIfAbsent(outbound, key -> new HashMap<>());
+    int alreadyPicked = pickedByPart.getOrDefault(item.getPartNumber(), 0);
+    if (alreadyPicked + pickQty > requestedQty) {
+      throw new StockValidationException("Picked qty exceeds requested qty");
+    }
+
+    boolean allowNegative = order.getPickingStatus() != null
+        && "PICK_REQUESTED_OVERRIDE".equalsIgnoreCase(order.getPickingStatus());
+    StockPickContext context = stock.pick(item.getPartNumber(), pickQty, pick.getPickedRack(), allowNegative);
+    pickedByPart.put(item.getPartNumber(), alreadyPicked + pickQty);
+    item.setPickedRack(pick.getPickedRack());
+    item.setPickedBy(pickedBy);
+    item.setIsPicked(alreadyPicked + pickQty >= requestedQty);
+    item.setPickedAt(java.time.LocalDateTime.now());
+
+    StockMovement movement = new StockMovement();
+    movement.setMovementType(MovementType.O103_PICKED);
+    movement.setWarehouseNo(context.getWarehouseNo());
+    movement.setStorageLocation(context.getStorageLocation());
+    movement.setPartNumber(context.getResolvedPartNumber());
+    movement.setQtyChange(pickQty);
+    movement.setSalesOrder(outbound);
+    movement.setInvoiceNumber(order.getInvoiceNumber());
+    movement.setRack(context.getRack());
+    movement.setBin(context.getBin());
+    movement.setSuggestedRack(context.getSuggestedRack());
+    movement.setActualRack(context.getActualRack());
+    movement.setPickedQty(pickQty);
+    movement.setRequestedQty(requestedQty);
+    movement.setReference(context.getReference());
+    movement.setRemark(context.getRemark());
+    movements.add(movement);
+    return item;
+  }
+
+  private static void fail(OrderBatchPickResultDto dto, OrderPickOperationResultDto result, String message) {
+    result.setStatus(PICK_FAILED);
+    result.setMessage(message);
+    dto.setFailedCount(dto.getFailedCount() + 1);
+  }
+
   @Transactional
+  @Timed(value = "godam.orders.status.update", description = "Order status updates; a CONFIRMED check deducts stock")
   public void updateStatus(Long orderId, String pickingStatus, String checkingStatus) {
     OrderWorkflow order = orderWorkflowRepository.findById(orderId)
         .orElseThrow(() -> new com.godam.common.exception.ResourceNotFoundException("Order not found"));
@@ -169,16 +412,19 @@ public class OrdersService {
     if (checkingStatus != null && "CONFIRMED".equalsIgnoreCase(checkingStatus)) {
       List<OrderItem> items = order.getItems();
       if (items != null) {
+        Map<String, String> pickedWarehouses = stockMovementService.findPickedWarehouses(order.getOutboundNumber());
         for (OrderItem item : items) {
           int qty = item.getQty() == null ? 0 : item.getQty();
           if (qty <= 0) {
             continue;
           }
+          String warehouse = pickedWarehouse(pickedWarehouses, item.getPartNumber());
           StockPickContext context = stockService.preparePickContext(
+              warehouse,
               item.getPartNumber(),
               qty,
               item.getPickedRack());
-          stockService.applyConfirmedDeduction(item.getPartNumber(), qty, item.getPickedRack());
+          stockService.applyConfirmedDeduction(warehouse, item.getPartNumber(), qty, item.getPickedRack());
           stockMovementService.logMovement(
               MovementType.O105_CONFIRMED,
               context.getWarehouseNo(),
@@ -243,7 +489,7 @@ public class OrdersService {
           "owner-override",
           "Owner override bypass - auto pick");
 
-      stockService.applyConfirmedDeduction(item.getPartNumber(), qty, actualRack);
+      stockService.applyConfirmedDeduction(context.getWarehouseNo(), item.getPartNumber(), qty, actualRack);
 
           stockMovementService.logMovement(
               MovementType.O105_CONFIRMED,
@@ -283,9 +529,20 @@ public class OrdersService {
   }
 
   @Transactional
+  @Timed("godam.orders.upload")
   public OrderUploadResultDto uploadOrders(List<OrderUploadItemDto> rows) {
+    return uploadOrders(rows, JobProgress.NONE);
+  }
+
+  @Transactional
+  @Timed("godam.orders.upload")
+  public OrderUploadResultDto uploadOrders(List<OrderUploadItemDto> rows, JobProgress progress) {
+    long startedAt = System.nanoTime();
+    progress.phase(JobPhase.VALIDATE, rows.size());
     Map<String, List<OrderUploadItemDto>> grouped = new LinkedHashMap<>();
     for (int i = 0; i < rows.size(); i++) {
+      progress.checkCancelled();
+      progress.advance(1);
       OrderUploadItemDto row = rows.get(i);
       validateOrderUploadRow(row, i + 1);
       if (row.getOutboundNumber() == null || row.getOutboundNumber().isBlank()) {
@@ -321,19 +578,31 @@ public class OrdersService {
       }
     }
 
+    // Prefetch every outbound and customer of the file up front instead of per outbound group.
+    Map<String, OrderWorkflow> existingOrders = new HashMap<>();
+    if (!grouped.isEmpty()) {
+      for (OrderWorkflow order : orderWorkflowRepository.findByOutboundNumberIn(grouped.keySet())) {
+        existingOrders.put(order.getOutboundNumber(), order);
+      }
+    }
+    Map<String, Customer> customersById = prefetchCustomers(grouped.values());
+
     int inserted = 0;
     int updated = 0;
-
+    List<OrderWorkflow> orders = new ArrayList<>();
+    List<Long> replacedOrderIds = new ArrayList<>();
     for (Map.Entry<String, List<OrderUploadItemDto>> entry : grouped.entrySet()) {
       String outbound = entry.getKey();
       List<OrderUploadItemDto> items = entry.getValue();
 
-      OrderWorkflow order = orderWorkflowRepository.findByOutboundNumber(outbound).orElse(null);
+      OrderWorkflow order = existingOrders.get(outbound);
       boolean isNew = order == null;
       if (order == null) {
         order = new OrderWorkflow();
         order.setOutboundNumber(outbound);
         order.setDnCreated(false);
+      } else {
+        replacedOrderIds.add(order.getId());
       }
 
       OrderUploadItemDto first = items.get(0);
@@ -343,11 +612,12 @@ public class OrdersService {
       // Validate customer exists if customerId is provided
       String customerId = first.getCustomerId();
       if (customerId != null && !customerId.isBlank()) {
-        Customer customer = customerRepository
-            .findBySapCustomerIdIgnoreCase(customerId.trim())
-            .orElseThrow(() -> new BusinessRuleException(
-                "Customer not found with SAP Customer ID: " + customerId
-                    + ". Please add the customer to the Customers table before uploading orders."));
+        Customer customer = customersById.get(customerId.trim().toLowerCase(Locale.ROOT));
+        if (customer == null) {
+          throw new BusinessRuleException(
+              "Customer not found with SAP Customer ID: " + customerId
+                  + ". Please add the customer to the Customers table before uploading orders.");
+        }
         order.setCustomerId(customerId.trim());
         order.setCustomerName(customer.getName());
       } else {
@@ -356,13 +626,23 @@ public class OrdersService {
       }
       
       order.setGappPo(first.getSalesOrder());
+      orders.add(order);
 
-      OrderWorkflow saved = orderWorkflowRepository.save(order);
-      if (!isNew) {
-        orderItemRepository.deleteByOrder_Id(saved.getId());
+      if (isNew) {
+        inserted++;
+      } else {
+        updated++;
       }
-      List<OrderItem> orderItems = new ArrayList<>();
-      for (OrderUploadItemDto row : items) {
+    }
+
+    progress.phase(JobPhase.COMMIT, grouped.values().stream().mapToInt(List::size).sum());
+    List<OrderWorkflow> savedOrders = orderWorkflowRepository.saveAll(orders);
+    if (!replacedOrderIds.isEmpty()) {
+      orderItemRepository.deleteAllByOrderIds(replacedOrderIds);
+    }
+    List<OrderItem> orderItems = new ArrayList<>();
+    for (OrderWorkflow saved : savedOrders) {
+      for (OrderUploadItemDto row : grouped.get(saved.getOutboundNumber())) {
         OrderItem item = new OrderItem();
         item.setOrder(saved);
         item.setPartNumber(row.getPartNumber());
@@ -370,16 +650,39 @@ public class OrdersService {
         item.setQty(row.getQty() == null ? 0 : row.getQty());
         orderItems.add(item);
       }
-      orderItemRepository.saveAll(orderItems);
+    }
+    for (int from = 0; from < orderItems.size(); from += UPLOAD_SAVE_CHUNK) {
+      progress.checkCancelled();
+      List<OrderItem> chunk = orderItems.subList(from, Math.min(orderItems.size(), from + UPLOAD_SAVE_CHUNK));
+      orderItemRepository.saveAll(chunk);
+      progress.advance(chunk.size());
+    }
 
-      if (isNew) {
-        inserted++;
-      } else {
-        updated++;
+    OrderUploadResultDto result = new OrderUploadResultDto(inserted, updated, grouped.size());
+    long elapsedNanos = System.nanoTime() - startedAt;
+    result.setRows(rows.size());
+    result.setElapsedMs(elapsedNanos / 1_000_000);
+    result.setRowsPerSecond(elapsedNanos <= 0 ? 0 : Math.round(rows.size() * 1_000_000_000d / elapsedNanos));
+    progress.phase(JobPhase.DONE, 0);
+    return result;
+  }
+
+  private Map<String, Customer> prefetchCustomers(Collection<List<OrderUploadItemDto>> groups) {
+    Set<String> customerIds = new HashSet<>();
+    for (List<OrderUploadItemDto> items : groups) {
+      String customerId = items.get(0).getCustomerId();
+      if (customerId != null && !customerId.isBlank()) {
+        customerIds.add(customerId.trim().toLowerCase(Locale.ROOT));
       }
     }
-
-    return new OrderUploadResultDto(inserted, updated, grouped.size());
+    Map<String, Customer> result = new HashMap<>();
+    if (customerIds.isEmpty()) {
+      return result;
+    }
+    for (Customer customer : customerRepository.findBySapCustomerIdLowerIn(customerIds)) {
+      result.putIfAbsent(customer.getSapCustomerId().toLowerCase(Locale.ROOT), customer);
+    }
+    return result;
   }
 
   @Transactional
@@ -694,11 +997,17 @@ public class OrdersService {
   }
 
   private Map<String, PartAvailability> buildPartAvailability(Set<String> partNumbers) {
+    return buildPartAvailability(null, partNumbers);
+  }
+
+  private Map<String, PartAvailability> buildPartAvailability(String warehouseNo, Set<String> partNumbers) {
     Map<String, PartAvailability> result = new HashMap<>();
     if (partNumbers == null || partNumbers.isEmpty()) {
       return result;
     }
-    List<Stock> stocks = stockRepository.findByPartNumberIn(partNumbers);
+    List<Stock> stocks = warehouseNo == null
+        ? stockRepository.findByPartNumberIn(partNumbers)
+        : stockRepository.findByWarehouseNoAndPartNumberIn(warehouseNo, partNumbers);
     Map<String, List<Stock>> rowsByPart = new HashMap<>();
     for (Stock row : stocks) {
       if (row.getPartNumber() == null) {
@@ -706,6 +1015,10 @@ public class OrdersService {
       }
       rowsByPart.computeIfAbsent(row.getPartNumber(), key -> new ArrayList<>()).add(row);
     }
+    Map<String, Map<MovementType, Integer>> parkedByPart = stockMovementRepository.sumQtyByWarehousePartNumbersAndTypes(
+        warehouseNo,
+        partNumbers,
+        List.of(MovementType.O102_PICK_REQUESTED, MovementType.O103_PICKED, MovementType.O104_CHECKED));
     for (String partNumber : partNumbers) {
       List<Stock> rows = rowsByPart.get(partNumber);
       int totalQty = 0;
@@ -718,21 +1031,10 @@ public class OrdersService {
           }
         }
       }
-      int reserved = Math.max(
-          0,
-          stockMovementRepository.sumQtyByPartNumberAndTypes(
-              partNumber,
-              List.of(MovementType.O102_PICK_REQUESTED)));
-      int picked = Math.max(
-          0,
-          stockMovementRepository.sumQtyByPartNumberAndTypes(
-              partNumber,
-              List.of(MovementType.O103_PICKED)));
-      int checked = Math.max(
-          0,
-          stockMovementRepository.sumQtyByPartNumberAndTypes(
-              partNumber,
-              List.of(MovementType.O104_CHECKED)));
+      Map<MovementType, Integer> parked = parkedByPart.getOrDefault(partNumber, Map.of());
+      int reserved = Math.max(0, parked.getOrDefault(MovementType.O102_PICK_REQUESTED, 0));
+      int picked = Math.max(0, parked.getOrDefault(MovementType.O103_PICKED, 0));
+      int checked = Math.max(0, parked.getOrDefault(MovementType.O104_CHECKED, 0));
       int available = totalQty - reserved - picked - checked;
       if (available < 0) {
         available = 0;
@@ -0,0 +1,119 @@
+package com.godam.orders.service;
+
+import com.godam.orders.PickOperation;
+import com.godam.orders.repository.PickOperationRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Operation ids of applied batch picks. Recent ids sit in a bounded LRU so a scanner's retries are
+ * answered without a query; older ones are looked up in {@code pick_operations}, which keeps them
+ * for {@code godam.orders.pick-operations.retention-days}. The unique index on the id turns a
+ * concurrent retry of the same operation into a failed (rolled back) batch instead of a second pick.
+ */
+@Component
+public class PickOperationStore {
+  private static final Logger log = LoggerFactory.getLogger(PickOperationStore.class);
+
+  private final PickOperationRepository pickOperationRepository;
+  private final int retentionDays;
+  private final Map<String, PickOperation> recent;
+
+  public PickOperationStore(
+      PickOperationRepository pickOperationRepository,
+      @Value("${godam.orders.pick-operations.cache-size:20000}") int cacheSize,
+      @Value("${godam.orders.pick-operations.retention-days:14}") int retentionDays) {
+    this.pickOperationRepository = pickOperationRepository;
+    this.retentionDays = Math.max(1, retentionDays);
+    int capacity = Math.max(1, cacheSize);
+    this.recent = new LinkedHashMap<>(Math.min(capacity, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, PickOperation> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /** Applied operations among {@code operationIds}; ids not in the LRU cost one query together. */
+  @Transactional(readOnly = true)
+  public Map<String, PickOperation> findApplied(Collection<String> operationIds) {
+    Map<String, PickOperation> applied = new HashMap<>();
+    List<String> misses = new ArrayList<>();
+    synchronized (recent) {
+      for (String operationId : operationIds) {
+        PickOperation operation = recent.get(operationId);
+        if (operation != null) {
+          applied.put(operationId, operation);
+        } else {
+          misses.add(operationId);
+        }
+      }
+    }
+    if (!misses.isEmpty()) {
+      List<PickOperation> stored = pickOperationRepository.findByOperationIdIn(misses);
+      synchronized (recent) {
+        for (PickOperation operation : stored) {
+          applied.put(operation.getOperationId(), operation);
+          recent.put(operation.getOperationId(), operation);
+        }
+      }
+    }
+    return applied;
+  }
+
+  /** Saves applied operations in the caller's transaction; they enter the LRU once it commits. */
+  @Transactional
+  public void record(List<PickOperation> operations) {
+    if (operations.isEmpty()) {
+      return;
+    }
+    pickOperationRepository.saveAll(operations);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      remember(operations);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        remember(operations);
+      }
+    });
+  }
+
+  public int getCachedCount() {
+    synchronized (recent) {
+      return recent.size();
+    }
+  }
+
+  @Scheduled(cron = "${godam.orders.pick-operations.purge-cron:0 45 2 * * *}")
+  @Transactional
+  public void purgeExpired() {
+    int deleted = pickOperationRepository.deleteAppliedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+    if (deleted > 0) {
+      log.info("Purged {} pick operations older than {} days", deleted, retentionDays);
+    }
+  }
+
+  private void remember(List<PickOperation> operations) {
+    synchronized (recent) {
+      for (PickOperation operation : operations) {
+        recent.put(operation.getOperationId(), operation);
+      }
+    }
+  }
+}
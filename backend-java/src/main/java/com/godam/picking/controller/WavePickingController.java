@@ -0,0 +1,31 @@
+package com.godam.picking.controller;
+
+import com.godam.picking.dto.WaveConfirmRequest;
+import com.godam.picking.dto.WaveConfirmResultDto;
+import com.godam.picking.dto.WavePickListDto;
+import com.godam.picking.dto.WavePlanRequest;
+import com.godam.picking.service.WavePickingService;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/picking/waves", "/api/picking/waves"})
+public class WavePickingController {
+  private final WavePickingService wavePickingService;
+
+  public WavePickingController(WavePickingService wavePickingService) {
+    this.wavePickingService = wavePickingService;
+  }
+
+  @PostMapping("/plan")
+  public WavePickListDto planWave(@RequestBody WavePlanRequest request) {
+    return wavePickingService.planWave(request.getOrderIds(), request.getWarehouseNo());
+  }
+
+  @PostMapping("/confirm")
+  public WaveConfirmResultDto confirmWave(@RequestBody WaveConfirmRequest request) {
+    return wavePickingService.confirmWave(request);
+  }
+}
@@ -0,0 +1,40 @@
+package com.godam.picking.dto;
+
+public class WaveAllocationDto {
+  private Long orderId;
+  private String outboundNumber;
+  private String partNumber;
+  private int qty;
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId;
+  }
+
+  public String getOutboundNumber() {
+    return outboundNumber;
+  }
+
+  public void setOutboundNumber(String outboundNumber) {
+    this.outboundNumber = outboundNumber;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public int getQty() {
+    return qty;
+  }
+
+  public void setQty(int qty) {
+    this.qty = qty;
+  }
+}
@@ -0,0 +1,33 @@
+package com.godam.picking.dto;
+
+import java.util.List;
+
+public class WaveConfirmRequest {
+  private String warehouseNo;
+  private String pickedBy;
+  private List<WavePickLineDto> lines;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPickedBy() {
+    return pickedBy;
+  }
+
+  public void setPickedBy(String pickedBy) {
+    this.pickedBy = pickedBy;
+  }
+
+  public List<WavePickLineDto> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<WavePickLineDto> lines) {
+    this.lines = lines;
+  }
+}
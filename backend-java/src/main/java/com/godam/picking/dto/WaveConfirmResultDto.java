@@ -0,0 +1,33 @@
+package com.godam.picking.dto;
+
+import java.util.List;
+
+public class WaveConfirmResultDto {
+  private int movementCount;
+  private int pickedQty;
+  private List<WaveOrderResultDto> orders;
+
+  public int getMovementCount() {
+    return movementCount;
+  }
+
+  public void setMovementCount(int movementCount) {
+    this.movementCount = movementCount;
+  }
+
+  public int getPickedQty() {
+    return pickedQty;
+  }
+
+  public void setPickedQty(int pickedQty) {
+    this.pickedQty = pickedQty;
+  }
+
+  public List<WaveOrderResultDto> getOrders() {
+    return orders;
+  }
+
+  public void setOrders(List<WaveOrderResultDto> orders) {
+    this.orders = orders;
+  }
+}
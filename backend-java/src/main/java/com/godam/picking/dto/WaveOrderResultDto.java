@@ -0,0 +1,40 @@
+package com.godam.picking.dto;
+
+public class WaveOrderResultDto {
+  private Long orderId;
+  private String outboundNumber;
+  private int pickedQty;
+  private boolean fullyPicked;
+
+  public Long getOrderId() {
+    return orderId;
+  }
+
+  public void setOrderId(Long orderId) {
+    this.orderId = orderId;
+  }
+
+  public String getOutboundNumber() {
+    return outboundNumber;
+  }
+
+  public void setOutboundNumber(String outboundNumber) {
+    this.outboundNumber = outboundNumber;
+  }
+
+  public int getPickedQty() {
+    return pickedQty;
+  }
+
+  public void setPickedQty(int pickedQty) {
+    this.pickedQty = pickedQty;
+  }
+
+  public boolean isFullyPicked() {
+    return fullyPicked;
+  }
+
+  public void setFullyPicked(boolean fullyPicked) {
+    this.fullyPicked = fullyPicked;
+  }
+}
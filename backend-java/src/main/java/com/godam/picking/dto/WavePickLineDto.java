@@ -0,0 +1,105 @@
+package com.godam.picking.dto;
+
+import java.util.List;
+
+public class WavePickLineDto {
+  private int sequence;
+  private String warehouseNo;
+  private String storageLocation;
+  private String combineRack;
+  private String rack;
+  private String bin;
+  private String partNumber;
+  private String description;
+  private String pnIndicator;
+  private int qty;
+  private List<WaveAllocationDto> allocations;
+
+  public int getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(int sequence) {
+    this.sequence = sequence;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getStorageLocation() {
+    return storageLocation;
+  }
+
+  public void setStorageLocation(String storageLocation) {
+    this.storageLocation = storageLocation;
+  }
+
+  public String getCombineRack() {
+    return combineRack;
+  }
+
+  public void setCombineRack(String combineRack) {
+    this.combineRack = combineRack;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public String getPnIndicator() {
+    return pnIndicator;
+  }
+
+  public void setPnIndicator(String pnIndicator) {
+    this.pnIndicator = pnIndicator;
+  }
+
+  public int getQty() {
+    return qty;
+  }
+
+  public void setQty(int qty) {
+    this.qty = qty;
+  }
+
+  public List<WaveAllocationDto> getAllocations() {
+    return allocations;
+  }
+
+  public void setAllocations(List<WaveAllocationDto> allocations) {
+    this.allocations = allocations;
+  }
+}
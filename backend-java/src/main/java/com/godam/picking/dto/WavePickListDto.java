@@ -0,0 +1,69 @@
+package com.godam.picking.dto;
+
+import java.util.List;
+
+public class WavePickListDto {
+  private String warehouseNo;
+  private List<Long> orderIds;
+  private int orderCount;
+  private int lineCount;
+  private int itemCount;
+  private int totalQty;
+  private List<WavePickLineDto> lines;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public List<Long> getOrderIds() {
+    return orderIds;
+  }
+
+  public void setOrderIds(List<Long> orderIds) {
+    this.orderIds = orderIds;
+  }
+
+  public int getOrderCount() {
+    return orderCount;
+  }
+
+  public void setOrderCount(int orderCount) {
+    this.orderCount = orderCount;
+  }
+
+  public int getLineCount() {
+    return lineCount;
+  }
+
+  public void setLineCount(int lineCount) {
+    this.lineCount = lineCount;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  public void setItemCount(int itemCount) {
+    this.itemCount = itemCount;
+  }
+
+  public int getTotalQty() {
+    return totalQty;
+  }
+
+  public void setTotalQty(int totalQty) {
+    this.totalQty = totalQty;
+  }
+
+  public List<WavePickLineDto> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<WavePickLineDto> lines) {
+    this.lines = lines;
+  }
+}
@@ -0,0 +1,24 @@
+package com.godam.picking.dto;
+
+import java.util.List;
+
+public class WavePlanRequest {
+  private String warehouseNo;
+  private List<Long> orderIds;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public List<Long> getOrderIds() {
+    return orderIds;
+  }
+
+  public void setOrderIds(List<Long> orderIds) {
+    this.orderIds = orderIds;
+  }
+}
@@ -0,0 +1,483 @@
+package com.godam.picking.service;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.ResourceNotFoundException;
+import com.godam.common.exception.StockValidationException;
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.StockMovementService;
+import com.godam.orders.OrderItem;
+import com.godam.orders.OrderWorkflow;
+import com.godam.orders.repository.OrderItemRepository;
+import com.godam.orders.repository.OrderWorkflowRepository;
+import com.godam.picking.dto.WaveAllocationDto;
+import com.godam.picking.dto.WaveConfirmRequest;
+import com.godam.picking.dto.WaveConfirmResultDto;
+import com.godam.picking.dto.WaveOrderResultDto;
+import com.godam.picking.dto.WavePickLineDto;
+import com.godam.picking.dto.WavePickListDto;
+import com.godam.stock.Stock;
+import com.godam.stock.dto.StockPickContext;
+import com.godam.stock.service.StockPickBatch;
+import com.godam.stock.service.StockService;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Picks several PICK_REQUESTED orders in one walk. Lines are consolidated per part and rack row,
+ * sequenced by combine rack, rack and bin, and confirmed together with one O103 movement per order
+ * line and rack so the ledger stays per order.
+ *
+ * <p>Stock is read once per wave through {@link StockService#preparePickBatch}, and confirmation
+ * runs every allocation through {@link StockPickBatch#pick}: the same FIFO, availability, parent
+ * and drum split checks as a single pick. Allocations of a part are applied in FIFO row order, not
+ * walk order, so each one is checked against the rack a single pick would have been sent to.
+ *
+ * <p>A wave picks in one warehouse. Orders carry no warehouse, so it comes from the request like a
+ * batch pick's; without one, a wave whose parts are stocked in several warehouses is rejected
+ * rather than allocating an order stock from another site.
+ */
+@Service
+public class WavePickingService {
+  private static final String PICK_REQUESTED = "PICK_REQUESTED";
+  private static final String PICK_REQUESTED_OVERRIDE = "PICK_REQUESTED_OVERRIDE";
+  private static final Comparator<String> LOCATION_ORDER =
+      Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER);
+  private static final Comparator<WavePickLineDto> WALK_ORDER = Comparator
+      .comparing(WavePickLineDto::getCombineRack, LOCATION_ORDER)
+      .thenComparing(WavePickLineDto::getRack, LOCATION_ORDER)
+      .thenComparing(WavePickLineDto::getBin, LOCATION_ORDER)
+      .thenComparing(WavePickLineDto::getPartNumber, LOCATION_ORDER);
+
+  private final OrderWorkflowRepository orderWorkflowRepository;
+  private final OrderItemRepository orderItemRepository;
+  private final StockMovementRepository stockMovementRepository;
+  private final StockMovementService stockMovementService;
+  private final StockService stockService;
+
+  public WavePickingService(
+      OrderWorkflowRepository orderWorkflowRepository,
+      OrderItemRepository orderItemRepository,
+      StockMovementRepository stockMovementRepository,
+      StockMovementService stockMovementService,
+      StockService stockService) {
+    this.orderWorkflowRepository = orderWorkflowRepository;
+    this.orderItemRepository = orderItemRepository;
+    this.stockMovementRepository = stockMovementRepository;
+    this.stockMovementService = stockMovementService;
+    this.stockService = stockService;
+  }
+
+  @Transactional(readOnly = true)
+  public WavePickListDto planWave(List<Long> orderIds, String warehouseNo) {
+    String warehouse = trimToNull(warehouseNo);
+    List<OrderWorkflow> orders = loadPickableOrders(orderIds);
+    Map<String, Map<String, Integer>> picked = pickedQtyByOrder(orders);
+
+    List<Demand> demands = new ArrayList<>();
+    Set<String> partNumbers = new LinkedHashSet<>();
+    for (OrderWorkflow order : orders) {
+      for (OrderItem item : sortedItems(order)) {
+        int requested = item.getQty() == null ? 0 : item.getQty();
+        int remaining = requested - pickedQty(picked, order, item.getPartNumber());
+        if (remaining <= 0) {
+          continue;
+        }
+        demands.add(new Demand(order, item, remaining));
+        partNumbers.add(item.getPartNumber());
+      }
+    }
+
+    StockPickBatch stock = stockService.preparePickBatch(warehouse, partNumbers);
+    Map<String, List<Demand>> demandByPart = new LinkedHashMap<>();
+    for (Demand demand : demands) {
+      String resolved = stock.resolve(demand.item.getPartNumber());
+      demandByPart.computeIfAbsent(resolved, key -> new ArrayList<>()).add(demand);
+    }
+    List<WavePickLineDto> lines = new ArrayList<>();
+    for (Map.Entry<String, List<Demand>> entry : demandByPart.entrySet()) {
+      List<Stock> rows = stock.rows(entry.getKey());
+      if (rows.isEmpty()) {
+        throw new StockValidationException("No stock found for part " + entry.getKey());
+      }
+      lines.addAll(allocate(rows, stock.parkedQty(entry.getKey()), entry.getValue()));
+    }
+    lines.sort(WALK_ORDER);
+    if (warehouse == null) {
+      warehouse = stockWarehouse(stock, demandByPart.keySet());
+    }
+    int totalQty = 0;
+    for (int i = 0; i < lines.size(); i++) {
+      lines.get(i).setSequence(i + 1);
+      totalQty += lines.get(i).getQty();
+    }
+
+    WavePickListDto dto = new WavePickListDto();
+    dto.setWarehouseNo(warehouse);
+    dto.setOrderIds(orders.stream().map(OrderWorkflow::getId).toList());
+    dto.setOrderCount(orders.size());
+    dto.setLineCount(lines.size());
+    dto.setItemCount(demands.size());
+    dto.setTotalQty(totalQty);
+    dto.setLines(lines);
+    return dto;
+  }
+
+  @Transactional
+  @Timed("godam.picking.wave.confirm")
+  public WaveConfirmResultDto confirmWave(WaveConfirmRequest request) {
+    if (request.getLines() == null || request.getLines().isEmpty()) {
+      throw new BusinessRuleException("Wave confirmation has no lines.");
+    }
+    Set<Long> orderIds = new LinkedHashSet<>();
+    for (WavePickLineDto line : request.getLines()) {
+      if (line.getAllocations() == null) {
+        continue;
+      }
+      for (WaveAllocationDto allocation : line.getAllocations()) {
+        if (allocation.getQty() <= 0) {
+          throw new StockValidationException("Pick qty must be greater than zero");
+        }
+        orderIds.add(allocation.getOrderId());
+      }
+    }
+    List<OrderWorkflow> orders = loadPickableOrders(new ArrayList<>(orderIds));
+    Map<Long, OrderWorkflow> ordersById = new HashMap<>();
+    for (OrderWorkflow order : orders) {
+      ordersById.put(order.getId(), order);
+    }
+    Map<String, Map<String, Integer>> picked = pickedQtyByOrder(orders);
+
+    // Validate the whole wave before writing anything: per order line, then every pick.
+    List<WavePick> picks = new ArrayList<>();
+    Map<OrderItem, Integer> newQtyByItem = new LinkedHashMap<>();
+    for (WavePickLineDto line : request.getLines()) {
+      for (WaveAllocationDto allocation : nullSafe(line.getAllocations())) {
+        OrderWorkflow order = ordersById.get(allocation.getOrderId());
+        OrderItem item = findItem(order, allocation.getPartNumber());
+        newQtyByItem.merge(item, allocation.getQty(), Integer::sum);
+        picks.add(new WavePick(line, allocation, order, item));
+      }
+    }
+    for (Map.Entry<OrderItem, Integer> entry : newQtyByItem.entrySet()) {
+      OrderItem item = entry.getKey();
+      int requested = item.getQty() == null ? 0 : item.getQty();
+      if (pickedQty(picked, item.getOrder(), item.getPartNumber()) + entry.getValue() > requested) {
+        throw new StockValidationException("Picked qty exceeds requested qty");
+      }
+    }
+
+    Set<String> partNumbers = new LinkedHashSet<>();
+    newQtyByItem.keySet().forEach(item -> partNumbers.add(item.getPartNumber()));
+    String warehouse = trimToNull(request.getWarehouseNo());
+    if (warehouse == null) {
+      warehouse = singleWarehouse(request.getLines().stream().map(WavePickLineDto::getWarehouseNo).toList());
+    }
+    for (WavePickLineDto line : request.getLines()) {
+      if (line.getWarehouseNo() != null && !line.getWarehouseNo().equals(warehouse)) {
+        throw new BusinessRuleException(
+            "Wave line for rack " + line.getRack() + " is in warehouse " + line.getWarehouseNo()
+                + ", not " + warehouse + ".");
+      }
+    }
+    StockPickBatch stock = stockService.preparePickBatch(warehouse, partNumbers);
+    if (warehouse == null) {
+      stockWarehouse(stock, picks.stream().map(pick -> stock.resolve(pick.item.getPartNumber())).toList());
+    }
+    for (WavePick pick : picks) {
+      pick.resolved = stock.resolve(pick.item.getPartNumber());
+      pick.rowIndex = rowIndex(stock.rows(pick.resolved), pick.line.getRack(), pick.line.getBin(), pick.resolved);
+    }
+    List<WavePick> fifoOrder = new ArrayList<>(picks);
+    fifoOrder.sort(Comparator.comparing((WavePick pick) -> pick.resolved).thenComparingInt(pick -> pick.rowIndex));
+    for (WavePick pick : fifoOrder) {
+      pick.context = stock.pick(
+          pick.item.getPartNumber(), pick.allocation.getQty(), pick.line.getRack(), isOverride(pick.order));
+    }
+
+    String pickedBy = request.getPickedBy() == null || request.getPickedBy().isBlank()
+        ? "Picker"
+        : request.getPickedBy();
+    LocalDateTime pickedAt = LocalDateTime.now();
+    Map<Long, WaveOrderResultDto> results = new LinkedHashMap<>();
+    List<StockMovement> movements = new ArrayList<>(picks.size());
+    int pickedTotal = 0;
+    for (WavePick pick : picks) {
+      StockPickContext context = pick.context;
+      OrderWorkflow order = pick.order;
+      int qty = pick.allocation.getQty();
+      pick.item.setPickedRack(context.getRack());
+      pick.item.setPickedBy(pickedBy);
+      pick.item.setPickedAt(pickedAt);
+
+      StockMovement movement = new StockMovement();
+      movement.setMovementType(MovementType.O103_PICKED);
+      movement.setWarehouseNo(context.getWarehouseNo());
+      movement.setStorageLocation(context.getStorageLocation());
+      movement.setPartNumber(context.getResolvedPartNumber());
+      movement.setQtyChange(qty);
+      movement.setSalesOrder(order.getOutboundNumber());
+      movement.setInvoiceNumber(order.getInvoiceNumber());
+      movement.setRack(context.getRack());
+      movement.setBin(context.getBin());
+      movement.setSuggestedRack(context.getSuggestedRack());
+      movement.setActualRack(context.getActualRack());
+      movement.setPickedQty(qty);
+      movement.setRequestedQty(pick.item.getQty() == null ? 0 : pick.item.getQty());
+      movement.setReference(context.getReference());
+      movement.setRemark(context.getRemark() == null ? "wave" : "wave " + context.getRemark());
+      movements.add(movement);
+      pickedTotal += qty;
+
+      WaveOrderResultDto result = results.computeIfAbsent(order.getId(), id -> {
+        WaveOrderResultDto dto = new WaveOrderResultDto();
+        dto.setOrderId(order.getId());
+        dto.setOutboundNumber(order.getOutboundNumber());
+        return dto;
+      });
+      result.setPickedQty(result.getPickedQty() + qty);
+    }
+
+    for (Map.Entry<OrderItem, Integer> entry : newQtyByItem.entrySet()) {
+      OrderItem item = entry.getKey();
+      int requested = item.getQty() == null ? 0 : item.getQty();
+      item.setIsPicked(pickedQty(picked, item.getOrder(), item.getPartNumber()) + entry.getValue() >= requested);
+    }
+    orderItemRepository.saveAll(newQtyByItem.keySet());
+    stockMovementService.logMovements(movements);
+
+    for (WaveOrderResultDto result : results.values()) {
+      OrderWorkflow order = ordersById.get(result.getOrderId());
+      result.setFullyPicked(order.getItems().stream()
+          .allMatch(item -> item.getQty() == null || item.getQty() <= 0 || Boolean.TRUE.equals(item.getIsPicked())));
+    }
+
+    WaveConfirmResultDto dto = new WaveConfirmResultDto();
+    dto.setMovementCount(movements.size());
+    dto.setPickedQty(pickedTotal);
+    dto.setOrders(new ArrayList<>(results.values()));
+    return dto;
+  }
+
+  private List<OrderWorkflow> loadPickableOrders(List<Long> orderIds) {
+    if (orderIds == null || orderIds.isEmpty()) {
+      throw new BusinessRuleException("Select at least one order for the wave.");
+    }
+    List<OrderWorkflow> orders = new ArrayList<>(orderWorkflowRepository.findByIdIn(orderIds));
+    if (orders.size() != new LinkedHashSet<>(orderIds).size()) {
+      throw new ResourceNotFoundException("Order not found");
+    }
+    for (OrderWorkflow order : orders) {
+      String status = order.getPickingStatus();
+      if (status == null || !status.toUpperCase().startsWith(PICK_REQUESTED)) {
+        throw new BusinessRuleException(
+            "Order " + order.getOutboundNumber() + " is not in " + PICK_REQUESTED + " state.");
+      }
+    }
+    // Oldest orders get stock first when a part is short.
+    orders.sort(Comparator.comparing(OrderWorkflow::getId));
+    return orders;
+  }
+
+  private Map<String, Map<String, Integer>> pickedQtyByOrder(List<OrderWorkflow> orders) {
+    Set<String> outbounds = new LinkedHashSet<>();
+    for (OrderWorkflow order : orders) {
+      if (order.getOutboundNumber() != null) {
+        outbounds.add(order.getOutboundNumber());
+      }
+    }
+    return stockMovementRepository.sumQtyBySalesOrdersAndType(outbounds, MovementType.O103_PICKED);
+  }
+
+  private int pickedQty(Map<String, Map<String, Integer>> picked, OrderWorkflow order, String partNumber) {
+    if (order == null || order.getOutboundNumber() == null) {
+      return 0;
+    }
+    Map<String, Integer> byPart = picked.get(order.getOutboundNumber());
+    return byPart == null ? 0 : byPart.getOrDefault(partNumber, 0);
+  }
+
+  private List<WavePickLineDto> allocate(List<Stock> rows, int parkedQty, List<Demand> demands) {
+    Map<Stock, WavePickLineDto> lines = new LinkedHashMap<>();
+    int[] available = availableByRow(rows, parkedQty);
+    int rowIndex = 0;
+    for (Demand demand : demands) {
+      int remaining = demand.qty;
+      while (remaining > 0 && rowIndex < rows.size()) {
+        if (available[rowIndex] <= 0) {
+          rowIndex++;
+          continue;
+        }
+        int take = Math.min(remaining, available[rowIndex]);
+        addAllocation(lines, rows.get(rowIndex), demand, take);
+        available[rowIndex] -= take;
+        remaining -= take;
+      }
+      if (remaining > 0) {
+        if (!isOverride(demand.order)) {
+          throw new StockValidationException(
+              "Requested qty exceeds available stock for part " + rows.get(0).getPartNumber());
+        }
+        // Override orders may drive stock negative. Once every row is parked, a single pick is sent
+        // to the oldest row, so the shortfall goes there too.
+        addAllocation(lines, rows.get(0), demand, remaining);
+      }
+    }
+    return new ArrayList<>(lines.values());
+  }
+
+  /** What each FIFO row still offers once the parked (picked/checked) qty is taken from the oldest. */
+  private static int[] availableByRow(List<Stock> rows, int parkedQty) {
+    int[] available = new int[rows.size()];
+    int remainingParked = parkedQty;
+    for (int i = 0; i < rows.size(); i++) {
+      int qty = Math.max(0, rows.get(i).getQty());
+      int consumed = Math.min(qty, remainingParked);
+      remainingParked -= consumed;
+      available[i] = qty - consumed;
+    }
+    return available;
+  }
+
+  /** FIFO position of the row an allocation names; the bin narrows a rack with several rows. */
+  private static int rowIndex(List<Stock> rows, String rack, String bin, String partNumber) {
+    if (rows.isEmpty()) {
+      throw new StockValidationException("No stock found for part " + partNumber);
+    }
+    int rackMatch = -1;
+    for (int i = 0; i < rows.size(); i++) {
+      Stock row = rows.get(i);
+      if (rack != null && (row.getRack() == null || !row.getRack().equalsIgnoreCase(rack))) {
+        continue;
+      }
+      if (bin == null || (row.getBin() != null && row.getBin().equalsIgnoreCase(bin))) {
+        return i;
+      }
+      if (rackMatch < 0) {
+        rackMatch = i;
+      }
+    }
+    if (rackMatch < 0) {
+      throw new StockValidationException("Rack " + rack + " holds no stock for part " + partNumber);
+    }
+    return rackMatch;
+  }
+
+  private void addAllocation(Map<Stock, WavePickLineDto> lines, Stock row, Demand demand, int qty) {
+    WavePickLineDto line = lines.computeIfAbsent(row, key -> {
+      WavePickLineDto dto = new WavePickLineDto();
+      dto.setWarehouseNo(row.getWarehouseNo());
+      dto.setStorageLocation(row.getStorageLocation());
+      dto.setCombineRack(row.getCombineRack());
+      dto.setRack(row.getRack());
+      dto.setBin(row.getBin());
+      dto.setPartNumber(row.getPartNumber());
+      dto.setDescription(row.getDescription());
+      dto.setPnIndicator(row.getPnIndicator());
+      dto.setAllocations(new ArrayList<>());
+      return dto;
+    });
+    line.setQty(line.getQty() + qty);
+    WaveAllocationDto allocation = new WaveAllocationDto();
+    allocation.setOrderId(demand.order.getId());
+    allocation.setOutboundNumber(demand.order.getOutboundNumber());
+    allocation.setPartNumber(demand.item.getPartNumber());
+    allocation.setQty(qty);
+    line.getAllocations().add(allocation);
+  }
+
+  private OrderItem findItem(OrderWorkflow order, String partNumber) {
+    if (order != null && order.getItems() != null) {
+      for (OrderItem item : order.getItems()) {
+        if (item.getPartNumber() != null && item.getPartNumber().equals(partNumber)) {
+          return item;
+        }
+      }
+    }
+    throw new ResourceNotFoundException("Order item not found");
+  }
+
+  private List<OrderItem> sortedItems(OrderWorkflow order) {
+    List<OrderItem> items = new ArrayList<>(order.getItems() == null ? List.of() : order.getItems());
+    items.sort(Comparator.comparing(OrderItem::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+    return items;
+  }
+
+  private boolean isOverride(OrderWorkflow order) {
+    return PICK_REQUESTED_OVERRIDE.equalsIgnoreCase(order.getPickingStatus());
+  }
+
+  /** Without a requested warehouse, the wave's parts must all be stocked in the same one. */
+  private static String stockWarehouse(StockPickBatch stock, Collection<String> resolvedPartNumbers) {
+    List<String> warehouses = new ArrayList<>();
+    for (String partNumber : resolvedPartNumbers) {
+      stock.rows(partNumber).forEach(row -> warehouses.add(row.getWarehouseNo()));
+    }
+    return singleWarehouse(warehouses);
+  }
+
+  /** The one warehouse named, or null when none is; several are rejected. */
+  private static String singleWarehouse(Collection<String> warehouseNos) {
+    Set<String> warehouses = new LinkedHashSet<>();
+    for (String warehouseNo : warehouseNos) {
+      if (warehouseNo != null) {
+        warehouses.add(warehouseNo);
+      }
+    }
+    if (warehouses.size() > 1) {
+      throw new BusinessRuleException(
+          "Wave spans warehouses " + String.join(", ", warehouses) + "; pick each warehouse as its own wave.");
+    }
+    return warehouses.isEmpty() ? null : warehouses.iterator().next();
+  }
+
+  private static String trimToNull(String value) {
+    return value == null || value.isBlank() ? null : value.trim();
+  }
+
+  private static <T> List<T> nullSafe(List<T> list) {
+    return list == null ? List.of() : list;
+  }
+
+  private static final class Demand {
+    private final OrderWorkflow order;
+    private final OrderItem item;
+    private final int qty;
+
+    private Demand(OrderWorkflow order, OrderItem item, int qty) {
+      this.order = order;
+      this.item = item;
+      this.qty = qty;
+    }
+  }
+
+  /** One order line's allocation on a wave line, checked before anything is written. */
+  private static final class WavePick {
+    private final WavePickLineDto line;
+    private final WaveAllocationDto allocation;
+    private final OrderWorkflow order;
+    private final OrderItem item;
+    private String resolved;
+    private int rowIndex;
+    private StockPickContext context;
+
+    private WavePick(WavePickLineDto line, WaveAllocationDto allocation, OrderWorkflow order, OrderItem item) {
+      this.line = line;
+      this.allocation = allocation;
+      this.order = order;
+      this.item = item;
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package com.godam.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(
+    name = "stock_reconciliation_discrepancies",
+    indexes = {
+      @Index(name = "ix_reconciliation_discrepancies_run", columnList = "run_id, part_number")
+    })
+public class ReconciliationDiscrepancy {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reconciliation_discrepancies_id_gen")
+  @SequenceGenerator(
+      name = "stock_reconciliation_discrepancies_id_gen",
+      sequenceName = "stock_reconciliation_discrepancies_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "run_id", nullable = false)
+  private Long runId;
+
+  @Column(name = "kind", length = 30)
+  private String kind;
+
+  @Column(name = "warehouse_no")
+  private String warehouseNo;
+
+  @Column(name = "part_number")
+  private String partNumber;
+
+  @Column(name = "rack")
+  private String rack;
+
+  @Column(name = "stock_qty")
+  private long stockQty;
+
+  @Column(name = "ledger_qty")
+  private long ledgerQty;
+
+  @Column(name = "difference")
+  private long difference;
+
+  @Column(name = "stock_rows")
+  private long stockRows;
+
+  @Column(name = "movement_count")
+  private long movementCount;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Long getRunId() {
+    return runId;
+  }
+
+  public void setRunId(Long runId) {
+    this.runId = runId;
+  }
+
+  public String getKind() {
+    return kind;
+  }
+
+  public void setKind(String kind) {
+    this.kind = kind;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public long getStockQty() {
+    return stockQty;
+  }
+
+  public void setStockQty(long stockQty) {
+    this.stockQty = stockQty;
+  }
+
+  public long getLedgerQty() {
+    return ledgerQty;
+  }
+
+  public void setLedgerQty(long ledgerQty) {
+    this.ledgerQty = ledgerQty;
+  }
+
+  public long getDifference() {
+    return difference;
+  }
+
+  public void setDifference(long difference) {
+    this.difference = difference;
+  }
+
+  public long getStockRows() {
+    return stockRows;
+  }
+
+  public void setStockRows(long stockRows) {
+    this.stockRows = stockRows;
+  }
+
+  public long getMovementCount() {
+    return movementCount;
+  }
+
+  public void setMovementCount(long movementCount) {
+    this.movementCount = movementCount;
+  }
+}
@@ -0,0 +1,135 @@
+package com.godam.reconciliation;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_reconciliation_runs")
+public class ReconciliationRun {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "status", length = 20)
+  private String status;
+
+  @Column(name = "requested_by")
+  private String requestedBy;
+
+  @Column(name = "started_at")
+  private Instant startedAt;
+
+  @Column(name = "finished_at")
+  private Instant finishedAt;
+
+  @Column(name = "shard_count")
+  private int shardCount;
+
+  @Column(name = "parts_checked")
+  private long partsChecked;
+
+  @Column(name = "stock_rows_checked")
+  private long stockRowsChecked;
+
+  @Column(name = "movements_checked")
+  private long movementsChecked;
+
+  @Column(name = "discrepancy_count")
+  private long discrepancyCount;
+
+  @Column(name = "error_message", columnDefinition = "TEXT")
+  private String errorMessage;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public String getRequestedBy() {
+    return requestedBy;
+  }
+
+  public void setRequestedBy(String requestedBy) {
+    this.requestedBy = requestedBy;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(Instant startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Instant finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  public void setShardCount(int shardCount) {
+    this.shardCount = shardCount;
+  }
+
+  public long getPartsChecked() {
+    return partsChecked;
+  }
+
+  public void setPartsChecked(long partsChecked) {
+    this.partsChecked = partsChecked;
+  }
+
+  public long getStockRowsChecked() {
+    return stockRowsChecked;
+  }
+
+  public void setStockRowsChecked(long stockRowsChecked) {
+    this.stockRowsChecked = stockRowsChecked;
+  }
+
+  public long getMovementsChecked() {
+    return movementsChecked;
+  }
+
+  public void setMovementsChecked(long movementsChecked) {
+    this.movementsChecked = movementsChecked;
+  }
+
+  public long getDiscrepancyCount() {
+    return discrepancyCount;
+  }
+
+  public void setDiscrepancyCount(long discrepancyCount) {
+    this.discrepancyCount = discrepancyCount;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+}
@@ -0,0 +1,50 @@
+package com.godam.reconciliation.controller;
+
+import com.godam.reconciliation.dto.ReconciliationDiscrepancyDto;
+import com.godam.reconciliation.dto.ReconciliationRunDto;
+import com.godam.reconciliation.service.ReconciliationService;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/reconciliation", "/api/reconciliation"})
+public class ReconciliationController {
+  private final ReconciliationService reconciliationService;
+
+  public ReconciliationController(ReconciliationService reconciliationService) {
+    this.reconciliationService = reconciliationService;
+  }
+
+  @PostMapping("/runs")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public ReconciliationRunDto startRun(
+      @RequestParam(value = "requestedBy", required = false) String requestedBy) {
+    return reconciliationService.startRun(requestedBy);
+  }
+
+  @GetMapping("/runs")
+  public List<ReconciliationRunDto> listRuns() {
+    return reconciliationService.listRuns();
+  }
+
+  @GetMapping("/runs/{id}")
+  public ReconciliationRunDto getRun(@PathVariable("id") Long id) {
+    return reconciliationService.getRun(id);
+  }
+
+  @GetMapping("/runs/{id}/discrepancies")
+  public List<ReconciliationDiscrepancyDto> listDiscrepancies(
+      @PathVariable("id") Long id,
+      @RequestParam(value = "kind", required = false) String kind,
+      @RequestParam(value = "partNumber", required = false) String partNumber,
+      @RequestParam(value = "limit", defaultValue = "500") int limit) {
+    return reconciliationService.listDiscrepancies(id, kind, partNumber, limit);
+  }
+}
@@ -0,0 +1,85 @@
+package com.godam.reconciliation.dto;
+
+public class ReconciliationDiscrepancyDto {
+  private String kind;
+  private String warehouseNo;
+  private String partNumber;
+  private String rack;
+  private long stockQty;
+  private long ledgerQty;
+  private long difference;
+  private long stockRows;
+  private long movementCount;
+
+  public String getKind() {
+    return kind;
+  }
+
+  public void setKind(String kind) {
+    this.kind = kind;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public long getStockQty() {
+    return stockQty;
+  }
+
+  public void setStockQty(long stockQty) {
+    this.stockQty = stockQty;
+  }
+
+  public long getLedgerQty() {
+    return ledgerQty;
+  }
+
+  public void setLedgerQty(long ledgerQty) {
+    this.ledgerQty = ledgerQty;
+  }
+
+  public long getDifference() {
+    return difference;
+  }
+
+  public void setDifference(long difference) {
+    this.difference = difference;
+  }
+
+  public long getStockRows() {
+    return stockRows;
+  }
+
+  public void setStockRows(long stockRows) {
+    this.stockRows = stockRows;
+  }
+
+  public long getMovementCount() {
+    return movementCount;
+  }
+
+  public void setMovementCount(long movementCount) {
+    this.movementCount = movementCount;
+  }
+}
@@ -0,0 +1,132 @@
+package com.godam.reconciliation.dto;
+
+import java.time.Instant;
+
+public class ReconciliationRunDto {
+  private Long id;
+  private String status;
+  private String requestedBy;
+  private Instant startedAt;
+  private Instant finishedAt;
+  private int shardCount;
+  private int shardsCompleted;
+  private long partsChecked;
+  private long stockRowsChecked;
+  private long movementsChecked;
+  private long discrepancyCount;
+  private long elapsedMs;
+  private double movementsPerSecond;
+  private String errorMessage;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public void setStatus(String status) {
+    this.status = status;
+  }
+
+  public String getRequestedBy() {
+    return requestedBy;
+  }
+
+  public void setRequestedBy(String requestedBy) {
+    this.requestedBy = requestedBy;
+  }
+
+  public Instant getStartedAt() {
+    return startedAt;
+  }
+
+  public void setStartedAt(Instant startedAt) {
+    this.startedAt = startedAt;
+  }
+
+  public Instant getFinishedAt() {
+    return finishedAt;
+  }
+
+  public void setFinishedAt(Instant finishedAt) {
+    this.finishedAt = finishedAt;
+  }
+
+  public int getShardCount() {
+    return shardCount;
+  }
+
+  public void setShardCount(int shardCount) {
+    this.shardCount = shardCount;
+  }
+
+  public int getShardsCompleted() {
+    return shardsCompleted;
+  }
+
+  public void setShardsCompleted(int shardsCompleted) {
+    this.shardsCompleted = shardsCompleted;
+  }
+
+  public long getPartsChecked() {
+    return partsChecked;
+  }
+
+  public void setPartsChecked(long partsChecked) {
+    this.partsChecked = partsChecked;
+  }
+
+  public long getStockRowsChecked() {
+    return stockRowsChecked;
+  }
+
+  public void setStockRowsChecked(long stockRowsChecked) {
+    this.stockRowsChecked = stockRowsChecked;
+  }
+
+  public long getMovementsChecked() {
+    return movementsChecked;
+  }
+
+  public void setMovementsChecked(long movementsChecked) {
+    this.movementsChecked = movementsChecked;
+  }
+
+  public long getDiscrepancyCount() {
+    return discrepancyCount;
+  }
+
+  public void setDiscrepancyCount(long discrepancyCount) {
+    this.discrepancyCount = discrepancyCount;
+  }
+
+  public long getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public void setElapsedMs(long elapsedMs) {
+    this.elapsedMs = elapsedMs;
+  }
+
+  public double getMovementsPerSecond() {
+    return movementsPerSecond;
+  }
+
+  public void setMovementsPerSecond(double movementsPerSecond) {
+    this.movementsPerSecond = movementsPerSecond;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  public void setErrorMessage(String errorMessage) {
+    this.errorMessage = errorMessage;
+  }
+}
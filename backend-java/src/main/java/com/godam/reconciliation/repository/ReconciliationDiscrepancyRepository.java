@@ -0,0 +1,20 @@
+package com.godam.reconciliation.repository;
+
+import com.godam.reconciliation.ReconciliationDiscrepancy;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+  @Query("select d from ReconciliationDiscrepancy d where d.runId = :runId"
+      + " and (:kind is null or d.kind = :kind)"
+      + " and (:partNumber is null or d.partNumber = :partNumber)"
+      + " order by d.partNumber, d.warehouseNo, d.rack")
+  List<ReconciliationDiscrepancy> findByRun(
+      @Param("runId") Long runId,
+      @Param("kind") String kind,
+      @Param("partNumber") String partNumber,
+      Pageable pageable);
+}
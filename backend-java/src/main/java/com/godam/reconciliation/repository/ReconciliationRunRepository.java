@@ -0,0 +1,9 @@
+package com.godam.reconciliation.repository;
+
+import com.godam.reconciliation.ReconciliationRun;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+  List<ReconciliationRun> findTop20ByOrderByStartedAtDesc();
+}
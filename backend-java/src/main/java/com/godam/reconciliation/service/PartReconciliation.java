@@ -0,0 +1,134 @@
+package com.godam.reconciliation.service;
+
+import com.godam.reconciliation.ReconciliationDiscrepancy;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the stock and ledger aggregates of one part number while a shard streams past it, then
+ * compares them per warehouse (including archived balances) and, for mismatching warehouses, per rack.
+ */
+class PartReconciliation {
+  static final String SOURCE_STOCK = "S";
+  static final String SOURCE_LEDGER = "L";
+  static final String SOURCE_BALANCE = "B";
+
+  static final String QTY_MISMATCH = "QTY_MISMATCH";
+  // Stock with no ledger history at all, e.g. quantities set by a stock upload, which writes no movements.
+  static final String UNLEDGERED = "UNLEDGERED";
+  static final String MISSING_STOCK = "MISSING_STOCK";
+  static final String NEGATIVE_STOCK = "NEGATIVE_STOCK";
+  static final String RACK_MISMATCH = "RACK_MISMATCH";
+
+  private final String partNumber;
+  private final Map<String, Totals> warehouses = new TreeMap<>();
+
+  PartReconciliation(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  String getPartNumber() {
+    return partNumber;
+  }
+
+  void add(String warehouseNo, String rack, String source, long qty, long rows, long minQty) {
+    Totals warehouse = warehouses.computeIfAbsent(warehouseNo, key -> new Totals());
+    if (SOURCE_STOCK.equals(source)) {
+      warehouse.stockQty += qty;
+      warehouse.stockRows += rows;
+      Totals rackTotals = warehouse.rack(rack);
+      rackTotals.stockQty += qty;
+      rackTotals.stockRows += rows;
+      rackTotals.minQty = Math.min(rackTotals.minQty, minQty);
+    } else if (SOURCE_LEDGER.equals(source)) {
+      warehouse.ledgerQty += qty;
+      warehouse.movements += rows;
+      Totals rackTotals = warehouse.rack(rack);
+      rackTotals.ledgerQty += qty;
+      rackTotals.movements += rows;
+    } else if (SOURCE_BALANCE.equals(source)) {
+      // Archived balances carry no rack, so they only count towards the warehouse total.
+      warehouse.ledgerQty += qty;
+      warehouse.movements += rows;
+    }
+  }
+
+  long stockRows() {
+    long total = 0;
+    for (Totals totals : warehouses.values()) {
+      total += totals.stockRows;
+    }
+    return total;
+  }
+
+  long movements() {
+    long total = 0;
+    for (Totals totals : warehouses.values()) {
+      total += totals.movements;
+    }
+    return total;
+  }
+
+  void evaluate(Long runId, List<ReconciliationDiscrepancy> out) {
+    for (Map.Entry<String, Totals> warehouseEntry : warehouses.entrySet()) {
+      String warehouseNo = warehouseEntry.getKey();
+      Totals warehouse = warehouseEntry.getValue();
+      Map<String, Totals> racks = warehouse.racks == null ? Map.of() : warehouse.racks;
+      for (Map.Entry<String, Totals> rackEntry : racks.entrySet()) {
+        if (rackEntry.getValue().minQty < 0) {
+          out.add(build(runId, NEGATIVE_STOCK, warehouseNo, rackEntry.getKey(), rackEntry.getValue()));
+        }
+      }
+      if (warehouse.stockQty == warehouse.ledgerQty) {
+        continue;
+      }
+      String kind = warehouse.movements == 0
+          ? UNLEDGERED
+          : warehouse.stockRows == 0 ? MISSING_STOCK : QTY_MISMATCH;
+      out.add(build(runId, kind, warehouseNo, null, warehouse));
+      if (UNLEDGERED.equals(kind)) {
+        // Without any ledger rows every rack differs by its whole qty; that adds nothing.
+        continue;
+      }
+      for (Map.Entry<String, Totals> rackEntry : racks.entrySet()) {
+        Totals rack = rackEntry.getValue();
+        if (rack.stockQty != rack.ledgerQty) {
+          out.add(build(runId, RACK_MISMATCH, warehouseNo, rackEntry.getKey(), rack));
+        }
+      }
+    }
+  }
+
+  private ReconciliationDiscrepancy build(
+      Long runId, String kind, String warehouseNo, String rack, Totals totals) {
+    ReconciliationDiscrepancy discrepancy = new ReconciliationDiscrepancy();
+    discrepancy.setRunId(runId);
+    discrepancy.setKind(kind);
+    discrepancy.setWarehouseNo(warehouseNo == null || warehouseNo.isEmpty() ? null : warehouseNo);
+    discrepancy.setPartNumber(partNumber);
+    discrepancy.setRack(rack == null || rack.isEmpty() ? null : rack);
+    discrepancy.setStockQty(totals.stockQty);
+    discrepancy.setLedgerQty(totals.ledgerQty);
+    discrepancy.setDifference(totals.stockQty - totals.ledgerQty);
+    discrepancy.setStockRows(totals.stockRows);
+    discrepancy.setMovementCount(totals.movements);
+    return discrepancy;
+  }
+
+  private static class Totals {
+    private long stockQty;
+    private long ledgerQty;
+    private long stockRows;
+    private long movements;
+    private long minQty;
+    private Map<String, Totals> racks;
+
+    Totals rack(String rack) {
+      if (racks == null) {
+        racks = new TreeMap<>();
+      }
+      return racks.computeIfAbsent(rack == null ? "" : rack, key -> new Totals());
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.godam.reconciliation.service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ReconciliationProgress {
+  final Long runId;
+  final Instant startedAt;
+  final AtomicInteger shardsTotal = new AtomicInteger();
+  final AtomicInteger shardsCompleted = new AtomicInteger();
+  final AtomicLong partsChecked = new AtomicLong();
+  final AtomicLong stockRowsChecked = new AtomicLong();
+  final AtomicLong movementsChecked = new AtomicLong();
+  final AtomicLong discrepancies = new AtomicLong();
+
+  ReconciliationProgress(Long runId, Instant startedAt) {
+    this.runId = runId;
+    this.startedAt = startedAt;
+  }
+}
@@ -0,0 +1,381 @@
+package com.godam.reconciliation.service;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.ResourceNotFoundException;
+import com.godam.movements.MovementType;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.reconciliation.ReconciliationDiscrepancy;
+import com.godam.reconciliation.ReconciliationRun;
+import com.godam.reconciliation.dto.ReconciliationDiscrepancyDto;
+import com.godam.reconciliation.dto.ReconciliationRunDto;
+import com.godam.reconciliation.repository.ReconciliationDiscrepancyRepository;
+import com.godam.reconciliation.repository.ReconciliationRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Compares stock quantities with the net quantity recorded in the movement ledger. The part number
+ * space is cut into ranges that are reconciled in parallel on a fork-join pool; each shard streams
+ * one ordered union of the stock and ledger aggregates for its range and evaluates it part by part.
+ *
+ * <p>Run durations, checked volume and findings per kind are published under
+ * {@code godam.reconciliation.*}.
+ */
+@Service
+public class ReconciliationService {
+  private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+  private static final String STATUS_RUNNING = "RUNNING";
+  private static final String STATUS_COMPLETED = "COMPLETED";
+  private static final String STATUS_FAILED = "FAILED";
+  private static final int FETCH_SIZE = 2000;
+  private static final int WRITE_CHUNK = 1000;
+
+  // Movement types that change on-hand stock; picks and checks only park quantity.
+  static final List<MovementType> STOCK_MOVEMENT_TYPES = List.of(
+      MovementType.A101_ADJUSTMENT_INCREASE,
+      MovementType.A102_ADJUSTMENT_DECREASE,
+      MovementType.O105_CONFIRMED,
+      MovementType.I201_INBOUND_RECEIVED);
+
+  private final ReconciliationRunRepository runRepository;
+  private final ReconciliationDiscrepancyRepository discrepancyRepository;
+  private final MovementLedgerWindow ledgerWindow;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readTransaction;
+  private final TransactionTemplate writeTransaction;
+  private final ExecutorService coordinator;
+  private final AtomicReference<ReconciliationProgress> active = new AtomicReference<>();
+  private final AtomicLong lastDiscrepancies = new AtomicLong();
+  private final MeterRegistry registry;
+  private final Counter partsChecked;
+  private final Counter movementsChecked;
+  private final int shardCount;
+  private final int parallelism;
+
+  public ReconciliationService(
+      ReconciliationRunRepository runRepository,
+      ReconciliationDiscrepancyRepository discrepancyRepository,
+      MovementLedgerWindow ledgerWindow,
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry registry,
+      @Value("${godam.reconciliation.shards:32}") int shardCount,
+      @Value("${godam.reconciliation.parallelism:4}") int parallelism) {
+    this.runRepository = runRepository;
+    this.discrepancyRepository = discrepancyRepository;
+    this.ledgerWindow = ledgerWindow;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "stock-reconciliation");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.shardCount = Math.max(1, shardCount);
+    this.parallelism = Math.max(1, parallelism);
+    this.registry = registry;
+    this.partsChecked = Counter.builder("godam.reconciliation.parts")
+        .description("Part numbers compared against the ledger")
+        .register(registry);
+    this.movementsChecked = Counter.builder("godam.reconciliation.movements")
+        .description("Ledger movements covered by reconciliation")
+        .register(registry);
+    Gauge.builder("godam.reconciliation.active", active, run -> run.get() == null ? 0 : 1)
+        .description("1 while a reconciliation run is in progress")
+        .register(registry);
+    Gauge.builder("godam.reconciliation.last.discrepancies", lastDiscrepancies, AtomicLong::get)
+        .description("Findings of the last completed run")
+        .register(registry);
+  }
+
+  public ReconciliationRunDto startRun(String requestedBy) {
+    ReconciliationProgress placeholder = new ReconciliationProgress(null, Instant.now());
+    if (!active.compareAndSet(null, placeholder)) {
+      throw new BusinessRuleException("A stock reconciliation is already running.");
+    }
+    try {
+      ReconciliationRun run = new ReconciliationRun();
+      run.setStatus(STATUS_RUNNING);
+      run.setRequestedBy(requestedBy == null || requestedBy.isBlank() ? "SYSTEM" : requestedBy.trim());
+      run.setStartedAt(placeholder.startedAt);
+      run = runRepository.save(run);
+      ReconciliationProgress progress = new ReconciliationProgress(run.getId(), run.getStartedAt());
+      active.set(progress);
+      coordinator.submit(() -> execute(progress));
+      return toDto(run, progress);
+    } catch (RuntimeException ex) {
+      active.set(null);
+      throw ex;
+    }
+  }
+
+  public ReconciliationRunDto getRun(Long id) {
+    ReconciliationRun run = runRepository.findById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Reconciliation run not found: " + id));
+    return toDto(run, progressFor(run.getId()));
+  }
+
+  public List<ReconciliationRunDto> listRuns() {
+    return runRepository.findTop20ByOrderByStartedAtDesc().stream()
+        .map(run -> toDto(run, progressFor(run.getId())))
+        .collect(Collectors.toList());
+  }
+
+  public List<ReconciliationDiscrepancyDto> listDiscrepancies(
+      Long runId, String kind, String partNumber, int limit) {
+    if (!runRepository.existsById(runId)) {
+      throw new ResourceNotFoundException("Reconciliation run not found: " + runId);
+    }
+    String kindFilter = kind == null || kind.isBlank() ? null : kind.trim().toUpperCase();
+    String partFilter = partNumber == null || partNumber.isBlank() ? null : partNumber.trim();
+    int pageSize = Math.min(Math.max(limit, 1), 5000);
+    return discrepancyRepository.findByRun(runId, kindFilter, partFilter, PageRequest.of(0, pageSize))
+        .stream()
+        .map(this::toDto)
+        .collect(Collectors.toList());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    coordinator.shutdownNow();
+  }
+
+  private void execute(ReconciliationProgress progress) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    String error = null;
+    try {
+      ledgerWindow.refresh();
+      List<String> boundaries = shardBoundaries();
+      progress.shardsTotal.set(boundaries.size() + 1);
+      List<ForkJoinTask<?>> tasks = new ArrayList<>();
+      for (int i = 0; i <= boundaries.size(); i++) {
+        String lower = i == 0 ? null : boundaries.get(i - 1);
+        String upper = i == boundaries.size() ? null : boundaries.get(i);
+        tasks.add(pool.submit(() -> reconcileShard(progress, lower, upper)));
+      }
+      for (ForkJoinTask<?> task : tasks) {
+        task.join();
+      }
+    } catch (RuntimeException ex) {
+      log.error("Stock reconciliation run {} failed", progress.runId, ex);
+      error = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+    } finally {
+      pool.shutdownNow();
+      finish(progress, error);
+      active.set(null);
+    }
+  }
+
+  private List<String> shardBoundaries() {
+    List<String> parts = jdbcTemplate.queryForList(
+        "select distinct part_number from stock where part_number is not null order by part_number",
+        String.class);
+    List<String> boundaries = new ArrayList<>();
+    if (parts.size() < shardCount * 2) {
+      return boundaries;
+    }
+    for (int i = 1; i < shardCount; i++) {
+      String boundary = parts.get((int) ((long) parts.size() * i / shardCount));
+      if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+        boundaries.add(boundary);
+      }
+    }
+    return boundaries;
+  }
+
+  private void reconcileShard(ReconciliationProgress progress, String lower, String upper) {
+    List<Object> args = new ArrayList<>();
+    String sql = buildShardQuery(lower, upper, args);
+    List<ReconciliationDiscrepancy> found = new ArrayList<>();
+    PartReconciliation[] current = new PartReconciliation[1];
+    readTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+        sql,
+        (RowCallbackHandler) rs -> {
+          String partNumber = rs.getString(1);
+          if (current[0] == null || !current[0].getPartNumber().equals(partNumber)) {
+            completePart(current[0], progress, found);
+            current[0] = new PartReconciliation(partNumber);
+          }
+          addRow(current[0], rs);
+        },
+        args.toArray()));
+    completePart(current[0], progress, found);
+    for (int from = 0; from < found.size(); from += WRITE_CHUNK) {
+      List<ReconciliationDiscrepancy> chunk = found.subList(from, Math.min(found.size(), from + WRITE_CHUNK));
+      writeTransaction.executeWithoutResult(status -> discrepancyRepository.saveAll(chunk));
+    }
+    progress.shardsCompleted.incrementAndGet();
+  }
+
+  private void addRow(PartReconciliation part, ResultSet rs) throws SQLException {
+    part.add(rs.getString(2), rs.getString(3), rs.getString(4), rs.getLong(5), rs.getLong(6), rs.getLong(7));
+  }
+
+  private void completePart(
+      PartReconciliation part, ReconciliationProgress progress, List<ReconciliationDiscrepancy> found) {
+    if (part == null) {
+      return;
+    }
+    int before = found.size();
+    part.evaluate(progress.runId, found);
+    progress.partsChecked.incrementAndGet();
+    progress.stockRowsChecked.addAndGet(part.stockRows());
+    progress.movementsChecked.addAndGet(part.movements());
+    progress.discrepancies.addAndGet(found.size() - before);
+    partsChecked.increment();
+    movementsChecked.increment(part.movements());
+    for (int i = before; i < found.size(); i++) {
+      registry.counter("godam.reconciliation.discrepancies", "kind", found.get(i).getKind()).increment();
+    }
+  }
+
+  private String buildShardQuery(String lower, String upper, List<Object> args) {
+    String types = STOCK_MOVEMENT_TYPES.stream()
+        .map(type -> "'" + type.getCode() + "'")
+        .collect(Collectors.joining(", "));
+    StringBuilder sql = new StringBuilder("select part_number, warehouse_no, rack, source, qty, row_count, min_qty from (");
+    sql.append("select part_number, coalesce(warehouse_no, '') as warehouse_no, coalesce(rack, '') as rack,")
+        .append(" '").append(PartReconciliation.SOURCE_STOCK).append("' as source,")
+        .append(" cast(sum(qty) as bigint) as qty, count(*) as row_count, cast(min(qty) as bigint) as min_qty")
+        .append(" from stock where part_number is not null")
+        .append(range(lower, upper, args))
+        .append(" group by part_number, coalesce(warehouse_no, ''), coalesce(rack, '')");
+    sql.append(" union all select part_number, coalesce(warehouse_no, ''), coalesce(rack, ''),")
+        .append(" '").append(PartReconciliation.SOURCE_LEDGER).append("',")
+        .append(" cast(sum(qty_change) as bigint), count(*), cast(0 as bigint)")
+        .append(" from stock_movements where part_number is not null and movement_type in (").append(types).append(")")
+        .append(range(lower, upper, args))
+        .append(" group by part_number, coalesce(warehouse_no, ''), coalesce(rack, '')");
+    if (ledgerWindow.hasBalances()) {
+      sql.append(" union all select part_number, warehouse_no, '',")
+          .append(" '").append(PartReconciliation.SOURCE_BALANCE).append("',")
+          .append(" cast(sum(qty) as bigint), cast(sum(movement_count) as bigint), cast(0 as bigint)")
+          .append(" from stock_movement_balances where movement_type in (").append(types).append(")")
+          .append(range(lower, upper, args))
+          .append(" group by part_number, warehouse_no");
+    }
+    sql.append(") r order by part_number");
+    return sql.toString();
+  }
+
+  private String range(String lower, String upper, List<Object> args) {
+    StringBuilder predicate = new StringBuilder();
+    if (lower != null) {
+      predicate.append(" and part_number >= ?");
+      args.add(lower);
+    }
+    if (upper != null) {
+      predicate.append(" and part_number < ?");
+      args.add(upper);
+    }
+    return predicate.toString();
+  }
+
+  private void finish(ReconciliationProgress progress, String error) {
+    Timer.builder("godam.reconciliation.run")
+        .description("Duration of a full reconciliation run")
+        .tag("outcome", error == null ? "completed" : "failed")
+        .register(registry)
+        .record(Duration.between(progress.startedAt, Instant.now()).toMillis(), TimeUnit.MILLISECONDS);
+    if (error == null) {
+      lastDiscrepancies.set(progress.discrepancies.get());
+    }
+    try {
+      writeTransaction.executeWithoutResult(status -> runRepository.findById(progress.runId).ifPresent(run -> {
+        run.setStatus(error == null ? STATUS_COMPLETED : STATUS_FAILED);
+        run.setErrorMessage(error);
+        run.setFinishedAt(Instant.now());
+        run.setShardCount(progress.shardsTotal.get());
+        run.setPartsChecked(progress.partsChecked.get());
+        run.setStockRowsChecked(progress.stockRowsChecked.get());
+        run.setMovementsChecked(progress.movementsChecked.get());
+        run.setDiscrepancyCount(progress.discrepancies.get());
+        runRepository.save(run);
+      }));
+      log.info("Stock reconciliation run {} finished: parts={}, movements={}, discrepancies={}, took {} ms",
+          progress.runId, progress.partsChecked.get(), progress.movementsChecked.get(),
+          progress.discrepancies.get(), Duration.between(progress.startedAt, Instant.now()).toMillis());
+    } catch (RuntimeException ex) {
+      log.error("Unable to record result of reconciliation run {}", progress.runId, ex);
+    }
+  }
+
+  private ReconciliationProgress progressFor(Long runId) {
+    ReconciliationProgress progress = active.get();
+    return progress != null && runId != null && runId.equals(progress.runId) ? progress : null;
+  }
+
+  private ReconciliationRunDto toDto(ReconciliationRun run, ReconciliationProgress progress) {
+    ReconciliationRunDto dto = new ReconciliationRunDto();
+    dto.setId(run.getId());
+    dto.setStatus(run.getStatus());
+    dto.setRequestedBy(run.getRequestedBy());
+    dto.setStartedAt(run.getStartedAt());
+    dto.setFinishedAt(run.getFinishedAt());
+    dto.setErrorMessage(run.getErrorMessage());
+    if (progress != null) {
+      dto.setShardCount(progress.shardsTotal.get());
+      dto.setShardsCompleted(progress.shardsCompleted.get());
+      dto.setPartsChecked(progress.partsChecked.get());
+      dto.setStockRowsChecked(progress.stockRowsChecked.get());
+      dto.setMovementsChecked(progress.movementsChecked.get());
+      dto.setDiscrepancyCount(progress.discrepancies.get());
+    } else {
+      dto.setShardCount(run.getShardCount());
+      dto.setShardsCompleted(STATUS_COMPLETED.equals(run.getStatus()) ? run.getShardCount() : 0);
+      dto.setPartsChecked(run.getPartsChecked());
+      dto.setStockRowsChecked(run.getStockRowsChecked());
+      dto.setMovementsChecked(run.getMovementsChecked());
+      dto.setDiscrepancyCount(run.getDiscrepancyCount());
+    }
+    Instant end = run.getFinishedAt() == null ? Instant.now() : run.getFinishedAt();
+    long elapsedMs = run.getStartedAt() == null ? 0 : Math.max(0, Duration.between(run.getStartedAt(), end).toMillis());
+    dto.setElapsedMs(elapsedMs);
+    dto.setMovementsPerSecond(elapsedMs == 0 ? 0 : dto.getMovementsChecked() * 1000.0 / elapsedMs);
+    return dto;
+  }
+
+  private ReconciliationDiscrepancyDto toDto(ReconciliationDiscrepancy discrepancy) {
+    ReconciliationDiscrepancyDto dto = new ReconciliationDiscrepancyDto();
+    dto.setKind(discrepancy.getKind());
+    dto.setWarehouseNo(discrepancy.getWarehouseNo());
+    dto.setPartNumber(discrepancy.getPartNumber());
+    dto.setRack(discrepancy.getRack());
+    dto.setStockQty(discrepancy.getStockQty());
+    dto.setLedgerQty(discrepancy.getLedgerQty());
+    dto.setDifference(discrepancy.getDifference());
+    dto.setStockRows(discrepancy.getStockRows());
+    dto.setMovementCount(discrepancy.getMovementCount());
+    return dto;
+  }
+}
@@ -0,0 +1,27 @@
+package com.godam.security;
+
+/** Scanner settings for one column, resolved once from {@link ColumnPolicyRegistry}. */
+final class ColumnScanPlan {
+  private final String columnName;
+  private final ColumnPolicy policy;
+  private final boolean[] allowedChars;
+
+  ColumnScanPlan(String columnName, ColumnPolicy policy, boolean[] allowedChars) {
+    this.columnName = columnName;
+    this.policy = policy;
+    this.allowedChars = allowedChars;
+  }
+
+  String getColumnName() {
+    return columnName;
+  }
+
+  ColumnPolicy getPolicy() {
+    return policy;
+  }
+
+  /** ASCII characters allowed in the column, or null when the column has no allowlist. */
+  boolean[] getAllowedChars() {
+    return allowedChars;
+  }
+}
@@ -0,0 +1,121 @@
+package com.godam.security;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over lower-case ASCII keywords, compiled to a dense transition table.
+ * Callers fold input characters themselves; anything outside ASCII sends the automaton back to
+ * its root because no keyword contains it.
+ */
+final class KeywordAutomaton {
+  static final int ROOT = 0;
+  private static final int ALPHABET = 128;
+  private static final int[] NO_OUTPUT = new int[0];
+
+  private final int[] transitions;
+  private final int[][] outputs;
+  private final int[] lengths;
+
+  private KeywordAutomaton(int[] transitions, int[][] outputs, int[] lengths) {
+    this.transitions = transitions;
+    this.outputs = outputs;
+    this.lengths = lengths;
+  }
+
+  /** Keyword ids are their index in {@code keywords}. */
+  static KeywordAutomaton compile(List<String> keywords) {
+    List<int[]> gotoRows = new ArrayList<>();
+    List<List<Integer>> ownOutputs = new ArrayList<>();
+    gotoRows.add(newRow());
+    ownOutputs.add(new ArrayList<>());
+    int[] lengths = new int[keywords.size()];
+    for (int id = 0; id < keywords.size(); id++) {
+      String keyword = keywords.get(id);
+      lengths[id] = keyword.length();
+      int state = ROOT;
+      for (int i = 0; i < keyword.length(); i++) {
+        char c = keyword.charAt(i);
+        if (c >= ALPHABET || (c >= 'A' && c <= 'Z')) {
+          throw new IllegalArgumentException("Keywords must be lower-case ASCII: " + keyword);
+        }
+        int next = gotoRows.get(state)[c];
+        if (next < 0) {
+          next = gotoRows.size();
+          gotoRows.add(newRow());
+          ownOutputs.add(new ArrayList<>());
+          gotoRows.get(state)[c] = next;
+        }
+        state = next;
+      }
+      ownOutputs.get(state).add(id);
+    }
+
+    int states = gotoRows.size();
+    int[] transitions = new int[states * ALPHABET];
+    int[] failure = new int[states];
+    int[][] outputs = new int[states][];
+    Deque<Integer> queue = new ArrayDeque<>();
+    outputs[ROOT] = toArray(ownOutputs.get(ROOT), NO_OUTPUT);
+    for (int c = 0; c < ALPHABET; c++) {
+      int next = gotoRows.get(ROOT)[c];
+      if (next < 0) {
+        transitions[c] = ROOT;
+      } else {
+        transitions[c] = next;
+        failure[next] = ROOT;
+        queue.add(next);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      outputs[state] = toArray(ownOutputs.get(state), outputs[failure[state]]);
+      for (int c = 0; c < ALPHABET; c++) {
+        int next = gotoRows.get(state)[c];
+        if (next < 0) {
+          transitions[state * ALPHABET + c] = transitions[failure[state] * ALPHABET + c];
+        } else {
+          transitions[state * ALPHABET + c] = next;
+          failure[next] = transitions[failure[state] * ALPHABET + c];
+          queue.add(next);
+        }
+      }
+    }
+    return new KeywordAutomaton(transitions, outputs, lengths);
+  }
+
+  /** Next state for an already folded character. */
+  int step(int state, char folded) {
+    return folded < ALPHABET ? transitions[state * ALPHABET + folded] : ROOT;
+  }
+
+  /** Ids of every keyword that ends in {@code state}, including shorter suffixes. */
+  int[] outputs(int state) {
+    return outputs[state];
+  }
+
+  int length(int keywordId) {
+    return lengths[keywordId];
+  }
+
+  private static int[] newRow() {
+    int[] row = new int[ALPHABET];
+    Arrays.fill(row, -1);
+    return row;
+  }
+
+  private static int[] toArray(List<Integer> own, int[] inherited) {
+    if (own.isEmpty()) {
+      return inherited;
+    }
+    int[] merged = new int[own.size() + inherited.length];
+    for (int i = 0; i < own.size(); i++) {
+      merged[i] = own.get(i);
+    }
+    System.arraycopy(inherited, 0, merged, own.size(), inherited.length);
+    return merged;
+  }
+}
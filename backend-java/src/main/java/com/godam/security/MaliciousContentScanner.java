@@ -1,49 +1,178 @@
 package com.godam.security;
 
-import java.util.Locale;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import org.springframework.stereotype.Component;
 
+/**
+ * Single-pass scanner for upload cells. Every keyword rule runs through one Aho-Corasick automaton
+ * with ASCII case folding, so a clean cell is checked without copying or lower-casing it.
+ *
+ * <p>Verdicts match the earlier regex implementation exactly, including its edge cases: {@code \b}
+ * word boundaries, {@code (?i)} folding only ASCII, {@code toLowerCase(Locale.ROOT)} for the
+ * contains rules, and Google Maps links being stripped before the remaining checks.
+ */
 @Component
 public class MaliciousContentScanner {
-  private static final Pattern GOOGLE_MAPS_PATTERN = Pattern.compile(
-      "(?i)(https://maps\\.google\\.com/\\S*|https://www\\.google\\.com/maps/\\S*|https://goo\\.gl/maps/\\S*|https://maps\\.app\\.goo\\.gl/\\S*)");
-  private static final Pattern SQL_INJECTION_PATTERN =
-      Pattern.compile(
-          "(?i)(\\b(select|insert|update|delete|drop|union|truncate|alter)\\b.*\\b(from|into|set|table)\\b|--|/\\*|\\*/)");
-  private static final Map<String, Pattern> COLUMN_ALLOWLISTS =
+  private static final int KIND_MAPS = 0;
+  private static final int KIND_SCRIPT = 1;
+  private static final int KIND_SQL_OR = 2;
+  private static final int KIND_SQL = 3;
+  private static final int KIND_COMMAND = 4;
+  private static final int KIND_SQL_VERB = 5;
+  private static final int KIND_SQL_OBJECT = 6;
+  private static final int LOWERCASE_KINDS = (1 << KIND_SCRIPT) | (1 << KIND_SQL_OR) | (1 << KIND_COMMAND);
+
+  private static final String[] GOOGLE_MAPS_PREFIXES = {
+      "https://maps.google.com/",
+      "https://www.google.com/maps/",
+      "https://goo.gl/maps/",
+      "https://maps.app.goo.gl/"
+  };
+  private static final KeywordAutomaton AUTOMATON;
+  private static final int[] KINDS;
+
+  static {
+    List<String> keywords = new ArrayList<>();
+    List<Integer> kinds = new ArrayList<>();
+    for (String prefix : GOOGLE_MAPS_PREFIXES) {
+      add(keywords, kinds, KIND_MAPS, prefix);
+    }
+    add(keywords, kinds, KIND_SCRIPT, "<script", "javascript:", "onerror=", "onload=");
+    add(keywords, kinds, KIND_SQL_OR, "' or 1=1");
+    add(keywords, kinds, KIND_SQL, "--", "/*", "*/");
+    add(keywords, kinds, KIND_COMMAND, "rm -rf", "curl ", "wget ", "powershell", "cmd.exe");
+    add(keywords, kinds, KIND_SQL_VERB, "select", "insert", "update", "delete", "drop", "union", "truncate", "alter");
+    add(keywords, kinds, KIND_SQL_OBJECT, "from", "into", "set", "table");
+    AUTOMATON = KeywordAutomaton.compile(keywords);
+    KINDS = kinds.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  // Java 19 switched \b to ASCII word characters; follow whatever this runtime's regex does.
+  private static final boolean UNICODE_WORD_BOUNDARY = !Pattern.compile("\\bx").matcher("\u00e9x").find();
+
+  private static final Map<String, boolean[]> COLUMN_ALLOWLISTS =
       Map.ofEntries(
-          Map.entry("part_number", Pattern.compile("^[A-Za-z0-9._/\\-]+$")),
-          Map.entry("sap_pn", Pattern.compile("^[A-Za-z0-9._\\-]+$")),
-          Map.entry("rack", Pattern.compile("^[A-Za-z0-9_\\-]+$")),
-          Map.entry("vendor_name", Pattern.compile("^[A-Za-z0-9 &._\\-]+$")));
+          Map.entry("part_number", allowed("._/-")),
+          Map.entry("sap_pn", allowed("._-")),
+          Map.entry("rack", allowed("_-")),
+          Map.entry("vendor_name", allowed(" &._-")));
+  private static final int MAX_CACHED_PLANS = 1024;
+  private static final ColumnScanPlan UNNAMED_PLAN =
+      new ColumnScanPlan(null, ColumnPolicyRegistry.getPolicy(null), null);
+
+  private final Map<String, ColumnScanPlan> plans = new ConcurrentHashMap<>();
 
   public ScanResult scan(String columnName, String value, ColumnPolicy policy) {
+    ColumnScanPlan plan = planFor(columnName);
+    return scan(columnName, value, plan.getAllowedChars(), policy.isAllowGoogleMaps());
+  }
+
+  ScanResult scan(ColumnScanPlan plan, String value) {
+    return scan(plan.getColumnName(), value, plan.getAllowedChars(), plan.getPolicy().isAllowGoogleMaps());
+  }
+
+  ColumnScanPlan planFor(String columnName) {
+    if (columnName == null) {
+      return UNNAMED_PLAN;
+    }
+    ColumnScanPlan plan = plans.get(columnName);
+    if (plan != null) {
+      return plan;
+    }
+    plan = new ColumnScanPlan(
+        columnName,
+        ColumnPolicyRegistry.getPolicy(columnName),
+        COLUMN_ALLOWLISTS.get(ColumnPolicyRegistry.normalize(columnName)));
+    if (plans.size() < MAX_CACHED_PLANS) {
+      plans.putIfAbsent(columnName, plan);
+    }
+    return plan;
+  }
+
+  private ScanResult scan(String columnName, String value, boolean[] allowedChars, boolean allowGoogleMaps) {
     if (value == null) {
       return ScanResult.safe();
     }
-    String trimmed = value.trim();
-    if (trimmed.isEmpty()) {
+    // Same bounds as String.trim(), without the copy.
+    int from = 0;
+    int to = value.length();
+    while (from < to && value.charAt(from) <= ' ') {
+      from++;
+    }
+    while (to > from && value.charAt(to - 1) <= ' ') {
+      to--;
+    }
+    if (from == to) {
       return ScanResult.safe();
     }
+    return evaluate(value, from, to, columnName, allowedChars, allowGoogleMaps, true);
+  }
 
-    if (containsGoogleMapsLink(trimmed)) {
-      if (!policy.isAllowGoogleMaps()) {
+  private ScanResult evaluate(
+      CharSequence text,
+      int from,
+      int to,
+      String columnName,
+      boolean[] allowedChars,
+      boolean allowGoogleMaps,
+      boolean checkGoogleMaps) {
+    int hits = 0;
+    boolean disallowedChar = false;
+    boolean needsUnicodeLowercase = false;
+    // SQL rule state: a bounded verb seen since the last line terminator (regex '.' stops there).
+    int firstVerbEnd = -1;
+    int state = KeywordAutomaton.ROOT;
+    for (int i = from; i < to; i++) {
+      char c = text.charAt(i);
+      if (allowedChars != null && (c >= allowedChars.length || !allowedChars[c])) {
+        disallowedChar = true;
+      }
+      if (isLineTerminator(c)) {
+        firstVerbEnd = -1;
+      } else if (c == '\u0130' || c == '\u212A') {
+        needsUnicodeLowercase = true;
+      }
+      state = AUTOMATON.step(state, foldAscii(c));
+      for (int id : AUTOMATON.outputs(state)) {
+        int end = i + 1;
+        int start = end - AUTOMATON.length(id);
+        int kind = KINDS[id];
+        if (kind == KIND_SQL_VERB) {
+          if (firstVerbEnd < 0 && isWordBoundary(text, start, from, to) && isWordBoundary(text, end, from, to)) {
+            firstVerbEnd = end;
+          }
+        } else if (kind == KIND_SQL_OBJECT) {
+          if (firstVerbEnd >= 0
+              && firstVerbEnd <= start
+              && isWordBoundary(text, start, from, to)
+              && isWordBoundary(text, end, from, to)) {
+            hits |= 1 << KIND_SQL;
+          }
+        } else {
+          hits |= 1 << kind;
+        }
+      }
+    }
+
+    if (checkGoogleMaps && (hits & (1 << KIND_MAPS)) != 0) {
+      if (!allowGoogleMaps) {
         return ScanResult.blocked(
             ErrorType.SECURITY,
             ErrorSeverity.DANGER,
             "Google Maps URL in restricted column");
       }
-      trimmed = removeGoogleMaps(trimmed);
-      if (trimmed.isEmpty()) {
+      String remaining = removeGoogleMaps(text, from, to);
+      if (remaining.isEmpty()) {
         return ScanResult.safe();
       }
+      return evaluate(remaining, 0, remaining.length(), columnName, allowedChars, allowGoogleMaps, false);
     }
 
-    String normalized = trimmed.toLowerCase(Locale.ROOT);
-
-    char first = trimmed.charAt(0);
+    char first = text.charAt(from);
     if (first == '=' || first == '+' || first == '@') {
       return ScanResult.blocked(
           ErrorType.SECURITY,
@@ -51,58 +180,169 @@ public class MaliciousContentScanner {
           "Formula-style value is not allowed");
     }
 
-    String normalizedColumn = ColumnPolicyRegistry.normalize(columnName);
-    Pattern allowlist = COLUMN_ALLOWLISTS.get(normalizedColumn);
-    if (allowlist != null && !allowlist.matcher(trimmed).matches()) {
+    if (disallowedChar) {
       return ScanResult.blocked(
           ErrorType.SECURITY,
           ErrorSeverity.DANGER,
           "Value contains disallowed characters for " + columnName);
     }
 
-    if (normalized.contains("<script")
-        || normalized.contains("javascript:")
-        || normalized.contains("onerror=")
-        || normalized.contains("onload=")) {
+    if (needsUnicodeLowercase) {
+      hits |= lowercaseHits(text, from, to);
+    }
+    if ((hits & (1 << KIND_SCRIPT)) != 0) {
       return ScanResult.blocked(
           ErrorType.SECURITY,
           ErrorSeverity.DANGER,
           "Script injection pattern detected");
     }
-
-    if (normalized.contains("' or 1=1")) {
+    if ((hits & ((1 << KIND_SQL_OR) | (1 << KIND_SQL))) != 0) {
       return ScanResult.blocked(
           ErrorType.SECURITY,
           ErrorSeverity.DANGER,
           "SQL injection pattern detected");
     }
-
-    if (SQL_INJECTION_PATTERN.matcher(trimmed).find()) {
+    if ((hits & (1 << KIND_COMMAND)) != 0) {
       return ScanResult.blocked(
           ErrorType.SECURITY,
           ErrorSeverity.DANGER,
-          "SQL injection pattern detected");
+          "Command injection pattern detected");
     }
+    return ScanResult.safe();
+  }
 
-    if (normalized.contains("rm -rf")
-        || normalized.contains("curl ")
-        || normalized.contains("wget ")
-        || normalized.contains("powershell")
-        || normalized.contains("cmd.exe")) {
-      return ScanResult.blocked(
-          ErrorType.SECURITY,
-          ErrorSeverity.DANGER,
-          "Command injection pattern detected");
+  /**
+   * Re-runs the contains rules as if on {@code toLowerCase(Locale.ROOT)}. Only two characters
+   * outside ASCII lower-case into ASCII: the Kelvin sign becomes 'k' and dotted capital I becomes
+   * 'i' plus a combining dot.
+   */
+  private int lowercaseHits(CharSequence text, int from, int to) {
+    int hits = 0;
+    int state = KeywordAutomaton.ROOT;
+    for (int i = from; i < to; i++) {
+      char c = text.charAt(i);
+      if (c == '\u0130') {
+        state = AUTOMATON.step(state, 'i');
+        hits |= containsHits(state);
+        state = KeywordAutomaton.ROOT;
+        continue;
+      }
+      state = AUTOMATON.step(state, c == '\u212A' ? 'k' : foldAscii(c));
+      hits |= containsHits(state);
     }
+    return hits & LOWERCASE_KINDS;
+  }
 
-    return ScanResult.safe();
+  private int containsHits(int state) {
+    int hits = 0;
+    for (int id : AUTOMATON.outputs(state)) {
+      hits |= 1 << KINDS[id];
+    }
+    return hits;
+  }
+
+  /** Equivalent of the old {@code GOOGLE_MAPS_PATTERN.matcher(value).replaceAll("").trim()}. */
+  private String removeGoogleMaps(CharSequence text, int from, int to) {
+    StringBuilder remaining = new StringBuilder(to - from);
+    int i = from;
+    while (i < to) {
+      if (startsWithGoogleMapsPrefix(text, i, to)) {
+        // The link runs to the next regex whitespace (\S*).
+        while (i < to && !isRegexWhitespace(text.charAt(i))) {
+          i++;
+        }
+        continue;
+      }
+      remaining.append(text.charAt(i));
+      i++;
+    }
+    return remaining.toString().trim();
+  }
+
+  private boolean startsWithGoogleMapsPrefix(CharSequence text, int index, int to) {
+    for (String prefix : GOOGLE_MAPS_PREFIXES) {
+      if (index + prefix.length() > to) {
+        continue;
+      }
+      boolean matches = true;
+      for (int k = 0; k < prefix.length() && matches; k++) {
+        matches = foldAscii(text.charAt(index + k)) == prefix.charAt(k);
+      }
+      if (matches) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** {@code \b} as java.util.regex evaluates it, with the scanned range as the match region. */
+  private static boolean isWordBoundary(CharSequence text, int index, int from, int to) {
+    boolean left = false;
+    if (index > from) {
+      int ch = Character.codePointBefore(text, index);
+      left = isWord(ch)
+          || (Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index - 1, from));
+    }
+    boolean right = false;
+    if (index < to) {
+      int ch = Character.codePointAt(text, index);
+      right = isWord(ch)
+          || (Character.getType(ch) == Character.NON_SPACING_MARK && hasBaseCharacter(text, index, from));
+    }
+    return left ^ right;
   }
 
-  private boolean containsGoogleMapsLink(String value) {
-    return GOOGLE_MAPS_PATTERN.matcher(value).find();
+  private static boolean hasBaseCharacter(CharSequence text, int index, int from) {
+    for (int x = index; x >= from; x--) {
+      int ch = Character.codePointAt(text, x);
+      if (Character.isLetterOrDigit(ch)) {
+        return true;
+      }
+      if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isWord(int ch) {
+    if (UNICODE_WORD_BOUNDARY) {
+      return ch == '_' || Character.isLetterOrDigit(ch);
+    }
+    return ch == '_' || (ch < 128 && Character.isLetterOrDigit(ch));
+  }
+
+  private static char foldAscii(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private static boolean isRegexWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
   }
 
-  private String removeGoogleMaps(String value) {
-    return GOOGLE_MAPS_PATTERN.matcher(value).replaceAll("").trim();
+  private static void add(List<String> keywords, List<Integer> kinds, int kind, String... values) {
+    for (String value : values) {
+      keywords.add(value);
+      kinds.add(kind);
+    }
+  }
+
+  private static boolean[] allowed(String extra) {
+    boolean[] allowed = new boolean[128];
+    for (char c = 'a'; c <= 'z'; c++) {
+      allowed[c] = true;
+      allowed[Character.toUpperCase(c)] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      allowed[c] = true;
+    }
+    for (int i = 0; i < extra.length(); i++) {
+      allowed[extra.charAt(i)] = true;
+    }
+    return allowed;
   }
 }
@@ -11,12 +11,19 @@ public class UploadValidationPipeline {
     this.scanner = scanner;
   }
 
+  /** Scans a value without throwing, for callers that collect row errors themselves. */
+  public ScanResult inspect(String columnName, String value) {
+    if (value == null) {
+      return ScanResult.safe();
+    }
+    return scanner.scan(scanner.planFor(columnName), value);
+  }
+
   public void validate(String columnName, String value, Integer rowNumber) {
     if (value == null) {
       return;
     }
-    ColumnPolicy policy = ColumnPolicyRegistry.getPolicy(columnName);
-    ScanResult result = scanner.scan(columnName, value, policy);
+    ScanResult result = scanner.scan(scanner.planFor(columnName), value);
     if (result.isMalicious()) {
       throw new BusinessSecurityException(columnName, result, rowNumber);
     }
@@ -0,0 +1,121 @@
+package com.godam.sqlbudget;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements and JDBC time of the current unit of work, usually one HTTP request. Hibernate
+ * reports into the scope open on the calling thread; work handed to other threads and plain
+ * JdbcTemplate calls are not counted.
+ */
+public final class QueryBudget {
+  static final int MAX_FINGERPRINTS = 256;
+  static final String OTHER_FINGERPRINT = "<other statements>";
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private QueryBudget() {
+  }
+
+  /** Opens a nested scope; closing it restores the previous one and adds its counts there. */
+  public static Scope open() {
+    Scope scope = new Scope(CURRENT.get());
+    CURRENT.set(scope);
+    return scope;
+  }
+
+  static void recordStatement(String sql) {
+    Scope scope = CURRENT.get();
+    if (scope != null) {
+      scope.addStatement(fingerprint(sql), 1);
+    }
+  }
+
+  static void recordJdbcTime(long nanos) {
+    Scope scope = CURRENT.get();
+    if (scope != null && nanos > 0) {
+      scope.jdbcNanos += nanos;
+    }
+  }
+
+  /** Statement text with literals and bind lists collapsed, so N+1 loops share one fingerprint. */
+  static String fingerprint(String sql) {
+    if (sql == null) {
+      return "";
+    }
+    String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+    normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+    normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+    return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+  }
+
+  public static final class Scope implements AutoCloseable {
+    private final Scope parent;
+    private final Map<String, Integer> fingerprints = new HashMap<>();
+    private int statementCount;
+    private long jdbcNanos;
+    private boolean closed;
+
+    private Scope(Scope parent) {
+      this.parent = parent;
+    }
+
+    public int getStatementCount() {
+      return statementCount;
+    }
+
+    public long getJdbcNanos() {
+      return jdbcNanos;
+    }
+
+    public Duration getJdbcTime() {
+      return Duration.ofNanos(jdbcNanos);
+    }
+
+    public Map<String, Integer> getFingerprintCounts() {
+      return Collections.unmodifiableMap(fingerprints);
+    }
+
+    /** The statement issued most often in this scope, or null when nothing ran. */
+    public Map.Entry<String, Integer> getMostRepeated() {
+      Map.Entry<String, Integer> best = null;
+      for (Map.Entry<String, Integer> entry : fingerprints.entrySet()) {
+        if (best == null || entry.getValue() > best.getValue()) {
+          best = entry;
+        }
+      }
+      return best;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (parent == null) {
+        CURRENT.remove();
+        return;
+      }
+      CURRENT.set(parent);
+      fingerprints.forEach(parent::addStatement);
+      parent.jdbcNanos += jdbcNanos;
+    }
+
+    private void addStatement(String fingerprint, int count) {
+      statementCount += count;
+      String key = fingerprints.size() < MAX_FINGERPRINTS || fingerprints.containsKey(fingerprint)
+          ? fingerprint
+          : OTHER_FINGERPRINT;
+      fingerprints.merge(key, count, Integer::sum);
+    }
+  }
+}
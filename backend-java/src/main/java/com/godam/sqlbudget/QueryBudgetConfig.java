@@ -0,0 +1,20 @@
+package com.godam.sqlbudget;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryBudgetConfig {
+  // putIfAbsent keeps an inspector configured explicitly through spring.jpa.properties.
+  @Bean
+  public HibernatePropertiesCustomizer queryBudgetHibernateProperties() {
+    return properties -> {
+      properties.putIfAbsent(
+          AvailableSettings.STATEMENT_INSPECTOR, QueryBudgetInspector.class.getName());
+      properties.putIfAbsent(
+          AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryTimingListener.class.getName());
+    };
+  }
+}
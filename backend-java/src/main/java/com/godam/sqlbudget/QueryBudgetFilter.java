@@ -0,0 +1,107 @@
+package com.godam.sqlbudget;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the statements and JDBC time of every request. Requests above the statement budget, or
+ * repeating one statement often enough to look like an N+1 loop, are logged with the offending
+ * fingerprint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+  private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+  private final MeterRegistry registry;
+  private final boolean enabled;
+  private final int maxStatements;
+  private final int repeatThreshold;
+
+  public QueryBudgetFilter(
+      MeterRegistry registry,
+      @Value("${godam.sql-budget.enabled:true}") boolean enabled,
+      @Value("${godam.sql-budget.max-statements:50}") int maxStatements,
+      @Value("${godam.sql-budget.repeat-threshold:10}") int repeatThreshold) {
+    this.registry = registry;
+    this.enabled = enabled;
+    this.maxStatements = maxStatements;
+    this.repeatThreshold = repeatThreshold;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !enabled;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    QueryBudget.Scope scope = QueryBudget.open();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      scope.close();
+      report(request, scope);
+    }
+  }
+
+  private void report(HttpServletRequest request, QueryBudget.Scope scope) {
+    int statements = scope.getStatementCount();
+    if (statements == 0) {
+      return;
+    }
+    String method = request.getMethod();
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+    DistributionSummary.builder("godam.sql.statements")
+        .description("Statements prepared while serving one request")
+        .baseUnit("statements")
+        .tag("method", method)
+        .tag("uri", uri)
+        .register(registry)
+        .record(statements);
+    Timer.builder("godam.sql.time")
+        .description("JDBC execution time spent serving one request")
+        .tag("method", method)
+        .tag("uri", uri)
+        .register(registry)
+        .record(scope.getJdbcNanos(), TimeUnit.NANOSECONDS);
+
+    Map.Entry<String, Integer> repeated = scope.getMostRepeated();
+    boolean overBudget = statements > maxStatements;
+    boolean repeating = repeated != null && repeated.getValue() >= repeatThreshold;
+    if (!overBudget && !repeating) {
+      return;
+    }
+    Counter.builder("godam.sql.budget.exceeded")
+        .description("Requests over the statement budget or repeating one statement")
+        .tag("method", method)
+        .tag("uri", uri)
+        .tag("reason", overBudget ? "budget" : "repeat")
+        .register(registry)
+        .increment();
+    log.warn("{} {} ran {} statements (budget {}) in {} ms of JDBC time; repeated {}x: {}",
+        method, request.getRequestURI(), statements, maxStatements,
+        TimeUnit.NANOSECONDS.toMillis(scope.getJdbcNanos()),
+        repeated.getValue(), repeated.getKey());
+  }
+}
@@ -0,0 +1,11 @@
+package com.godam.sqlbudget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class QueryBudgetInspector implements StatementInspector {
+  @Override
+  public String inspect(String sql) {
+    QueryBudget.recordStatement(sql);
+    return sql;
+  }
+}
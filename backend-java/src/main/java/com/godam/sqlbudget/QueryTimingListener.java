@@ -0,0 +1,29 @@
+package com.godam.sqlbudget;
+
+import org.hibernate.SessionEventListener;
+
+/** Created by Hibernate for every session; adds JDBC execution time to the open query budget. */
+public class QueryTimingListener implements SessionEventListener {
+  private long statementStartedAt;
+  private long batchStartedAt;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    statementStartedAt = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    QueryBudget.recordJdbcTime(System.nanoTime() - statementStartedAt);
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    batchStartedAt = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    QueryBudget.recordJdbcTime(System.nanoTime() - batchStartedAt);
+  }
+}
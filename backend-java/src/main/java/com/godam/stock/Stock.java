@@ -1,18 +1,23 @@
 package com.godam.stock;
 
+import com.godam.orders.OrderChangeListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.Instant;
 
 @Entity
+@EntityListeners({StockChangeListener.class, OrderChangeListener.class})
 @Table(name = "stock")
 public class Stock {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_id_gen")
+  @SequenceGenerator(name = "stock_id_gen", sequenceName = "stock_seq", allocationSize = 50)
   private Long id;
 
   @Column(name = "warehouse_no")
@@ -0,0 +1,110 @@
+package com.godam.stock;
+
+import com.godam.stock.service.PartHierarchyCache;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import com.godam.stock.service.RackOccupancyIndex;
+import com.godam.stock.service.StockSummaryIndex;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Forwards stock row writes to the in-memory stock views once the surrounding transaction commits.
+ */
+@Component
+public class StockChangeListener {
+  private static final Object PENDING_KEY = StockChangeListener.class.getName() + ".pending";
+
+  private final ObjectProvider<PartHierarchyCache> hierarchyCache;
+  private final ObjectProvider<StockSummaryIndex> summaryIndex;
+  private final ObjectProvider<RackOccupancyIndex> occupancyIndex;
+
+  public StockChangeListener(
+      ObjectProvider<PartHierarchyCache> hierarchyCache,
+      ObjectProvider<StockSummaryIndex> summaryIndex,
+      ObjectProvider<RackOccupancyIndex> occupancyIndex) {
+    this.hierarchyCache = hierarchyCache;
+    this.summaryIndex = summaryIndex;
+    this.occupancyIndex = occupancyIndex;
+  }
+
+  @PostPersist
+  @PostUpdate
+  public void onSave(Stock stock) {
+    record(RowState.of(stock));
+  }
+
+  @PostRemove
+  public void onRemove(Stock stock) {
+    record(RowState.deleted(stock));
+  }
+
+  /**
+   * Rows changed by bulk statements never reach the entity callbacks; their parts are dropped from
+   * the in-memory views once the transaction completes and reloaded on next use.
+   */
+  public void invalidate(Collection<RowState> states) {
+    if (states.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      hierarchyCache.ifAvailable(cache -> cache.evict(states));
+      summaryIndex.ifAvailable(index -> index.markStale(states));
+      occupancyIndex.ifAvailable(index -> index.markStale(states));
+      return;
+    }
+    List<RowState> touched = List.copyOf(states);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        hierarchyCache.ifAvailable(cache -> cache.evict(touched));
+        if (status == STATUS_COMMITTED) {
+          summaryIndex.ifAvailable(index -> index.markStale(touched));
+          occupancyIndex.ifAvailable(index -> index.markStale(touched));
+        }
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private void record(RowState state) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      hierarchyCache.ifAvailable(cache -> cache.apply(List.of(state)));
+      summaryIndex.ifAvailable(index -> index.apply(List.of(state)));
+      occupancyIndex.ifAvailable(index -> index.apply(List.of(state)));
+      return;
+    }
+    Map<Long, RowState> pending = (Map<Long, RowState>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      Map<Long, RowState> changes = new LinkedHashMap<>();
+      pending = changes;
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, changes);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+          hierarchyCache.ifAvailable(cache -> {
+            if (status == STATUS_COMMITTED) {
+              cache.apply(changes.values());
+            } else {
+              cache.evict(changes.values());
+            }
+          });
+          if (status == STATUS_COMMITTED) {
+            summaryIndex.ifAvailable(index -> index.apply(changes.values()));
+            occupancyIndex.ifAvailable(index -> index.apply(changes.values()));
+          }
+        }
+      });
+    }
+    pending.put(state.getId(), state);
+  }
+}
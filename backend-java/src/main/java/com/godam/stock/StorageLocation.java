@@ -0,0 +1,113 @@
+package com.godam.stock;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A known rack/bin in a warehouse. Stock rows still carry rack, bin and combine rack as free text;
+ * registering a location adds its capacity and keeps it visible to slotting while it is empty.
+ */
+@Entity
+@Table(
+    name = "storage_locations",
+    indexes = {
+      @Index(name = "ux_storage_locations_rack_bin", columnList = "warehouse_no, rack, bin", unique = true)
+    })
+public class StorageLocation {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "storage_locations_id_gen")
+  @SequenceGenerator(name = "storage_locations_id_gen", sequenceName = "storage_locations_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(name = "warehouse_no", nullable = false)
+  private String warehouseNo;
+
+  @Column(name = "rack", nullable = false)
+  private String rack;
+
+  @Column(name = "bin", nullable = false)
+  private String bin;
+
+  @Column(name = "combine_rack")
+  private String combineRack;
+
+  @Column(name = "capacity_qty")
+  private Integer capacityQty;
+
+  @Column(name = "active", nullable = false)
+  private boolean active = true;
+
+  @Column(name = "updated_at")
+  private Instant updatedAt;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+
+  public String getCombineRack() {
+    return combineRack;
+  }
+
+  public void setCombineRack(String combineRack) {
+    this.combineRack = combineRack;
+  }
+
+  public Integer getCapacityQty() {
+    return capacityQty;
+  }
+
+  public void setCapacityQty(Integer capacityQty) {
+    this.capacityQty = capacityQty;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(Instant updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
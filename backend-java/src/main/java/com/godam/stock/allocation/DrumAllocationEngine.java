@@ -0,0 +1,316 @@
+package com.godam.stock.allocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chooses which drums to pull a cable length from. Whole drums are preferred over cuts, a cut
+ * should leave a reusable remnant, and older drums win ties. Only the shortest FIFO prefix that
+ * covers the requirement plus {@link DrumAllocationOptions#getFifoSlack()} drums are considered.
+ *
+ * <p>The greedy FIFO split seeds the search; a branch-and-bound over the window then looks for
+ * exact whole-drum combinations or a better best-fit cut until the time budget runs out.
+ */
+@Component
+public class DrumAllocationEngine {
+  private static final int CLOCK_CHECK_MASK = 1023;
+
+  public DrumAllocationPlan allocate(List<DrumCandidate> fifoOrdered, int requiredQty, DrumAllocationOptions options) {
+    if (requiredQty <= 0) {
+      throw new com.godam.common.exception.StockValidationException("Required qty must be positive");
+    }
+    List<Indexed> window = indexedWindow(fifoOrdered, requiredQty, options.getFifoSlack());
+    Search search = new Search(window, requiredQty, options);
+    search.run();
+    return search.toPlan();
+  }
+
+  /**
+   * The drums {@link #allocate} chooses from: the shortest FIFO prefix of stocked drums that covers
+   * {@code requiredQty}, plus up to {@code slack} younger ones.
+   */
+  public List<DrumCandidate> fifoWindow(List<DrumCandidate> fifoOrdered, int requiredQty, int slack) {
+    List<DrumCandidate> window = new ArrayList<>();
+    long covered = 0;
+    int extra = -1;
+    for (DrumCandidate drum : fifoOrdered) {
+      if (drum.getAvailableQty() <= 0) {
+        continue;
+      }
+      if (extra >= slack) {
+        break;
+      }
+      window.add(drum);
+      covered += drum.getAvailableQty();
+      if (extra >= 0) {
+        extra++;
+      } else if (covered >= requiredQty) {
+        extra = 0;
+      }
+    }
+    return window;
+  }
+
+  private List<Indexed> indexedWindow(List<DrumCandidate> fifoOrdered, int requiredQty, int slack) {
+    List<Indexed> window = new ArrayList<>();
+    long covered = 0;
+    for (DrumCandidate drum : fifoWindow(fifoOrdered, requiredQty, slack)) {
+      window.add(new Indexed(drum, window.size()));
+      covered += drum.getAvailableQty();
+    }
+    if (covered < requiredQty) {
+      throw new com.godam.common.exception.StockValidationException(
+          "Requested qty exceeds available drum splits");
+    }
+    return window;
+  }
+
+  private static final class Indexed {
+    private final DrumCandidate drum;
+    private final int rank;
+
+    private Indexed(DrumCandidate drum, int rank) {
+      this.drum = drum;
+      this.rank = rank;
+    }
+
+    private int qty() {
+      return drum.getAvailableQty();
+    }
+  }
+
+  private static final class Search {
+    private final Indexed[] drums;
+    private final long[] suffix;
+    private final long[] prefix;
+    private final int[] suffixGcd;
+    private final int required;
+    private final int minRemnant;
+    private final long deadline;
+    private final boolean[] taken;
+
+    private boolean[] bestFull;
+    private int bestPartial = -1;
+    private int bestCuts;
+    private int bestWaste;
+    private int bestDrums;
+    private int bestRankSum;
+
+    private long nodes;
+    private boolean timedOut;
+
+    private Search(List<Indexed> window, int required, DrumAllocationOptions options) {
+      this.drums = window.toArray(new Indexed[0]);
+      // Largest first reaches the requirement with the fewest drums; equal lengths keep FIFO order.
+      Arrays.sort(drums, Comparator.comparingInt(Indexed::qty).reversed().thenComparingInt(d -> d.rank));
+      this.suffix = new long[drums.length + 1];
+      this.suffixGcd = new int[drums.length + 1];
+      for (int i = drums.length - 1; i >= 0; i--) {
+        suffix[i] = suffix[i + 1] + drums[i].qty();
+        suffixGcd[i] = gcd(suffixGcd[i + 1], drums[i].qty());
+      }
+      this.prefix = new long[drums.length + 1];
+      for (int i = 0; i < drums.length; i++) {
+        prefix[i + 1] = prefix[i] + drums[i].qty();
+      }
+      this.required = required;
+      this.minRemnant = options.getMinRemnantQty();
+      this.deadline = System.nanoTime() + options.getTimeBudget().toNanos();
+      this.taken = new boolean[drums.length];
+    }
+
+    private void run() {
+      seedWithFifoGreedy();
+      if (bestCuts == 0 && bestDrums == 1) {
+        return;
+      }
+      dfs(0, 0, 0, 0);
+    }
+
+    private void seedWithFifoGreedy() {
+      Indexed[] fifo = drums.clone();
+      Arrays.sort(fifo, Comparator.comparingInt(d -> d.rank));
+      boolean[] full = new boolean[drums.length];
+      int remaining = required;
+      int count = 0;
+      int rankSum = 0;
+      int partial = -1;
+      for (Indexed drum : fifo) {
+        int pos = position(drum);
+        count++;
+        rankSum += drum.rank;
+        if (drum.qty() <= remaining) {
+          full[pos] = true;
+          remaining -= drum.qty();
+        } else {
+          partial = pos;
+          remaining = 0;
+        }
+        if (remaining == 0) {
+          break;
+        }
+      }
+      bestFull = full;
+      bestPartial = partial;
+      bestCuts = partial < 0 ? 0 : 1;
+      bestWaste = partial < 0 ? 0 : waste(drums[partial].qty() - requiredFromPartial(full));
+      bestDrums = count;
+      bestRankSum = rankSum;
+    }
+
+    private int position(Indexed drum) {
+      for (int i = 0; i < drums.length; i++) {
+        if (drums[i] == drum) {
+          return i;
+        }
+      }
+      throw new IllegalStateException("Drum not in window");
+    }
+
+    private int requiredFromPartial(boolean[] full) {
+      int sum = 0;
+      for (int i = 0; i < full.length; i++) {
+        if (full[i]) {
+          sum += drums[i].qty();
+        }
+      }
+      return required - sum;
+    }
+
+    private void dfs(int index, int sum, int used, int rankSum) {
+      if (timedOut) {
+        return;
+      }
+      if ((++nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+        timedOut = true;
+        return;
+      }
+      if (sum == required) {
+        offer(-1, 0, used, rankSum);
+        return;
+      }
+      tryClosingCut(sum, used, rankSum);
+
+      if (index >= drums.length) {
+        return;
+      }
+      int remainder = required - sum;
+      boolean exactReachable = sum + suffix[index] >= required && remainder % suffixGcd[index] == 0;
+      // Below this node an exact fit needs enough of the remaining drums to cover the remainder;
+      // a cut needs at least one more whole drum plus a cut drum no longer than the largest one.
+      int cutLowerBound = used + 1 + Math.max(1, drumsToCover(index, remainder - drums[0].qty()));
+      boolean cutDominated = dominates(1, 0, cutLowerBound, rankSum);
+      if (cutDominated && (!exactReachable || dominates(0, 0, used + drumsToCover(index, remainder), rankSum))) {
+        return;
+      }
+
+      Indexed drum = drums[index];
+      if (sum + drum.qty() <= required) {
+        taken[index] = true;
+        dfs(index + 1, sum + drum.qty(), used + 1, rankSum + drum.rank);
+        taken[index] = false;
+      }
+      // Skipping a drum means skipping all younger drums of the same length; taking a younger
+      // twin instead would give the same cut pattern with a worse FIFO rank.
+      int next = index + 1;
+      while (next < drums.length && drums[next].qty() == drum.qty()) {
+        next++;
+      }
+      dfs(next, sum, used, rankSum);
+    }
+
+    /** Fewest drums from {@code index} on whose lengths add up to at least {@code qty}. */
+    private int drumsToCover(int index, long qty) {
+      if (qty <= 0) {
+        return 0;
+      }
+      long target = prefix[index] + qty;
+      int lo = index + 1;
+      int hi = drums.length;
+      if (prefix[hi] < target) {
+        return drums.length + 1;
+      }
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (prefix[mid] >= target) {
+          hi = mid;
+        } else {
+          lo = mid + 1;
+        }
+      }
+      return lo - index;
+    }
+
+    private static int gcd(int a, int b) {
+      while (b != 0) {
+        int t = a % b;
+        a = b;
+        b = t;
+      }
+      return a;
+    }
+
+    private void tryClosingCut(int sum, int used, int rankSum) {
+      int remainder = required - sum;
+      for (int i = 0; i < drums.length && drums[i].qty() > remainder; i++) {
+        if (taken[i]) {
+          continue;
+        }
+        offer(i, waste(drums[i].qty() - remainder), used + 1, rankSum + drums[i].rank);
+      }
+    }
+
+    private int waste(int leftover) {
+      return leftover > 0 && leftover < minRemnant ? leftover : 0;
+    }
+
+    private boolean dominates(int cuts, int waste, int used, int rankSum) {
+      int cmp = compare(bestCuts, bestWaste, bestDrums, cuts, waste, used);
+      return cmp < 0 || (cmp == 0 && bestRankSum <= rankSum);
+    }
+
+    private void offer(int partial, int waste, int used, int rankSum) {
+      int cuts = partial < 0 ? 0 : 1;
+      int cmp = compare(cuts, waste, used, bestCuts, bestWaste, bestDrums);
+      if (cmp > 0 || (cmp == 0 && rankSum >= bestRankSum)) {
+        return;
+      }
+      bestFull = taken.clone();
+      bestPartial = partial;
+      bestCuts = cuts;
+      bestWaste = waste;
+      bestDrums = used;
+      bestRankSum = rankSum;
+    }
+
+    private static int compare(int cutsA, int wasteA, int usedA, int cutsB, int wasteB, int usedB) {
+      if (cutsA != cutsB) {
+        return Integer.compare(cutsA, cutsB);
+      }
+      if (wasteA != wasteB) {
+        return Integer.compare(wasteA, wasteB);
+      }
+      return Integer.compare(usedA, usedB);
+    }
+
+    private DrumAllocationPlan toPlan() {
+      List<DrumAssignment> assignments = new ArrayList<>();
+      int fullSum = 0;
+      for (int i = 0; i < drums.length; i++) {
+        if (bestFull[i]) {
+          assignments.add(new DrumAssignment(drums[i].drum, drums[i].rank, drums[i].qty()));
+          fullSum += drums[i].qty();
+        }
+      }
+      if (bestPartial >= 0) {
+        Indexed drum = drums[bestPartial];
+        assignments.add(new DrumAssignment(drum.drum, drum.rank, required - fullSum));
+      }
+      assignments.sort(Comparator.comparingInt(DrumAssignment::getFifoRank));
+      return new DrumAllocationPlan(assignments, bestCuts, bestWaste, !timedOut, nodes);
+    }
+  }
+}
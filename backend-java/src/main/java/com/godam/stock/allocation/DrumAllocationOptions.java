@@ -0,0 +1,36 @@
+package com.godam.stock.allocation;
+
+import java.time.Duration;
+
+public class DrumAllocationOptions {
+  private static final int DEFAULT_FIFO_SLACK = 3;
+  private static final Duration DEFAULT_TIME_BUDGET = Duration.ofMillis(20);
+
+  private final int fifoSlack;
+  private final int minRemnantQty;
+  private final Duration timeBudget;
+
+  public DrumAllocationOptions(Integer fifoSlack, Integer minRemnantQty, Duration timeBudget) {
+    this.fifoSlack = fifoSlack == null ? DEFAULT_FIFO_SLACK : Math.max(0, fifoSlack);
+    this.minRemnantQty = minRemnantQty == null ? 0 : Math.max(0, minRemnantQty);
+    this.timeBudget = timeBudget == null || timeBudget.isNegative() ? DEFAULT_TIME_BUDGET : timeBudget;
+  }
+
+  public static DrumAllocationOptions defaults() {
+    return new DrumAllocationOptions(null, null, null);
+  }
+
+  /** Drums beyond the shortest FIFO prefix that covers the order which may still be used. */
+  public int getFifoSlack() {
+    return fifoSlack;
+  }
+
+  /** Leftovers shorter than this are counted as unusable offcut waste. */
+  public int getMinRemnantQty() {
+    return minRemnantQty;
+  }
+
+  public Duration getTimeBudget() {
+    return timeBudget;
+  }
+}
@@ -0,0 +1,42 @@
+package com.godam.stock.allocation;
+
+import java.util.List;
+
+public class DrumAllocationPlan {
+  private final List<DrumAssignment> assignments;
+  private final int cutCount;
+  private final int wasteQty;
+  private final boolean optimal;
+  private final long searchedNodes;
+
+  public DrumAllocationPlan(
+      List<DrumAssignment> assignments, int cutCount, int wasteQty, boolean optimal, long searchedNodes) {
+    this.assignments = assignments;
+    this.cutCount = cutCount;
+    this.wasteQty = wasteQty;
+    this.optimal = optimal;
+    this.searchedNodes = searchedNodes;
+  }
+
+  /** Assignments in FIFO order of the drums. */
+  public List<DrumAssignment> getAssignments() {
+    return assignments;
+  }
+
+  public int getCutCount() {
+    return cutCount;
+  }
+
+  public int getWasteQty() {
+    return wasteQty;
+  }
+
+  /** False when the time budget ran out before the search space was exhausted. */
+  public boolean isOptimal() {
+    return optimal;
+  }
+
+  public long getSearchedNodes() {
+    return searchedNodes;
+  }
+}
@@ -0,0 +1,33 @@
+package com.godam.stock.allocation;
+
+public class DrumAssignment {
+  private final DrumCandidate drum;
+  private final int fifoRank;
+  private final int takeQty;
+
+  public DrumAssignment(DrumCandidate drum, int fifoRank, int takeQty) {
+    this.drum = drum;
+    this.fifoRank = fifoRank;
+    this.takeQty = takeQty;
+  }
+
+  public DrumCandidate getDrum() {
+    return drum;
+  }
+
+  public int getFifoRank() {
+    return fifoRank;
+  }
+
+  public int getTakeQty() {
+    return takeQty;
+  }
+
+  public int getLeftoverQty() {
+    return drum.getAvailableQty() - takeQty;
+  }
+
+  public boolean isFullDrum() {
+    return takeQty == drum.getAvailableQty();
+  }
+}
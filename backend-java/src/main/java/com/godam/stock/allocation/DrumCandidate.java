@@ -0,0 +1,37 @@
+package com.godam.stock.allocation;
+
+public class DrumCandidate {
+  private final Long stockId;
+  private final String rack;
+  private final String bin;
+  private final String indicator;
+  private final int availableQty;
+
+  public DrumCandidate(Long stockId, String rack, String bin, String indicator, int availableQty) {
+    this.stockId = stockId;
+    this.rack = rack;
+    this.bin = bin;
+    this.indicator = indicator;
+    this.availableQty = availableQty;
+  }
+
+  public Long getStockId() {
+    return stockId;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public String getIndicator() {
+    return indicator;
+  }
+
+  public int getAvailableQty() {
+    return availableQty;
+  }
+}
@@ -1,28 +1,79 @@
 package com.godam.stock.controller;
 
+import com.godam.jobs.UploadJobDto;
+import com.godam.jobs.UploadJobService;
+import com.godam.jobs.UploadPhaseMetrics;
+import com.godam.stock.dto.DrumAllocationRequest;
+import com.godam.stock.dto.DrumAllocationResponse;
+import com.godam.stock.dto.LocationOccupancyDto;
+import com.godam.stock.dto.SlottingSuggestionDto;
 import com.godam.stock.dto.StockItemDto;
+import com.godam.stock.dto.StockListFilter;
+import com.godam.stock.dto.StockPageDto;
+import com.godam.stock.dto.StockPartitionResultDto;
 import com.godam.stock.dto.StockPickSuggestionDto;
+import com.godam.stock.dto.StockSummaryDto;
 import com.godam.stock.dto.StockAdjustmentRequest;
 import com.godam.stock.dto.StockUploadItemDto;
 import com.godam.stock.dto.StockUploadResultDto;
+import com.godam.stock.dto.StorageLocationRequest;
+import com.godam.stock.service.RackOccupancyIndex;
+import com.godam.stock.service.SlottingService;
+import com.godam.stock.service.StockExportService;
+import com.godam.stock.service.StockPartitionService;
 import com.godam.stock.service.StockService;
+import com.godam.stock.service.StockSummaryIndex;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping({"/stock", "/api/stock"})
 public class StockController {
+  private static final String BULK_UPLOAD = "STOCK_BULK_UPLOAD";
+
   private final StockService stockService;
+  private final UploadJobService uploadJobService;
+  private final UploadPhaseMetrics uploadPhaseMetrics;
+  private final StockExportService stockExportService;
+  private final StockSummaryIndex stockSummaryIndex;
+  private final StockPartitionService stockPartitionService;
+  private final SlottingService slottingService;
+  private final RackOccupancyIndex rackOccupancyIndex;
 
-  public StockController(StockService stockService) {
+  public StockController(
+      StockService stockService,
+      UploadJobService uploadJobService,
+      UploadPhaseMetrics uploadPhaseMetrics,
+      @Lazy StockExportService stockExportService,
+      StockSummaryIndex stockSummaryIndex,
+      StockPartitionService stockPartitionService,
+      SlottingService slottingService,
+      RackOccupancyIndex rackOccupancyIndex) {
     this.stockService = stockService;
+    this.uploadJobService = uploadJobService;
+    this.uploadPhaseMetrics = uploadPhaseMetrics;
+    this.stockExportService = stockExportService;
+    this.stockSummaryIndex = stockSummaryIndex;
+    this.stockPartitionService = stockPartitionService;
+    this.slottingService = slottingService;
+    this.rackOccupancyIndex = rackOccupancyIndex;
   }
 
   @GetMapping
@@ -32,9 +83,90 @@ public class StockController {
     return stockService.listStock(warehouseNo, partNumber);
   }
 
+  @GetMapping("/summary")
+  public List<StockSummaryDto> summary(
+      @RequestParam(name = "warehouseNo", required = false) String warehouseNo,
+      @RequestParam(name = "category", required = false) String category,
+      @RequestParam(name = "vendorName", required = false) String vendorName,
+      @RequestParam(name = "groupBy", defaultValue = "warehouse") String groupBy) {
+    return stockSummaryIndex.summarize(warehouseNo, category, vendorName, groupBy);
+  }
+
+  @PostMapping("/summary/rebuild")
+  public List<StockSummaryDto> rebuildSummary() {
+    return stockSummaryIndex.rebuild();
+  }
+
+  @PostMapping("/partitions/split")
+  public StockPartitionResultDto splitPartitions() {
+    return stockPartitionService.splitWarehouses();
+  }
+
+  @GetMapping("/locations")
+  public List<LocationOccupancyDto> locationOccupancy(
+      @RequestParam(name = "warehouseNo") String warehouseNo,
+      @RequestParam(name = "rack", required = false) String rack) {
+    return slottingService.occupancy(warehouseNo, rack);
+  }
+
+  @PostMapping("/locations")
+  public List<LocationOccupancyDto> registerLocations(@RequestBody List<StorageLocationRequest> locations) {
+    return slottingService.register(locations);
+  }
+
+  @PostMapping("/locations/rebuild")
+  public void rebuildLocations() {
+    rackOccupancyIndex.rebuild();
+  }
+
+  @GetMapping("/slotting/suggest")
+  public List<SlottingSuggestionDto> suggestPutaway(
+      @RequestParam(name = "warehouseNo") String warehouseNo,
+      @RequestParam(name = "partNumber") String partNumber,
+      @RequestParam(name = "qty") int qty,
+      @RequestParam(name = "limit", required = false) Integer limit) {
+    return slottingService.suggest(warehouseNo, partNumber, qty, limit);
+  }
+
+  @GetMapping("/page")
+  public StockPageDto pageStock(
+      StockListFilter filter,
+      @RequestParam(name = "page", defaultValue = "0") int page,
+      @RequestParam(name = "size", defaultValue = "50") int size,
+      @RequestParam(name = "sort", required = false) String sort) {
+    return stockService.pageStock(filter, page, size, sort);
+  }
+
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> exportStock(
+      StockListFilter filter,
+      @RequestParam(name = "format", defaultValue = "csv") String format) {
+    boolean xlsx = "xlsx".equalsIgnoreCase(format);
+    if (!xlsx && !"csv".equalsIgnoreCase(format)) {
+      throw new com.godam.common.exception.StockValidationException("Export format must be csv or xlsx");
+    }
+    String filename = "stock-" + LocalDate.now() + (xlsx ? ".xlsx" : ".csv");
+    StreamingResponseBody body = xlsx
+        ? out -> stockExportService.writeXlsx(filter, out)
+        : out -> stockExportService.writeCsv(filter, out);
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString())
+        .contentType(xlsx
+            ? MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+            : new MediaType("text", "csv", StandardCharsets.UTF_8))
+        .body(body);
+  }
+
   @PostMapping("/bulk")
   public StockUploadResultDto uploadStock(@RequestBody List<StockUploadItemDto> items) {
-    return stockService.upsertStock(items);
+    return stockService.upsertStock(items, uploadPhaseMetrics.track(BULK_UPLOAD));
+  }
+
+  @PostMapping("/bulk/async")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public UploadJobDto uploadStockAsync(@RequestBody List<StockUploadItemDto> items) {
+    return uploadJobService.submit(BULK_UPLOAD, progress -> stockService.upsertStock(items, progress));
   }
 
   @PostMapping("/adjustment")
@@ -57,4 +189,9 @@ public class StockController {
       @RequestParam("requiredQty") int requiredQty) {
     return stockService.suggestPick(warehouseNo, partNumber, requiredQty);
   }
+
+  @PostMapping("/drums/allocate")
+  public DrumAllocationResponse allocateDrums(@RequestBody DrumAllocationRequest request) {
+    return stockService.allocateCable(request);
+  }
 }
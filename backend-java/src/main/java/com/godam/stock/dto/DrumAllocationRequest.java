@@ -0,0 +1,67 @@
+package com.godam.stock.dto;
+
+public class DrumAllocationRequest {
+  private String warehouseNo;
+  private String partNumber;
+  private int requiredQty;
+  private Integer fifoSlack;
+  private Integer minRemnantQty;
+  private Long timeBudgetMs;
+  private boolean apply;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public int getRequiredQty() {
+    return requiredQty;
+  }
+
+  public void setRequiredQty(int requiredQty) {
+    this.requiredQty = requiredQty;
+  }
+
+  public Integer getFifoSlack() {
+    return fifoSlack;
+  }
+
+  public void setFifoSlack(Integer fifoSlack) {
+    this.fifoSlack = fifoSlack;
+  }
+
+  public Integer getMinRemnantQty() {
+    return minRemnantQty;
+  }
+
+  public void setMinRemnantQty(Integer minRemnantQty) {
+    this.minRemnantQty = minRemnantQty;
+  }
+
+  public Long getTimeBudgetMs() {
+    return timeBudgetMs;
+  }
+
+  public void setTimeBudgetMs(Long timeBudgetMs) {
+    this.timeBudgetMs = timeBudgetMs;
+  }
+
+  public boolean isApply() {
+    return apply;
+  }
+
+  public void setApply(boolean apply) {
+    this.apply = apply;
+  }
+}
@@ -0,0 +1,135 @@
+package com.godam.stock.dto;
+
+import java.util.List;
+
+public class DrumAllocationResponse {
+  private String partNumber;
+  private int requiredQty;
+  private int cutCount;
+  private int wasteQty;
+  private boolean optimal;
+  private boolean applied;
+  private List<Line> lines;
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = partNumber;
+  }
+
+  public int getRequiredQty() {
+    return requiredQty;
+  }
+
+  public void setRequiredQty(int requiredQty) {
+    this.requiredQty = requiredQty;
+  }
+
+  public int getCutCount() {
+    return cutCount;
+  }
+
+  public void setCutCount(int cutCount) {
+    this.cutCount = cutCount;
+  }
+
+  public int getWasteQty() {
+    return wasteQty;
+  }
+
+  public void setWasteQty(int wasteQty) {
+    this.wasteQty = wasteQty;
+  }
+
+  public boolean isOptimal() {
+    return optimal;
+  }
+
+  public void setOptimal(boolean optimal) {
+    this.optimal = optimal;
+  }
+
+  public boolean isApplied() {
+    return applied;
+  }
+
+  public void setApplied(boolean applied) {
+    this.applied = applied;
+  }
+
+  public List<Line> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<Line> lines) {
+    this.lines = lines;
+  }
+
+  public static class Line {
+    private Long stockId;
+    private String rack;
+    private String bin;
+    private int takeQty;
+    private int leftoverQty;
+    private boolean fullDrum;
+    private Long cutStockId;
+
+    public Long getStockId() {
+      return stockId;
+    }
+
+    public void setStockId(Long stockId) {
+      this.stockId = stockId;
+    }
+
+    public String getRack() {
+      return rack;
+    }
+
+    public void setRack(String rack) {
+      this.rack = rack;
+    }
+
+    public String getBin() {
+      return bin;
+    }
+
+    public void setBin(String bin) {
+      this.bin = bin;
+    }
+
+    public int getTakeQty() {
+      return takeQty;
+    }
+
+    public void setTakeQty(int takeQty) {
+      this.takeQty = takeQty;
+    }
+
+    public int getLeftoverQty() {
+      return leftoverQty;
+    }
+
+    public void setLeftoverQty(int leftoverQty) {
+      this.leftoverQty = leftoverQty;
+    }
+
+    public boolean isFullDrum() {
+      return fullDrum;
+    }
+
+    public void setFullDrum(boolean fullDrum) {
+      this.fullDrum = fullDrum;
+    }
+
+    public Long getCutStockId() {
+      return cutStockId;
+    }
+
+    public void setCutStockId(Long cutStockId) {
+      this.cutStockId = cutStockId;
+    }
+  }
+}
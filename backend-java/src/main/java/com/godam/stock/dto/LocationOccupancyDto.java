@@ -0,0 +1,114 @@
+package com.godam.stock.dto;
+
+import java.util.List;
+
+public class LocationOccupancyDto {
+  private String warehouseNo;
+  private String rack;
+  private String bin;
+  private String combineRack;
+  private boolean registered;
+  private boolean active;
+  private long qty;
+  private long capacityQty;
+  private int lots;
+  private int partCount;
+  private List<String> families;
+  private double fillPercent;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+
+  public String getCombineRack() {
+    return combineRack;
+  }
+
+  public void setCombineRack(String combineRack) {
+    this.combineRack = combineRack;
+  }
+
+  public boolean isRegistered() {
+    return registered;
+  }
+
+  public void setRegistered(boolean registered) {
+    this.registered = registered;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
+  public long getQty() {
+    return qty;
+  }
+
+  public void setQty(long qty) {
+    this.qty = qty;
+  }
+
+  public long getCapacityQty() {
+    return capacityQty;
+  }
+
+  public void setCapacityQty(long capacityQty) {
+    this.capacityQty = capacityQty;
+  }
+
+  public int getLots() {
+    return lots;
+  }
+
+  public void setLots(int lots) {
+    this.lots = lots;
+  }
+
+  public int getPartCount() {
+    return partCount;
+  }
+
+  public void setPartCount(int partCount) {
+    this.partCount = partCount;
+  }
+
+  public List<String> getFamilies() {
+    return families;
+  }
+
+  public void setFamilies(List<String> families) {
+    this.families = families;
+  }
+
+  public double getFillPercent() {
+    return fillPercent;
+  }
+
+  public void setFillPercent(double fillPercent) {
+    this.fillPercent = fillPercent;
+  }
+}
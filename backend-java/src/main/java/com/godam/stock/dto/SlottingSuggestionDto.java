@@ -0,0 +1,103 @@
+package com.godam.stock.dto;
+
+public class SlottingSuggestionDto {
+  private String warehouseNo;
+  private String rack;
+  private String bin;
+  private String combineRack;
+  private String reason;
+  private long partQty;
+  private long currentQty;
+  private long capacityQty;
+  private long freeQty;
+  private double rackFillPercent;
+  private int distance;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+
+  public String getCombineRack() {
+    return combineRack;
+  }
+
+  public void setCombineRack(String combineRack) {
+    this.combineRack = combineRack;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+
+  public void setReason(String reason) {
+    this.reason = reason;
+  }
+
+  public long getPartQty() {
+    return partQty;
+  }
+
+  public void setPartQty(long partQty) {
+    this.partQty = partQty;
+  }
+
+  public long getCurrentQty() {
+    return currentQty;
+  }
+
+  public void setCurrentQty(long currentQty) {
+    this.currentQty = currentQty;
+  }
+
+  public long getCapacityQty() {
+    return capacityQty;
+  }
+
+  public void setCapacityQty(long capacityQty) {
+    this.capacityQty = capacityQty;
+  }
+
+  public long getFreeQty() {
+    return freeQty;
+  }
+
+  public void setFreeQty(long freeQty) {
+    this.freeQty = freeQty;
+  }
+
+  public double getRackFillPercent() {
+    return rackFillPercent;
+  }
+
+  public void setRackFillPercent(double rackFillPercent) {
+    this.rackFillPercent = rackFillPercent;
+  }
+
+  public int getDistance() {
+    return distance;
+  }
+
+  public void setDistance(int distance) {
+    this.distance = distance;
+  }
+}
@@ -0,0 +1,67 @@
+package com.godam.stock.dto;
+
+/** Optional exact-match filters of the stock grid; blank values are ignored. */
+public class StockListFilter {
+  private String warehouseNo;
+  private String partNumber;
+  private String category;
+  private String vendorName;
+  private String rack;
+  private String pnIndicator;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = trimToNull(warehouseNo);
+  }
+
+  public String getPartNumber() {
+    return partNumber;
+  }
+
+  public void setPartNumber(String partNumber) {
+    this.partNumber = trimToNull(partNumber);
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public void setCategory(String category) {
+    this.category = trimToNull(category);
+  }
+
+  public String getVendorName() {
+    return vendorName;
+  }
+
+  public void setVendorName(String vendorName) {
+    this.vendorName = trimToNull(vendorName);
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = trimToNull(rack);
+  }
+
+  public String getPnIndicator() {
+    return pnIndicator;
+  }
+
+  public void setPnIndicator(String pnIndicator) {
+    this.pnIndicator = trimToNull(pnIndicator);
+  }
+
+  private static String trimToNull(String value) {
+    if (value == null) {
+      return null;
+    }
+    String trimmed = value.trim();
+    return trimmed.isEmpty() ? null : trimmed;
+  }
+}
@@ -0,0 +1,43 @@
+package com.godam.stock.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StockPartitionResultDto {
+  private boolean executed;
+  private String message;
+  private List<String> createdPartitions = new ArrayList<>();
+  private long movedRows;
+
+  public boolean isExecuted() {
+    return executed;
+  }
+
+  public void setExecuted(boolean executed) {
+    this.executed = executed;
+  }
+
+  public String getMessage() {
+    return message;
+  }
+
+  public void setMessage(String message) {
+    this.message = message;
+  }
+
+  public List<String> getCreatedPartitions() {
+    return createdPartitions;
+  }
+
+  public void setCreatedPartitions(List<String> createdPartitions) {
+    this.createdPartitions = createdPartitions;
+  }
+
+  public long getMovedRows() {
+    return movedRows;
+  }
+
+  public void setMovedRows(long movedRows) {
+    this.movedRows = movedRows;
+  }
+}
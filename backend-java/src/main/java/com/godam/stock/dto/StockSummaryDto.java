@@ -1,8 +1,37 @@
 package com.godam.stock.dto;
 
 public class StockSummaryDto {
+  private String warehouseNo;
+  private String category;
+  private String vendorName;
   private int totalParts;
-  private int totalQty;
+  private long totalQty;
+  private int zeroStockParts;
+  private long parkedQty;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getCategory() {
+    return category;
+  }
+
+  public void setCategory(String category) {
+    this.category = category;
+  }
+
+  public String getVendorName() {
+    return vendorName;
+  }
+
+  public void setVendorName(String vendorName) {
+    this.vendorName = vendorName;
+  }
 
   public int getTotalParts() {
     return totalParts;
@@ -12,11 +41,27 @@ public class StockSummaryDto {
     this.totalParts = totalParts;
   }
 
-  public int getTotalQty() {
+  public long getTotalQty() {
     return totalQty;
   }
 
-  public void setTotalQty(int totalQty) {
+  public void setTotalQty(long totalQty) {
     this.totalQty = totalQty;
   }
+
+  public int getZeroStockParts() {
+    return zeroStockParts;
+  }
+
+  public void setZeroStockParts(int zeroStockParts) {
+    this.zeroStockParts = zeroStockParts;
+  }
+
+  public long getParkedQty() {
+    return parkedQty;
+  }
+
+  public void setParkedQty(long parkedQty) {
+    this.parkedQty = parkedQty;
+  }
 }
@@ -0,0 +1,58 @@
+package com.godam.stock.dto;
+
+public class StorageLocationRequest {
+  private String warehouseNo;
+  private String rack;
+  private String bin;
+  private String combineRack;
+  private Integer capacityQty;
+  private Boolean active;
+
+  public String getWarehouseNo() {
+    return warehouseNo;
+  }
+
+  public void setWarehouseNo(String warehouseNo) {
+    this.warehouseNo = warehouseNo;
+  }
+
+  public String getRack() {
+    return rack;
+  }
+
+  public void setRack(String rack) {
+    this.rack = rack;
+  }
+
+  public String getBin() {
+    return bin;
+  }
+
+  public void setBin(String bin) {
+    this.bin = bin;
+  }
+
+  public String getCombineRack() {
+    return combineRack;
+  }
+
+  public void setCombineRack(String combineRack) {
+    this.combineRack = combineRack;
+  }
+
+  public Integer getCapacityQty() {
+    return capacityQty;
+  }
+
+  public void setCapacityQty(Integer capacityQty) {
+    this.capacityQty = capacityQty;
+  }
+
+  public Boolean getActive() {
+    return active;
+  }
+
+  public void setActive(Boolean active) {
+    this.active = active;
+  }
+}
@@ -4,7 +4,12 @@ import com.godam.stock.Stock;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface StockRepository extends JpaRepository<Stock, Long> {
   Optional<Stock> findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc(String warehouseNo, String partNumber);
@@ -28,7 +33,70 @@ public interface StockRepository extends JpaRepository<Stock, Long> {
 
   List<Stock> findByParentPnOrderByCreatedAtAsc(String parentPn);
 
+  List<Stock> findByWarehouseNoAndParentPnOrderByCreatedAtAsc(String warehouseNo, String parentPn);
+
   List<Stock> findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(String partNumber, String pnIndicator);
 
   Optional<Stock> findFirstByPartNumberAndRackOrderByCreatedAtAsc(String partNumber, String rack);
+
+  String FILTER = " where (:warehouseNo is null or s.warehouseNo = :warehouseNo)"
+      + " and (:partNumber is null or s.partNumber = :partNumber)"
+      + " and (:category is null or s.category = :category)"
+      + " and (:vendorName is null or s.vendorName = :vendorName)"
+      + " and (:rack is null or s.rack = :rack)"
+      + " and (:pnIndicator is null or s.pnIndicator = :pnIndicator)";
+
+  @Query(value = "select s from Stock s" + FILTER, countQuery = "select count(s) from Stock s" + FILTER)
+  Page<Stock> findPage(
+      @Param("warehouseNo") String warehouseNo,
+      @Param("partNumber") String partNumber,
+      @Param("category") String category,
+      @Param("vendorName") String vendorName,
+      @Param("rack") String rack,
+      @Param("pnIndicator") String pnIndicator,
+      Pageable pageable);
+
+  /** Current quantities in FIFO order, read past the persistence context. */
+  @Query("select s.id as id, s.warehouseNo as warehouseNo, s.partNumber as partNumber, s.parentPn as parentPn, "
+      + "s.rack as rack, s.qty as qty from Stock s where s.partNumber = :partNumber "
+      + "order by s.createdAt asc nulls last, s.id asc")
+  List<StockQtyRow> findQtyRowsByPartNumber(@Param("partNumber") String partNumber);
+
+  /** As {@link #findQtyRowsByPartNumber} but within one warehouse, so only its partition is read. */
+  @Query("select s.id as id, s.warehouseNo as warehouseNo, s.partNumber as partNumber, s.parentPn as parentPn, "
+      + "s.rack as rack, s.qty as qty from Stock s "
+      + "where s.warehouseNo = :warehouseNo and s.partNumber = :partNumber "
+      + "order by s.createdAt asc nulls last, s.id asc")
+  List<StockQtyRow> findQtyRowsByWarehouseNoAndPartNumber(
+      @Param("warehouseNo") String warehouseNo, @Param("partNumber") String partNumber);
+
+  /** Deducts only while the row still holds enough; 0 means it changed underneath the caller. */
+  @Modifying(flushAutomatically = true)
+  @Query("update Stock s set s.qty = s.qty - :qty where s.id = :id and s.qty >= :qty")
+  int decrementQtyIfAvailable(@Param("id") Long id, @Param("qty") int qty);
+
+  /** As {@link #decrementQtyIfAvailable(Long, int)} for a row of a known warehouse partition. */
+  @Modifying(flushAutomatically = true)
+  @Query("update Stock s set s.qty = s.qty - :qty "
+      + "where s.id = :id and s.warehouseNo = :warehouseNo and s.qty >= :qty")
+  int decrementQtyIfAvailable(
+      @Param("id") Long id, @Param("warehouseNo") String warehouseNo, @Param("qty") int qty);
+
+  @Modifying(flushAutomatically = true)
+  @Query("update Stock s set s.qty = s.qty + :qty where s.id = :id")
+  int incrementQty(@Param("id") Long id, @Param("qty") int qty);
+
+  interface StockQtyRow {
+    Long getId();
+
+    String getWarehouseNo();
+
+    String getPartNumber();
+
+    String getParentPn();
+
+    String getRack();
+
+    int getQty();
+  }
 }
@@ -0,0 +1,12 @@
+package com.godam.stock.repository;
+
+import com.godam.stock.StorageLocation;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StorageLocationRepository extends JpaRepository<StorageLocation, Long> {
+  Optional<StorageLocation> findByWarehouseNoAndRackAndBin(String warehouseNo, String rack, String bin);
+
+  List<StorageLocation> findByWarehouseNo(String warehouseNo);
+}
@@ -0,0 +1,477 @@
+package com.godam.stock.service;
+
+import com.godam.stock.Stock;
+import com.godam.stock.repository.StockRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory view of the part hierarchy: child parts (C) pointing at a parent (P) with a base qty,
+ * and main drums (D) with their splits (DQ) and cuts (DQC). Each part is loaded once on first use
+ * and its aggregates are then kept current from committed stock writes, so the pick-time parent and
+ * drum checks are map lookups instead of several queries and a BigDecimal recomputation.
+ *
+ * <p>The view is segmented: one segment spans every warehouse and each warehouse asked for by name
+ * gets its own, with its own lock and size budget. A warehouse segment holds only that warehouse's
+ * rows, so picks in one warehouse neither contend with nor evict another's parts.
+ */
+@Component
+public class PartHierarchyCache {
+  static final String INDICATOR_PARENT = "P";
+  static final String INDICATOR_CHILD = "C";
+  static final String INDICATOR_DRUM = "D";
+  static final String INDICATOR_DRUM_SPLIT = "DQ";
+  static final String INDICATOR_DRUM_CUT = "DQC";
+
+  private static final Comparator<RowState> FIFO_ORDER = Comparator
+      .comparing((RowState row) -> row.createdAt, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(row -> row.id);
+
+  private final StockRepository stockRepository;
+  private final int maxParts;
+  private final Segment all;
+  private final Map<String, Segment> warehouses = new ConcurrentHashMap<>();
+
+  public PartHierarchyCache(
+      StockRepository stockRepository,
+      @Value("${godam.stock.hierarchy-cache.max-parts:50000}") int maxParts) {
+    this.stockRepository = stockRepository;
+    this.maxParts = Math.max(1, maxParts);
+    this.all = new Segment(null);
+  }
+
+  public String resolveMainPartNumber(String partNumber) {
+    return all.node(partNumber).mainPartNumber(partNumber);
+  }
+
+  public ParentTotals parentTotals(String parentPn) {
+    return all.node(parentPn).parentTotals();
+  }
+
+  public DrumTotals drumTotals(String partNumber) {
+    return all.node(partNumber).drumTotals();
+  }
+
+  /** Same as {@link #resolveMainPartNumber(String)} over one warehouse's rows; null means all. */
+  public String resolveMainPartNumber(String warehouseNo, String partNumber) {
+    return segment(warehouseNo).node(partNumber).mainPartNumber(partNumber);
+  }
+
+  public ParentTotals parentTotals(String warehouseNo, String parentPn) {
+    return segment(warehouseNo).node(parentPn).parentTotals();
+  }
+
+  public DrumTotals drumTotals(String warehouseNo, String partNumber) {
+    return segment(warehouseNo).node(partNumber).drumTotals();
+  }
+
+  public long getHits() {
+    long total = all.hits.get();
+    for (Segment segment : warehouses.values()) {
+      total += segment.hits.get();
+    }
+    return total;
+  }
+
+  public long getMisses() {
+    long total = all.misses.get();
+    for (Segment segment : warehouses.values()) {
+      total += segment.misses.get();
+    }
+    return total;
+  }
+
+  public int size() {
+    int total = all.size();
+    for (Segment segment : warehouses.values()) {
+      total += segment.size();
+    }
+    return total;
+  }
+
+  public void clear() {
+    all.clear();
+    warehouses.values().forEach(Segment::clear);
+  }
+
+  /**
+   * Applies committed row states. Parts that are not cached are only stamped, which keeps a load
+   * that raced with this write from installing stale rows.
+   */
+  public void apply(Collection<RowState> changes) {
+    all.apply(changes);
+    warehouses.values().forEach(segment -> segment.apply(changes));
+  }
+
+  /**
+   * Drops the parts touched by a rolled-back transaction; they may have been loaded while that
+   * transaction's uncommitted rows were visible.
+   */
+  public void evict(Collection<RowState> changes) {
+    all.evict(changes);
+    warehouses.values().forEach(segment -> segment.evict(changes));
+  }
+
+  private Segment segment(String warehouseNo) {
+    if (warehouseNo == null || warehouseNo.isBlank()) {
+      return all;
+    }
+    return warehouses.computeIfAbsent(warehouseNo, Segment::new);
+  }
+
+  private final class Segment {
+    private final String warehouseNo;
+    private final Map<String, PartNode> nodes = new HashMap<>();
+    private final Map<Long, String> childOwners = new HashMap<>();
+    private final Map<String, Long> writeStamps = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    Segment(String warehouseNo) {
+      this.warehouseNo = warehouseNo;
+    }
+
+    synchronized int size() {
+      return nodes.size();
+    }
+
+    synchronized void clear() {
+      writeStamps.clear();
+      nodes.clear();
+      childOwners.clear();
+      writeSequence.incrementAndGet();
+    }
+
+    synchronized void apply(Collection<RowState> changes) {
+      long stamp = writeSequence.incrementAndGet();
+      for (RowState row : changes) {
+        // A row of another warehouse, or one moved out of this one, is gone as far as we can see.
+        RowState change = warehouseNo == null || warehouseNo.equals(row.warehouseNo) ? row : row.asDeleted();
+        String previousParent = childOwners.get(change.id);
+        stamp(change.partNumber, stamp);
+        stamp(change.parentPn, stamp);
+        stamp(previousParent, stamp);
+
+        PartNode own = change.partNumber == null ? null : nodes.get(change.partNumber);
+        if (own != null) {
+          own.removeOwn(change.id);
+          if (!change.deleted) {
+            own.addOwn(change);
+          }
+        }
+        if (previousParent != null) {
+          PartNode previous = nodes.get(previousParent);
+          if (previous != null) {
+            previous.removeChild(change.id);
+          }
+          childOwners.remove(change.id);
+        }
+        if (!change.deleted && change.parentPn != null) {
+          PartNode parent = nodes.get(change.parentPn);
+          if (parent != null) {
+            parent.addChild(change);
+            childOwners.put(change.id, change.parentPn);
+          }
+        }
+      }
+    }
+
+    synchronized void evict(Collection<RowState> changes) {
+      long stamp = writeSequence.incrementAndGet();
+      for (RowState change : changes) {
+        String previousParent = childOwners.get(change.id);
+        for (String partNumber : new String[] {change.partNumber, change.parentPn, previousParent}) {
+          if (partNumber == null) {
+            continue;
+          }
+          stamp(partNumber, stamp);
+          PartNode removed = nodes.remove(partNumber);
+          if (removed != null) {
+            removed.childRows.keySet().forEach(childOwners::remove);
+          }
+        }
+      }
+    }
+
+    private void stamp(String partNumber, long stamp) {
+      if (partNumber != null) {
+        writeStamps.put(partNumber, stamp);
+      }
+    }
+
+    private PartNode node(String partNumber) {
+      String key = partNumber == null ? "" : partNumber;
+      long startSequence;
+      synchronized (this) {
+        PartNode cached = nodes.get(key);
+        if (cached != null) {
+          hits.incrementAndGet();
+          return cached;
+        }
+        startSequence = writeSequence.get();
+      }
+      misses.incrementAndGet();
+      PartNode loaded = new PartNode(key);
+      List<Stock> own = warehouseNo == null
+          ? stockRepository.findByPartNumberOrderByCreatedAtAsc(partNumber)
+          : stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc(warehouseNo, partNumber);
+      for (Stock row : own) {
+        loaded.addOwn(RowState.of(row));
+      }
+      List<Stock> children = warehouseNo == null
+          ? stockRepository.findByParentPnOrderByCreatedAtAsc(partNumber)
+          : stockRepository.findByWarehouseNoAndParentPnOrderByCreatedAtAsc(warehouseNo, partNumber);
+      for (Stock row : children) {
+        loaded.addChild(RowState.of(row));
+      }
+      synchronized (this) {
+        PartNode cached = nodes.get(key);
+        if (cached != null) {
+          return cached;
+        }
+        if (writeStamps.getOrDefault(key, 0L) > startSequence) {
+          // A write for this part committed while loading; serve this read but do not cache it.
+          return loaded;
+        }
+        if (nodes.size() >= maxParts) {
+          nodes.clear();
+          childOwners.clear();
+        }
+        nodes.put(key, loaded);
+        for (Long childId : loaded.childRows.keySet()) {
+          childOwners.put(childId, key);
+        }
+        return loaded;
+      }
+    }
+  }
+
+  public static final class RowState {
+    final Long id;
+    final String warehouseNo;
+    final String partNumber;
+    final String parentPn;
+    final String category;
+    final String vendorName;
+    final String indicator;
+    final int qty;
+    final double baseQty;
+    final Instant createdAt;
+    final String rack;
+    final String bin;
+    final String combineRack;
+    final boolean deleted;
+
+    private RowState(Stock stock, boolean deleted) {
+      this.id = stock.getId();
+      this.warehouseNo = stock.getWarehouseNo();
+      this.partNumber = stock.getPartNumber();
+      this.parentPn = stock.getParentPn();
+      this.category = stock.getCategory();
+      this.vendorName = stock.getVendorName();
+      this.indicator = stock.getPnIndicator();
+      this.qty = stock.getQty();
+      this.baseQty = stock.getBaseQty() == null || stock.getBaseQty() <= 0 ? 1.0 : stock.getBaseQty();
+      this.createdAt = stock.getCreatedAt();
+      this.rack = stock.getRack();
+      this.bin = stock.getBin();
+      this.combineRack = stock.getCombineRack();
+      this.deleted = deleted;
+    }
+
+    private RowState(Long id, String partNumber, String parentPn) {
+      this.id = id;
+      this.warehouseNo = null;
+      this.partNumber = partNumber;
+      this.parentPn = parentPn;
+      this.category = null;
+      this.vendorName = null;
+      this.indicator = null;
+      this.qty = 0;
+      this.baseQty = 1.0;
+      this.createdAt = null;
+      this.rack = null;
+      this.bin = null;
+      this.combineRack = null;
+      this.deleted = false;
+    }
+
+    private RowState(RowState other) {
+      this.id = other.id;
+      this.warehouseNo = other.warehouseNo;
+      this.partNumber = other.partNumber;
+      this.parentPn = other.parentPn;
+      this.category = other.category;
+      this.vendorName = other.vendorName;
+      this.indicator = other.indicator;
+      this.qty = other.qty;
+      this.baseQty = other.baseQty;
+      this.createdAt = other.createdAt;
+      this.rack = other.rack;
+      this.bin = other.bin;
+      this.combineRack = other.combineRack;
+      this.deleted = true;
+    }
+
+    public static RowState of(Stock stock) {
+      return new RowState(stock, false);
+    }
+
+    /** Identity only, for rows changed by bulk updates; good for {@link #evict} but not apply. */
+    public static RowState touched(Long id, String partNumber, String parentPn) {
+      return new RowState(id, partNumber, parentPn);
+    }
+
+    public static RowState deleted(Stock stock) {
+      return new RowState(stock, true);
+    }
+
+    public Long getId() {
+      return id;
+    }
+
+    RowState asDeleted() {
+      return deleted ? this : new RowState(this);
+    }
+
+    BigDecimal weightedQty() {
+      return BigDecimal.valueOf(qty).multiply(BigDecimal.valueOf(baseQty));
+    }
+  }
+
+  public static final class ParentTotals {
+    private final boolean hasChildren;
+    private final int calculatedQty;
+    private final Integer parentQty;
+
+    ParentTotals(boolean hasChildren, int calculatedQty, Integer parentQty) {
+      this.hasChildren = hasChildren;
+      this.calculatedQty = calculatedQty;
+      this.parentQty = parentQty;
+    }
+
+    public boolean hasChildren() {
+      return hasChildren;
+    }
+
+    public int getCalculatedQty() {
+      return calculatedQty;
+    }
+
+    /** Qty of the oldest P row for the part, or null when no parent row exists. */
+    public Integer getParentQty() {
+      return parentQty;
+    }
+  }
+
+  public static final class DrumTotals {
+    private final Integer mainQty;
+    private final long splitSum;
+
+    DrumTotals(Integer mainQty, long splitSum) {
+      this.mainQty = mainQty;
+      this.splitSum = splitSum;
+    }
+
+    /** Qty of the oldest D row for the part, or null when the part has no main drum. */
+    public Integer getMainQty() {
+      return mainQty;
+    }
+
+    public long getSplitSum() {
+      return splitSum;
+    }
+  }
+
+  private static final class PartNode {
+    private final String partNumber;
+    private final Map<Long, RowState> ownRows = new HashMap<>();
+    private final Map<Long, RowState> childRows = new HashMap<>();
+    private final TreeSet<RowState> childIndicatorRows = new TreeSet<>(FIFO_ORDER);
+    private final TreeSet<RowState> parentRows = new TreeSet<>(FIFO_ORDER);
+    private final TreeSet<RowState> drumRows = new TreeSet<>(FIFO_ORDER);
+    private long splitSum;
+    private BigDecimal childWeightedSum = BigDecimal.ZERO;
+
+    PartNode(String partNumber) {
+      this.partNumber = partNumber;
+    }
+
+    synchronized String mainPartNumber(String requested) {
+      if (childIndicatorRows.isEmpty()) {
+        return requested;
+      }
+      String parent = childIndicatorRows.first().parentPn;
+      return parent == null || parent.isBlank() ? requested : parent;
+    }
+
+    synchronized ParentTotals parentTotals() {
+      Integer parentQty = parentRows.isEmpty() ? null : parentRows.first().qty;
+      return new ParentTotals(!childRows.isEmpty(), childWeightedSum.intValue(), parentQty);
+    }
+
+    synchronized DrumTotals drumTotals() {
+      Integer mainQty = drumRows.isEmpty() ? null : drumRows.first().qty;
+      return new DrumTotals(mainQty, splitSum);
+    }
+
+    synchronized void addOwn(RowState row) {
+      if (row.id == null || !Objects.equals(row.partNumber, partNumber)) {
+        return;
+      }
+      ownRows.put(row.id, row);
+      if (INDICATOR_CHILD.equals(row.indicator)) {
+        childIndicatorRows.add(row);
+      } else if (INDICATOR_PARENT.equals(row.indicator)) {
+        parentRows.add(row);
+      } else if (INDICATOR_DRUM.equals(row.indicator)) {
+        drumRows.add(row);
+      } else if (INDICATOR_DRUM_SPLIT.equals(row.indicator) || INDICATOR_DRUM_CUT.equals(row.indicator)) {
+        splitSum += row.qty;
+      }
+    }
+
+    synchronized void removeOwn(Long id) {
+      RowState row = ownRows.remove(id);
+      if (row == null) {
+        return;
+      }
+      childIndicatorRows.remove(row);
+      parentRows.remove(row);
+      drumRows.remove(row);
+      if (INDICATOR_DRUM_SPLIT.equals(row.indicator) || INDICATOR_DRUM_CUT.equals(row.indicator)) {
+        splitSum -= row.qty;
+      }
+    }
+
+    synchronized void addChild(RowState row) {
+      if (row.id == null) {
+        return;
+      }
+      RowState previous = childRows.put(row.id, row);
+      if (previous != null) {
+        childWeightedSum = childWeightedSum.subtract(previous.weightedQty());
+      }
+      childWeightedSum = childWeightedSum.add(row.weightedQty());
+    }
+
+    synchronized void removeChild(Long id) {
+      RowState row = childRows.remove(id);
+      if (row != null) {
+        childWeightedSum = childWeightedSum.subtract(row.weightedQty());
+      }
+    }
+  }
+}
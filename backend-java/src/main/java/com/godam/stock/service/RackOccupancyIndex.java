@@ -0,0 +1,651 @@
+package com.godam.stock.service;
+
+import com.godam.stock.StorageLocation;
+import com.godam.stock.dto.LocationOccupancyDto;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Quantity, lots and part families per rack and bin, keyed by warehouse and kept in walk order.
+ * Locations come from stock rows and from registered {@link StorageLocation}s, which also carry
+ * capacity; unregistered ones use {@code godam.stock.slotting.default-bin-capacity}. The index is
+ * loaded once and then follows committed stock writes; rows changed by bulk statements are re-read
+ * on a background thread, so reads never wait on the database. A part's family is its main part
+ * number (the parent of drum children).
+ */
+@Component
+public class RackOccupancyIndex {
+  private static final Logger log = LoggerFactory.getLogger(RackOccupancyIndex.class);
+  private static final int FETCH_SIZE = 2000;
+  private static final int IN_CLAUSE_CHUNK = 1000;
+  private static final String ROW_COLUMNS =
+      "select id, warehouse_no, part_number, parent_pn, qty, rack, bin, combine_rack, created_at from stock";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readTransaction;
+  private final int defaultBinCapacity;
+  private final boolean warmUp;
+  private final ExecutorService refresher;
+  private final AtomicBoolean refreshQueued = new AtomicBoolean();
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Object loadLock = new Object();
+
+  private State state;
+  private final Set<Long> staleRows = new HashSet<>();
+  private final Map<Long, Long> writeStamps = new HashMap<>();
+  private final List<StorageLocation> locationsDuringLoad = new ArrayList<>();
+  private long writeSequence;
+  private int loadsInFlight;
+
+  public RackOccupancyIndex(
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      @Value("${godam.stock.slotting.default-bin-capacity:500}") int defaultBinCapacity,
+      @Value("${godam.stock.slotting.warm-up:true}") boolean warmUp) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.defaultBinCapacity = Math.max(1, defaultBinCapacity);
+    this.warmUp = warmUp;
+    this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "rack-occupancy-refresh");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (warmUp) {
+      refresher.submit(() -> {
+        try {
+          ensureLoaded();
+        } catch (RuntimeException ex) {
+          log.warn("Rack occupancy warm-up failed; it loads on first use instead", ex);
+        }
+      });
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refresher.shutdownNow();
+  }
+
+  /** Runs {@code reader} against one warehouse under the read lock; unknown warehouses are empty. */
+  <T> T read(String warehouseNo, Function<WarehouseOccupancy, T> reader) {
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      WarehouseOccupancy occupancy = state.warehouses.get(warehouseKey(warehouseNo));
+      return reader.apply(occupancy == null ? new WarehouseOccupancy(warehouseKey(warehouseNo)) : occupancy);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Locations of a warehouse in walk order, optionally limited to one rack. */
+  public List<LocationOccupancyDto> occupancy(String warehouseNo, String rack) {
+    return read(warehouseNo, occupancy -> {
+      Collection<Location> locations = rack == null || rack.isBlank()
+          ? occupancy.locations.values()
+          : occupancy.rackLocations(normalize(rack)).values();
+      List<LocationOccupancyDto> result = new ArrayList<>(locations.size());
+      for (Location location : locations) {
+        result.add(toDto(occupancy.warehouseNo, location));
+      }
+      return result;
+    });
+  }
+
+  /** Discards the index and loads it again from the database. */
+  public void rebuild() {
+    synchronized (loadLock) {
+      load();
+    }
+  }
+
+  /** Applies committed stock row states. */
+  public void apply(Collection<RowState> changes) {
+    lock.writeLock().lock();
+    try {
+      for (RowState change : changes) {
+        if (change.id == null) {
+          continue;
+        }
+        stamp(change.id);
+        if (state == null) {
+          continue;
+        }
+        if (change.deleted) {
+          state.removeRow(change.id);
+        } else {
+          state.putRow(new RowSlice(change.id, change.warehouseNo, change.partNumber, change.parentPn,
+              change.qty, change.rack, change.bin, change.combineRack, change.createdAt));
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /** Rows changed by bulk statements; they are re-read in the background. */
+  public void markStale(Collection<RowState> changes) {
+    boolean queued = false;
+    lock.writeLock().lock();
+    try {
+      for (RowState change : changes) {
+        if (change.id != null) {
+          stamp(change.id);
+          if (state != null) {
+            queued |= staleRows.add(change.id);
+          }
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (queued) {
+      scheduleRefresh();
+    }
+  }
+
+  /** Applies committed location registrations. */
+  public void applyLocations(Collection<StorageLocation> locations) {
+    lock.writeLock().lock();
+    try {
+      if (loadsInFlight > 0) {
+        locationsDuringLoad.addAll(locations);
+      }
+      if (state != null) {
+        locations.forEach(state::putLocation);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void stamp(Long id) {
+    if (loadsInFlight > 0) {
+      writeStamps.put(id, ++writeSequence);
+    }
+  }
+
+  private void loadFinished() {
+    lock.writeLock().lock();
+    try {
+      loadsInFlight--;
+      if (loadsInFlight == 0) {
+        writeStamps.clear();
+        locationsDuringLoad.clear();
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void ensureLoaded() {
+    lock.readLock().lock();
+    try {
+      if (state != null) {
+        return;
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    synchronized (loadLock) {
+      lock.readLock().lock();
+      try {
+        if (state != null) {
+          return;
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+      load();
+    }
+  }
+
+  private void load() {
+    long startSequence;
+    lock.writeLock().lock();
+    try {
+      loadsInFlight++;
+      startSequence = writeSequence;
+      staleRows.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    Instant started = Instant.now();
+    boolean queued;
+    try {
+      State loaded = new State(defaultBinCapacity);
+      readTransaction.executeWithoutResult(status -> {
+        jdbcTemplate.query(
+            "select warehouse_no, rack, bin, combine_rack, capacity_qty, active from storage_locations",
+            (RowCallbackHandler) rs -> {
+              StorageLocation location = new StorageLocation();
+              location.setWarehouseNo(rs.getString(1));
+              location.setRack(rs.getString(2));
+              location.setBin(rs.getString(3));
+              location.setCombineRack(rs.getString(4));
+              int capacity = rs.getInt(5);
+              location.setCapacityQty(rs.wasNull() ? null : capacity);
+              location.setActive(rs.getBoolean(6));
+              loaded.putLocation(location);
+            });
+        loadRows("", new Object[0], loaded::putRow);
+      });
+      lock.writeLock().lock();
+      try {
+        for (Map.Entry<Long, Long> stamp : writeStamps.entrySet()) {
+          // Written while the rows were read; the loaded value may predate the write.
+          if (stamp.getValue() > startSequence) {
+            staleRows.add(stamp.getKey());
+          }
+        }
+        locationsDuringLoad.forEach(loaded::putLocation);
+        state = loaded;
+        queued = !staleRows.isEmpty();
+      } finally {
+        lock.writeLock().unlock();
+      }
+      log.info("Rack occupancy loaded: {} rows in {} locations across {} warehouses, took {} ms",
+          loaded.rows.size(), loaded.locationCount(), loaded.warehouses.size(),
+          Duration.between(started, Instant.now()).toMillis());
+    } finally {
+      loadFinished();
+    }
+    if (queued) {
+      scheduleRefresh();
+    }
+  }
+
+  private void scheduleRefresh() {
+    if (!refreshQueued.compareAndSet(false, true)) {
+      return;
+    }
+    refresher.submit(() -> {
+      refreshQueued.set(false);
+      try {
+        refreshStale();
+      } catch (RuntimeException ex) {
+        log.warn("Rack occupancy refresh failed; the rows are retried on the next stock write", ex);
+      }
+    });
+  }
+
+  private void refreshStale() {
+    List<Long> rowIds;
+    long startSequence;
+    lock.writeLock().lock();
+    try {
+      if (staleRows.isEmpty() || state == null) {
+        return;
+      }
+      rowIds = new ArrayList<>(staleRows);
+      staleRows.clear();
+      loadsInFlight++;
+      startSequence = writeSequence;
+    } finally {
+      lock.writeLock().unlock();
+    }
+    try {
+      Map<Long, RowSlice> rows = new HashMap<>();
+      readTransaction.executeWithoutResult(status -> {
+        for (int from = 0; from < rowIds.size(); from += IN_CLAUSE_CHUNK) {
+          List<Long> chunk = rowIds.subList(from, Math.min(rowIds.size(), from + IN_CLAUSE_CHUNK));
+          loadRows(" where id in (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")",
+              chunk.toArray(), row -> rows.put(row.id, row));
+        }
+      });
+      lock.writeLock().lock();
+      try {
+        for (Long id : rowIds) {
+          if (writeStamps.getOrDefault(id, 0L) > startSequence) {
+            continue;
+          }
+          RowSlice row = rows.get(id);
+          if (row == null) {
+            state.removeRow(id);
+          } else {
+            state.putRow(row);
+          }
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    } catch (RuntimeException ex) {
+      lock.writeLock().lock();
+      try {
+        staleRows.addAll(rowIds);
+      } finally {
+        lock.writeLock().unlock();
+      }
+      throw ex;
+    } finally {
+      loadFinished();
+    }
+  }
+
+  private void loadRows(String predicate, Object[] args, Consumer<RowSlice> sink) {
+    jdbcTemplate.query(ROW_COLUMNS + predicate, (RowCallbackHandler) rs -> {
+      Timestamp createdAt = rs.getTimestamp(9);
+      sink.accept(new RowSlice(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getInt(5),
+          rs.getString(6), rs.getString(7), rs.getString(8), createdAt == null ? null : createdAt.toInstant()));
+    }, args);
+  }
+
+  private LocationOccupancyDto toDto(String warehouseNo, Location location) {
+    LocationOccupancyDto dto = new LocationOccupancyDto();
+    dto.setWarehouseNo(warehouseNo);
+    dto.setRack(location.rack);
+    dto.setBin(location.bin);
+    dto.setCombineRack(location.combineRack);
+    dto.setRegistered(location.registered);
+    dto.setActive(location.active);
+    dto.setQty(location.qty);
+    dto.setCapacityQty(location.capacity());
+    dto.setLots(location.lots);
+    dto.setPartCount(location.parts.size());
+    List<String> families = new ArrayList<>(location.families.keySet());
+    Collections.sort(families);
+    dto.setFamilies(families);
+    dto.setFillPercent(location.fillPercent());
+    return dto;
+  }
+
+  static String normalize(String value) {
+    return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+  }
+
+  private static String warehouseKey(String warehouseNo) {
+    return warehouseNo == null ? "" : warehouseNo.trim();
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  /** Rack and bin, normalized; the natural order is the walk order within a warehouse. */
+  record LocationKey(String rack, String bin) implements Comparable<LocationKey> {
+    private static final Comparator<LocationKey> ORDER =
+        Comparator.comparing(LocationKey::rack).thenComparing(LocationKey::bin);
+
+    static LocationKey of(String rack, String bin) {
+      return new LocationKey(normalize(rack), normalize(bin));
+    }
+
+    @Override
+    public int compareTo(LocationKey other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+  private record RowSlice(
+      long id,
+      String warehouseNo,
+      String partNumber,
+      String parentPn,
+      int qty,
+      String rack,
+      String bin,
+      String combineRack,
+      Instant createdAt) {
+
+    boolean located() {
+      return !isBlank(warehouseNo) && !isBlank(partNumber) && !isBlank(rack) && qty > 0;
+    }
+
+    String family() {
+      return isBlank(parentPn) ? partNumber : parentPn;
+    }
+  }
+
+  private static final class State {
+    private final int defaultBinCapacity;
+    private final Map<String, WarehouseOccupancy> warehouses = new HashMap<>();
+    private final Map<Long, RowSlice> rows = new HashMap<>();
+
+    private State(int defaultBinCapacity) {
+      this.defaultBinCapacity = defaultBinCapacity;
+    }
+
+    void putRow(RowSlice row) {
+      removeRow(row.id);
+      if (!row.located()) {
+        return;
+      }
+      rows.put(row.id, row);
+      WarehouseOccupancy occupancy = warehouses.computeIfAbsent(
+          warehouseKey(row.warehouseNo), WarehouseOccupancy::new);
+      Location location = occupancy.locate(row.rack, row.bin, defaultBinCapacity);
+      if (!isBlank(row.combineRack)) {
+        location.combineRack = row.combineRack;
+      }
+      location.add(row.id, row.partNumber.trim(), row.family().trim(), row.qty, row.createdAt);
+      occupancy.rack(location).qty += row.qty;
+      occupancy.partLocations.computeIfAbsent(row.partNumber.trim(), ignored -> new HashSet<>()).add(location.key);
+      occupancy.familyLocations.computeIfAbsent(row.family().trim(), ignored -> new HashSet<>()).add(location.key);
+      occupancy.familyOf.put(row.partNumber.trim(), row.family().trim());
+    }
+
+    void removeRow(long id) {
+      RowSlice row = rows.remove(id);
+      if (row == null) {
+        return;
+      }
+      WarehouseOccupancy occupancy = warehouses.get(warehouseKey(row.warehouseNo));
+      Location location = occupancy.locations.get(LocationKey.of(row.rack, row.bin));
+      String partNumber = row.partNumber.trim();
+      String family = row.family().trim();
+      location.remove(id, partNumber, family, row.qty);
+      occupancy.rack(location).qty -= row.qty;
+      if (!location.parts.containsKey(partNumber)) {
+        removeKey(occupancy.partLocations, partNumber, location.key);
+      }
+      if (!location.families.containsKey(family)) {
+        removeKey(occupancy.familyLocations, family, location.key);
+      }
+    }
+
+    void putLocation(StorageLocation registered) {
+      if (isBlank(registered.getWarehouseNo()) || isBlank(registered.getRack())) {
+        return;
+      }
+      WarehouseOccupancy occupancy = warehouses.computeIfAbsent(
+          warehouseKey(registered.getWarehouseNo()), WarehouseOccupancy::new);
+      Location location = occupancy.locate(registered.getRack(), registered.getBin(), defaultBinCapacity);
+      RackLoad rack = occupancy.rack(location);
+      rack.capacity -= location.capacity();
+      location.registered = true;
+      location.active = registered.isActive();
+      location.registeredCapacity = registered.getCapacityQty();
+      if (!isBlank(registered.getCombineRack())) {
+        location.combineRack = registered.getCombineRack();
+      }
+      rack.capacity += location.capacity();
+    }
+
+    int locationCount() {
+      return warehouses.values().stream().mapToInt(occupancy -> occupancy.locations.size()).sum();
+    }
+
+    private static void removeKey(Map<String, Set<LocationKey>> index, String value, LocationKey key) {
+      Set<LocationKey> keys = index.get(value);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          index.remove(value);
+        }
+      }
+    }
+  }
+
+  /** One warehouse: locations in walk order, rack totals and where each part and family sits. */
+  static final class WarehouseOccupancy {
+    final String warehouseNo;
+    final TreeMap<LocationKey, Location> locations = new TreeMap<>();
+    final Map<String, RackLoad> racks = new HashMap<>();
+    final Map<String, Set<LocationKey>> partLocations = new HashMap<>();
+    final Map<String, Set<LocationKey>> familyLocations = new HashMap<>();
+    final Map<String, String> familyOf = new HashMap<>();
+
+    WarehouseOccupancy(String warehouseNo) {
+      this.warehouseNo = warehouseNo;
+    }
+
+    NavigableMap<LocationKey, Location> rackLocations(String rackKey) {
+      return locations.subMap(new LocationKey(rackKey, ""), true, new LocationKey(rackKey, "\uffff"), true);
+    }
+
+    RackLoad rack(Location location) {
+      return racks.get(location.key.rack());
+    }
+
+    private Location locate(String rack, String bin, int defaultBinCapacity) {
+      LocationKey key = LocationKey.of(rack, bin);
+      Location existing = locations.get(key);
+      if (existing != null) {
+        return existing;
+      }
+      Location location = new Location(key, rack.trim(), bin == null ? "" : bin.trim(), defaultBinCapacity);
+      locations.put(key, location);
+      racks.computeIfAbsent(key.rack(), ignored -> new RackLoad(location.rack)).capacity += location.capacity();
+      return location;
+    }
+  }
+
+  static final class RackLoad {
+    final String rack;
+    long qty;
+    long capacity;
+
+    RackLoad(String rack) {
+      this.rack = rack;
+    }
+
+    double fill(long extraQty) {
+      return capacity <= 0 ? 1.0 : (double) (qty + extraQty) / capacity;
+    }
+  }
+
+  static final class Location {
+    final LocationKey key;
+    final String rack;
+    final String bin;
+    final int defaultCapacity;
+    String combineRack;
+    boolean registered;
+    boolean active = true;
+    Integer registeredCapacity;
+    long qty;
+    int lots;
+    final Map<String, PartSlot> parts = new HashMap<>();
+    final Map<String, Integer> families = new HashMap<>();
+
+    Location(LocationKey key, String rack, String bin, int defaultCapacity) {
+      this.key = key;
+      this.rack = rack;
+      this.bin = bin;
+      this.defaultCapacity = defaultCapacity;
+    }
+
+    /** Inactive locations take no stock; registered capacity wins over the default. */
+    long capacity() {
+      if (!active) {
+        return 0;
+      }
+      return registeredCapacity != null && registeredCapacity > 0 ? registeredCapacity : defaultCapacity;
+    }
+
+    long freeQty() {
+      return Math.max(0, capacity() - qty);
+    }
+
+    double fillPercent() {
+      long capacity = capacity();
+      return capacity <= 0 ? 100.0 : Math.round(qty * 1000.0 / capacity) / 10.0;
+    }
+
+    /** True when nothing but {@code family} is stored here. */
+    boolean holdsOnly(String family) {
+      return families.isEmpty() || (families.size() == 1 && families.containsKey(family));
+    }
+
+    private void add(long id, String partNumber, String family, int rowQty, Instant createdAt) {
+      PartSlot slot = parts.computeIfAbsent(partNumber, ignored -> new PartSlot());
+      slot.qty += rowQty;
+      slot.lots.put(id, createdAt);
+      families.merge(family, 1, Integer::sum);
+      qty += rowQty;
+      lots++;
+    }
+
+    private void remove(long id, String partNumber, String family, int rowQty) {
+      PartSlot slot = parts.get(partNumber);
+      if (slot != null) {
+        slot.qty -= rowQty;
+        slot.lots.remove(id);
+        if (slot.lots.isEmpty()) {
+          parts.remove(partNumber);
+        }
+      }
+      families.computeIfPresent(family, (ignored, count) -> count > 1 ? count - 1 : null);
+      qty -= rowQty;
+      lots--;
+    }
+  }
+
+  static final class PartSlot {
+    long qty;
+    final Map<Long, Instant> lots = new HashMap<>();
+
+    /** Creation time of the oldest lot; lots without one sort first, as in FIFO picking. */
+    Instant oldest() {
+      Instant oldest = null;
+      for (Instant createdAt : lots.values()) {
+        if (createdAt == null) {
+          return Instant.MIN;
+        }
+        if (oldest == null || createdAt.isBefore(oldest)) {
+          oldest = createdAt;
+        }
+      }
+      return oldest == null ? Instant.MIN : oldest;
+    }
+  }
+}
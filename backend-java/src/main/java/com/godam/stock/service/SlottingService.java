@@ -0,0 +1,271 @@
+package com.godam.stock.service;
+
+import com.godam.common.exception.StockValidationException;
+import com.godam.stock.StorageLocation;
+import com.godam.stock.dto.LocationOccupancyDto;
+import com.godam.stock.dto.SlottingSuggestionDto;
+import com.godam.stock.dto.StorageLocationRequest;
+import com.godam.stock.repository.StorageLocationRepository;
+import com.godam.stock.service.RackOccupancyIndex.Location;
+import com.godam.stock.service.RackOccupancyIndex.LocationKey;
+import com.godam.stock.service.RackOccupancyIndex.PartSlot;
+import com.godam.stock.service.RackOccupancyIndex.RackLoad;
+import com.godam.stock.service.RackOccupancyIndex.WarehouseOccupancy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Putaway slotting on top of {@link RackOccupancyIndex}. Candidates, best first:
+ *
+ * <ol>
+ *   <li>{@code SAME_PART}: bins already holding the part, oldest lot first;
+ *   <li>{@code SAME_RACK} / {@code NEARBY}: bins next to those lots in walk order that are empty or
+ *       hold only the same part family;
+ *   <li>{@code BALANCE}: empty or same-family bins on the least filled racks.
+ * </ol>
+ *
+ * A bin must have room for the whole quantity, and the inbound dock rack is never offered. Within
+ * a tier the emptier rack wins, and any bin that would push its rack past
+ * {@code godam.stock.slotting.max-rack-fill} drops behind all bins that would not. Everything is
+ * answered from memory.
+ */
+@Service
+public class SlottingService {
+  public static final String REASON_SAME_PART = "SAME_PART";
+  public static final String REASON_SAME_RACK = "SAME_RACK";
+  public static final String REASON_NEARBY = "NEARBY";
+  public static final String REASON_BALANCE = "BALANCE";
+
+  private static final int MAX_ANCHORS = 3;
+  private static final int MAX_LIMIT = 50;
+
+  private final RackOccupancyIndex occupancyIndex;
+  private final StorageLocationRepository storageLocationRepository;
+  private final TransactionTemplate writeTransaction;
+  private final int scanLimit;
+  private final int defaultLimit;
+  private final double maxRackFill;
+  private final String dockRack;
+
+  public SlottingService(
+      RackOccupancyIndex occupancyIndex,
+      StorageLocationRepository storageLocationRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${godam.stock.slotting.scan-limit:32}") int scanLimit,
+      @Value("${godam.stock.slotting.suggestions:5}") int defaultLimit,
+      @Value("${godam.stock.slotting.max-rack-fill:0.9}") double maxRackFill,
+      @Value("${godam.inbound.dock-rack:DOCK}") String dockRack) {
+    this.occupancyIndex = occupancyIndex;
+    this.storageLocationRepository = storageLocationRepository;
+    this.writeTransaction = new TransactionTemplate(transactionManager);
+    this.scanLimit = Math.max(1, scanLimit);
+    this.defaultLimit = Math.max(1, defaultLimit);
+    this.maxRackFill = maxRackFill;
+    this.dockRack = RackOccupancyIndex.normalize(dockRack);
+  }
+
+  public List<SlottingSuggestionDto> suggest(String warehouseNo, String partNumber, int qty, Integer limit) {
+    if (warehouseNo == null || warehouseNo.isBlank()) {
+      throw new StockValidationException("warehouseNo is required.");
+    }
+    if (partNumber == null || partNumber.isBlank()) {
+      throw new StockValidationException("partNumber is required.");
+    }
+    if (qty <= 0) {
+      throw new StockValidationException("qty must be greater than zero.");
+    }
+    int max = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, MAX_LIMIT);
+    return occupancyIndex.read(warehouseNo, occupancy -> rank(occupancy, partNumber.trim(), qty, max));
+  }
+
+  public List<LocationOccupancyDto> occupancy(String warehouseNo, String rack) {
+    if (warehouseNo == null || warehouseNo.isBlank()) {
+      throw new StockValidationException("warehouseNo is required.");
+    }
+    return occupancyIndex.occupancy(warehouseNo, rack);
+  }
+
+  /** Creates or updates locations by warehouse, rack and bin. */
+  public List<LocationOccupancyDto> register(List<StorageLocationRequest> requests) {
+    if (requests == null || requests.isEmpty()) {
+      throw new StockValidationException("At least one location is required.");
+    }
+    for (StorageLocationRequest request : requests) {
+      if (request.getWarehouseNo() == null || request.getWarehouseNo().isBlank()
+          || request.getRack() == null || request.getRack().isBlank()) {
+        throw new StockValidationException("warehouseNo and rack are required for every location.");
+      }
+      if (request.getCapacityQty() != null && request.getCapacityQty() < 0) {
+        throw new StockValidationException("capacityQty cannot be negative for rack " + request.getRack().trim());
+      }
+    }
+    List<StorageLocation> saved = writeTransaction.execute(status -> {
+      Map<String, StorageLocation> byKey = new LinkedHashMap<>();
+      Instant now = Instant.now();
+      for (StorageLocationRequest request : requests) {
+        String warehouseNo = request.getWarehouseNo().trim();
+        String rack = request.getRack().trim();
+        String bin = request.getBin() == null ? "" : request.getBin().trim();
+        String key = warehouseNo + "|" + RackOccupancyIndex.normalize(rack) + "|" + RackOccupancyIndex.normalize(bin);
+        StorageLocation location = byKey.get(key);
+        if (location == null) {
+          location = storageLocationRepository.findByWarehouseNoAndRackAndBin(warehouseNo, rack, bin)
+              .orElseGet(StorageLocation::new);
+          location.setWarehouseNo(warehouseNo);
+          location.setRack(rack);
+          location.setBin(bin);
+          byKey.put(key, location);
+        }
+        if (request.getCombineRack() != null) {
+          location.setCombineRack(request.getCombineRack().isBlank() ? null : request.getCombineRack().trim());
+        }
+        if (request.getCapacityQty() != null) {
+          location.setCapacityQty(request.getCapacityQty());
+        }
+        if (request.getActive() != null) {
+          location.setActive(request.getActive());
+        }
+        location.setUpdatedAt(now);
+      }
+      return storageLocationRepository.saveAll(byKey.values());
+    });
+    occupancyIndex.applyLocations(saved);
+    List<LocationOccupancyDto> result = new ArrayList<>();
+    for (StorageLocation location : saved) {
+      String bin = RackOccupancyIndex.normalize(location.getBin());
+      occupancyIndex.occupancy(location.getWarehouseNo(), location.getRack()).stream()
+          .filter(dto -> RackOccupancyIndex.normalize(dto.getBin()).equals(bin))
+          .forEach(result::add);
+    }
+    return result;
+  }
+
+  private List<SlottingSuggestionDto> rank(WarehouseOccupancy occupancy, String partNumber, int qty, int max) {
+    String family = occupancy.familyOf.getOrDefault(partNumber, partNumber);
+    Map<LocationKey, Candidate> candidates = new HashMap<>();
+
+    List<Location> anchors = new ArrayList<>();
+    Map<Location, Instant> oldestLot = new HashMap<>();
+    for (LocationKey key : occupancy.partLocations.getOrDefault(partNumber, Set.of())) {
+      Location location = occupancy.locations.get(key);
+      PartSlot slot = location.parts.get(partNumber);
+      anchors.add(location);
+      oldestLot.put(location, slot.oldest());
+    }
+    anchors.sort(Comparator.comparing((Location location) -> oldestLot.get(location))
+        .thenComparing(location -> location.key));
+    for (int i = 0; i < anchors.size(); i++) {
+      consider(occupancy, candidates, anchors.get(i), partNumber, family, qty, REASON_SAME_PART, 0, i);
+    }
+    if (anchors.isEmpty()) {
+      // A part new to the warehouse goes next to its family, if any of it is stored here.
+      for (LocationKey key : occupancy.familyLocations.getOrDefault(family, Set.of())) {
+        anchors.add(occupancy.locations.get(key));
+      }
+      anchors.sort(Comparator.comparing(location -> location.key));
+    }
+
+    for (Location anchor : anchors.subList(0, Math.min(MAX_ANCHORS, anchors.size()))) {
+      LocationKey below = anchor.key;
+      LocationKey above = anchor.key;
+      for (int distance = 1; distance <= scanLimit && (below != null || above != null); distance++) {
+        below = below == null ? null : occupancy.locations.lowerKey(below);
+        above = above == null ? null : occupancy.locations.higherKey(above);
+        for (LocationKey key : new LocationKey[] {below, above}) {
+          if (key == null) {
+            continue;
+          }
+          String reason = key.rack().equals(anchor.key.rack()) ? REASON_SAME_RACK : REASON_NEARBY;
+          consider(occupancy, candidates, occupancy.locations.get(key), partNumber, family, qty,
+              reason, reason.equals(REASON_SAME_RACK) ? 1 : 2, distance);
+        }
+      }
+    }
+
+    List<RackLoad> racks = new ArrayList<>(occupancy.racks.values());
+    racks.sort(Comparator.comparingDouble((RackLoad rack) -> rack.fill(0)).thenComparing(rack -> rack.rack));
+    int balanced = 0;
+    for (RackLoad rack : racks) {
+      for (Location location : occupancy.rackLocations(RackOccupancyIndex.normalize(rack.rack)).values()) {
+        if (balanced >= max) {
+          break;
+        }
+        if (consider(occupancy, candidates, location, partNumber, family, qty, REASON_BALANCE, 3, 0)) {
+          balanced++;
+        }
+      }
+      if (balanced >= max) {
+        break;
+      }
+    }
+
+    List<Candidate> ranked = new ArrayList<>(candidates.values());
+    ranked.sort(Comparator.comparingInt((Candidate candidate) -> candidate.tier)
+        .thenComparingDouble(candidate -> candidate.rackFill)
+        .thenComparingInt(candidate -> candidate.distance)
+        .thenComparing(candidate -> candidate.location.key));
+    List<SlottingSuggestionDto> result = new ArrayList<>(Math.min(max, ranked.size()));
+    for (Candidate candidate : ranked.subList(0, Math.min(max, ranked.size()))) {
+      result.add(toDto(occupancy.warehouseNo, partNumber, candidate));
+    }
+    return result;
+  }
+
+  private boolean consider(
+      WarehouseOccupancy occupancy,
+      Map<LocationKey, Candidate> candidates,
+      Location location,
+      String partNumber,
+      String family,
+      int qty,
+      String reason,
+      int tier,
+      int distance) {
+    if (!location.active || location.freeQty() < qty || location.key.rack().equals(dockRack)) {
+      return false;
+    }
+    if (!location.parts.containsKey(partNumber) && !location.holdsOnly(family)) {
+      return false;
+    }
+    RackLoad rack = occupancy.rack(location);
+    double rackFill = rack.fill(qty);
+    int effectiveTier = rackFill > maxRackFill ? tier + 4 : tier;
+    Candidate existing = candidates.get(location.key);
+    if (existing != null && existing.tier <= effectiveTier) {
+      return false;
+    }
+    candidates.put(location.key, new Candidate(location, reason, effectiveTier, rack.fill(0), distance));
+    return true;
+  }
+
+  private static SlottingSuggestionDto toDto(String warehouseNo, String partNumber, Candidate candidate) {
+    Location location = candidate.location;
+    PartSlot slot = location.parts.get(partNumber);
+    SlottingSuggestionDto dto = new SlottingSuggestionDto();
+    dto.setWarehouseNo(warehouseNo);
+    dto.setRack(location.rack);
+    dto.setBin(location.bin);
+    dto.setCombineRack(location.combineRack);
+    dto.setReason(candidate.reason);
+    dto.setPartQty(slot == null ? 0 : slot.qty);
+    dto.setCurrentQty(location.qty);
+    dto.setCapacityQty(location.capacity());
+    dto.setFreeQty(location.freeQty());
+    dto.setRackFillPercent(Math.round(candidate.rackFill * 1000.0) / 10.0);
+    dto.setDistance(candidate.distance);
+    return dto;
+  }
+
+  private record Candidate(Location location, String reason, int tier, double rackFill, int distance) {
+  }
+}
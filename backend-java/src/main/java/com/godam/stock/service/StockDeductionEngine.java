@@ -0,0 +1,157 @@
+package com.godam.stock.service;
+
+import com.godam.common.exception.StockValidationException;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.repository.StockRepository.StockQtyRow;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stock quantity changes as conditional in-place updates instead of read-modify-save, so two
+ * pickers confirming the same part can never drive a row negative or overwrite each other. A
+ * decrement only lands while the row still holds the quantity; when it does not, the rows are
+ * re-read and the remainder retried in FIFO order. A deduction for a warehouse reads and updates
+ * only that warehouse's rows, so a rack name shared by two sites cannot drain the other one.
+ *
+ * <p>Deductions for the same part are also serialized per stripe inside this JVM so concurrent
+ * requests queue here rather than all racing for the same FIFO row. The stripe is only waited on
+ * briefly and released before commit: the database row lock remains the real guard, and a JVM
+ * lock held across it could deadlock with another transaction.
+ */
+@Component
+public class StockDeductionEngine {
+  private final StockRepository stockRepository;
+  private final StockChangeListener stockChangeListener;
+  private final ReentrantLock[] stripes;
+  private final long lockWaitMillis;
+  private final int maxAttempts;
+  private final Counter retries;
+  private final Counter lockTimeouts;
+
+  public StockDeductionEngine(
+      StockRepository stockRepository,
+      StockChangeListener stockChangeListener,
+      MeterRegistry registry,
+      @Value("${godam.stock.deduction.stripes:64}") int stripes,
+      @Value("${godam.stock.deduction.lock-wait-ms:250}") long lockWaitMillis,
+      @Value("${godam.stock.deduction.max-attempts:5}") int maxAttempts) {
+    this.stockRepository = stockRepository;
+    this.stockChangeListener = stockChangeListener;
+    this.stripes = new ReentrantLock[Math.max(1, stripes)];
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = new ReentrantLock();
+    }
+    this.lockWaitMillis = Math.max(0, lockWaitMillis);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.retries = Counter.builder("godam.stock.deduction.retries")
+        .description("Deduction passes repeated because a row changed concurrently")
+        .register(registry);
+    this.lockTimeouts = Counter.builder("godam.stock.deduction.lock.timeouts")
+        .description("Deductions that went ahead without their part stripe")
+        .register(registry);
+  }
+
+  /**
+   * Deducts {@code qty} from the part's rows in {@code warehouseNo} (every warehouse for null) in
+   * FIFO order and returns what could not be covered. With a {@code rack}, only the first row on
+   * that rack with stock is used, as in pick confirmation. Partial deductions are left for the
+   * caller's transaction to commit or roll back.
+   */
+  public int deduct(String warehouseNo, String partNumber, int qty, String rack) {
+    if (qty <= 0) {
+      return 0;
+    }
+    String warehouseFilter = warehouseNo == null || warehouseNo.isBlank() ? null : warehouseNo.trim();
+    String rackFilter = rack == null || rack.isBlank() ? null : rack.trim();
+    ReentrantLock stripe = stripes[Math.floorMod(partNumber.hashCode(), stripes.length)];
+    boolean locked = tryLock(stripe);
+    try {
+      return deductWithRetry(warehouseFilter, partNumber, qty, rackFilter);
+    } finally {
+      if (locked) {
+        stripe.unlock();
+      }
+    }
+  }
+
+  public void add(Stock row, int qty) {
+    if (qty <= 0) {
+      return;
+    }
+    stockRepository.incrementQty(row.getId(), qty);
+    stockChangeListener.invalidate(
+        List.of(RowState.touched(row.getId(), row.getPartNumber(), row.getParentPn())));
+  }
+
+  private int deductWithRetry(String warehouseNo, String partNumber, int qty, String rack) {
+    int remaining = qty;
+    List<RowState> touched = new ArrayList<>();
+    boolean rackRowUsed = false;
+    for (int attempt = 1; attempt <= maxAttempts && remaining > 0 && !rackRowUsed; attempt++) {
+      if (attempt > 1) {
+        retries.increment();
+      }
+      List<StockQtyRow> rows = warehouseNo == null
+          ? stockRepository.findQtyRowsByPartNumber(partNumber)
+          : stockRepository.findQtyRowsByWarehouseNoAndPartNumber(warehouseNo, partNumber);
+      if (rows.isEmpty()) {
+        throw new StockValidationException(warehouseNo == null
+            ? "No stock found for part " + partNumber
+            : "No stock found for part " + partNumber + " in warehouse " + warehouseNo);
+      }
+      boolean conflict = false;
+      for (StockQtyRow row : rows) {
+        if (remaining <= 0) {
+          break;
+        }
+        if (rack != null && !rack.equalsIgnoreCase(row.getRack())) {
+          continue;
+        }
+        int available = row.getQty();
+        if (available <= 0) {
+          continue;
+        }
+        int take = Math.min(available, remaining);
+        int updated = row.getWarehouseNo() == null
+            ? stockRepository.decrementQtyIfAvailable(row.getId(), take)
+            : stockRepository.decrementQtyIfAvailable(row.getId(), row.getWarehouseNo(), take);
+        if (updated == 0) {
+          conflict = true;
+          break;
+        }
+        remaining -= take;
+        touched.add(RowState.touched(row.getId(), row.getPartNumber(), row.getParentPn()));
+        if (rack != null) {
+          rackRowUsed = true;
+          break;
+        }
+      }
+      if (!conflict) {
+        break;
+      }
+    }
+    stockChangeListener.invalidate(touched);
+    return remaining;
+  }
+
+  private boolean tryLock(ReentrantLock stripe) {
+    try {
+      if (stripe.tryLock(lockWaitMillis, TimeUnit.MILLISECONDS)) {
+        return true;
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    lockTimeouts.increment();
+    return false;
+  }
+}
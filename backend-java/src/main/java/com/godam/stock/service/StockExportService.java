@@ -0,0 +1,201 @@
+package com.godam.stock.service;
+
+import com.godam.stock.dto.StockListFilter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Full stock exports in constant memory. Rows come through a JDBC cursor (a fetch size inside a
+ * read-only transaction, which PostgreSQL needs to stream instead of buffering the result) and go
+ * straight to the response: CSV line by line, XLSX through a streaming workbook that keeps only a
+ * small window of rows in memory and flushes the rest to a temp file. Created on first use.
+ */
+@Lazy
+@Service
+public class StockExportService {
+  private static final Logger log = LoggerFactory.getLogger(StockExportService.class);
+  private static final String[] HEADERS = {
+      "Warehouse", "Storage Location", "Part Number", "SAP PN", "Description", "Vendor",
+      "Category", "Sub Category", "UOM", "Qty", "Rack", "Bin", "Combine Rack", "Qty Status",
+      "Drum No", "Drum Qty", "Parent PN", "Base Qty", "PN Indicator", "Received At"};
+  private static final String SELECT = "select warehouse_no, storage_location, part_number, sap_pn,"
+      + " description, vendor_name, category, sub_category, uom, qty, rack, bin, combine_rack,"
+      + " qty_status, drum_no, drum_qty, parent_pn, base_qty, pn_indicator, received_at from stock";
+  private static final String ORDER = " order by warehouse_no, part_number, id";
+  // Excel's sheet limit; larger exports continue on the next sheet.
+  private static final int MAX_SHEET_ROWS = 1_048_575;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int xlsxWindow;
+
+  public StockExportService(
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      @Value("${godam.stock.export.fetch-size:1000}") int fetchSize,
+      @Value("${godam.stock.export.xlsx-window:200}") int xlsxWindow) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(Math.max(1, fetchSize));
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.xlsxWindow = Math.max(1, xlsxWindow);
+  }
+
+  public void writeCsv(StockListFilter filter, OutputStream out) throws IOException {
+    long startedAt = System.nanoTime();
+    Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    // BOM so Excel opens Arabic descriptions as UTF-8.
+    writer.write('\uFEFF');
+    CSVPrinter printer = new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(HEADERS).build());
+    long rows = stream(filter, values -> {
+      try {
+        printer.printRecord(csvValues(values));
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    });
+    printer.flush();
+    log.info("Exported {} stock rows as CSV in {} ms", rows, (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  public void writeXlsx(StockListFilter filter, OutputStream out) throws IOException {
+    long startedAt = System.nanoTime();
+    SXSSFWorkbook workbook = new SXSSFWorkbook(xlsxWindow);
+    workbook.setCompressTempFiles(true);
+    try {
+      CellStyle headerStyle = workbook.createCellStyle();
+      Font bold = workbook.createFont();
+      bold.setBold(true);
+      headerStyle.setFont(bold);
+      SheetCursor cursor = new SheetCursor(workbook, headerStyle);
+      long rows = stream(filter, cursor::append);
+      workbook.write(out);
+      out.flush();
+      log.info("Exported {} stock rows as XLSX in {} ms", rows,
+          (System.nanoTime() - startedAt) / 1_000_000);
+    } finally {
+      workbook.dispose();
+      workbook.close();
+    }
+  }
+
+  private long stream(StockListFilter filter, Consumer<Object[]> sink) {
+    StringBuilder sql = new StringBuilder(SELECT);
+    List<Object> args = new ArrayList<>();
+    appendFilter(sql, args, "warehouse_no", filter.getWarehouseNo());
+    appendFilter(sql, args, "part_number", filter.getPartNumber());
+    appendFilter(sql, args, "category", filter.getCategory());
+    appendFilter(sql, args, "vendor_name", filter.getVendorName());
+    appendFilter(sql, args, "rack", filter.getRack());
+    appendFilter(sql, args, "pn_indicator", filter.getPnIndicator());
+    sql.append(ORDER);
+    long[] count = {0};
+    readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+        sql.toString(),
+        (RowCallbackHandler) rs -> {
+          sink.accept(readRow(rs));
+          count[0]++;
+        },
+        args.toArray()));
+    return count[0];
+  }
+
+  private static void appendFilter(StringBuilder sql, List<Object> args, String column, String value) {
+    if (value == null) {
+      return;
+    }
+    sql.append(args.isEmpty() ? " where " : " and ").append(column).append(" = ?");
+    args.add(value);
+  }
+
+  private static Object[] readRow(ResultSet rs) throws SQLException {
+    Object[] values = new Object[HEADERS.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = rs.getObject(i + 1);
+    }
+    Object receivedAt = values[values.length - 1];
+    if (receivedAt instanceof Timestamp timestamp) {
+      values[values.length - 1] = timestamp.toInstant().toString();
+    }
+    return values;
+  }
+
+  // Spreadsheet apps run text cells starting with these as formulas.
+  private static Object[] csvValues(Object[] values) {
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] instanceof String text && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+        values[i] = "'" + text;
+      }
+    }
+    return values;
+  }
+
+  private static final class SheetCursor {
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private Sheet sheet;
+    private int rowIndex;
+
+    private SheetCursor(SXSSFWorkbook workbook, CellStyle headerStyle) {
+      this.workbook = workbook;
+      this.headerStyle = headerStyle;
+      nextSheet();
+    }
+
+    private void append(Object[] values) {
+      if (rowIndex > MAX_SHEET_ROWS) {
+        nextSheet();
+      }
+      Row row = sheet.createRow(rowIndex++);
+      for (int i = 0; i < values.length; i++) {
+        Object value = values[i];
+        if (value instanceof Number number) {
+          row.createCell(i).setCellValue(number.doubleValue());
+        } else if (value != null) {
+          row.createCell(i).setCellValue(value.toString());
+        }
+      }
+    }
+
+    private void nextSheet() {
+      int number = workbook.getNumberOfSheets() + 1;
+      sheet = workbook.createSheet(number == 1 ? "Stock" : "Stock " + number);
+      Row header = sheet.createRow(0);
+      for (int i = 0; i < HEADERS.length; i++) {
+        Cell cell = header.createCell(i);
+        cell.setCellValue(HEADERS[i]);
+        cell.setCellStyle(headerStyle);
+      }
+      rowIndex = 1;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.godam.stock.service;
+
+import com.godam.stock.dto.StockPartitionResultDto;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the list partitions of stock (see V2__partition_stock_by_warehouse.sql) one per warehouse.
+ * Rows of a warehouse that has no partition yet land in stock_default; each run moves them into a
+ * new partition of their own. Does nothing until the table is partitioned.
+ */
+@Service
+public class StockPartitionService {
+  private static final Logger log = LoggerFactory.getLogger(StockPartitionService.class);
+  private static final String PREFIX = "stock_w_";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final boolean enabled;
+
+  public StockPartitionService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${godam.stock.partitions.enabled:true}") boolean enabled) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+  }
+
+  @Scheduled(cron = "${godam.stock.partitions.cron:0 15 2 * * *}")
+  public void runScheduled() {
+    if (!enabled) {
+      return;
+    }
+    StockPartitionResultDto result = splitWarehouses();
+    if (!result.getCreatedPartitions().isEmpty()) {
+      log.info("Stock partitions created: {}, rows moved: {}", result.getCreatedPartitions(), result.getMovedRows());
+    }
+  }
+
+  public StockPartitionResultDto splitWarehouses() {
+    StockPartitionResultDto result = new StockPartitionResultDto();
+    if (!running.compareAndSet(false, true)) {
+      result.setMessage("Stock partition run already in progress.");
+      return result;
+    }
+    try {
+      if (!isPartitioned()) {
+        result.setMessage("stock is not partitioned; apply V2__partition_stock_by_warehouse.sql.");
+        return result;
+      }
+      List<String> warehouses = jdbcTemplate.queryForList(
+          "select distinct warehouse_no from stock_default where warehouse_no is not null", String.class);
+      for (String warehouse : warehouses) {
+        String name = partitionName(warehouse);
+        try {
+          Long moved = transactionTemplate.execute(status -> split(warehouse, name));
+          result.getCreatedPartitions().add(name);
+          result.setMovedRows(result.getMovedRows() + (moved == null ? 0 : moved));
+        } catch (DataAccessException ex) {
+          log.warn("Unable to create stock partition {} for warehouse {}: {}",
+              name, warehouse, ex.getMostSpecificCause().getMessage());
+        }
+      }
+      result.setExecuted(true);
+      return result;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /**
+   * A list partition cannot be added while the default holds matching rows, so the default is
+   * detached for the move. Detaching locks stock exclusively until commit; writers wait meanwhile.
+   */
+  private long split(String warehouse, String name) {
+    jdbcTemplate.execute("ALTER TABLE stock DETACH PARTITION stock_default");
+    jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF stock (PRIMARY KEY (id)) FOR VALUES IN ("
+        + quote(warehouse) + ")");
+    int moved = jdbcTemplate.update(
+        "INSERT INTO " + name + " SELECT * FROM stock_default WHERE warehouse_no = ?", warehouse);
+    jdbcTemplate.update("DELETE FROM stock_default WHERE warehouse_no = ?", warehouse);
+    jdbcTemplate.execute("ALTER TABLE stock ATTACH PARTITION stock_default DEFAULT");
+    return moved;
+  }
+
+  private boolean isPartitioned() {
+    String product = jdbcTemplate.execute(
+        (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+    if (!"PostgreSQL".equalsIgnoreCase(product)) {
+      return false;
+    }
+    Integer count = jdbcTemplate.queryForObject(
+        "select count(*) from pg_partitioned_table pt join pg_class c on c.oid = pt.partrelid "
+            + "where c.relname = 'stock'",
+        Integer.class);
+    return count != null && count > 0;
+  }
+
+  /** Same naming as the migration: a readable slug plus an md5 prefix so distinct codes never collide. */
+  static String partitionName(String warehouse) {
+    String slug = warehouse.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_").replaceAll("^_+|_+$", "");
+    if (slug.length() > 40) {
+      slug = slug.substring(0, 40);
+    }
+    return PREFIX + slug + "_" + md5(warehouse).substring(0, 6);
+  }
+
+  private static String quote(String value) {
+    return "'" + value.replace("'", "''") + "'";
+  }
+
+  private static String md5(String value) {
+    try {
+      byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package com.godam.stock.service;
+
+import com.godam.stock.Stock;
+import com.godam.stock.dto.StockPickContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefetched FIFO rows and parked qty for a batch of picks. Each successful {@link #pick} parks its
+ * qty in memory, so later picks of the same part in the batch are checked and pointed at the FIFO
+ * rack exactly as if the earlier ones had been submitted one by one.
+ */
+public class StockPickBatch {
+  private final StockService stockService;
+  private final String warehouseNo;
+  private final Map<String, List<Stock>> rowsByPart;
+  private final Map<String, Integer> parkedByPart;
+
+  StockPickBatch(
+      StockService stockService,
+      String warehouseNo,
+      Map<String, List<Stock>> rowsByPart,
+      Map<String, Integer> parkedByPart) {
+    this.stockService = stockService;
+    this.warehouseNo = warehouseNo;
+    this.rowsByPart = rowsByPart;
+    this.parkedByPart = parkedByPart;
+  }
+
+  /** The main part a pick of {@code partNumber} is checked and parked as. */
+  public String resolve(String partNumber) {
+    return stockService.resolveMainPartNumber(warehouseNo, partNumber);
+  }
+
+  /** Rows of a resolved part in the FIFO order the pick checks use. */
+  public List<Stock> rows(String resolvedPartNumber) {
+    return Collections.unmodifiableList(rowsByPart.getOrDefault(resolvedPartNumber, List.of()));
+  }
+
+  /** Picked and checked qty not yet deducted, including what this batch has parked so far. */
+  public int parkedQty(String resolvedPartNumber) {
+    return parkedByPart.getOrDefault(resolvedPartNumber, 0);
+  }
+
+  public StockPickContext pick(String partNumber, int requiredQty, String pickedRack, boolean allowNegative) {
+    String resolved = stockService.resolveMainPartNumber(warehouseNo, partNumber);
+    StockPickContext context = stockService.buildPickContext(
+        warehouseNo,
+        partNumber,
+        resolved,
+        rowsByPart.getOrDefault(resolved, List.of()),
+        parkedByPart.getOrDefault(resolved, 0),
+        requiredQty,
+        pickedRack,
+        allowNegative);
+    parkedByPart.merge(resolved, requiredQty, Integer::sum);
+    return context;
+  }
+}
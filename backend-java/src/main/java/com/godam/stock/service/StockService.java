@@ -2,33 +2,54 @@ package com.godam.stock.service;
 
 import com.godam.common.User;
 import com.godam.common.UserRepository;
+import com.godam.jobs.JobPhase;
+import com.godam.jobs.JobProgress;
 import com.godam.movements.MovementType;
 import com.godam.movements.repository.StockMovementRepository;
 import com.godam.movements.service.StockMovementService;
 import com.godam.security.UploadValidationPipeline;
 import com.godam.stock.Stock;
+import com.godam.stock.allocation.DrumAllocationEngine;
+import com.godam.stock.allocation.DrumAllocationOptions;
+import com.godam.stock.allocation.DrumAllocationPlan;
+import com.godam.stock.allocation.DrumAssignment;
+import com.godam.stock.allocation.DrumCandidate;
+import com.godam.stock.dto.DrumAllocationRequest;
+import com.godam.stock.dto.DrumAllocationResponse;
 import com.godam.stock.dto.StockAdjustmentRequest;
 import com.godam.stock.dto.StockExpandedDto;
 import com.godam.stock.dto.StockItemDto;
+import com.godam.stock.dto.StockListFilter;
+import com.godam.stock.dto.StockPageDto;
 import com.godam.stock.dto.StockPickContext;
 import com.godam.stock.dto.StockPickSuggestionDto;
 import com.godam.stock.dto.StockSplitRequestDto;
 import com.godam.stock.dto.StockUploadItemDto;
 import com.godam.stock.dto.StockUploadResultDto;
 import com.godam.stock.repository.StockRepository;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.format.DateTimeParseException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,11 +58,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class StockService {
   private static final DateTimeFormatter FIFO_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneId.systemDefault());
   private static final String INDICATOR_PARENT = "P";
-  private static final String INDICATOR_CHILD = "C";
   private static final String INDICATOR_DRUM = "D";
   private static final String INDICATOR_DRUM_SPLIT = "DQ";
   private static final String INDICATOR_DRUM_CUT = "DQC";
   private static final String INDICATOR_ROLL = "R";
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final List<MovementType> PARKED_TYPES =
+      List.of(MovementType.O103_PICKED, MovementType.O104_CHECKED);
+  private static final Set<String> SORTABLE = Set.of(
+      "warehouseNo", "partNumber", "category", "vendorName", "rack", "pnIndicator", "qty",
+      "receivedAt", "createdAt");
 
   private final StockRepository stockRepository;
   private final StockMovementRepository stockMovementRepository;
@@ -49,6 +75,9 @@ public class StockService {
   private final UserRepository userRepository;
   private final PasswordEncoder passwordEncoder;
   private final UploadValidationPipeline uploadValidationPipeline;
+  private final PartHierarchyCache partHierarchyCache;
+  private final DrumAllocationEngine drumAllocationEngine;
+  private final StockDeductionEngine stockDeductionEngine;
 
   public StockService(
       StockRepository stockRepository,
@@ -56,13 +85,19 @@ public class StockService {
       StockMovementService stockMovementService,
       UserRepository userRepository,
       PasswordEncoder passwordEncoder,
-      UploadValidationPipeline uploadValidationPipeline) {
+      UploadValidationPipeline uploadValidationPipeline,
+      PartHierarchyCache partHierarchyCache,
+      DrumAllocationEngine drumAllocationEngine,
+      StockDeductionEngine stockDeductionEngine) {
     this.stockRepository = stockRepository;
     this.stockMovementRepository = stockMovementRepository;
     this.stockMovementService = stockMovementService;
     this.userRepository = userRepository;
     this.passwordEncoder = passwordEncoder;
     this.uploadValidationPipeline = uploadValidationPipeline;
+    this.partHierarchyCache = partHierarchyCache;
+    this.drumAllocationEngine = drumAllocationEngine;
+    this.stockDeductionEngine = stockDeductionEngine;
   }
 
   @Transactional(readOnly = true)
@@ -92,6 +127,53 @@ public class StockService {
     return result;
   }
 
+  /**
+   * One page of the stock grid. {@code sort} is {@code property[,asc|desc]} over the filterable
+   * columns plus qty and dates; ties are broken by id so paging is stable.
+   */
+  @Transactional(readOnly = true)
+  @Timed("godam.stock.page")
+  public StockPageDto pageStock(StockListFilter filter, int page, int size, String sort) {
+    PageRequest pageRequest = PageRequest.of(
+        Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), parseSort(sort));
+    Page<Stock> rows = stockRepository.findPage(
+        filter.getWarehouseNo(),
+        filter.getPartNumber(),
+        filter.getCategory(),
+        filter.getVendorName(),
+        filter.getRack(),
+        filter.getPnIndicator(),
+        pageRequest);
+    StockPageDto dto = new StockPageDto();
+    List<StockItemDto> items = new ArrayList<>(rows.getNumberOfElements());
+    for (Stock row : rows) {
+      assertNonNegative(row);
+      items.add(toDto(row));
+    }
+    dto.setItems(items);
+    dto.setPage(rows.getNumber());
+    dto.setSize(rows.getSize());
+    dto.setTotalElements(rows.getTotalElements());
+    dto.setTotalPages(rows.getTotalPages());
+    return dto;
+  }
+
+  private Sort parseSort(String sort) {
+    Sort tieBreak = Sort.by("id");
+    if (sort == null || sort.isBlank()) {
+      return Sort.by("warehouseNo", "partNumber").and(tieBreak);
+    }
+    String[] parts = sort.split(",");
+    String property = parts[0].trim();
+    if (!SORTABLE.contains(property)) {
+      throw new com.godam.common.exception.StockValidationException("Cannot sort stock by " + property);
+    }
+    Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())
+        ? Sort.Direction.DESC
+        : Sort.Direction.ASC;
+    return Sort.by(direction, property).and(tieBreak);
+  }
+
   @Transactional
   public void adjustStock(StockAdjustmentRequest request) {
     if (request.getPartNumber() == null || request.getPartNumber().isBlank()) {
@@ -129,22 +211,10 @@ public class StockService {
 
     if (hasReduce) {
       int reduce = reduceQty == null ? 0 : reduceQty;
-      int totalQty = rows.stream().mapToInt(Stock::getQty).sum();
-      if (reduce > totalQty) {
+      if (stockDeductionEngine.deduct(null, partNumber, reduce, null) > 0) {
         throw new com.godam.common.exception.StockValidationException(
             "Reduce qty exceeds available stock for part " + partNumber);
       }
-      int remaining = reduce;
-      for (Stock row : rows) {
-        if (remaining <= 0) {
-          break;
-        }
-        int rowQty = row.getQty();
-        int deduct = Math.min(rowQty, remaining);
-        row.setQty(rowQty - deduct);
-        stockRepository.save(row);
-        remaining -= deduct;
-      }
       Stock referenceRow = rows.get(0);
       stockMovementService.logMovement(
           MovementType.A102_ADJUSTMENT_DECREASE,
@@ -166,8 +236,7 @@ public class StockService {
     } else if (hasAdd) {
       int add = addQty == null ? 0 : addQty;
       Stock target = rows.get(0);
-      target.setQty(target.getQty() + add);
-      stockRepository.save(target);
+      stockDeductionEngine.add(target, add);
       stockMovementService.logMovement(
           MovementType.A101_ADJUSTMENT_INCREASE,
           target.getWarehouseNo(),
@@ -190,11 +259,19 @@ public class StockService {
 
   @Transactional
   public StockUploadResultDto upsertStock(List<StockUploadItemDto> items) {
+    return upsertStock(items, JobProgress.NONE);
+  }
+
+  @Transactional
+  public StockUploadResultDto upsertStock(List<StockUploadItemDto> items, JobProgress progress) {
     int inserted = 0;
     int updated = 0;
     Instant now = Instant.now();
 
+    progress.phase(JobPhase.COMMIT, items.size());
     for (int index = 0; index < items.size(); index++) {
+      progress.checkCancelled();
+      progress.advance(1);
       StockUploadItemDto item = items.get(index);
       validateStockUploadItem(item, index + 1);
       if (item.getWarehouseNo() == null || item.getWarehouseNo().isBlank()) {
@@ -253,6 +330,7 @@ public class StockService {
       }
     }
 
+    progress.phase(JobPhase.DONE, 0);
     return new StockUploadResultDto(inserted, updated, items.size());
   }
 
@@ -292,37 +370,13 @@ public class StockService {
   @Transactional(readOnly = true)
   public List<StockPickSuggestionDto> suggestPick(String warehouseNo, String partNumber, int requiredQty) {
     List<Stock> rows = stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc(warehouseNo, partNumber);
+    int[] availableByRow = availableAfterParked(warehouseNo, partNumber, rows);
     List<StockPickSuggestionDto> suggestions = new ArrayList<>();
 
-    int parkedQty = stockMovementRepository.sumQtyByWarehousePartAndTypes(
-        warehouseNo,
-        partNumber,
-        List.of(MovementType.O103_PICKED, MovementType.O104_CHECKED));
-
-    int totalQty = 0;
-    for (Stock row : rows) {
-      assertNonNegative(row);
-      totalQty += row.getQty();
-    }
-    if (parkedQty > totalQty) {
-      throw new com.godam.common.exception.StockValidationException(
-          "Parked qty exceeds available stock for part " + partNumber);
-    }
-
-    int remainingParked = parkedQty;
     int remainingRequired = requiredQty;
-    for (Stock row : rows) {
-      int available = row.getQty();
-      if (remainingParked > 0) {
-        if (available <= remainingParked) {
-          remainingParked -= available;
-          available = 0;
-        } else {
-          available -= remainingParked;
-          remainingParked = 0;
-        }
-      }
-
+    for (int i = 0; i < rows.size(); i++) {
+      Stock row = rows.get(i);
+      int available = availableByRow[i];
       if (available <= 0) {
         continue;
       }
@@ -344,6 +398,94 @@ public class StockService {
     return suggestions;
   }
 
+  /**
+   * Plans a cable pick over the split drums of a part. With {@code apply} the partial drums are
+   * cut right away so the picker gets the exact DQC rows to pull.
+   */
+  @Transactional
+  public DrumAllocationResponse allocateCable(DrumAllocationRequest request) {
+    if (request.getWarehouseNo() == null || request.getPartNumber() == null) {
+      throw new com.godam.common.exception.BusinessRuleException("warehouseNo and partNumber are required");
+    }
+    List<Stock> rows = stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc(
+        request.getWarehouseNo(), request.getPartNumber());
+    int[] availableByRow = availableAfterParked(request.getWarehouseNo(), request.getPartNumber(), rows);
+    List<DrumCandidate> candidates = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      Stock row = rows.get(i);
+      if (availableByRow[i] > 0 && isDrumSplit(row)) {
+        candidates.add(new DrumCandidate(row.getId(), row.getRack(), row.getBin(), row.getPnIndicator(), availableByRow[i]));
+      }
+    }
+    DrumAllocationOptions options = new DrumAllocationOptions(
+        request.getFifoSlack(),
+        request.getMinRemnantQty(),
+        request.getTimeBudgetMs() == null ? null : Duration.ofMillis(request.getTimeBudgetMs()));
+    DrumAllocationPlan plan = drumAllocationEngine.allocate(candidates, request.getRequiredQty(), options);
+
+    DrumAllocationResponse response = new DrumAllocationResponse();
+    response.setPartNumber(request.getPartNumber());
+    response.setRequiredQty(request.getRequiredQty());
+    response.setCutCount(plan.getCutCount());
+    response.setWasteQty(plan.getWasteQty());
+    response.setOptimal(plan.isOptimal());
+    response.setApplied(request.isApply());
+    List<DrumAllocationResponse.Line> lines = new ArrayList<>();
+    for (DrumAssignment assignment : plan.getAssignments()) {
+      DrumAllocationResponse.Line line = new DrumAllocationResponse.Line();
+      line.setStockId(assignment.getDrum().getStockId());
+      line.setRack(assignment.getDrum().getRack());
+      line.setBin(assignment.getDrum().getBin());
+      line.setTakeQty(assignment.getTakeQty());
+      line.setLeftoverQty(assignment.getLeftoverQty());
+      line.setFullDrum(assignment.isFullDrum());
+      if (request.isApply() && !assignment.isFullDrum()) {
+        Stock cut = cutDrum(assignment.getDrum().getStockId(), assignment.getTakeQty(), null, null);
+        line.setCutStockId(cut.getId());
+      }
+      lines.add(line);
+    }
+    response.setLines(lines);
+    return response;
+  }
+
+  /** Per-row qty left once picked/checked (parked) qty is consumed in FIFO order. */
+  private int[] availableAfterParked(String warehouseNo, String partNumber, List<Stock> rows) {
+    int parkedQty = stockMovementRepository.sumQtyByWarehousePartAndTypes(
+        warehouseNo,
+        partNumber,
+        List.of(MovementType.O103_PICKED, MovementType.O104_CHECKED));
+
+    int totalQty = 0;
+    for (Stock row : rows) {
+      assertNonNegative(row);
+      totalQty += row.getQty();
+    }
+    if (parkedQty > totalQty) {
+      throw new com.godam.common.exception.StockValidationException(
+          "Parked qty exceeds available stock for part " + partNumber);
+    }
+
+    return consumeParked(rows, parkedQty);
+  }
+
+  private static int[] consumeParked(List<Stock> rows, int parkedQty) {
+    int[] available = new int[rows.size()];
+    int remainingParked = parkedQty;
+    for (int i = 0; i < rows.size(); i++) {
+      int qty = Math.max(0, rows.get(i).getQty());
+      int consumed = Math.min(qty, remainingParked);
+      remainingParked -= consumed;
+      available[i] = qty - consumed;
+    }
+    return available;
+  }
+
+  private boolean isDrumSplit(Stock row) {
+    return INDICATOR_DRUM_SPLIT.equalsIgnoreCase(row.getPnIndicator())
+        || INDICATOR_DRUM_CUT.equalsIgnoreCase(row.getPnIndicator());
+  }
+
   @Transactional(readOnly = true)
   public List<Stock> resolveChildParts(String parentPn) {
     return stockRepository.findByParentPnOrderByCreatedAtAsc(parentPn);
@@ -351,17 +493,7 @@ public class StockService {
 
   @Transactional(readOnly = true)
   public int calculateParentQty(String parentPn) {
-    List<Stock> childRows = resolveChildParts(parentPn);
-    if (childRows.isEmpty()) {
-      return 0;
-    }
-    BigDecimal total = BigDecimal.ZERO;
-    for (Stock child : childRows) {
-      BigDecimal qty = BigDecimal.valueOf(child.getQty());
-      BigDecimal base = BigDecimal.valueOf(child.getBaseQty() == null || child.getBaseQty() <= 0 ? 1.0 : child.getBaseQty());
-      total = total.add(qty.multiply(base));
-    }
-    return total.intValue();
+    return partHierarchyCache.parentTotals(parentPn).getCalculatedQty();
   }
 
   @Transactional(readOnly = true)
@@ -485,32 +617,109 @@ public class StockService {
   }
 
   @Transactional(readOnly = true)
+  @Timed(value = "godam.stock.pick.context", extraTags = {"negative", "false"})
   public StockPickContext preparePickContext(String partNumber, int requiredQty, String pickedRack) {
-    return preparePickContextInternal(partNumber, requiredQty, pickedRack, false);
+    return preparePickContextInternal(null, partNumber, requiredQty, pickedRack, false);
   }
 
+  /** Pick context over one warehouse's rows, hierarchy and parked qty; a null warehouse means all. */
   @Transactional(readOnly = true)
+  @Timed(value = "godam.stock.pick.context", extraTags = {"negative", "false"})
+  public StockPickContext preparePickContext(
+      String warehouseNo, String partNumber, int requiredQty, String pickedRack) {
+    return preparePickContextInternal(warehouseNo, partNumber, requiredQty, pickedRack, false);
+  }
+
+  @Transactional(readOnly = true)
+  @Timed(value = "godam.stock.pick.context", extraTags = {"negative", "true"})
   public StockPickContext preparePickContextAllowNegative(String partNumber, int requiredQty, String pickedRack) {
-    return preparePickContextInternal(partNumber, requiredQty, pickedRack, true);
+    return preparePickContextInternal(null, partNumber, requiredQty, pickedRack, true);
+  }
+
+  @Transactional(readOnly = true)
+  @Timed(value = "godam.stock.pick.context", extraTags = {"negative", "true"})
+  public StockPickContext preparePickContextAllowNegative(
+      String warehouseNo, String partNumber, int requiredQty, String pickedRack) {
+    return preparePickContextInternal(warehouseNo, partNumber, requiredQty, pickedRack, true);
+  }
+
+  /**
+   * FIFO rows and parked qty for many parts of one warehouse (null for all) in one stock query and
+   * one ledger query per warehouse, for batch picking. See {@link StockPickBatch}.
+   */
+  @Transactional(readOnly = true)
+  @Timed("godam.stock.pick.batch")
+  public StockPickBatch preparePickBatch(String warehouseNo, Collection<String> partNumbers) {
+    Set<String> resolved = new LinkedHashSet<>();
+    for (String partNumber : partNumbers) {
+      resolved.add(partHierarchyCache.resolveMainPartNumber(warehouseNo, partNumber));
+    }
+    Map<String, List<Stock>> rowsByPart = new HashMap<>();
+    if (!resolved.isEmpty()) {
+      List<Stock> rows = warehouseNo == null
+          ? stockRepository.findByPartNumberIn(resolved)
+          : stockRepository.findByWarehouseNoAndPartNumberIn(warehouseNo, resolved);
+      for (Stock row : rows) {
+        rowsByPart.computeIfAbsent(row.getPartNumber(), key -> new ArrayList<>()).add(row);
+      }
+    }
+    // Same order as the single pick's "order by created_at asc", where rows without a date come last.
+    Comparator<Stock> fifo = Comparator
+        .comparing(Stock::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(Stock::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+    Map<String, Set<String>> partsByOldestWarehouse = new HashMap<>();
+    for (Map.Entry<String, List<Stock>> entry : rowsByPart.entrySet()) {
+      entry.getValue().sort(fifo);
+      String oldestWarehouse = entry.getValue().get(0).getWarehouseNo();
+      if (oldestWarehouse != null) {
+        partsByOldestWarehouse.computeIfAbsent(oldestWarehouse, key -> new HashSet<>()).add(entry.getKey());
+      }
+    }
+    Map<String, Integer> parkedByPart = new HashMap<>();
+    for (Map.Entry<String, Set<String>> entry : partsByOldestWarehouse.entrySet()) {
+      stockMovementRepository.sumQtyByWarehousePartNumbersAndTypes(entry.getKey(), entry.getValue(), PARKED_TYPES)
+          .forEach((part, byType) -> parkedByPart.put(
+              part, byType.values().stream().mapToInt(Integer::intValue).sum()));
+    }
+    return new StockPickBatch(this, warehouseNo, rowsByPart, parkedByPart);
   }
 
   private StockPickContext preparePickContextInternal(
+      String warehouseNo,
       String partNumber,
       int requiredQty,
       String pickedRack,
       boolean allowNegative) {
-    String resolvedPartNumber = resolveMainPartNumber(partNumber);
-    validateParentTotals(resolvedPartNumber);
-    validateDrumSplitTotals(resolvedPartNumber);
-    List<Stock> rows = stockRepository.findByPartNumberOrderByCreatedAtAsc(resolvedPartNumber);
+    String resolvedPartNumber = partHierarchyCache.resolveMainPartNumber(warehouseNo, partNumber);
+    List<Stock> rows = warehouseNo == null
+        ? stockRepository.findByPartNumberOrderByCreatedAtAsc(resolvedPartNumber)
+        : stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc(warehouseNo, resolvedPartNumber);
+    int parkedQty = rows.isEmpty()
+        ? 0
+        : stockMovementRepository.sumQtyByWarehousePartAndTypes(
+            rows.get(0).getWarehouseNo(), resolvedPartNumber, PARKED_TYPES);
+    return buildPickContext(
+        warehouseNo, partNumber, resolvedPartNumber, rows, parkedQty, requiredQty, pickedRack, allowNegative);
+  }
+
+  /** Pick checks and FIFO resolution over already loaded rows; no queries. */
+  StockPickContext buildPickContext(
+      String warehouseNo,
+      String partNumber,
+      String resolvedPartNumber,
+      List<Stock> rows,
+      int parkedQty,
+      int requiredQty,
+      String pickedRack,
+      boolean allowNegative) {
+    validateParentTotals(warehouseNo, resolvedPartNumber);
+    validateDrumSplitTotals(warehouseNo, resolvedPartNumber);
     if (rows.isEmpty()) {
-      throw new com.godam.common.exception.StockValidationException("No stock found for part " + resolvedPartNumber);
+      throw new com.godam.common.exception.StockValidationException(warehouseNo == null
+          ? "No stock found for part " + resolvedPartNumber
+          : "No stock found for part " + resolvedPartNumber + " in warehouse " + warehouseNo);
     }
     Stock oldest = rows.get(0);
-    int parkedQty = stockMovementRepository.sumQtyByWarehousePartAndTypes(
-        oldest.getWarehouseNo(),
-        resolvedPartNumber,
-        List.of(MovementType.O103_PICKED, MovementType.O104_CHECKED));
     int totalQty = rows.stream().mapToInt(Stock::getQty).sum();
     int available = totalQty - parkedQty;
     if (!allowNegative && available < requiredQty) {
@@ -519,13 +728,16 @@ public class StockService {
     }
 
     Stock fifoRow = resolveFifoRow(rows, parkedQty);
-    if (pickedRack != null && !pickedRack.isBlank() && fifoRow != null) {
+    Stock pickedDrum = fifoRow != null && isDrumSplit(fifoRow)
+        ? findDrumInFifoWindow(rows, parkedQty, requiredQty, pickedRack)
+        : null;
+    if (pickedRack != null && !pickedRack.isBlank() && fifoRow != null && pickedDrum == null) {
       if (fifoRow.getRack() != null && !fifoRow.getRack().equalsIgnoreCase(pickedRack)) {
         throw new com.godam.common.exception.StockValidationException(
             "FIFO violation for part " + resolvedPartNumber + ": expected rack " + fifoRow.getRack());
       }
     }
-    Stock pickedRow = resolvePickedRow(rows, pickedRack, fifoRow);
+    Stock pickedRow = pickedDrum != null ? pickedDrum : resolvePickedRow(rows, pickedRack, fifoRow);
     String indicator = pickedRow == null ? null : pickedRow.getPnIndicator();
     String reference = buildReference(partNumber, resolvedPartNumber, pickedRow);
     String remark = indicator == null ? null : "pn_indicator=" + indicator;
@@ -543,38 +755,24 @@ public class StockService {
     return context;
   }
 
+  /** The main part a child or drum part number is picked and deducted as. */
+  public String resolveMainPartNumber(String partNumber) {
+    return partHierarchyCache.resolveMainPartNumber(partNumber);
+  }
+
+  String resolveMainPartNumber(String warehouseNo, String partNumber) {
+    return partHierarchyCache.resolveMainPartNumber(warehouseNo, partNumber);
+  }
+
+  /**
+   * Deducts a confirmed pick from the warehouse it was picked in, i.e. the O103's warehouse; null
+   * (a pick recorded before warehouses were tracked) deducts FIFO across all of them.
+   */
   @Transactional
-  public void applyConfirmedDeduction(String partNumber, int requiredQty, String pickedRack) {
-    String resolvedPartNumber = resolveMainPartNumber(partNumber);
-    List<Stock> rows = stockRepository.findByPartNumberOrderByCreatedAtAsc(resolvedPartNumber);
-    if (rows.isEmpty()) {
-      throw new com.godam.common.exception.StockValidationException("No stock found for part " + resolvedPartNumber);
-    }
-    Stock target = resolvePickedRow(rows, pickedRack, rows.get(0));
-    int remaining = requiredQty;
-    for (Stock row : rows) {
-      if (remaining <= 0) {
-        break;
-      }
-      if (target != null && pickedRack != null && !pickedRack.isBlank()) {
-        if (row.getRack() == null || !row.getRack().equalsIgnoreCase(pickedRack)) {
-          continue;
-        }
-      }
-      int available = row.getQty();
-      if (available <= 0) {
-        continue;
-      }
-      int deduct = Math.min(available, remaining);
-      row.setQty(available - deduct);
-      assertNonNegative(row);
-      stockRepository.save(row);
-      remaining -= deduct;
-      if (pickedRack != null && !pickedRack.isBlank()) {
-        break;
-      }
-    }
-    if (remaining > 0) {
+  @Timed("godam.stock.deduction")
+  public void applyConfirmedDeduction(String warehouseNo, String partNumber, int requiredQty, String pickedRack) {
+    String resolvedPartNumber = partHierarchyCache.resolveMainPartNumber(warehouseNo, partNumber);
+    if (stockDeductionEngine.deduct(warehouseNo, resolvedPartNumber, requiredQty, pickedRack) > 0) {
       throw new com.godam.common.exception.StockValidationException(
           "Insufficient stock to confirm pick for part " + resolvedPartNumber);
     }
@@ -582,22 +780,17 @@ public class StockService {
 
   @Transactional(readOnly = true)
   public List<StockSplitRequestDto> splitCableQtyAcrossDrums(List<StockPickSuggestionDto> suggestions, int requiredQty) {
-    List<StockSplitRequestDto> splits = new ArrayList<>();
-    int remaining = requiredQty;
+    List<DrumCandidate> candidates = new ArrayList<>();
     for (StockPickSuggestionDto suggestion : suggestions) {
-      if (remaining <= 0) {
-        break;
-      }
-      int take = Math.min(remaining, suggestion.getAvailableQty());
+      candidates.add(new DrumCandidate(null, suggestion.getRack(), null, null, suggestion.getAvailableQty()));
+    }
+    DrumAllocationPlan plan = drumAllocationEngine.allocate(candidates, requiredQty, DrumAllocationOptions.defaults());
+    List<StockSplitRequestDto> splits = new ArrayList<>();
+    for (DrumAssignment assignment : plan.getAssignments()) {
       StockSplitRequestDto split = new StockSplitRequestDto();
-      split.setRack(suggestion.getRack());
-      split.setQty(take);
+      split.setRack(assignment.getDrum().getRack());
+      split.setQty(assignment.getTakeQty());
       splits.add(split);
-      remaining -= take;
-    }
-    if (remaining > 0) {
-      throw new com.godam.common.exception.StockValidationException(
-          "Requested qty exceeds available drum splits");
     }
     return splits;
   }
@@ -609,50 +802,28 @@ public class StockService {
     }
   }
 
-  private String resolveMainPartNumber(String partNumber) {
-    List<Stock> children = stockRepository.findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(partNumber, INDICATOR_CHILD);
-    if (!children.isEmpty()) {
-      String parent = children.get(0).getParentPn();
-      if (parent != null && !parent.isBlank()) {
-        return parent;
-      }
-    }
-    return partNumber;
-  }
-
-  private void validateParentTotals(String parentPn) {
-    List<Stock> children = stockRepository.findByParentPnOrderByCreatedAtAsc(parentPn);
-    if (children.isEmpty()) {
+  private void validateParentTotals(String warehouseNo, String parentPn) {
+    PartHierarchyCache.ParentTotals totals = partHierarchyCache.parentTotals(warehouseNo, parentPn);
+    if (!totals.hasChildren()) {
       return;
     }
-    int calculated = calculateParentQty(parentPn);
-    List<Stock> parents = stockRepository.findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(parentPn, INDICATOR_PARENT);
-    if (parents.isEmpty()) {
+    if (totals.getParentQty() == null) {
       throw new com.godam.common.exception.StockValidationException(
           "Parent mapping missing for " + parentPn);
     }
-    Stock parent = parents.get(0);
-    if (calculated != parent.getQty()) {
+    if (totals.getCalculatedQty() != totals.getParentQty()) {
       throw new com.godam.common.exception.StockValidationException(
           "Parent qty mismatch for " + parentPn);
     }
   }
 
-  private void validateDrumSplitTotals(String partNumber) {
-    List<Stock> mains = stockRepository.findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(partNumber, INDICATOR_DRUM);
-    if (mains.isEmpty()) {
+  private void validateDrumSplitTotals(String warehouseNo, String partNumber) {
+    PartHierarchyCache.DrumTotals drum = partHierarchyCache.drumTotals(warehouseNo, partNumber);
+    if (drum.getMainQty() == null) {
       return;
     }
-    Stock main = mains.get(0);
-    int mainQty = main.getQty();
-    int splitSum = 0;
-    for (Stock split : stockRepository.findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(partNumber, INDICATOR_DRUM_SPLIT)) {
-      splitSum += split.getQty();
-    }
-    for (Stock cut : stockRepository.findByPartNumberAndPnIndicatorOrderByCreatedAtAsc(partNumber, INDICATOR_DRUM_CUT)) {
-      splitSum += cut.getQty();
-    }
-    if (splitSum > 0 && splitSum != mainQty) {
+    long splitSum = drum.getSplitSum();
+    if (splitSum > 0 && splitSum != drum.getMainQty()) {
       throw new com.godam.common.exception.StockValidationException(
           "Drum split total must equal main qty for " + partNumber);
     }
@@ -676,6 +847,38 @@ public class StockService {
     return rows.isEmpty() ? null : rows.get(0);
   }
 
+  /**
+   * Cable drums are chosen by {@link DrumAllocationEngine}, which may pass over an older drum to
+   * save a cut but only within its FIFO window. So while the part's FIFO row is a drum split, a
+   * split on the picked rack is a valid pick if it lies in the window the engine would use for this
+   * qty (default slack, parked qty already consumed) and can cover the qty on its own.
+   */
+  private Stock findDrumInFifoWindow(List<Stock> rows, int parkedQty, int requiredQty, String pickedRack) {
+    if (pickedRack == null || pickedRack.isBlank()) {
+      return null;
+    }
+    int[] availableByRow = consumeParked(rows, parkedQty);
+    List<DrumCandidate> candidates = new ArrayList<>();
+    for (int i = 0; i < rows.size(); i++) {
+      Stock row = rows.get(i);
+      if (availableByRow[i] > 0 && isDrumSplit(row)) {
+        candidates.add(new DrumCandidate(row.getId(), row.getRack(), row.getBin(), row.getPnIndicator(), availableByRow[i]));
+      }
+    }
+    List<DrumCandidate> window = drumAllocationEngine.fifoWindow(
+        candidates, requiredQty, DrumAllocationOptions.defaults().getFifoSlack());
+    for (DrumCandidate drum : window) {
+      if (drum.getRack() != null && drum.getRack().equalsIgnoreCase(pickedRack)
+          && drum.getAvailableQty() >= requiredQty) {
+        return rows.stream()
+            .filter(row -> Objects.equals(row.getId(), drum.getStockId()))
+            .findFirst()
+            .orElse(null);
+      }
+    }
+    return null;
+  }
+
   private Stock resolvePickedRow(List<Stock> rows, String pickedRack, Stock fallback) {
     if (pickedRack == null || pickedRack.isBlank()) {
       return fallback;
@@ -0,0 +1,580 @@
+package com.godam.stock.service;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.StockValidationException;
+import com.godam.movements.MovementType;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.dto.StockSummaryDto;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stock totals per warehouse, category and vendor: distinct parts, total qty, parts at zero and
+ * parked (picked or checked, not yet confirmed) qty. The first read loads everything in parallel
+ * part-number shards; from then on committed stock and movement writes are applied as deltas, and
+ * rows touched by bulk statements are re-read on the next summary. Each warehouse part is counted
+ * once, under the category and vendor of its oldest row.
+ */
+@Component
+public class StockSummaryIndex {
+  private static final Logger log = LoggerFactory.getLogger(StockSummaryIndex.class);
+  private static final int FETCH_SIZE = 2000;
+  private static final int IN_CLAUSE_CHUNK = 1000;
+
+  static final List<MovementType> PARKED_TYPES = List.of(MovementType.O103_PICKED, MovementType.O104_CHECKED);
+
+  private static final Comparator<String> TEXT_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+  private static final Comparator<GroupKey> GROUP_ORDER = Comparator
+      .comparing(GroupKey::warehouseNo, TEXT_ORDER)
+      .thenComparing(GroupKey::category, TEXT_ORDER)
+      .thenComparing(GroupKey::vendorName, TEXT_ORDER);
+
+  private final MovementLedgerWindow ledgerWindow;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate readTransaction;
+  private final int shardCount;
+  private final int parallelism;
+  private final Object loadLock = new Object();
+  private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+  private State state;
+  private final Set<Long> staleRows = new HashSet<>();
+  private final Set<PartKey> staleParts = new HashSet<>();
+  private final Map<Object, Long> writeStamps = new HashMap<>();
+  private long writeSequence;
+  private int loadsInFlight;
+
+  public StockSummaryIndex(
+      MovementLedgerWindow ledgerWindow,
+      DataSource dataSource,
+      PlatformTransactionManager transactionManager,
+      @Value("${godam.stock.summary.shards:16}") int shardCount,
+      @Value("${godam.stock.summary.parallelism:4}") int parallelism) {
+    this.ledgerWindow = ledgerWindow;
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    this.readTransaction = new TransactionTemplate(transactionManager);
+    this.readTransaction.setReadOnly(true);
+    this.shardCount = Math.max(1, shardCount);
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * Totals grouped by any of {@code warehouse}, {@code category} and {@code vendor} (comma
+   * separated); {@code none} returns a single grand total.
+   */
+  public List<StockSummaryDto> summarize(String warehouseNo, String category, String vendorName, String groupBy) {
+    Set<Dimension> dimensions = parseGroupBy(groupBy);
+    ensureLoaded();
+    refreshStale();
+    Map<GroupKey, Totals> rolled = new TreeMap<>(GROUP_ORDER);
+    synchronized (this) {
+      for (Map.Entry<GroupKey, Totals> entry : state.groups.entrySet()) {
+        GroupKey key = entry.getKey();
+        if (!matches(warehouseNo, key.warehouseNo())
+            || !matches(category, key.category())
+            || !matches(vendorName, key.vendorName())) {
+          continue;
+        }
+        GroupKey target = new GroupKey(
+            dimensions.contains(Dimension.WAREHOUSE) ? key.warehouseNo() : null,
+            dimensions.contains(Dimension.CATEGORY) ? key.category() : null,
+            dimensions.contains(Dimension.VENDOR) ? key.vendorName() : null);
+        rolled.computeIfAbsent(target, ignored -> new Totals()).add(entry.getValue(), 1);
+      }
+    }
+    if (rolled.isEmpty() && dimensions.isEmpty()) {
+      rolled.put(new GroupKey(null, null, null), new Totals());
+    }
+    List<StockSummaryDto> result = new ArrayList<>(rolled.size());
+    rolled.forEach((key, totals) -> result.add(toDto(key, totals)));
+    return result;
+  }
+
+  /** Discards the current totals and loads them again from the database. */
+  public List<StockSummaryDto> rebuild() {
+    if (!rebuilding.compareAndSet(false, true)) {
+      throw new BusinessRuleException("A stock summary rebuild is already running.");
+    }
+    try {
+      synchronized (loadLock) {
+        load();
+      }
+    } finally {
+      rebuilding.set(false);
+    }
+    return summarize(null, null, null, Dimension.WAREHOUSE.name());
+  }
+
+  /** Applies committed stock row states. */
+  public synchronized void apply(Collection<RowState> changes) {
+    for (RowState change : changes) {
+      if (change.id == null) {
+        continue;
+      }
+      stamp(change.id);
+      if (state == null) {
+        continue;
+      }
+      if (change.deleted || change.partNumber == null) {
+        state.removeRow(change.id);
+      } else {
+        state.putRow(new RowSlice(
+            change.id, change.warehouseNo, change.partNumber, change.category, change.vendorName, change.qty));
+      }
+    }
+  }
+
+  /** Rows changed by bulk statements; they are re-read before the next summary is served. */
+  public synchronized void markStale(Collection<RowState> changes) {
+    for (RowState change : changes) {
+      if (change.id != null) {
+        stamp(change.id);
+        staleRows.add(change.id);
+      }
+    }
+  }
+
+  /** Applies committed picked/checked movement writes. */
+  public synchronized void applyParked(Collection<ParkedChange> changes) {
+    for (ParkedChange change : changes) {
+      if (change.partNumber == null) {
+        continue;
+      }
+      PartKey key = new PartKey(change.warehouseNo, change.partNumber);
+      stamp(key);
+      if (state == null) {
+        continue;
+      }
+      if (change.exact) {
+        state.addParked(key, change.qty);
+      } else {
+        staleParts.add(key);
+      }
+    }
+  }
+
+  private void stamp(Object key) {
+    if (loadsInFlight > 0) {
+      writeStamps.put(key, ++writeSequence);
+    }
+  }
+
+  private boolean stampedSince(Object key, long sequence) {
+    return writeStamps.getOrDefault(key, 0L) > sequence;
+  }
+
+  private synchronized void loadFinished() {
+    loadsInFlight--;
+    if (loadsInFlight == 0) {
+      writeStamps.clear();
+    }
+  }
+
+  private void ensureLoaded() {
+    synchronized (this) {
+      if (state != null) {
+        return;
+      }
+    }
+    synchronized (loadLock) {
+      synchronized (this) {
+        if (state != null) {
+          return;
+        }
+      }
+      load();
+    }
+  }
+
+  private void load() {
+    long startSequence;
+    synchronized (this) {
+      loadsInFlight++;
+      startSequence = writeSequence;
+      staleRows.clear();
+      staleParts.clear();
+    }
+    Instant started = Instant.now();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<String> boundaries = shardBoundaries();
+      List<ForkJoinTask<State>> tasks = new ArrayList<>();
+      for (int i = 0; i <= boundaries.size(); i++) {
+        String lower = i == 0 ? null : boundaries.get(i - 1);
+        String upper = i == boundaries.size() ? null : boundaries.get(i);
+        tasks.add(pool.submit(() -> loadShard(lower, upper)));
+      }
+      State loaded = new State();
+      for (ForkJoinTask<State> task : tasks) {
+        loaded.merge(task.join());
+      }
+      synchronized (this) {
+        for (Map.Entry<Object, Long> stamp : writeStamps.entrySet()) {
+          if (stamp.getValue() <= startSequence) {
+            continue;
+          }
+          // Written while the shards were read; the loaded value may predate the write.
+          if (stamp.getKey() instanceof PartKey part) {
+            staleParts.add(part);
+          } else if (stamp.getKey() instanceof Long id) {
+            staleRows.add(id);
+          }
+        }
+        state = loaded;
+      }
+      log.info("Stock summary loaded: {} rows, {} warehouse parts, {} groups in {} shards, took {} ms",
+          loaded.rows.size(), loaded.parts.size(), loaded.groups.size(), tasks.size(),
+          Duration.between(started, Instant.now()).toMillis());
+    } finally {
+      pool.shutdownNow();
+      loadFinished();
+    }
+  }
+
+  private void refreshStale() {
+    List<Long> rowIds;
+    List<PartKey> partKeys;
+    long startSequence;
+    synchronized (this) {
+      if (staleRows.isEmpty() && staleParts.isEmpty()) {
+        return;
+      }
+      rowIds = new ArrayList<>(staleRows);
+      partKeys = new ArrayList<>(staleParts);
+      staleRows.clear();
+      staleParts.clear();
+      loadsInFlight++;
+      startSequence = writeSequence;
+    }
+    try {
+      Map<Long, RowSlice> rows = new HashMap<>();
+      Map<PartKey, Long> parked = new HashMap<>();
+      readTransaction.executeWithoutResult(status -> {
+        for (int from = 0; from < rowIds.size(); from += IN_CLAUSE_CHUNK) {
+          List<Long> chunk = rowIds.subList(from, Math.min(rowIds.size(), from + IN_CLAUSE_CHUNK));
+          loadRows(" and id in (" + placeholders(chunk.size()) + ")", chunk.toArray(),
+              row -> rows.put(row.id, row));
+        }
+        List<String> partNumbers = partKeys.stream().map(PartKey::partNumber).distinct().collect(Collectors.toList());
+        for (int from = 0; from < partNumbers.size(); from += IN_CLAUSE_CHUNK) {
+          List<String> chunk = partNumbers.subList(from, Math.min(partNumbers.size(), from + IN_CLAUSE_CHUNK));
+          loadParked(" and part_number in (" + placeholders(chunk.size()) + ")", chunk.toArray(),
+              (key, qty) -> parked.merge(key, qty, Long::sum));
+        }
+      });
+      synchronized (this) {
+        for (Long id : rowIds) {
+          if (stampedSince(id, startSequence)) {
+            staleRows.add(id);
+            continue;
+          }
+          RowSlice row = rows.get(id);
+          if (row == null) {
+            state.removeRow(id);
+          } else {
+            state.putRow(row);
+          }
+        }
+        for (PartKey key : partKeys) {
+          if (stampedSince(key, startSequence)) {
+            staleParts.add(key);
+          } else {
+            state.setParked(key, parked.getOrDefault(key, 0L));
+          }
+        }
+      }
+    } catch (RuntimeException ex) {
+      synchronized (this) {
+        staleRows.addAll(rowIds);
+        staleParts.addAll(partKeys);
+      }
+      throw ex;
+    } finally {
+      loadFinished();
+    }
+  }
+
+  private List<String> shardBoundaries() {
+    List<String> parts = jdbcTemplate.queryForList(
+        "select distinct part_number from stock where part_number is not null order by part_number",
+        String.class);
+    List<String> boundaries = new ArrayList<>();
+    if (parts.size() < shardCount * 2) {
+      return boundaries;
+    }
+    for (int i = 1; i < shardCount; i++) {
+      String boundary = parts.get((int) ((long) parts.size() * i / shardCount));
+      if (boundaries.isEmpty() || !boundaries.get(boundaries.size() - 1).equals(boundary)) {
+        boundaries.add(boundary);
+      }
+    }
+    return boundaries;
+  }
+
+  private State loadShard(String lower, String upper) {
+    List<Object> args = new ArrayList<>();
+    StringBuilder range = new StringBuilder();
+    if (lower != null) {
+      range.append(" and part_number >= ?");
+      args.add(lower);
+    }
+    if (upper != null) {
+      range.append(" and part_number < ?");
+      args.add(upper);
+    }
+    State shard = new State();
+    readTransaction.executeWithoutResult(status -> {
+      loadRows(range.toString(), args.toArray(), shard::putRow);
+      loadParked(range.toString(), args.toArray(), shard::addParked);
+    });
+    return shard;
+  }
+
+  private void loadRows(String predicate, Object[] args, Consumer<RowSlice> sink) {
+    jdbcTemplate.query(
+        "select id, warehouse_no, part_number, category, vendor_name, qty from stock"
+            + " where part_number is not null" + predicate,
+        (RowCallbackHandler) rs -> sink.accept(new RowSlice(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getInt(6))),
+        args);
+  }
+
+  private void loadParked(String predicate, Object[] args, BiConsumer<PartKey, Long> sink) {
+    String types = PARKED_TYPES.stream()
+        .map(type -> "'" + type.getCode() + "'")
+        .collect(Collectors.joining(", "));
+    Instant hotFrom = ledgerWindow.hotFrom();
+    List<Object> liveArgs = new ArrayList<>();
+    String window = "";
+    if (hotFrom != null) {
+      window = " and created_at >= ?";
+      liveArgs.add(Timestamp.from(hotFrom));
+    }
+    liveArgs.addAll(List.of(args));
+    RowCallbackHandler handler = rs -> sink.accept(new PartKey(rs.getString(1), rs.getString(2)), rs.getLong(3));
+    jdbcTemplate.query(
+        "select warehouse_no, part_number, sum(qty_change) from stock_movements"
+            + " where part_number is not null and movement_type in (" + types + ")" + window + predicate
+            + " group by warehouse_no, part_number",
+        handler,
+        liveArgs.toArray());
+    if (ledgerWindow.hasBalances()) {
+      jdbcTemplate.query(
+          "select warehouse_no, part_number, sum(qty) from stock_movement_balances"
+              + " where part_number is not null and movement_type in (" + types + ")" + predicate
+              + " group by warehouse_no, part_number",
+          handler,
+          args);
+    }
+  }
+
+  private static String placeholders(int count) {
+    return String.join(", ", Collections.nCopies(count, "?"));
+  }
+
+  private static boolean matches(String filter, String value) {
+    return filter == null || filter.isBlank() || filter.trim().equals(value);
+  }
+
+  private static Set<Dimension> parseGroupBy(String groupBy) {
+    Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+    if (groupBy == null || groupBy.isBlank() || "none".equalsIgnoreCase(groupBy.trim())) {
+      return dimensions;
+    }
+    for (String token : groupBy.split(",")) {
+      String name = token.trim().toUpperCase(Locale.ROOT);
+      if (name.isEmpty()) {
+        continue;
+      }
+      try {
+        dimensions.add(Dimension.valueOf(name));
+      } catch (IllegalArgumentException ex) {
+        throw new StockValidationException("groupBy must be none or a list of warehouse, category and vendor");
+      }
+    }
+    return dimensions;
+  }
+
+  private static StockSummaryDto toDto(GroupKey key, Totals totals) {
+    StockSummaryDto dto = new StockSummaryDto();
+    dto.setWarehouseNo(key.warehouseNo());
+    dto.setCategory(key.category());
+    dto.setVendorName(key.vendorName());
+    dto.setTotalParts(Math.toIntExact(totals.parts));
+    dto.setTotalQty(totals.qty);
+    dto.setZeroStockParts(Math.toIntExact(totals.zeroParts));
+    dto.setParkedQty(totals.parked);
+    return dto;
+  }
+
+  private enum Dimension {
+    WAREHOUSE,
+    CATEGORY,
+    VENDOR
+  }
+
+  private record PartKey(String warehouseNo, String partNumber) {
+  }
+
+  private record GroupKey(String warehouseNo, String category, String vendorName) {
+  }
+
+  private record RowSlice(Long id, String warehouseNo, String partNumber, String category, String vendorName, int qty) {
+    PartKey part() {
+      return new PartKey(warehouseNo, partNumber);
+    }
+  }
+
+  /** A picked/checked movement write: an exact delta for inserts and deletes, a re-read otherwise. */
+  public static final class ParkedChange {
+    final String warehouseNo;
+    final String partNumber;
+    final long qty;
+    final boolean exact;
+
+    private ParkedChange(String warehouseNo, String partNumber, long qty, boolean exact) {
+      this.warehouseNo = warehouseNo;
+      this.partNumber = partNumber;
+      this.qty = qty;
+      this.exact = exact;
+    }
+
+    public static ParkedChange delta(String warehouseNo, String partNumber, long qty) {
+      return new ParkedChange(warehouseNo, partNumber, qty, true);
+    }
+
+    public static ParkedChange touched(String warehouseNo, String partNumber) {
+      return new ParkedChange(warehouseNo, partNumber, 0, false);
+    }
+  }
+
+  private static final class Totals {
+    private long parts;
+    private long qty;
+    private long zeroParts;
+    private long parked;
+
+    void add(Totals other, int sign) {
+      parts += sign * other.parts;
+      qty += sign * other.qty;
+      zeroParts += sign * other.zeroParts;
+      parked += sign * other.parked;
+    }
+
+    void add(PartEntry entry, int sign) {
+      boolean stocked = !entry.rows.isEmpty();
+      parts += stocked ? sign : 0;
+      qty += sign * entry.qty;
+      zeroParts += stocked && entry.qty <= 0 ? sign : 0;
+      parked += sign * entry.parked;
+    }
+
+    boolean isEmpty() {
+      return parts == 0 && qty == 0 && zeroParts == 0 && parked == 0;
+    }
+  }
+
+  private static final class PartEntry {
+    private final TreeMap<Long, RowSlice> rows = new TreeMap<>();
+    private long qty;
+    private long parked;
+
+    GroupKey group(PartKey key) {
+      if (rows.isEmpty()) {
+        return new GroupKey(key.warehouseNo(), null, null);
+      }
+      RowSlice oldest = rows.firstEntry().getValue();
+      return new GroupKey(key.warehouseNo(), oldest.category(), oldest.vendorName());
+    }
+  }
+
+  /** Not thread safe; the live instance is guarded by the index, shard instances are thread confined. */
+  private static final class State {
+    private final Map<Long, RowSlice> rows = new HashMap<>();
+    private final Map<PartKey, PartEntry> parts = new HashMap<>();
+    private final Map<GroupKey, Totals> groups = new HashMap<>();
+
+    void putRow(RowSlice row) {
+      removeRow(row.id());
+      rows.put(row.id(), row);
+      update(row.part(), entry -> {
+        entry.rows.put(row.id(), row);
+        entry.qty += row.qty();
+      });
+    }
+
+    void removeRow(Long id) {
+      RowSlice previous = rows.remove(id);
+      if (previous != null) {
+        update(previous.part(), entry -> {
+          entry.rows.remove(id);
+          entry.qty -= previous.qty();
+        });
+      }
+    }
+
+    void addParked(PartKey key, long qty) {
+      update(key, entry -> entry.parked += qty);
+    }
+
+    void setParked(PartKey key, long qty) {
+      update(key, entry -> entry.parked = qty);
+    }
+
+    void merge(State shard) {
+      rows.putAll(shard.rows);
+      parts.putAll(shard.parts);
+      shard.groups.forEach((key, totals) -> groups.computeIfAbsent(key, ignored -> new Totals()).add(totals, 1));
+    }
+
+    private void update(PartKey key, Consumer<PartEntry> change) {
+      PartEntry entry = parts.computeIfAbsent(key, ignored -> new PartEntry());
+      contribute(key, entry, -1);
+      change.accept(entry);
+      if (entry.rows.isEmpty() && entry.parked == 0) {
+        parts.remove(key);
+      } else {
+        contribute(key, entry, 1);
+      }
+    }
+
+    private void contribute(PartKey key, PartEntry entry, int sign) {
+      GroupKey group = entry.group(key);
+      Totals totals = groups.computeIfAbsent(group, ignored -> new Totals());
+      totals.add(entry, sign);
+      if (totals.isEmpty()) {
+        groups.remove(group);
+      }
+    }
+  }
+}
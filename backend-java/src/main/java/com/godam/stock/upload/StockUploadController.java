@@ -1,8 +1,14 @@
 package com.godam.stock.upload;
 
+import com.godam.execution.OffloadExecutors;
+import com.godam.jobs.BufferedUpload;
+import com.godam.jobs.UploadJobDto;
+import com.godam.jobs.UploadJobService;
+import com.godam.jobs.UploadPhaseMetrics;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.springframework.core.io.PathResource;
 import org.springframework.core.io.Resource;
@@ -16,22 +22,50 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 @RestController
 @RequestMapping("/api/stock/upload")
 public class StockUploadController {
+  private static final String VALIDATE_UPLOAD = "STOCK_UPLOAD_VALIDATE";
+  private static final String COMMIT_UPLOAD = "STOCK_UPLOAD_COMMIT";
+
   private final StockUploadValidatorService validatorService;
+  private final UploadJobService uploadJobService;
+  private final UploadPhaseMetrics uploadPhaseMetrics;
+  private final OffloadExecutors offloadExecutors;
 
-  public StockUploadController(StockUploadValidatorService validatorService) {
+  public StockUploadController(
+      StockUploadValidatorService validatorService,
+      UploadJobService uploadJobService,
+      UploadPhaseMetrics uploadPhaseMetrics,
+      OffloadExecutors offloadExecutors) {
     this.validatorService = validatorService;
+    this.uploadJobService = uploadJobService;
+    this.uploadPhaseMetrics = uploadPhaseMetrics;
+    this.offloadExecutors = offloadExecutors;
   }
 
   @PostMapping("/validate")
-  public StockUploadValidateResponse validate(@RequestParam("file") MultipartFile file)
-      throws IOException {
-    StockUploadContext context = validatorService.validate(file);
+  public CompletableFuture<StockUploadValidateResponse> validate(
+      @RequestParam("file") MultipartFile file) throws IOException {
+    BufferedUpload upload = BufferedUpload.of(file);
+    return offloadExecutors.cpu(() -> toValidateResponse(
+        validatorService.validate(upload, uploadPhaseMetrics.track(VALIDATE_UPLOAD))));
+  }
+
+  @PostMapping("/validate/async")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public UploadJobDto validateAsync(@RequestParam("file") MultipartFile file) throws IOException {
+    BufferedUpload upload = BufferedUpload.of(file);
+    return uploadJobService.submit(
+        VALIDATE_UPLOAD,
+        progress -> toValidateResponse(validatorService.validate(upload, progress)));
+  }
+
+  private StockUploadValidateResponse toValidateResponse(StockUploadContext context) {
     String errorUrl = "/api/stock/upload/errors/" + context.getToken();
     List<StockUploadValidateResponse.DuplicatePayload> duplicates =
         context.getDuplicates().stream()
@@ -72,7 +106,23 @@ public class StockUploadController {
   @PostMapping("/commit")
   public StockUploadCommitResponse commit(@RequestBody StockUploadCommitRequest request)
       throws IOException {
-    validatorService.commit(request.getToken(), request.getAction());
+    validatorService.commit(
+        request.getToken(), request.getAction(), uploadPhaseMetrics.track(COMMIT_UPLOAD));
+    return toCommitResponse(request);
+  }
+
+  @PostMapping("/commit/async")
+  @ResponseStatus(HttpStatus.ACCEPTED)
+  public UploadJobDto commitAsync(@RequestBody StockUploadCommitRequest request) {
+    return uploadJobService.submit(
+        COMMIT_UPLOAD,
+        progress -> {
+          validatorService.commit(request.getToken(), request.getAction(), progress);
+          return toCommitResponse(request);
+        });
+  }
+
+  private StockUploadCommitResponse toCommitResponse(StockUploadCommitRequest request) {
     String errorUrl = "/api/stock/upload/errors/" + request.getToken();
     return new StockUploadCommitResponse(
         "Stock upload committed with action " + request.getAction(), errorUrl);
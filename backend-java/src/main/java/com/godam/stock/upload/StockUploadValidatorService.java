@@ -1,25 +1,46 @@
 package com.godam.stock.upload;
 
 import com.godam.common.exception.StockValidationException;
+import com.godam.jobs.JobPhase;
+import com.godam.jobs.JobProgress;
+import com.godam.security.ScanResult;
+import com.godam.security.UploadValidationPipeline;
 import com.godam.stock.Stock;
 import com.godam.stock.repository.StockRepository;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 public class StockUploadValidatorService {
+  private static final int EXISTENCE_LOOKUP_CHUNK = 1000;
+  private static final Comparator<Stock> FIFO_ORDER = Comparator
+      .comparing(Stock::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+      .thenComparing(Stock::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
   private final StockRepository stockRepository;
   private final StockExcelParser parser;
   private final StockErrorExcelWriter errorWriter;
+  private final UploadValidationPipeline uploadValidationPipeline;
+  private final ForkJoinPool validationPool;
+  private final int parallelThreshold;
+  private final int chunkSize;
   private final Map<String, StockUploadContext> contexts = new ConcurrentHashMap<>();
   private static final Set<String> REQUIRED_COLUMNS =
       Set.of(
@@ -34,13 +55,31 @@ public class StockUploadValidatorService {
   public StockUploadValidatorService(
       StockRepository stockRepository,
       StockExcelParser parser,
-      StockErrorExcelWriter errorWriter) {
+      StockErrorExcelWriter errorWriter,
+      UploadValidationPipeline uploadValidationPipeline,
+      @Value("${godam.stock.upload.parallelism:4}") int parallelism,
+      @Value("${godam.stock.upload.parallel-threshold:1000}") int parallelThreshold,
+      @Value("${godam.stock.upload.chunk-size:250}") int chunkSize) {
     this.stockRepository = stockRepository;
     this.parser = parser;
     this.errorWriter = errorWriter;
+    this.uploadValidationPipeline = uploadValidationPipeline;
+    this.validationPool = new ForkJoinPool(Math.max(1, parallelism));
+    this.parallelThreshold = parallelThreshold;
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    validationPool.shutdownNow();
   }
 
   public StockUploadContext validate(MultipartFile file) throws IOException {
+    return validate(file, JobProgress.NONE);
+  }
+
+  public StockUploadContext validate(MultipartFile file, JobProgress progress) throws IOException {
+    progress.phase(JobPhase.PARSE, 0);
     StockUploadDocument document = parser.parse(file);
     List<String> headers = document.getHeaders();
     Set<String> headerSet = Set.copyOf(headers);
@@ -49,39 +88,41 @@ public class StockUploadValidatorService {
           REQUIRED_COLUMNS.stream().filter(col -> !headerSet.contains(col)).collect(Collectors.toSet());
       throw new StockValidationException("Missing required columns: " + String.join(", ", missing));
     }
+    List<StockUploadRow> rows = document.getRows();
+    progress.phase(JobPhase.VALIDATE, rows.size());
+    RowCheck[] checks = checkRows(rows, progress);
+    progress.checkCancelled();
+    Map<String, Stock> existingByKey = findExisting(checks);
+
+    // Merge in file order so the first occurrence of a key wins and the error file is stable.
     List<StockUploadErrorRow> invalidRows = new ArrayList<>();
     List<StockUploadItem> validItems = new ArrayList<>();
     List<DuplicateRowInfo> duplicates = new ArrayList<>();
     Set<String> seenKeys = ConcurrentHashMap.newKeySet();
-
-    for (StockUploadRow row : document.getRows()) {
-      Map<String, String> values = row.getValues();
-      List<String> rowErrors = new ArrayList<>();
-      validateRequired(values, rowErrors);
-      BigDecimal qty = parseQty(values.getOrDefault("qty", ""), rowErrors);
-      StockUploadItem item = buildItem(values, qty, rowErrors);
-      if (!rowErrors.isEmpty()) {
-        invalidRows.add(new StockUploadErrorRow(row, String.join("; ", rowErrors)));
+    for (int i = 0; i < checks.length; i++) {
+      StockUploadRow row = rows.get(i);
+      RowCheck check = checks[i];
+      if (!check.errors.isEmpty()) {
+        invalidRows.add(new StockUploadErrorRow(row, String.join("; ", check.errors)));
         continue;
       }
 
-      String compositeKey = item.getPartNumber() + "|" + item.getWarehouseNo();
+      StockUploadItem item = check.item;
+      String compositeKey = compositeKey(item.getPartNumber(), item.getWarehouseNo());
       if (!seenKeys.add(compositeKey)) {
         invalidRows.add(
             new StockUploadErrorRow(row, "duplicate (part_number, warehouse_no) in upload"));
         continue;
       }
 
-      Optional<Stock> existing =
-          stockRepository.findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc(
-              item.getWarehouseNo(), item.getPartNumber());
-      if (existing.isPresent()) {
+      Stock existing = existingByKey.get(compositeKey);
+      if (existing != null) {
         duplicates.add(
             new DuplicateRowInfo(
                 item.getPartNumber(),
                 item.getWarehouseNo(),
-                existing.get().getQty(),
-                qty.intValue(),
+                existing.getQty(),
+                item.getQty().intValue(),
                 row));
         continue;
       }
@@ -93,9 +134,69 @@ public class StockUploadValidatorService {
     context.setErrorFile(errorWriter.createTempPath(context.getToken()));
     writeErrors(context, context.getInvalidRows());
     contexts.put(context.getToken(), context);
+    progress.phase(JobPhase.DONE, 0);
     return context;
   }
 
+  private RowCheck[] checkRows(List<StockUploadRow> rows, JobProgress progress) {
+    RowCheck[] checks = new RowCheck[rows.size()];
+    if (rows.size() < parallelThreshold || validationPool.getParallelism() == 1) {
+      for (int i = 0; i < checks.length; i++) {
+        progress.checkCancelled();
+        checks[i] = checkRow(rows.get(i));
+        progress.advance(1);
+      }
+    } else {
+      validationPool.invoke(new CheckChunk(rows, checks, progress, 0, checks.length));
+    }
+    return checks;
+  }
+
+  /** Required fields, numeric parsing and security scanning; touches nothing shared. */
+  private RowCheck checkRow(StockUploadRow row) {
+    Map<String, String> values = row.getValues();
+    List<String> rowErrors = new ArrayList<>();
+    validateRequired(values, rowErrors);
+    BigDecimal qty = parseQty(values.getOrDefault("qty", ""), rowErrors);
+    StockUploadItem item = buildItem(values, qty, rowErrors);
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      ScanResult scan = uploadValidationPipeline.inspect(entry.getKey(), entry.getValue());
+      if (scan.isMalicious()) {
+        rowErrors.add(entry.getKey() + ": " + scan.getReason());
+      }
+    }
+    return new RowCheck(item, rowErrors);
+  }
+
+  /** Oldest existing stock row per (part_number, warehouse_no) among the valid rows. */
+  private Map<String, Stock> findExisting(RowCheck[] checks) {
+    Set<String> keys = new LinkedHashSet<>();
+    Set<String> partNumbers = new LinkedHashSet<>();
+    for (RowCheck check : checks) {
+      if (check.errors.isEmpty()) {
+        keys.add(compositeKey(check.item.getPartNumber(), check.item.getWarehouseNo()));
+        partNumbers.add(check.item.getPartNumber());
+      }
+    }
+    Map<String, Stock> existing = new HashMap<>();
+    List<String> parts = new ArrayList<>(partNumbers);
+    for (int from = 0; from < parts.size(); from += EXISTENCE_LOOKUP_CHUNK) {
+      List<String> chunk = parts.subList(from, Math.min(parts.size(), from + EXISTENCE_LOOKUP_CHUNK));
+      for (Stock stock : stockRepository.findByPartNumberIn(chunk)) {
+        String key = compositeKey(stock.getPartNumber(), stock.getWarehouseNo());
+        if (keys.contains(key)) {
+          existing.merge(key, stock, (current, candidate) ->
+              FIFO_ORDER.compare(candidate, current) < 0 ? candidate : current);
+        }
+      }
+    }
+    return existing;
+  }
+
+  private static String compositeKey(String partNumber, String warehouseNo) {
+    return partNumber + "|" + warehouseNo;
+  }
+
   private void writeErrors(
       StockUploadContext context, List<StockUploadErrorRow> invalidRows) throws IOException {
     if (invalidRows.isEmpty()) {
@@ -149,7 +250,14 @@ public class StockUploadValidatorService {
     return contexts.get(token);
   }
 
+  @Transactional
   public void commit(String token, StockUploadAction action) throws IOException {
+    commit(token, action, JobProgress.NONE);
+  }
+
+  @Transactional
+  public void commit(String token, StockUploadAction action, JobProgress progress)
+      throws IOException {
     StockUploadContext context = contexts.get(token);
     if (context == null) {
       throw new StockValidationException("Stock upload context is missing or expired");
@@ -178,20 +286,25 @@ public class StockUploadValidatorService {
         }
         items.add(item);
       }
-      insertValidRows(items);
+      progress.phase(JobPhase.COMMIT, items.size());
+      insertValidRows(items, progress);
     } else {
-      insertValidRows(context.getValidItems());
+      int duplicateRows = action == StockUploadAction.ADD ? context.getDuplicates().size() : 0;
+      progress.phase(JobPhase.COMMIT, context.getValidItems().size() + duplicateRows);
+      insertValidRows(context.getValidItems(), progress);
       if (action == StockUploadAction.ADD) {
-        addDuplicates(context.getDuplicates());
+        addDuplicates(context.getDuplicates(), progress);
       } else if (action == StockUploadAction.REJECT) {
         rejectDuplicates(context);
       }
     }
     context.markCommitted();
+    progress.phase(JobPhase.DONE, 0);
   }
 
-  private void insertValidRows(List<StockUploadItem> items) {
+  private void insertValidRows(List<StockUploadItem> items, JobProgress progress) {
     for (StockUploadItem item : items) {
+      progress.checkCancelled();
       Optional<Stock> existing =
           stockRepository.findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc(
               item.getWarehouseNo(), item.getPartNumber());
@@ -231,11 +344,13 @@ public class StockUploadValidatorService {
         stock.setReceivedAt(item.getReceivedAt());
       }
       stockRepository.save(stock);
+      progress.advance(1);
     }
   }
 
-  private void addDuplicates(List<DuplicateRowInfo> duplicates) {
+  private void addDuplicates(List<DuplicateRowInfo> duplicates, JobProgress progress) {
     for (DuplicateRowInfo duplicate : duplicates) {
+      progress.checkCancelled();
       stockRepository
           .findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc(
               duplicate.getWarehouseNo(), duplicate.getPartNumber())
@@ -244,6 +359,7 @@ public class StockUploadValidatorService {
                 stock.setQty(stock.getQty() + duplicate.getUploadedQty());
                 stockRepository.save(stock);
               });
+      progress.advance(1);
     }
   }
 
@@ -353,4 +469,47 @@ public class StockUploadValidatorService {
   private java.time.Instant parseReceivedAt(String value, List<String> errors) {
     return java.time.Instant.now();
   }
+
+  private static final class RowCheck {
+    private final StockUploadItem item;
+    private final List<String> errors;
+
+    private RowCheck(StockUploadItem item, List<String> errors) {
+      this.item = item;
+      this.errors = errors;
+    }
+  }
+
+  private final class CheckChunk extends RecursiveAction {
+    private final List<StockUploadRow> rows;
+    private final RowCheck[] checks;
+    private final JobProgress progress;
+    private final int from;
+    private final int to;
+
+    private CheckChunk(
+        List<StockUploadRow> rows, RowCheck[] checks, JobProgress progress, int from, int to) {
+      this.rows = rows;
+      this.checks = checks;
+      this.progress = progress;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= chunkSize) {
+        progress.checkCancelled();
+        for (int i = from; i < to; i++) {
+          checks[i] = checkRow(rows.get(i));
+        }
+        progress.advance(to - from);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new CheckChunk(rows, checks, progress, from, mid),
+          new CheckChunk(rows, checks, progress, mid, to));
+    }
+  }
 }
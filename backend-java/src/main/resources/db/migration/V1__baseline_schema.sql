@@ -0,0 +1,308 @@
+-- Schema of a new database, matching the entities as of this release with the movement ledger
+-- already partitioned. Existing databases are baselined at version 1 instead (see
+-- spring.flyway.baseline-on-migrate in application-prod.properties), so any of the hand-run
+-- scripts in db/ they are missing must be applied before their first Flyway start.
+
+create sequence delivery_note_qty_seq start with 1 increment by 50;
+create sequence order_admin_audits_seq start with 1 increment by 50;
+create sequence order_items_seq start with 1 increment by 50;
+create sequence order_workflows_seq start with 1 increment by 50;
+create sequence stock_movements_seq start with 1 increment by 50;
+create sequence stock_reconciliation_discrepancies_seq start with 1 increment by 50;
+create sequence stock_seq start with 1 increment by 50;
+
+create table courier_master (
+  is_active boolean,
+  created_at timestamp(6) with time zone,
+  id bigserial not null,
+  cr_no varchar(255),
+  email varchar(255),
+  name varchar(255),
+  phone varchar(255),
+  vat_no varchar(255),
+  primary key (id)
+);
+
+create table customers (
+  is_active boolean,
+  created_at timestamp(6) with time zone,
+  id bigserial not null,
+  updated_at timestamp(6) with time zone,
+  city varchar(255),
+  google_location varchar(255),
+  location_text varchar(255),
+  name varchar(255),
+  notes varchar(255),
+  receiver1_contact varchar(255),
+  receiver1_designation varchar(255),
+  receiver1_email varchar(255),
+  receiver1_name varchar(255),
+  receiver2_contact varchar(255),
+  receiver2_designation varchar(255),
+  receiver2_email varchar(255),
+  receiver2_name varchar(255),
+  requirements varchar(255),
+  sap_customer_id varchar(255),
+  primary key (id)
+);
+
+create table delivery_note (
+  created_at timestamp(6) with time zone,
+  customer_id bigint not null,
+  dn_date timestamp(6) with time zone,
+  driver_id bigint not null,
+  id bigserial not null,
+  transporter_id bigint not null,
+  updated_at timestamp(6) with time zone,
+  address varchar(255),
+  customer_name varchar(255),
+  customer_phone varchar(255),
+  customer_po varchar(255),
+  dn_number varchar(255) not null unique,
+  driver_name varchar(255),
+  driver_phone varchar(255),
+  gapp_po varchar(255),
+  google_map_link varchar(255),
+  invoice_number varchar(255),
+  outbound_number varchar(255) not null,
+  prepared_by varchar(255),
+  requirements TEXT,
+  status varchar(255) not null,
+  transporter_name varchar(255),
+  transporter_phone varchar(255),
+  truck_type varchar(255),
+  primary key (id)
+);
+
+create table delivery_note_qty (
+  quantity integer not null,
+  created_at timestamp(6) with time zone,
+  dn_id bigint not null,
+  id bigint not null,
+  description TEXT not null,
+  primary key (id)
+);
+
+create table drivers (
+  iqama_expiry_date date,
+  is_active boolean,
+  license_expiry_date date,
+  created_at timestamp(6) with time zone,
+  id bigserial not null,
+  user_id bigint,
+  driver_name varchar(255),
+  driver_number varchar(255),
+  id_number varchar(255),
+  insurance_image varchar(255),
+  iqama_image varchar(255),
+  istimara_image varchar(255),
+  license_image varchar(255),
+  nationality varchar(255),
+  truck_back_image varchar(255),
+  truck_front_image varchar(255),
+  truck_no varchar(255),
+  primary key (id)
+);
+
+create table order_admin_audits (
+  created_at timestamp(6) with time zone,
+  id bigint not null,
+  order_id bigint,
+  details varchar(1000),
+  reason varchar(1000),
+  action varchar(255) check (action in ('EDIT','DELETE','SEND_PICKUP','DELETE_MOVEMENT','DELETE_TRANSPORTER','DELETE_DRIVER')),
+  outbound_number varchar(255),
+  performed_by varchar(255),
+  primary key (id)
+);
+
+create table order_items (
+  is_picked boolean,
+  qty integer,
+  id bigint not null,
+  order_id bigint,
+  picked_at timestamp(6),
+  description varchar(255),
+  part_number varchar(255),
+  picked_by varchar(255),
+  picked_rack varchar(255),
+  primary key (id)
+);
+
+create table order_transport (
+  quantity integer,
+  driver_id bigint,
+  id bigserial not null,
+  order_id bigint unique,
+  transporter_id bigint,
+  driver_name varchar(255),
+  driver_number varchar(255),
+  from_location varchar(255),
+  invoice_number varchar(255),
+  outbound_number varchar(255),
+  remarks varchar(255),
+  to_location varchar(255),
+  transporter_name varchar(255),
+  vehicle_number varchar(255),
+  vehicle_type varchar(255),
+  primary key (id)
+);
+
+create table order_workflows (
+  dn_created boolean,
+  id bigint not null,
+  checking_status varchar(255),
+  customer_id varchar(255),
+  customer_name varchar(255),
+  customer_po varchar(255),
+  gapp_po varchar(255),
+  invoice_number varchar(255),
+  outbound_number varchar(255),
+  picking_status varchar(255),
+  primary key (id),
+  constraint UX_OrderWorkflow_Outbound unique (outbound_number)
+);
+
+create table stock (
+  base_qty float(53),
+  drum_no integer,
+  drum_qty float(53),
+  is_schneider boolean,
+  qty integer,
+  serial_required boolean,
+  created_at timestamp(6) with time zone,
+  id bigint not null,
+  received_at timestamp(6) with time zone,
+  bin varchar(255),
+  category varchar(255),
+  combine_rack varchar(255),
+  description TEXT,
+  parent_pn varchar(255),
+  part_number varchar(255),
+  pn_indicator varchar(255),
+  qty_status varchar(255),
+  rack varchar(255),
+  sap_pn varchar(255),
+  storage_location varchar(255),
+  sub_category varchar(255),
+  uom varchar(255),
+  vendor_name varchar(255),
+  warehouse_no varchar(255),
+  primary key (id)
+);
+
+create table stock_movement_balances (
+  archived_through timestamp(6) with time zone,
+  id bigserial not null,
+  movement_count bigint not null,
+  qty bigint not null,
+  updated_at timestamp(6) with time zone,
+  movement_type varchar(20) not null,
+  part_number varchar(255) not null,
+  warehouse_no varchar(255) not null,
+  primary key (id),
+  constraint ux_stock_movement_balances unique (warehouse_no, part_number, movement_type)
+);
+
+create table stock_reconciliation_discrepancies (
+  difference bigint,
+  id bigint not null,
+  ledger_qty bigint,
+  movement_count bigint,
+  run_id bigint not null,
+  stock_qty bigint,
+  stock_rows bigint,
+  kind varchar(30),
+  part_number varchar(255),
+  rack varchar(255),
+  warehouse_no varchar(255),
+  primary key (id)
+);
+
+create table stock_reconciliation_runs (
+  shard_count integer,
+  discrepancy_count bigint,
+  finished_at timestamp(6) with time zone,
+  id bigserial not null,
+  movements_checked bigint,
+  parts_checked bigint,
+  started_at timestamp(6) with time zone,
+  stock_rows_checked bigint,
+  status varchar(20),
+  error_message TEXT,
+  requested_by varchar(255),
+  primary key (id)
+);
+
+create table transporters (
+  is_active boolean,
+  created_at timestamp(6) with time zone,
+  id bigserial not null,
+  company_name varchar(255),
+  contact_name varchar(255),
+  cr_number varchar(255),
+  email varchar(255),
+  phone varchar(255),
+  vat_number varchar(255),
+  primary key (id)
+);
+
+create table users (
+  active boolean not null,
+  created_at bigint,
+  updated_at bigint,
+  user_id bigserial not null,
+  email varchar(255),
+  password varchar(255) not null,
+  role varchar(255) not null,
+  username varchar(255) not null unique,
+  primary key (user_id)
+);
+
+-- Movement ledger, partitioned by month on created_at. MovementArchiveService keeps monthly
+-- partitions ahead of time and moves closed orders to stock_movements_archive.
+create table stock_movements (
+  id bigint not null default nextval('stock_movements_seq'),
+  movement_type varchar(20),
+  warehouse_no varchar(255),
+  storage_location varchar(255),
+  part_number varchar(255),
+  qty_change integer,
+  dn_number varchar(255),
+  invoice_number varchar(255),
+  sales_order varchar(255),
+  rack varchar(255),
+  bin varchar(255),
+  suggested_rack varchar(255),
+  actual_rack varchar(255),
+  picked_qty integer,
+  requested_qty integer,
+  reference varchar(255),
+  remark varchar(255),
+  created_by bigint,
+  created_at timestamp(6) with time zone not null,
+  primary key (id, created_at)
+) partition by range (created_at);
+
+create table stock_movements_default partition of stock_movements default;
+
+create index ix_stock_movements_created_at on stock_movements (created_at);
+create index ix_stock_movements_part_type on stock_movements (part_number, movement_type);
+create index ix_stock_movements_sales_order on stock_movements (sales_order);
+
+create table stock_movements_archive (
+  like stock_movements including defaults,
+  archived_at timestamp(6) with time zone not null default now()
+) partition by range (created_at);
+
+create table stock_movements_archive_default partition of stock_movements_archive default;
+
+create index ix_stock_movements_archive_sales_order on stock_movements_archive (sales_order);
+
+create index ix_reconciliation_discrepancies_run on stock_reconciliation_discrepancies (run_id, part_number);
+alter table if exists delivery_note add constraint FKqhygr4vjygq2n9etl32auhnss foreign key (customer_id) references customers;
+alter table if exists delivery_note add constraint FK17mxrj7yugeib8lnlqhc8cd9w foreign key (driver_id) references drivers;
+alter table if exists delivery_note add constraint FKmn3xqlwd8r3yeh77w871203xa foreign key (transporter_id) references transporters;
+alter table if exists delivery_note_qty add constraint FK6q7qakf3rp3exk6728pil6dr4 foreign key (dn_id) references delivery_note;
+alter table if exists order_items add constraint FKremkx4hkmr6rl8ifc0p9bote1 foreign key (order_id) references order_workflows;
+alter table if exists order_transport add constraint FKgslw68gv2xv8k3y4gdyiso1vs foreign key (order_id) references order_workflows;
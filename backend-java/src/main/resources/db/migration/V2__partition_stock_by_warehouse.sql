@@ -0,0 +1,72 @@
+-- Stock list-partitioned by warehouse_no: one partition per warehouse plus a default for new or
+-- unassigned warehouses. Warehouse-scoped reads (pick context, availability, hierarchy cache
+-- segments) then touch a single partition. StockPartitionService later moves warehouses that
+-- appear in stock_default into their own partition.
+--
+-- Each partition carries its own primary key on id: a key on the parent would have to include
+-- warehouse_no, which stays nullable. Ids come from stock_seq and are unique across partitions.
+
+alter table stock rename to stock_unpartitioned;
+
+create table stock (
+  base_qty float(53),
+  drum_no integer,
+  drum_qty float(53),
+  is_schneider boolean,
+  qty integer,
+  serial_required boolean,
+  created_at timestamp(6) with time zone,
+  id bigint not null,
+  received_at timestamp(6) with time zone,
+  bin varchar(255),
+  category varchar(255),
+  combine_rack varchar(255),
+  description TEXT,
+  parent_pn varchar(255),
+  part_number varchar(255),
+  pn_indicator varchar(255),
+  qty_status varchar(255),
+  rack varchar(255),
+  sap_pn varchar(255),
+  storage_location varchar(255),
+  sub_category varchar(255),
+  uom varchar(255),
+  vendor_name varchar(255),
+  warehouse_no varchar(255)
+) partition by list (warehouse_no);
+
+create table stock_default partition of stock (primary key (id)) default;
+
+-- Partition names follow StockPartitionService.partitionName: stock_w_<slug>_<md5 prefix>.
+do $$
+declare
+  warehouse varchar;
+begin
+  for warehouse in select distinct warehouse_no from stock_unpartitioned where warehouse_no is not null loop
+    execute format(
+      'create table %I partition of stock (primary key (id)) for values in (%L)',
+      'stock_w_' || left(trim(both '_' from regexp_replace(lower(warehouse), '[^a-z0-9]+', '_', 'g')), 40)
+          || '_' || left(md5(warehouse), 6),
+      warehouse);
+  end loop;
+end $$;
+
+insert into stock (
+  base_qty, drum_no, drum_qty, is_schneider, qty, serial_required, created_at, id, received_at, bin,
+  category, combine_rack, description, parent_pn, part_number, pn_indicator, qty_status, rack, sap_pn,
+  storage_location, sub_category, uom, vendor_name, warehouse_no)
+select
+  base_qty, drum_no, drum_qty, is_schneider, qty, serial_required, created_at, id, received_at, bin,
+  category, combine_rack, description, parent_pn, part_number, pn_indicator, qty_status, rack, sap_pn,
+  storage_location, sub_category, uom, vendor_name, warehouse_no
+from stock_unpartitioned;
+
+drop table stock_unpartitioned;
+
+create index ix_stock_warehouse_part on stock (warehouse_no, part_number, created_at);
+create index ix_stock_part_created on stock (part_number, created_at);
+create index ix_stock_parent_pn on stock (parent_pn);
+
+-- The ledger keeps its monthly range partitions (its key cannot take the nullable warehouse_no),
+-- so warehouse-scoped parked qty sums go through an index instead.
+create index ix_stock_movements_warehouse_part_type on stock_movements (warehouse_no, part_number, movement_type);
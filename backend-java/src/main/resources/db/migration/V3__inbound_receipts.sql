@@ -0,0 +1,46 @@
+-- ASN-style inbound receipts (InboundReceivingService). Each line points at the stock lot booked
+-- on the dock rack; putaway moves its quantity to storage racks.
+
+create sequence inbound_receipts_seq start with 1 increment by 50;
+create sequence inbound_receipt_lines_seq start with 1 increment by 50;
+
+create table inbound_receipts (
+  line_count integer not null,
+  completed_at timestamp(6) with time zone,
+  id bigint not null,
+  received_at timestamp(6) with time zone,
+  total_qty bigint not null,
+  dock_rack varchar(255),
+  receipt_number varchar(255) not null,
+  received_by varchar(255),
+  reference varchar(255),
+  status varchar(255) not null,
+  storage_location varchar(255),
+  vendor_name varchar(255),
+  warehouse_no varchar(255) not null,
+  primary key (id)
+);
+
+create unique index ux_inbound_receipts_number on inbound_receipts (receipt_number);
+
+create table inbound_receipt_lines (
+  line_no integer not null,
+  putaway_qty integer not null,
+  qty integer not null,
+  id bigint not null,
+  putaway_at timestamp(6) with time zone,
+  receipt_id bigint not null,
+  stock_id bigint,
+  description TEXT,
+  part_number varchar(255) not null,
+  putaway_bin varchar(255),
+  putaway_by varchar(255),
+  putaway_rack varchar(255),
+  primary key (id)
+);
+
+create unique index ux_inbound_receipt_lines_line on inbound_receipt_lines (receipt_id, line_no);
+create index ix_inbound_receipt_lines_part on inbound_receipt_lines (receipt_id, part_number);
+
+alter table if exists inbound_receipt_lines
+  add constraint fk_inbound_receipt_lines_receipt foreign key (receipt_id) references inbound_receipts;
@@ -0,0 +1,20 @@
+-- Registered rack/bin locations with their capacity (RackOccupancyIndex, SlottingService). Stock
+-- keeps rack, bin and combine_rack as free text; unregistered locations use the configured
+-- default capacity.
+
+create sequence storage_locations_seq start with 1 increment by 50;
+
+create table storage_locations (
+  active boolean not null,
+  capacity_qty integer,
+  id bigint not null,
+  updated_at timestamp(6) with time zone,
+  bin varchar(255) not null,
+  combine_rack varchar(255),
+  rack varchar(255) not null,
+  warehouse_no varchar(255) not null,
+  primary key (id)
+);
+
+create unique index ux_storage_locations_rack_bin on storage_locations (warehouse_no, rack, bin);
+
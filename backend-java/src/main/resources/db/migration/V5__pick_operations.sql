@@ -0,0 +1,20 @@
+-- Operation ids of scanner picks applied through the batch endpoint (PickOperationStore). A retried
+-- operation finds its row and is answered as a duplicate; rows older than the retention are purged.
+
+create sequence pick_operations_seq start with 1 increment by 50;
+
+create table pick_operations (
+  qty integer not null,
+  applied_at timestamp(6) with time zone not null,
+  id bigint not null,
+  order_id bigint not null,
+  operation_id varchar(64) not null,
+  outbound_number varchar(255),
+  part_number varchar(255) not null,
+  picked_by varchar(255),
+  picked_rack varchar(255),
+  primary key (id)
+);
+
+create unique index ux_pick_operations_operation_id on pick_operations (operation_id);
+create index ix_pick_operations_applied_at on pick_operations (applied_at);
@@ -0,0 +1,20 @@
+-- Buffered movements whose group-commit insert failed after the caller had committed
+-- (MovementWriteBuffer). Each row holds the full movement as JSON until a replay writes it to
+-- stock_movements and deletes it here.
+
+create sequence stock_movement_dead_letters_seq start with 1 increment by 1;
+
+create table stock_movement_dead_letters (
+  qty_change integer not null,
+  attempts integer not null,
+  failed_at timestamp(6) with time zone not null,
+  last_attempt_at timestamp(6) with time zone,
+  id bigint not null,
+  movement_type varchar(20),
+  warehouse_no varchar(255),
+  part_number varchar(255),
+  sales_order varchar(255),
+  payload text not null,
+  error_message text,
+  primary key (id)
+);
@@ -0,0 +1,84 @@
+-- Migration script to convert stock_movements into a ledger partitioned by month on created_at.
+-- Closed orders are later moved by the archive job into stock_movements_archive (cold partitions)
+-- and rolled up into stock_movement_balances. Run once during a maintenance window, after
+-- migration_pooled_sequences.sql.
+
+BEGIN;
+
+ALTER TABLE stock_movements RENAME TO stock_movements_legacy;
+
+CREATE TABLE stock_movements (
+  id BIGINT NOT NULL DEFAULT nextval('stock_movements_seq'),
+  movement_type VARCHAR(20),
+  warehouse_no VARCHAR(255),
+  storage_location VARCHAR(255),
+  part_number VARCHAR(255),
+  qty_change INTEGER NOT NULL,
+  dn_number VARCHAR(255),
+  invoice_number VARCHAR(255),
+  sales_order VARCHAR(255),
+  rack VARCHAR(255),
+  bin VARCHAR(255),
+  suggested_rack VARCHAR(255),
+  actual_rack VARCHAR(255),
+  picked_qty INTEGER,
+  requested_qty INTEGER,
+  reference VARCHAR(255),
+  remark VARCHAR(255),
+  created_by BIGINT,
+  created_at TIMESTAMPTZ NOT NULL,
+  PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE stock_movements_default PARTITION OF stock_movements DEFAULT;
+
+-- One partition per month from the oldest movement up to three months ahead.
+DO $$
+DECLARE
+  month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM stock_movements_legacy), now()))::date;
+  last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+  WHILE month_start <= last_month LOOP
+    EXECUTE format(
+      'CREATE TABLE IF NOT EXISTS %I PARTITION OF stock_movements FOR VALUES FROM (%L) TO (%L)',
+      'stock_movements_p' || to_char(month_start, 'YYYY_MM'),
+      month_start,
+      (month_start + INTERVAL '1 month')::date);
+    month_start := (month_start + INTERVAL '1 month')::date;
+  END LOOP;
+END $$;
+
+INSERT INTO stock_movements
+SELECT id, movement_type, warehouse_no, storage_location, part_number, qty_change, dn_number,
+       invoice_number, sales_order, rack, bin, suggested_rack, actual_rack, picked_qty,
+       requested_qty, reference, remark, created_by, COALESCE(created_at, TIMESTAMPTZ '1970-01-01')
+FROM stock_movements_legacy;
+
+DROP TABLE stock_movements_legacy;
+
+CREATE INDEX IF NOT EXISTS ix_stock_movements_created_at ON stock_movements (created_at);
+CREATE INDEX IF NOT EXISTS ix_stock_movements_part_type ON stock_movements (part_number, movement_type);
+CREATE INDEX IF NOT EXISTS ix_stock_movements_sales_order ON stock_movements (sales_order);
+
+CREATE TABLE IF NOT EXISTS stock_movements_archive (
+  LIKE stock_movements INCLUDING DEFAULTS,
+  archived_at TIMESTAMPTZ NOT NULL DEFAULT now()
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS stock_movements_archive_default PARTITION OF stock_movements_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_stock_movements_archive_sales_order ON stock_movements_archive (sales_order);
+
+CREATE TABLE IF NOT EXISTS stock_movement_balances (
+  id BIGSERIAL PRIMARY KEY,
+  warehouse_no VARCHAR(255) NOT NULL,
+  part_number VARCHAR(255) NOT NULL,
+  movement_type VARCHAR(20) NOT NULL,
+  qty BIGINT NOT NULL DEFAULT 0,
+  movement_count BIGINT NOT NULL DEFAULT 0,
+  archived_through TIMESTAMPTZ,
+  updated_at TIMESTAMPTZ,
+  CONSTRAINT ux_stock_movement_balances UNIQUE (warehouse_no, part_number, movement_type)
+);
+
+COMMIT;
@@ -0,0 +1,19 @@
+-- Migration script to move high-volume tables from IDENTITY columns to pooled sequences.
+-- Hibernate reserves 50 ids per nextval call, which lets inserts be sent as JDBC batches.
+-- Run this script on existing databases before deploying; the application also realigns
+-- these sequences at startup (godam.persistence.align-sequences).
+
+CREATE SEQUENCE IF NOT EXISTS stock_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS stock_movements_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_workflows_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_admin_audits_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS delivery_note_qty_seq INCREMENT BY 50;
+
+SELECT setval('stock_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM stock));
+SELECT setval('stock_movements_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM stock_movements));
+SELECT setval('order_workflows_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_workflows));
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items));
+SELECT setval('order_admin_audits_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_admin_audits));
+SELECT setval('delivery_note_qty_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM delivery_note_qty));
+
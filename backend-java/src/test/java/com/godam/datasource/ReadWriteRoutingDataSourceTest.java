@@ -0,0 +1,120 @@
+package com.godam.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReadWriteRoutingDataSourceTest {
+  private final DataSource primary = node("primary");
+  private final DataSource replica = node("replica");
+  private final ReplicaLagMonitor lagMonitor =
+      new ReplicaLagMonitor(replica, "select 0", Duration.ofSeconds(5), Duration.ofSeconds(1));
+  private final DataSource routing = new LazyConnectionDataSourceProxy(
+      new ReadWriteRoutingDataSource(primary, replica, lagMonitor, new SimpleMeterRegistry()));
+  private final JdbcTemplate jdbc = new JdbcTemplate(routing);
+  private final TransactionTemplate writeTx =
+      new TransactionTemplate(new DataSourceTransactionManager(routing));
+  private final TransactionTemplate readTx =
+      new TransactionTemplate(new DataSourceTransactionManager(routing));
+
+  ReadWriteRoutingDataSourceTest() {
+    readTx.setReadOnly(true);
+  }
+
+  @AfterEach
+  void clear() {
+    ReadYourWrites.close();
+  }
+
+  @Test
+  void routesReadOnlyTransactionsToUsableReplica() {
+    assertThat(read()).isEqualTo("primary");
+
+    lagMonitor.check();
+    assertThat(read()).isEqualTo("replica");
+    String written = writeTx.execute(status -> whoAmI());
+    assertThat(written).isEqualTo("primary");
+    assertThat(whoAmI()).isEqualTo("primary");
+  }
+
+  @Test
+  void fallsBackToPrimaryWhenReplicaLags() {
+    ReplicaLagMonitor lagging =
+        new ReplicaLagMonitor(replica, "select 100", Duration.ofSeconds(5), Duration.ofSeconds(1));
+    lagging.check();
+    DataSource lagRouting = new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(primary, replica, lagging, new SimpleMeterRegistry()));
+    TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(lagRouting));
+    tx.setReadOnly(true);
+
+    assertThat(lagging.isReplicaUsable()).isFalse();
+    assertThat(lagging.getLagSeconds()).isEqualTo(100);
+    String read = tx.execute(status -> new JdbcTemplate(lagRouting)
+        .queryForObject("select name from node", String.class));
+    assertThat(read).isEqualTo("primary");
+  }
+
+  @Test
+  void pinsReadsToPrimaryAfterWriteWithinAndAcrossRequests() throws Exception {
+    lagMonitor.check();
+    ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(10));
+    AtomicReference<String> readAfterWrite = new AtomicReference<>();
+    MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+    FilterChain writingChain = (request, response) -> {
+      writeTx.executeWithoutResult(status -> whoAmI());
+      readAfterWrite.set(read());
+    };
+
+    filter.doFilter(new MockHttpServletRequest(), writeResponse, writingChain);
+
+    assertThat(readAfterWrite.get()).isEqualTo("primary");
+    Cookie sticky = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+    assertThat(sticky).isNotNull();
+    assertThat(sticky.getMaxAge()).isEqualTo(10);
+
+    AtomicReference<String> nextRead = new AtomicReference<>();
+    MockHttpServletRequest followUp = new MockHttpServletRequest();
+    followUp.setCookies(sticky);
+    filter.doFilter(followUp, new MockHttpServletResponse(),
+        (request, response) -> nextRead.set(read()));
+    assertThat(nextRead.get()).isEqualTo("primary");
+
+    MockHttpServletResponse freshResponse = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(), freshResponse,
+        (request, response) -> nextRead.set(read()));
+    assertThat(nextRead.get()).isEqualTo("replica");
+    assertThat(freshResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+  }
+
+  private String read() {
+    return readTx.execute(status -> whoAmI());
+  }
+
+  private String whoAmI() {
+    return jdbc.queryForObject("select name from node", String.class);
+  }
+
+  private static DataSource node(String name) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+        "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+    jdbc.execute("create table if not exists node (name varchar(16))");
+    jdbc.update("delete from node");
+    jdbc.update("insert into node (name) values (?)", name);
+    return dataSource;
+  }
+}
@@ -0,0 +1,91 @@
+package com.godam.dn.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.godam.dn.dto.DnItemView;
+import com.godam.dn.dto.DnOptions;
+import com.godam.dn.dto.DnViewResponse;
+import com.godam.orders.OrderVersionTracker;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DnViewCacheTest {
+  private final DnService dnService = mock(DnService.class);
+  private final OrderVersionTracker tracker = new OrderVersionTracker(100);
+  private final DnViewCache cache = new DnViewCache(dnService, tracker, 8);
+
+  DnViewCacheTest() {
+    doCallRealMethod().when(dnService).applyPrintTime(any());
+  }
+
+  @Test
+  void servesCopiesUntilOrderOutboundOrPartIsWritten() {
+    when(dnService.getDnView(eq(7L), any())).thenAnswer(invocation -> view("OB7", "P-1"));
+
+    DnViewResponse first = cache.getView(7L, new DnOptions());
+    first.setCarrier("edited by caller");
+    DnViewResponse second = cache.getView(7L, new DnOptions());
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.getCarrier()).isNull();
+    assertThat(second.getTime()).isNotNull();
+    verify(dnService, times(1)).getDnView(eq(7L), any());
+
+    DnOptions arabic = new DnOptions();
+    arabic.setShowArabic(true);
+    cache.getView(7L, arabic);
+    verify(dnService, times(2)).getDnView(eq(7L), any());
+
+    tracker.bump(Set.of("order:8", "outbound:OB8", "part:P-2"));
+    cache.getView(7L, new DnOptions());
+    verify(dnService, times(2)).getDnView(eq(7L), any());
+
+    tracker.bump(Set.of("part:P-1"));
+    cache.getView(7L, new DnOptions());
+    tracker.bump(Set.of("outbound:OB7"));
+    cache.getView(7L, new DnOptions());
+    verify(dnService, times(4)).getDnView(eq(7L), any());
+  }
+
+  @Test
+  void reusesPrintHtmlWithinTheSameMinute() {
+    when(dnService.getDnView(eq(7L), any())).thenAnswer(invocation -> view("OB7", "P-1"));
+
+    String html = cache.getPrintHtml(7L, null, view -> "<p>" + view.getTime() + "</p>");
+    String again = cache.getPrintHtml(7L, null, view -> "rendered twice");
+
+    // Unless the clock ticked over to the next minute in between.
+    assertThat(again).isIn(html, "rendered twice");
+    assertThat(cache.getHtmlHits() + cache.getHtmlMisses()).isEqualTo(2);
+  }
+
+  @Test
+  void doesNotCacheViewsLoadedAcrossAWrite() {
+    when(dnService.getDnView(eq(7L), any())).thenAnswer(invocation -> {
+      tracker.bump(Set.of("order:7"));
+      return view("OB7", "P-1");
+    });
+
+    cache.getView(7L, new DnOptions());
+    cache.getView(7L, new DnOptions());
+
+    verify(dnService, times(2)).getDnView(eq(7L), any());
+    assertThat(cache.size()).isZero();
+  }
+
+  private static DnViewResponse view(String outbound, String partNumber) {
+    DnViewResponse view = new DnViewResponse();
+    view.setOutboundNumber(outbound);
+    DnItemView item = new DnItemView();
+    item.setPartNumber(partNumber);
+    view.setItems(List.of(item));
+    return view;
+  }
+}
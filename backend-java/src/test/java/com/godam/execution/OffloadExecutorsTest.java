@@ -0,0 +1,73 @@
+package com.godam.execution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.datasource.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class OffloadExecutorsTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final OffloadExecutors executors = new OffloadExecutors(registry, 1, 1, 2, 2, false, 8, 20);
+
+  @AfterEach
+  void tearDown() {
+    executors.shutdown();
+    ReadYourWrites.close();
+  }
+
+  @Test
+  void fullPoolRejectsWithoutTouchingTheOtherPool() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CompletableFuture<String> running = executors.cpu(() -> await(release));
+    CompletableFuture<String> queued = executors.cpu(() -> await(release));
+
+    assertThat(registry.get("godam.executor.saturation").tag("pool", "cpu").gauge().value())
+        .isEqualTo(1.0);
+    assertThatThrownBy(() -> executors.cpu(() -> "late"))
+        .isInstanceOf(BusinessRuleException.class);
+    assertThat(executors.io(() -> "io").get(5, TimeUnit.SECONDS)).isEqualTo("io");
+
+    release.countDown();
+    assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+    assertThat(registry.get("godam.executor.rejected").tag("pool", "cpu").functionCounter().count())
+        .isEqualTo(1.0);
+    assertThat(registry.get("godam.executor.in.flight").tag("pool", "cpu").gauge().value())
+        .isZero();
+  }
+
+  @Test
+  void failuresCompleteTheFutureWithTheOriginalException() {
+    CompletableFuture<Object> failed = executors.io(() -> {
+      throw new IllegalStateException("smtp down");
+    });
+
+    assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class)
+        .hasRootCauseMessage("smtp down");
+  }
+
+  @Test
+  void offloadedWorkSharesTheRequestsReadYourWritesState() throws Exception {
+    ReadYourWrites.open(true);
+    Boolean pinnedInWorker = executors.cpu(ReadYourWrites::isPinned).get(5, TimeUnit.SECONDS);
+    ReadYourWrites.close();
+    // The single cpu thread is reused, so this also shows the state was not left behind on it.
+    Boolean pinnedWithoutRequest = executors.cpu(ReadYourWrites::isPinned).get(5, TimeUnit.SECONDS);
+
+    assertThat(pinnedInWorker).isTrue();
+    assertThat(pinnedWithoutRequest).isFalse();
+  }
+
+  private static String await(CountDownLatch latch) throws InterruptedException {
+    latch.await(5, TimeUnit.SECONDS);
+    return "done";
+  }
+}
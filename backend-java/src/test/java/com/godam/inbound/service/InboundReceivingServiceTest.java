@@ -0,0 +1,186 @@
+package com.godam.inbound.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.common.exception.StockValidationException;
+import com.godam.inbound.dto.InboundPutawayLineRequest;
+import com.godam.inbound.dto.InboundPutawayRequest;
+import com.godam.inbound.dto.InboundPutawayResultDto;
+import com.godam.inbound.dto.InboundReceiptDto;
+import com.godam.inbound.dto.InboundReceiptLineRequest;
+import com.godam.inbound.dto.InboundReceiptRequest;
+import com.godam.movements.MovementType;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import com.godam.movements.service.StockMovementService;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.repository.StockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.godam.inbound.service.InboundReceivingServiceTest$InsertCounter",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    InboundReceivingService.class,
+    StockMovementService.class,
+    MovementWriteBuffer.class,
+    MovementLedgerWindow.class,
+    StockChangeListener.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    InboundReceivingServiceTest.Metrics.class
+})
+class InboundReceivingServiceTest {
+  private static final int LINES = 1200;
+
+  @Autowired
+  private InboundReceivingService receivingService;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Test
+  void containerReceiptIsWrittenInBatchesAsDockLotsAndI201Movements() {
+    InsertCounter.reset();
+
+    InboundReceiptDto receipt = receivingService.receive(receipt("ASN-1", LINES));
+    entityManager.flush();
+
+    assertThat(receipt.getLineCount()).isEqualTo(LINES);
+    assertThat(receipt.getTotalQty()).isEqualTo(LINES * 10L);
+    assertThat(stockRepository.count()).isEqualTo(LINES);
+    assertThat(stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", "PN-7"))
+        .extracting(Stock::getRack)
+        .containsExactly("DOCK");
+    assertThat(stockMovementRepository.findAll())
+        .hasSize(LINES)
+        .allMatch(movement -> movement.getMovementType() == MovementType.I201_INBOUND_RECEIVED);
+    // Stock lots, receipt lines and movements go out in 500-row batches, plus the receipt header.
+    assertThat(InsertCounter.count()).isLessThanOrEqualTo(10);
+  }
+
+  @Test
+  void putawayMovesQuantityFromTheDockAndClosesTheReceipt() {
+    InboundReceiptDto receipt = receivingService.receive(receipt("ASN-2", 3));
+    entityManager.flush();
+    entityManager.clear();
+
+    InboundPutawayResultDto partial = receivingService.putaway(receipt.getId(), putaway(
+        scan(1, null, null, "R-01"),
+        scan(null, "PN-1", 4, "R-02"),
+        scan(null, "PN-1", 6, "R-03")));
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(partial.getStatus()).isEqualTo(InboundReceivingService.STATUS_PARTIALLY_PUT_AWAY);
+    assertThat(partial.getOpenLines()).isEqualTo(1);
+    assertThat(stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", "PN-0"))
+        .extracting(Stock::getRack, Stock::getQty)
+        .containsExactly(tuple("R-01", 10));
+    assertThat(stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", "PN-1"))
+        .extracting(Stock::getRack)
+        .containsExactlyInAnyOrder("R-02", "R-03");
+
+    assertThatThrownBy(() -> receivingService.putaway(receipt.getId(), putaway(scan(3, null, 11, "R-04"))))
+        .isInstanceOf(StockValidationException.class);
+
+    InboundPutawayResultDto done = receivingService.putaway(receipt.getId(), putaway(scan(3, null, null, "R-04")));
+    entityManager.flush();
+
+    assertThat(done.getStatus()).isEqualTo(InboundReceivingService.STATUS_PUT_AWAY);
+    assertThat(stockRepository.findAll()).noneMatch(stock -> "DOCK".equals(stock.getRack()));
+    assertThat(stockRepository.findAll()).extracting(Stock::getQty).containsOnly(10, 4, 6);
+    assertThat(stockMovementRepository.findAll())
+        .filteredOn(movement -> movement.getMovementType() == MovementType.I202_PUTAWAY)
+        .hasSize(4);
+  }
+
+  private static InboundReceiptRequest receipt(String number, int lines) {
+    InboundReceiptRequest request = new InboundReceiptRequest();
+    request.setReceiptNumber(number);
+    request.setWarehouseNo("WH1");
+    request.setStorageLocation("SL1");
+    request.setVendorName("ACME");
+    List<InboundReceiptLineRequest> rows = new ArrayList<>();
+    for (int i = 0; i < lines; i++) {
+      InboundReceiptLineRequest row = new InboundReceiptLineRequest();
+      row.setPartNumber("PN-" + i);
+      row.setQty(10);
+      rows.add(row);
+    }
+    request.setLines(rows);
+    return request;
+  }
+
+  private static InboundPutawayRequest putaway(InboundPutawayLineRequest... scans) {
+    InboundPutawayRequest request = new InboundPutawayRequest();
+    request.setPutawayBy("scanner-1");
+    request.setLines(List.of(scans));
+    return request;
+  }
+
+  private static InboundPutawayLineRequest scan(Integer lineNo, String partNumber, Integer qty, String rack) {
+    InboundPutawayLineRequest scan = new InboundPutawayLineRequest();
+    scan.setLineNo(lineNo);
+    scan.setPartNumber(partNumber);
+    scan.setQty(qty);
+    scan.setRack(rack);
+    return scan;
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  public static class InsertCounter implements StatementInspector {
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+
+    static void reset() {
+      INSERTS.set(0);
+    }
+
+    static int count() {
+      return INSERTS.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+      if (sql.regionMatches(true, 0, "insert", 0, 6)) {
+        INSERTS.incrementAndGet();
+      }
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package com.godam.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.godam.common.exception.BusinessRuleException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class UploadJobServiceTest {
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final UploadJobService service =
+      new UploadJobService(new UploadPhaseMetrics(registry), 1, 1, 60);
+
+  @AfterEach
+  void shutdown() {
+    service.shutdown();
+  }
+
+  @Test
+  void reportsPhaseProgressAndResult() throws Exception {
+    CountDownLatch halfway = new CountDownLatch(1);
+    CountDownLatch resume = new CountDownLatch(1);
+    UploadJobDto submitted = service.submit("TEST", progress -> {
+      progress.phase(JobPhase.VALIDATE, 100);
+      progress.advance(50);
+      halfway.countDown();
+      resume.await(5, TimeUnit.SECONDS);
+      progress.advance(50);
+      progress.phase(JobPhase.DONE, 0);
+      return "done";
+    });
+
+    assertThat(halfway.await(5, TimeUnit.SECONDS)).isTrue();
+    UploadJobDto running = service.getJob(submitted.getId());
+    assertThat(running.getStatus()).isEqualTo(JobStatus.RUNNING);
+    assertThat(running.getPhase()).isEqualTo(JobPhase.VALIDATE);
+    assertThat(running.getRowsProcessed()).isEqualTo(50);
+    assertThat(running.getPercentComplete()).isEqualTo(50.0);
+    assertThat(running.getEtaSeconds()).isNotNull();
+
+    resume.countDown();
+    UploadJobDto finished = awaitFinished(submitted.getId());
+    assertThat(finished.getStatus()).isEqualTo(JobStatus.SUCCEEDED);
+    assertThat(finished.getPhase()).isEqualTo(JobPhase.DONE);
+    assertThat(finished.getResult()).isEqualTo("done");
+    assertThat(registry.get("godam.upload.rows").tags("upload", "test", "phase", "validate")
+        .counter().count()).isEqualTo(100.0);
+    assertThat(registry.get("godam.upload.phase").tags("upload", "test", "phase", "validate")
+        .timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void cancelsRunningAndQueuedJobsAndRejectsWhenFull() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    UploadJobDto running = service.submit("TEST", progress -> {
+      progress.phase(JobPhase.COMMIT, 0);
+      started.countDown();
+      while (true) {
+        progress.checkCancelled();
+        Thread.onSpinWait();
+      }
+    });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    UploadJobDto queued = service.submit("TEST", progress -> "never");
+    assertThatThrownBy(() -> service.submit("TEST", progress -> "rejected"))
+        .isInstanceOf(BusinessRuleException.class);
+
+    assertThat(service.cancel(queued.getId()).getStatus()).isEqualTo(JobStatus.CANCELLED);
+    assertThat(service.cancel(running.getId()).isCancelRequested()).isTrue();
+    assertThat(awaitFinished(running.getId()).getStatus()).isEqualTo(JobStatus.CANCELLED);
+  }
+
+  private UploadJobDto awaitFinished(String id) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    UploadJobDto job = service.getJob(id);
+    while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      job = service.getJob(id);
+    }
+    return job;
+  }
+}
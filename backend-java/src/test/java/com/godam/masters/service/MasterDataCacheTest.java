@@ -0,0 +1,80 @@
+package com.godam.masters.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.masters.service.MasterDataCache.Kind;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class MasterDataCacheTest {
+  private final MasterDataCache cache = new MasterDataCache(8);
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void answersConditionalGetsWithoutLoadingUntilVersionChanges() {
+    MockHttpServletResponse first = new MockHttpServletResponse();
+    ResponseEntity<List<String>> loaded = respond(Kind.DRIVERS, get(), first);
+    String etag = first.getHeader(HttpHeaders.ETAG);
+
+    assertThat(loaded.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(loaded.getBody()).containsExactly("driver-1");
+    assertThat(etag).isNotBlank();
+    assertThat(first.getHeader(HttpHeaders.LAST_MODIFIED)).isNotBlank();
+
+    ResponseEntity<List<String>> cached =
+        respond(Kind.DRIVERS, get(), new MockHttpServletResponse());
+    assertThat(cached.getBody()).containsExactly("driver-1");
+    assertThat(loads).hasValue(1);
+
+    ResponseEntity<List<String>> conditional =
+        respond(Kind.DRIVERS, conditionalGet(etag), new MockHttpServletResponse());
+    assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(loads).hasValue(1);
+
+    cache.bump(Kind.CUSTOMERS);
+    assertThat(respond(Kind.DRIVERS, conditionalGet(etag), new MockHttpServletResponse())
+        .getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+    cache.bump(Kind.DRIVERS);
+    ResponseEntity<List<String>> changed =
+        respond(Kind.DRIVERS, conditionalGet(etag), new MockHttpServletResponse());
+    assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(changed.getBody()).containsExactly("driver-2");
+    assertThat(cache.getNotModified()).isEqualTo(2);
+  }
+
+  @Test
+  void dropsListsLoadedAcrossAWrite() {
+    List<String> stale = cache.get(Kind.CUSTOMERS, "", () -> {
+      cache.bump(Kind.CUSTOMERS);
+      return List.of("before");
+    });
+    List<String> fresh = cache.get(Kind.CUSTOMERS, "", () -> List.of("after"));
+
+    assertThat(stale).containsExactly("before");
+    assertThat(fresh).containsExactly("after");
+  }
+
+  private ResponseEntity<List<String>> respond(
+      Kind kind, MockHttpServletRequest request, MockHttpServletResponse response) {
+    return cache.respond(kind, "", new ServletWebRequest(request, response),
+        () -> List.of("driver-" + loads.incrementAndGet()));
+  }
+
+  private static MockHttpServletRequest get() {
+    return new MockHttpServletRequest("GET", "/api/driver");
+  }
+
+  private static MockHttpServletRequest conditionalGet(String etag) {
+    MockHttpServletRequest request = get();
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    return request;
+  }
+}
@@ -0,0 +1,84 @@
+package com.godam.movements.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+class MovementLedgerWindowTest {
+  private static final Instant HOT_FROM = Instant.parse("2026-05-01T00:00:00Z");
+  private static final List<MovementType> PICKED = List.of(MovementType.O103_PICKED);
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @MockBean
+  private MovementLedgerWindow ledgerWindow;
+
+  @BeforeEach
+  void seed() {
+    stockMovementRepository.save(picked(5, Instant.parse("2026-04-15T00:00:00Z")));
+    stockMovementRepository.save(picked(3, Instant.parse("2026-06-01T00:00:00Z")));
+  }
+
+  @Test
+  void hotWindowStartsAtTheArchiveCutoff() {
+    LocalDate firstOfMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+    assertThat(new MovementLedgerWindow(mock(DataSource.class), 6).archiveCutoff())
+        .isEqualTo(firstOfMonth.minusMonths(6).atStartOfDay(ZoneOffset.UTC).toInstant());
+
+    assertThat(MovementLedgerWindow.hotFrom(HOT_FROM, null)).isEqualTo(HOT_FROM);
+    // A row the archive has not moved yet widens the window to its partition, with a day of slack.
+    assertThat(MovementLedgerWindow.hotFrom(HOT_FROM, Instant.parse("2026-03-17T08:00:00Z")))
+        .isEqualTo(Instant.parse("2026-02-28T00:00:00Z"));
+  }
+
+  @Test
+  void ledgerQueriesOnlyReadTheHotWindow() {
+    when(ledgerWindow.hotFrom()).thenReturn(HOT_FROM);
+
+    assertThat(stockMovementRepository.sumQtyByWarehousePartAndTypes("WH1", "PN-1", PICKED)).isEqualTo(3);
+    assertThat(stockMovementRepository.sumQtyByPartNumberAndTypes("PN-1", PICKED)).isEqualTo(3);
+    assertThat(stockMovementRepository.sumQtyByWarehousePartNumbersAndTypes("WH1", List.of("PN-1"), PICKED))
+        .containsEntry("PN-1", Map.of(MovementType.O103_PICKED, 3));
+    assertThat(stockMovementRepository.sumQtyBySalesOrderAndPartNumberAndType(
+        "SO-1", "PN-1", MovementType.O103_PICKED)).isEqualTo(3);
+    assertThat(stockMovementRepository.findBySalesOrderOrderByCreatedAtAsc("SO-1"))
+        .extracting(StockMovement::getQtyChange)
+        .containsExactly(3);
+
+    // Without partitioning there is no window and every row is live.
+    when(ledgerWindow.hotFrom()).thenReturn(null);
+    assertThat(stockMovementRepository.sumQtyByWarehousePartAndTypes("WH1", "PN-1", PICKED)).isEqualTo(8);
+  }
+
+  private static StockMovement picked(int qty, Instant createdAt) {
+    StockMovement movement = new StockMovement();
+    movement.setMovementType(MovementType.O103_PICKED);
+    movement.setWarehouseNo("WH1");
+    movement.setPartNumber("PN-1");
+    movement.setSalesOrder("SO-1");
+    movement.setQtyChange(qty);
+    movement.setCreatedAt(createdAt);
+    return movement;
+  }
+}
@@ -0,0 +1,165 @@
+package com.godam.movements.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.movements.MovementDeadLetter;
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+    "godam.movements.buffer.enabled=true",
+    "godam.movements.buffer.capacity=3",
+    "godam.movements.buffer.flush-interval-ms=600000",
+    "godam.movements.buffer.dead-letter-retry-ms=600000"
+})
+@Import({
+    MovementLedgerWindow.class,
+    MovementWriteBuffer.class,
+    StockMovementService.class,
+    MovementWriteBufferTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovementWriteBufferTest {
+  @Autowired
+  private StockMovementService stockMovementService;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private MovementWriteBuffer writeBuffer;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  private TransactionTemplate tx;
+
+  @BeforeEach
+  void setUp() {
+    tx = new TransactionTemplate(transactionManager);
+  }
+
+  @AfterEach
+  void clean() {
+    writeBuffer.flush();
+    stockMovementRepository.deleteAll();
+    tx.executeWithoutResult(status -> entityManager.createQuery("delete from MovementDeadLetter").executeUpdate());
+  }
+
+  @Test
+  void bufferedRowsCountInSumsExactlyOnceBeforeAndAfterTheFlush() {
+    tx.executeWithoutResult(status -> {
+      log(MovementType.O103_PICKED, 4);
+      assertThat(picked()).isEqualTo(4);
+    });
+    log(MovementType.O105_CONFIRMED, -4);
+
+    assertThat(stockMovementRepository.count()).isEqualTo(1);
+    assertThat(writeBuffer.getDepth()).isEqualTo(1);
+    assertThat(picked()).isEqualTo(4);
+
+    writeBuffer.flush();
+
+    assertThat(stockMovementRepository.count()).isEqualTo(2);
+    assertThat(writeBuffer.getDepth()).isZero();
+    assertThat(picked()).isEqualTo(4);
+  }
+
+  @Test
+  void rolledBackCallersQueueNothingAndAFullQueueWritesThrough() {
+    tx.executeWithoutResult(status -> {
+      log(MovementType.O103_PICKED, 9);
+      status.setRollbackOnly();
+    });
+    assertThat(writeBuffer.getDepth()).isZero();
+
+    for (int i = 0; i < 5; i++) {
+      log(MovementType.O104_CHECKED, 1);
+    }
+
+    assertThat(writeBuffer.getDepth()).isEqualTo(3);
+    assertThat(stockMovementRepository.count()).isEqualTo(2);
+    assertThat(stockMovementRepository.findBySalesOrderOrderByCreatedAtAsc("OUT-1")).hasSize(5);
+    assertThat(writeBuffer.getDepth()).isZero();
+  }
+
+  @Test
+  void aRowThatCannotBeInsertedIsDeadLetteredStillCountedAndReplayed() {
+    StockMovement bad = new StockMovement();
+    bad.setMovementType(MovementType.O103_PICKED);
+    bad.setWarehouseNo("WH1");
+    bad.setPartNumber("PN-1");
+    bad.setQtyChange(6);
+    bad.setSalesOrder("OUT-1");
+    bad.setReference("x".repeat(300));
+    stockMovementService.logMovements(List.of(bad));
+    log(MovementType.O103_PICKED, 2);
+
+    writeBuffer.flush();
+
+    // The good row still goes in; the bad one is kept instead of being dropped.
+    assertThat(stockMovementRepository.count()).isEqualTo(1);
+    assertThat(writeBuffer.getDeadLetterCount()).isEqualTo(1);
+    assertThat(deadLetters()).singleElement().satisfies(letter -> {
+      assertThat(letter.getQtyChange()).isEqualTo(6);
+      assertThat(letter.getPayload()).contains("\"salesOrder\":\"OUT-1\"");
+    });
+    assertThat(picked()).isEqualTo(8);
+
+    assertThat(writeBuffer.replayFailed()).isEqualTo(1);
+    assertThat(deadLetters()).singleElement().extracting(MovementDeadLetter::getAttempts).isEqualTo(2);
+
+    bad.setReference("fixed");
+    assertThat(writeBuffer.replayFailed()).isZero();
+
+    assertThat(stockMovementRepository.count()).isEqualTo(2);
+    assertThat(deadLetters()).isEmpty();
+    assertThat(picked()).isEqualTo(8);
+  }
+
+  private List<MovementDeadLetter> deadLetters() {
+    return tx.execute(status -> entityManager
+        .createQuery("select d from MovementDeadLetter d", MovementDeadLetter.class)
+        .getResultList());
+  }
+
+  private void log(MovementType type, int qty) {
+    stockMovementService.logMovement(
+        type, "WH1", null, "PN-1", qty, "OUT-1", null, null, "R1", null, null, null, qty, qty, null, null);
+  }
+
+  private int picked() {
+    return stockMovementRepository.sumQtyBySalesOrderAndPartNumberAndType("OUT-1", "PN-1", MovementType.O103_PICKED);
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package com.godam.orders.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import com.godam.movements.service.StockMovementService;
+import com.godam.orders.OrderItem;
+import com.godam.orders.OrderWorkflow;
+import com.godam.orders.dto.OrderBatchPickItem;
+import com.godam.orders.dto.OrderBatchPickRequest;
+import com.godam.orders.dto.OrderBatchPickResultDto;
+import com.godam.orders.dto.OrderPickOperationResultDto;
+import com.godam.orders.repository.OrderItemRepository;
+import com.godam.orders.repository.OrderWorkflowRepository;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.allocation.DrumAllocationEngine;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.PartHierarchyCache;
+import com.godam.stock.service.StockDeductionEngine;
+import com.godam.stock.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    OrdersService.class,
+    PickOperationStore.class,
+    StockService.class,
+    StockDeductionEngine.class,
+    DrumAllocationEngine.class,
+    PartHierarchyCache.class,
+    StockChangeListener.class,
+    StockMovementService.class,
+    MovementWriteBuffer.class,
+    MovementLedgerWindow.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    OrderBatchPickTest.Metrics.class
+})
+class OrderBatchPickTest {
+  @Autowired
+  private OrdersService ordersService;
+
+  @Autowired
+  private OrderWorkflowRepository orderWorkflowRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @MockBean
+  private PasswordEncoder passwordEncoder;
+
+  private Long orderId;
+
+  @BeforeEach
+  void seed() {
+    stockRepository.save(stock("R-01", 10, Instant.parse("2026-01-01T00:00:00Z")));
+    stockRepository.save(stock("R-02", 10, Instant.parse("2026-02-01T00:00:00Z")));
+    OrderWorkflow order = new OrderWorkflow();
+    order.setOutboundNumber("OB-1");
+    order.setInvoiceNumber("INV-1");
+    order.setPickingStatus("PICK_REQUESTED");
+    order = orderWorkflowRepository.save(order);
+    orderItemRepository.save(item(order, "PN-1", 14));
+    orderItemRepository.save(item(order, "PN-2", 3));
+    orderId = order.getId();
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void retriedBatchAppliesEachOperationOnceAndReportsEveryPick() {
+    OrderBatchPickRequest batch = batch(
+        pick("op-1", "PN-1", 10, "R-01"),
+        pick("op-2", "PN-1", 4, "R-01"),
+        pick("op-3", "PN-1", 4, "R-02"),
+        pick("op-4", "PN-2", 1, null),
+        pick("op-1", "PN-1", 10, "R-01"),
+        pick("op-4", "PN-2", 1, null),
+        pick(" ", "PN-1", 1, null));
+
+    OrderBatchPickResultDto first = ordersService.pickBatch(batch);
+    entityManager.flush();
+
+    // op-1 parks all of R-01, so the next FIFO rack inside the same batch is R-02. A repeat of
+    // the failed op-4 is tried again rather than reported as a duplicate.
+    assertThat(first.getOperations())
+        .extracting(OrderPickOperationResultDto::getOperationId, OrderPickOperationResultDto::getStatus)
+        .containsExactly(
+            tuple("op-1", OrdersService.PICK_APPLIED),
+            tuple("op-2", OrdersService.PICK_FAILED),
+            tuple("op-3", OrdersService.PICK_APPLIED),
+            tuple("op-4", OrdersService.PICK_FAILED),
+            tuple("op-1", OrdersService.PICK_DUPLICATE),
+            tuple("op-4", OrdersService.PICK_FAILED),
+            tuple("", OrdersService.PICK_FAILED));
+    assertThat(first.getOperations().get(1).getMessage()).contains("expected rack R-02");
+    assertThat(first.getOperations().get(2).getItem().isPicked()).isTrue();
+    assertThat(first.getAppliedCount()).isEqualTo(2);
+    assertThat(first.getDuplicateCount()).isEqualTo(1);
+    assertThat(first.getFailedCount()).isEqualTo(4);
+    assertThat(picked()).isEqualTo(14);
+
+    OrderBatchPickResultDto retry = ordersService.pickBatch(batch(
+        pick("op-1", "PN-1", 10, "R-01"),
+        pick("op-3", "PN-1", 4, "R-02")));
+
+    assertThat(retry.getOperations())
+        .extracting(OrderPickOperationResultDto::getStatus, OrderPickOperationResultDto::getPickedQty)
+        .containsExactly(tuple(OrdersService.PICK_DUPLICATE, 10), tuple(OrdersService.PICK_DUPLICATE, 4));
+    assertThat(picked()).isEqualTo(14);
+  }
+
+  @Test
+  void confirmationDeductsFromTheWarehouseThePickWasMadeIn() {
+    // Both sites use rack R-01; the older lot is in WH2.
+    Stock otherSite = stock("R-01", 10, Instant.parse("2025-12-01T00:00:00Z"));
+    otherSite.setWarehouseNo("WH2");
+    otherSite.setPartNumber("PN-9");
+    Stock thisSite = stock("R-01", 10, Instant.parse("2026-03-01T00:00:00Z"));
+    thisSite.setPartNumber("PN-9");
+    stockRepository.save(otherSite);
+    stockRepository.save(thisSite);
+    OrderWorkflow order = new OrderWorkflow();
+    order.setOutboundNumber("OB-2");
+    order.setPickingStatus("PICK_REQUESTED");
+    order = orderWorkflowRepository.save(order);
+    orderItemRepository.save(item(order, "PN-9", 5));
+    entityManager.flush();
+    entityManager.clear();
+
+    OrderBatchPickItem pick = pick("op-9", "PN-9", 5, "R-01");
+    pick.setOrderId(order.getId());
+    assertThat(ordersService.pickBatch(batch(pick)).getAppliedCount()).isEqualTo(1);
+    ordersService.updateStatus(order.getId(), null, "CONFIRMED");
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(stockRepository.findById(thisSite.getId())).get().extracting(Stock::getQty).isEqualTo(5);
+    assertThat(stockRepository.findById(otherSite.getId())).get().extracting(Stock::getQty).isEqualTo(10);
+    assertThat(stockMovementRepository.findBySalesOrderOrderByCreatedAtAsc("OB-2"))
+        .extracting(movement -> movement.getMovementType(), movement -> movement.getWarehouseNo())
+        .containsExactly(tuple(MovementType.O103_PICKED, "WH1"), tuple(MovementType.O105_CONFIRMED, "WH1"));
+  }
+
+  private int picked() {
+    return stockMovementRepository.sumQtyBySalesOrderAndPartNumberAndType("OB-1", "PN-1", MovementType.O103_PICKED);
+  }
+
+  private OrderBatchPickRequest batch(OrderBatchPickItem... picks) {
+    OrderBatchPickRequest request = new OrderBatchPickRequest();
+    request.setWarehouseNo("WH1");
+    request.setPickedBy("scanner-7");
+    request.setPicks(List.of(picks));
+    return request;
+  }
+
+  private OrderBatchPickItem pick(String operationId, String partNumber, int qty, String rack) {
+    OrderBatchPickItem pick = new OrderBatchPickItem();
+    pick.setOperationId(operationId);
+    pick.setOrderId(orderId);
+    pick.setPartNumber(partNumber);
+    pick.setPickedQty(qty);
+    pick.setPickedRack(rack);
+    return pick;
+  }
+
+  private static Stock stock(String rack, int qty, Instant createdAt) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo("WH1");
+    stock.setPartNumber("PN-1");
+    stock.setRack(rack);
+    stock.setQty(qty);
+    stock.setCreatedAt(createdAt);
+    return stock;
+  }
+
+  private static OrderItem item(OrderWorkflow order, String partNumber, int qty) {
+    OrderItem item = new OrderItem();
+    item.setOrder(order);
+    item.setPartNumber(partNumber);
+    item.setQty(qty);
+    return item;
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package com.godam.orders.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.StockMovementService;
+import com.godam.orders.dto.OrderUploadItemDto;
+import com.godam.orders.dto.OrderUploadResultDto;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.StockService;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.godam.orders.service.OrderUploadBatchingTest$InsertCounter",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    OrdersService.class,
+    PickOperationStore.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    MovementLedgerWindow.class
+})
+class OrderUploadBatchingTest {
+  private static final int LINES = 200;
+  private static final int ORDERS = 4;
+
+  @Autowired
+  private OrdersService ordersService;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @MockBean
+  private StockService stockService;
+
+  @MockBean
+  private StockMovementService stockMovementService;
+
+  @MockBean
+  private PasswordEncoder passwordEncoder;
+
+  @Test
+  void uploadBatchesInsertsAndPrefetchesLookups() {
+    List<OrderUploadItemDto> rows = new ArrayList<>();
+    List<Stock> stock = new ArrayList<>();
+    for (int i = 0; i < LINES; i++) {
+      String partNumber = "PN-" + i;
+      stock.add(stockRow(partNumber));
+      OrderUploadItemDto row = new OrderUploadItemDto();
+      row.setOutboundNumber("OB-" + (i % ORDERS));
+      row.setSalesOrder("SO-" + (i % ORDERS));
+      row.setPartNumber(partNumber);
+      row.setQty(1);
+      rows.add(row);
+    }
+    stockRepository.saveAll(stock);
+    entityManager.flush();
+    entityManager.clear();
+
+    Statistics statistics = entityManager.getEntityManagerFactory()
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+    statistics.clear();
+    InsertCounter.reset();
+
+    OrderUploadResultDto result = ordersService.uploadOrders(rows);
+    entityManager.flush();
+
+    assertEquals(ORDERS, result.getInserted());
+    assertEquals(LINES + ORDERS, statistics.getEntityInsertCount());
+
+    // Each outbound group is flushed as one header insert plus one batch of its lines;
+    // without batching this would prepare LINES + ORDERS insert statements.
+    assertTrue(
+        InsertCounter.count() <= ORDERS * 2,
+        "expected batched inserts but prepared " + InsertCounter.count() + " insert statements");
+    // Outbounds, customers, stock and ledger sums are read once per file, not once per line.
+    assertTrue(
+        InsertCounter.selects() <= 16,
+        "expected prefetched lookups but ran " + InsertCounter.selects() + " select statements");
+    entityManager.clear();
+
+    OrderUploadResultDto replaced = ordersService.uploadOrders(rows);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertEquals(ORDERS, replaced.getUpdated());
+    assertEquals(LINES, replaced.getRows());
+    assertEquals(
+        LINES,
+        entityManager.createQuery("select count(i) from OrderItem i", Long.class).getSingleResult());
+  }
+
+  private Stock stockRow(String partNumber) {
+    Stock row = new Stock();
+    row.setWarehouseNo("W1");
+    row.setPartNumber(partNumber);
+    row.setQty(10);
+    row.setCreatedAt(Instant.now());
+    return row;
+  }
+
+  public static class InsertCounter implements StatementInspector {
+    private static final AtomicInteger INSERTS = new AtomicInteger();
+    private static final AtomicInteger SELECTS = new AtomicInteger();
+
+    static void reset() {
+      INSERTS.set(0);
+      SELECTS.set(0);
+    }
+
+    static int count() {
+      return INSERTS.get();
+    }
+
+    static int selects() {
+      return SELECTS.get();
+    }
+
+    @Override
+    public String inspect(String sql) {
+      if (sql.regionMatches(true, 0, "insert", 0, 6)) {
+        INSERTS.incrementAndGet();
+      } else if (sql.regionMatches(true, 0, "select", 0, 6)) {
+        SELECTS.incrementAndGet();
+      }
+      return sql;
+    }
+  }
+}
@@ -0,0 +1,239 @@
+package com.godam.picking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.common.exception.BusinessRuleException;
+import com.godam.common.exception.StockValidationException;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import com.godam.movements.service.StockMovementService;
+import com.godam.orders.OrderItem;
+import com.godam.orders.OrderWorkflow;
+import com.godam.orders.repository.OrderItemRepository;
+import com.godam.orders.repository.OrderWorkflowRepository;
+import com.godam.picking.dto.WaveAllocationDto;
+import com.godam.picking.dto.WaveConfirmRequest;
+import com.godam.picking.dto.WaveConfirmResultDto;
+import com.godam.picking.dto.WaveOrderResultDto;
+import com.godam.picking.dto.WavePickLineDto;
+import com.godam.picking.dto.WavePickListDto;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.allocation.DrumAllocationEngine;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.PartHierarchyCache;
+import com.godam.stock.service.StockDeductionEngine;
+import com.godam.stock.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    WavePickingService.class,
+    StockService.class,
+    StockDeductionEngine.class,
+    DrumAllocationEngine.class,
+    PartHierarchyCache.class,
+    StockChangeListener.class,
+    StockMovementService.class,
+    MovementWriteBuffer.class,
+    MovementLedgerWindow.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    WavePickingServiceTest.Metrics.class
+})
+class WavePickingServiceTest {
+  @Autowired
+  private WavePickingService wavePickingService;
+
+  @Autowired
+  private OrderWorkflowRepository orderWorkflowRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @MockBean
+  private PasswordEncoder passwordEncoder;
+
+  private Long firstOrder;
+  private Long secondOrder;
+
+  @BeforeEach
+  void seed() {
+    // Walk order is R-01, R-02, R-09; FIFO is R-09, R-02, then the undated R-01.
+    stockRepository.save(stock("PN-1", "R-09", 6, Instant.parse("2026-01-01T00:00:00Z"), null));
+    stockRepository.save(stock("PN-1", "R-02", 10, Instant.parse("2026-02-01T00:00:00Z"), null));
+    stockRepository.save(stock("PN-1", "R-01", 10, null, null));
+    firstOrder = order("OB-1", "PN-1", 8);
+    secondOrder = order("OB-2", "PN-1", 6);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void plannedWaveFollowsSinglePickFifoAndConfirmsInWalkOrder() {
+    WavePickListDto plan = wavePickingService.planWave(List.of(secondOrder, firstOrder), "WH1");
+
+    assertThat(plan.getLines())
+        .extracting(WavePickLineDto::getSequence, WavePickLineDto::getRack, WavePickLineDto::getQty)
+        .containsExactly(tuple(1, "R-02", 8), tuple(2, "R-09", 6));
+
+    WaveConfirmResultDto confirmed = wavePickingService.confirmWave(confirm(plan.getLines()));
+    entityManager.flush();
+
+    assertThat(confirmed.getMovementCount()).isEqualTo(3);
+    assertThat(confirmed.getOrders()).allMatch(WaveOrderResultDto::isFullyPicked);
+    assertThat(stockMovementRepository.findAll())
+        .extracting(StockMovement::getSalesOrder, StockMovement::getRack, StockMovement::getSuggestedRack,
+            StockMovement::getQtyChange)
+        .containsExactlyInAnyOrder(
+            tuple("OB-1", "R-09", "R-09", 6),
+            tuple("OB-1", "R-02", "R-02", 2),
+            tuple("OB-2", "R-02", "R-02", 6));
+  }
+
+  @Test
+  void confirmationRejectsWhatASinglePickWouldReject() {
+    WavePickLineDto skipsFifo = line("R-02", allocation(firstOrder, "PN-1", 4));
+
+    assertThatThrownBy(() -> wavePickingService.confirmWave(confirm(List.of(skipsFifo))))
+        .isInstanceOf(StockValidationException.class)
+        .hasMessageContaining("FIFO violation for part PN-1: expected rack R-09");
+
+    stockRepository.save(stock("PN-P", "R-05", 10, Instant.parse("2026-01-01T00:00:00Z"), "P"));
+    Stock child = stock("PN-C", "R-06", 3, Instant.parse("2026-01-01T00:00:00Z"), "C");
+    child.setParentPn("PN-P");
+    stockRepository.save(child);
+    Long parentOrder = order("OB-3", "PN-P", 2);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThatThrownBy(() -> wavePickingService.confirmWave(
+        confirm(List.of(line("R-05", allocation(parentOrder, "PN-P", 2))))))
+        .isInstanceOf(StockValidationException.class)
+        .hasMessageContaining("Parent qty mismatch for PN-P");
+    assertThat(stockMovementRepository.count()).isZero();
+  }
+
+  @Test
+  void aWavePicksOnlyTheRequestedWarehouse() {
+    // WH2's PN-1 is older than anything in WH1, so a wave across warehouses would start there.
+    Stock otherSite = stock("PN-1", "R-09", 20, Instant.parse("2025-12-01T00:00:00Z"), null);
+    otherSite.setWarehouseNo("WH2");
+    stockRepository.save(otherSite);
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThatThrownBy(() -> wavePickingService.planWave(List.of(firstOrder), null))
+        .isInstanceOf(BusinessRuleException.class)
+        .hasMessageContaining("Wave spans warehouses");
+
+    WavePickListDto plan = wavePickingService.planWave(List.of(firstOrder), "WH1");
+    assertThat(plan.getWarehouseNo()).isEqualTo("WH1");
+    assertThat(plan.getLines())
+        .extracting(WavePickLineDto::getWarehouseNo, WavePickLineDto::getRack, WavePickLineDto::getQty)
+        .containsExactly(tuple("WH1", "R-02", 2), tuple("WH1", "R-09", 6));
+
+    WaveConfirmRequest request = confirm(plan.getLines());
+    request.setWarehouseNo("WH1");
+    wavePickingService.confirmWave(request);
+    entityManager.flush();
+    assertThat(stockMovementRepository.findAll())
+        .extracting(StockMovement::getWarehouseNo, StockMovement::getRack, StockMovement::getSuggestedRack,
+            StockMovement::getQtyChange)
+        .containsExactlyInAnyOrder(tuple("WH1", "R-09", "R-09", 6), tuple("WH1", "R-02", "R-02", 2));
+
+    WavePickLineDto fromOtherSite = line("R-09", allocation(secondOrder, "PN-1", 6));
+    fromOtherSite.setWarehouseNo("WH2");
+    WaveConfirmRequest mixed = confirm(List.of(fromOtherSite));
+    mixed.setWarehouseNo("WH1");
+    assertThatThrownBy(() -> wavePickingService.confirmWave(mixed))
+        .isInstanceOf(BusinessRuleException.class)
+        .hasMessageContaining("is in warehouse WH2, not WH1");
+  }
+
+  private Long order(String outbound, String partNumber, int qty) {
+    OrderWorkflow order = new OrderWorkflow();
+    order.setOutboundNumber(outbound);
+    order.setPickingStatus("PICK_REQUESTED");
+    order = orderWorkflowRepository.save(order);
+    OrderItem item = new OrderItem();
+    item.setOrder(order);
+    item.setPartNumber(partNumber);
+    item.setQty(qty);
+    orderItemRepository.save(item);
+    return order.getId();
+  }
+
+  private static WaveConfirmRequest confirm(List<WavePickLineDto> lines) {
+    WaveConfirmRequest request = new WaveConfirmRequest();
+    request.setPickedBy("picker-1");
+    request.setLines(lines);
+    return request;
+  }
+
+  private static WavePickLineDto line(String rack, WaveAllocationDto... allocations) {
+    WavePickLineDto line = new WavePickLineDto();
+    line.setRack(rack);
+    line.setAllocations(List.of(allocations));
+    return line;
+  }
+
+  private static WaveAllocationDto allocation(Long orderId, String partNumber, int qty) {
+    WaveAllocationDto allocation = new WaveAllocationDto();
+    allocation.setOrderId(orderId);
+    allocation.setPartNumber(partNumber);
+    allocation.setQty(qty);
+    return allocation;
+  }
+
+  private static Stock stock(String partNumber, String rack, int qty, Instant createdAt, String indicator) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo("WH1");
+    stock.setPartNumber(partNumber);
+    stock.setRack(rack);
+    stock.setQty(qty);
+    stock.setCreatedAt(createdAt);
+    stock.setPnIndicator(indicator);
+    return stock;
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package com.godam.reconciliation.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import com.godam.movements.service.StockMovementService;
+import com.godam.reconciliation.dto.ReconciliationDiscrepancyDto;
+import com.godam.reconciliation.dto.ReconciliationRunDto;
+import com.godam.reconciliation.repository.ReconciliationDiscrepancyRepository;
+import com.godam.reconciliation.repository.ReconciliationRunRepository;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.allocation.DrumAllocationEngine;
+import com.godam.stock.dto.StockUploadItemDto;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.PartHierarchyCache;
+import com.godam.stock.service.StockDeductionEngine;
+import com.godam.stock.service.StockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    ReconciliationService.class,
+    StockService.class,
+    StockDeductionEngine.class,
+    DrumAllocationEngine.class,
+    PartHierarchyCache.class,
+    StockChangeListener.class,
+    StockMovementService.class,
+    MovementWriteBuffer.class,
+    MovementLedgerWindow.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    ReconciliationServiceTest.Metrics.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReconciliationServiceTest {
+  @Autowired
+  private ReconciliationService reconciliationService;
+
+  @Autowired
+  private StockService stockService;
+
+  @Autowired
+  private StockMovementService stockMovementService;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private ReconciliationRunRepository runRepository;
+
+  @Autowired
+  private ReconciliationDiscrepancyRepository discrepancyRepository;
+
+  @Autowired
+  private MeterRegistry registry;
+
+  @MockBean
+  private PasswordEncoder passwordEncoder;
+
+  @AfterEach
+  void clean() {
+    discrepancyRepository.deleteAll();
+    runRepository.deleteAll();
+    stockMovementRepository.deleteAll();
+    stockRepository.deleteAll();
+  }
+
+  @Test
+  void unledgeredStockIsItsOwnKindAndFindingsAreCountedPerKind() throws InterruptedException {
+    // PN-1 is uploaded and later adjusted and picked through the ledger; both sides agree.
+    stockService.upsertStock(List.of(upload("PN-1", "R-1", 6)));
+    adjusted("PN-1", "R-1", 10);
+    confirmed("PN-1", "R-1", -4);
+    // PN-2 was only ever uploaded; PN-3 really disagrees with its ledger.
+    stockService.upsertStock(List.of(upload("PN-2", "R-2", 7)));
+    stockRepository.save(stock("PN-3", "R-3", 5));
+    confirmed("PN-3", "R-3", -2);
+    // Uploads leave the ledger alone.
+    assertThat(stockMovementRepository.findAll())
+        .extracting(StockMovement::getPartNumber)
+        .containsExactlyInAnyOrder("PN-1", "PN-1", "PN-3");
+
+    ReconciliationRunDto run = awaitFinished(reconciliationService.startRun("tester").getId());
+
+    assertThat(run.getStatus()).isEqualTo("COMPLETED");
+    assertThat(run.getPartsChecked()).isEqualTo(3);
+    assertThat(reconciliationService.listDiscrepancies(run.getId(), null, null, 100))
+        .extracting(ReconciliationDiscrepancyDto::getPartNumber, ReconciliationDiscrepancyDto::getKind,
+            ReconciliationDiscrepancyDto::getDifference)
+        .containsExactly(
+            tuple("PN-2", PartReconciliation.UNLEDGERED, 7L),
+            tuple("PN-3", PartReconciliation.QTY_MISMATCH, 7L),
+            tuple("PN-3", PartReconciliation.RACK_MISMATCH, 7L));
+
+    assertThat(registry.counter("godam.reconciliation.discrepancies", "kind", "UNLEDGERED").count())
+        .isEqualTo(1);
+    assertThat(registry.counter("godam.reconciliation.discrepancies", "kind", "QTY_MISMATCH").count())
+        .isEqualTo(1);
+    assertThat(registry.counter("godam.reconciliation.parts").count()).isEqualTo(3);
+    assertThat(registry.counter("godam.reconciliation.movements").count()).isEqualTo(3);
+    assertThat(registry.get("godam.reconciliation.run").tag("outcome", "completed").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("godam.reconciliation.last.discrepancies").gauge().value()).isEqualTo(3);
+    assertThat(registry.get("godam.reconciliation.active").gauge().value()).isZero();
+  }
+
+  private ReconciliationRunDto awaitFinished(Long runId) throws InterruptedException {
+    ReconciliationRunDto run = reconciliationService.getRun(runId);
+    for (int i = 0; i < 200 && "RUNNING".equals(run.getStatus()); i++) {
+      Thread.sleep(50);
+      run = reconciliationService.getRun(runId);
+    }
+    return run;
+  }
+
+  private void adjusted(String partNumber, String rack, int qty) {
+    stockMovementService.logMovement(MovementType.A101_ADJUSTMENT_INCREASE, "WH1", "SL1", partNumber, qty,
+        null, null, null, rack, null, rack, rack, qty, qty, null, null);
+  }
+
+  private void confirmed(String partNumber, String rack, int qty) {
+    stockMovementService.logMovement(MovementType.O105_CONFIRMED, "WH1", "SL1", partNumber, qty,
+        "OB-1", null, null, rack, null, rack, rack, -qty, -qty, null, null);
+  }
+
+  private static StockUploadItemDto upload(String partNumber, String rack, int qty) {
+    StockUploadItemDto item = new StockUploadItemDto();
+    item.setWarehouseNo("WH1");
+    item.setStorageLocation("SL1");
+    item.setPartNumber(partNumber);
+    item.setRack(rack);
+    item.setQty(qty);
+    return item;
+  }
+
+  private static Stock stock(String partNumber, String rack, int qty) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo("WH1");
+    stock.setStorageLocation("SL1");
+    stock.setPartNumber(partNumber);
+    stock.setRack(rack);
+    stock.setQty(qty);
+    return stock;
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
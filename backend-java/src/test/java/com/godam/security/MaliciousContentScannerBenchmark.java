@@ -0,0 +1,74 @@
+package com.godam.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compiled scanner against the regex scanner over a mix of typical upload cells and the test
+ * corpus. Each invocation scans the whole batch of cells.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaliciousContentScannerBenchmark {
+  private final MaliciousContentScanner scanner = new MaliciousContentScanner();
+  private final LegacyMaliciousContentScanner legacy = new LegacyMaliciousContentScanner();
+  private final List<String[]> cells = new ArrayList<>();
+  private final List<ColumnPolicy> policies = new ArrayList<>();
+  private final List<ColumnScanPlan> plans = new ArrayList<>();
+
+  @Setup
+  public void setUp() throws Exception {
+    for (int i = 0; i < 200; i++) {
+      addCell("part_number", "PN-" + (100000 + i * 37));
+      addCell("outbound_number", "80" + (1000000 + i));
+      addCell("customer_name", "Al Rashid Trading Co " + i);
+      addCell("description", "Copper cable 4x" + (i % 9) + " mm, drum " + i + ", deliver to site office");
+    }
+    for (String[] entry : MaliciousContentScannerTest.readCorpus()) {
+      addCell(entry[0], entry[1]);
+    }
+  }
+
+  private void addCell(String column, String value) {
+    cells.add(new String[] {column, value});
+    policies.add(ColumnPolicyRegistry.getPolicy(column));
+    plans.add(scanner.planFor(column));
+  }
+
+  @Benchmark
+  public void regexScanner(Blackhole blackhole) {
+    for (int i = 0; i < cells.size(); i++) {
+      String[] cell = cells.get(i);
+      blackhole.consume(legacy.scan(cell[0], cell[1], policies.get(i)));
+    }
+  }
+
+  @Benchmark
+  public void compiledScanner(Blackhole blackhole) {
+    for (int i = 0; i < cells.size(); i++) {
+      blackhole.consume(scanner.scan(plans.get(i), cells.get(i)[1]));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(MaliciousContentScannerBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -1,12 +1,34 @@
 package com.godam.security;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class MaliciousContentScannerTest {
+  private static final String[] COLUMNS = {
+      "part_number", "sap_pn", "rack", "vendor_name", "description", "remarks", "customer_name", "\"Rack\""
+  };
+  private static final String[] FRAGMENTS = {
+      "select", "SELECT", "from", "FROM", "drop", "table", "set", "into", "union", "alter", "truncate",
+      "update", "delete", "insert", "--", "/*", "*/", "-", "*", "/", "' or 1=1", "' OR 1=1", "<script",
+      "<ScRiPt", "javascript:", "onerror=", "onload=", "rm -rf", "curl ", "wget ", "powershell", "cmd.exe",
+      "https://maps.google.com/", "HTTPS://goo.gl/maps/", "https://maps.app.goo.gl/", "https://www.google.com/maps/",
+      "https://goo.gl/map", " ", "  ", "\t", "\n", "\r", "\u0085", "\u2028", "\u000B", "\u00A0", "_", "=", "+", "@",
+      "&", ".", "PN", "A1", "9", "'", "\u00E9", "\u0301", "\u0130", "\u212A", "\u017F", "\uD835\uDC00", "x", "K"
+  };
+
   private final MaliciousContentScanner scanner = new MaliciousContentScanner();
+  private final LegacyMaliciousContentScanner legacy = new LegacyMaliciousContentScanner();
 
   @Test
   void allowsPartNumberWithHyphen() {
@@ -31,4 +53,94 @@ class MaliciousContentScannerTest {
     ColumnPolicy policy = ColumnPolicyRegistry.getPolicy("part_number");
     assertTrue(scanner.scan("part_number", "DROP TABLE stock", policy).isMalicious());
   }
+
+  @Test
+  void corpusMatchesRegexScanner() throws IOException {
+    for (String[] entry : readCorpus()) {
+      assertSameVerdict(entry[0], entry[1]);
+      assertSameVerdict("description", entry[1]);
+      assertSameVerdict("part_number", entry[1]);
+    }
+  }
+
+  @Test
+  void randomInputsMatchRegexScanner() {
+    Random random = new Random(20240611L);
+    for (int n = 0; n < 50_000; n++) {
+      StringBuilder value = new StringBuilder();
+      int parts = 1 + random.nextInt(8);
+      for (int i = 0; i < parts; i++) {
+        value.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      assertSameVerdict(COLUMNS[random.nextInt(COLUMNS.length)], value.toString());
+    }
+  }
+
+  @Test
+  void onlyDottedCapitalIAndKelvinLowerCaseIntoAscii() {
+    // The compiled scanner relies on this to skip toLowerCase for the contains rules.
+    for (int cp = 128; cp <= Character.MAX_CODE_POINT; cp++) {
+      if (cp == 0x0130 || cp == 0x212A || !Character.isValidCodePoint(cp)) {
+        continue;
+      }
+      String lowered = new String(Character.toChars(cp)).toLowerCase(Locale.ROOT);
+      for (int i = 0; i < lowered.length(); i++) {
+        assertTrue(lowered.charAt(i) >= 128, "U+" + Integer.toHexString(cp) + " lower-cases into ASCII");
+      }
+    }
+    assertEquals("i\u0307", "\u0130".toLowerCase(Locale.ROOT));
+    assertEquals("k", "\u212A".toLowerCase(Locale.ROOT));
+  }
+
+  private void assertSameVerdict(String column, String value) {
+    ColumnPolicy policy = ColumnPolicyRegistry.getPolicy(column);
+    ScanResult expected = legacy.scan(column, value, policy);
+    ScanResult actual = scanner.scan(column, value, policy);
+    String label = column + " | " + value.replace("\n", "\\n").replace("\r", "\\r");
+    assertEquals(expected.isMalicious(), actual.isMalicious(), label);
+    assertEquals(expected.getReason(), actual.getReason(), label);
+    assertEquals(expected.getErrorType(), actual.getErrorType(), label);
+    assertEquals(expected.getErrorSeverity(), actual.getErrorSeverity(), label);
+    assertEquals(expected.getReason(), scanner.scan(scanner.planFor(column), value).getReason(), label);
+  }
+
+  static List<String[]> readCorpus() throws IOException {
+    List<String[]> entries = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        MaliciousContentScannerTest.class.getResourceAsStream("/security/scanner-corpus.txt"),
+        StandardCharsets.US_ASCII))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith("#")) {
+          continue;
+        }
+        int tab = line.indexOf('\t');
+        entries.add(new String[] {line.substring(0, tab), unescape(line.substring(tab + 1))});
+      }
+    }
+    return entries;
+  }
+
+  private static String unescape(String raw) {
+    StringBuilder out = new StringBuilder();
+    for (int i = 0; i < raw.length(); i++) {
+      char c = raw.charAt(i);
+      if (c != '\\' || i + 1 >= raw.length()) {
+        out.append(c);
+        continue;
+      }
+      char next = raw.charAt(++i);
+      switch (next) {
+        case 'n' -> out.append('\n');
+        case 'r' -> out.append('\r');
+        case 't' -> out.append('\t');
+        case 'u' -> {
+          out.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+          i += 4;
+        }
+        default -> out.append('\\').append(next);
+      }
+    }
+    return out.toString();
+  }
 }
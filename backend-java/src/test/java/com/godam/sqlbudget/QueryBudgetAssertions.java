@@ -0,0 +1,52 @@
+package com.godam.sqlbudget;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.function.Executable;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Statement budgets for tests. Needs {@link QueryBudgetConfig} in the test context; wrap a service
+ * call or a {@code mockMvc.perform(...)} to pin the number of statements an endpoint may issue.
+ */
+public final class QueryBudgetAssertions {
+  private QueryBudgetAssertions() {
+  }
+
+  public static QueryBudget.Scope assertMaxStatements(int maxStatements, Executable action)
+      throws Throwable {
+    QueryBudget.Scope scope = run(action);
+    if (scope.getStatementCount() > maxStatements) {
+      throw new AssertionFailedError("Expected at most " + maxStatements + " statements but "
+          + scope.getStatementCount() + " ran:\n" + describe(scope));
+    }
+    return scope;
+  }
+
+  /** Fails when any single statement runs more than {@code maxRepeats} times, the N+1 shape. */
+  public static QueryBudget.Scope assertMaxRepeats(int maxRepeats, Executable action)
+      throws Throwable {
+    QueryBudget.Scope scope = run(action);
+    Map.Entry<String, Integer> repeated = scope.getMostRepeated();
+    if (repeated != null && repeated.getValue() > maxRepeats) {
+      throw new AssertionFailedError("Expected no statement to run more than " + maxRepeats
+          + " times but it ran " + repeated.getValue() + " times:\n" + describe(scope));
+    }
+    return scope;
+  }
+
+  private static QueryBudget.Scope run(Executable action) throws Throwable {
+    try (QueryBudget.Scope scope = QueryBudget.open()) {
+      action.execute();
+      return scope;
+    }
+  }
+
+  private static String describe(QueryBudget.Scope scope) {
+    return scope.getFingerprintCounts().entrySet().stream()
+        .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+        .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+        .collect(Collectors.joining("\n"));
+  }
+}
@@ -0,0 +1,91 @@
+package com.godam.sqlbudget;
+
+import static com.godam.sqlbudget.QueryBudgetAssertions.assertMaxRepeats;
+import static com.godam.sqlbudget.QueryBudgetAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.repository.StockRepository;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({QueryBudgetConfig.class, MovementLedgerWindow.class})
+class QueryBudgetTest {
+  private static final int ROWS = 20;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Test
+  void fingerprintCollapsesLiteralsAndBindLists() {
+    assertThat(QueryBudget.fingerprint(
+        "select s1_0.id from stock s1_0\n where s1_0.part_number = 'PN-1' and s1_0.qty > 10"))
+        .isEqualTo("select s1_0.id from stock s1_0 where s1_0.part_number = ? and s1_0.qty > ?");
+    assertThat(QueryBudget.fingerprint("select * from stock where id in (?, ?,?)"))
+        .isEqualTo(QueryBudget.fingerprint("select * from stock where id in (?)"));
+  }
+
+  @Test
+  void detectsPerRowLookupsAndAcceptsBatchedOnes() throws Throwable {
+    List<Long> ids = new ArrayList<>();
+    for (Stock stock : stockRepository.saveAll(stockRows())) {
+      ids.add(stock.getId());
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThatThrownBy(() -> assertMaxRepeats(3, () -> ids.forEach(stockRepository::findById)))
+        .isInstanceOf(AssertionError.class)
+        .hasMessageContaining(ROWS + "x select");
+    entityManager.clear();
+
+    QueryBudget.Scope scope = assertMaxStatements(1, () -> stockRepository.findAllById(ids));
+    assertThat(scope.getStatementCount()).isEqualTo(1);
+    assertThat(scope.getJdbcNanos()).isPositive();
+  }
+
+  @Test
+  void nestedScopesRollUpIntoTheirParent() {
+    try (QueryBudget.Scope outer = QueryBudget.open()) {
+      try (QueryBudget.Scope inner = QueryBudget.open()) {
+        stockRepository.count();
+        assertThat(inner.getStatementCount()).isEqualTo(1);
+      }
+      stockRepository.count();
+      assertThat(outer.getStatementCount()).isEqualTo(2);
+      assertThat(outer.getMostRepeated().getValue()).isEqualTo(2);
+    }
+  }
+
+  private List<Stock> stockRows() {
+    List<Stock> rows = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      Stock stock = new Stock();
+      stock.setWarehouseNo("W1");
+      stock.setStorageLocation("SL");
+      stock.setPartNumber("PN-" + i);
+      stock.setSapPn("SAP-" + i);
+      stock.setUom("EA");
+      stock.setQty(1);
+      stock.setCreatedAt(Instant.now());
+      rows.add(stock);
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,66 @@
+package com.godam.stock.allocation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Allocation latency over warehouses with 10, 100 and 1,000 split drums. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.godam.stock.allocation.DrumAllocationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrumAllocationBenchmark {
+  @Param({"10", "100", "1000"})
+  public int drums;
+
+  @Param({"0", "25"})
+  public int fifoSlack;
+
+  private final DrumAllocationEngine engine = new DrumAllocationEngine();
+  private List<DrumCandidate> candidates;
+  private int requiredQty;
+  private DrumAllocationOptions options;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    candidates = new ArrayList<>(drums);
+    long total = 0;
+    for (int i = 0; i < drums; i++) {
+      int qty = 50 + random.nextInt(20) * 25;
+      candidates.add(new DrumCandidate((long) i, "R" + (i % 40), "B" + (i % 7), "DQ", qty));
+      total += qty;
+    }
+    requiredQty = (int) Math.min(Integer.MAX_VALUE, total / 3 + 17);
+    options = new DrumAllocationOptions(fifoSlack, 30, Duration.ofMillis(20));
+  }
+
+  @Benchmark
+  public DrumAllocationPlan allocate() {
+    return engine.allocate(candidates, requiredQty, options);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(DrumAllocationBenchmark.class.getSimpleName()).build()).run();
+  }
+}
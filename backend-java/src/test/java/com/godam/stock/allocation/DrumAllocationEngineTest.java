@@ -0,0 +1,91 @@
+package com.godam.stock.allocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.godam.common.exception.StockValidationException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DrumAllocationEngineTest {
+  private final DrumAllocationEngine engine = new DrumAllocationEngine();
+
+  @Test
+  void prefersWholeDrumsOverCuttingTheOldestDrum() {
+    List<DrumCandidate> drums = drums(300, 120, 180, 500);
+    DrumAllocationPlan plan = engine.allocate(drums, 300, new DrumAllocationOptions(2, 0, null));
+
+    // Greedy FIFO would take the whole first drum; an exact single drum stays exact.
+    assertThat(plan.getCutCount()).isZero();
+    assertThat(takes(plan)).containsExactly(0L);
+
+    plan = engine.allocate(drums, 420, new DrumAllocationOptions(2, 0, null));
+    assertThat(plan.getCutCount()).isZero();
+    assertThat(plan.isOptimal()).isTrue();
+    assertThat(takes(plan)).containsExactly(0L, 1L);
+    assertThat(sum(plan)).isEqualTo(420);
+  }
+
+  @Test
+  void avoidsShortRemnantsWhenACutIsUnavoidable() {
+    List<DrumCandidate> drums = drums(210, 400, 90);
+    DrumAllocationPlan plan = engine.allocate(drums, 200, new DrumAllocationOptions(2, 50, null));
+
+    // Cutting 200 from the 210 drum leaves a useless 10m offcut; the 400 drum leaves 200.
+    assertThat(plan.getCutCount()).isEqualTo(1);
+    assertThat(plan.getWasteQty()).isZero();
+    assertThat(plan.getAssignments()).hasSize(1);
+    assertThat(plan.getAssignments().get(0).getDrum().getStockId()).isEqualTo(1L);
+    assertThat(plan.getAssignments().get(0).getLeftoverQty()).isEqualTo(200);
+  }
+
+  @Test
+  void respectsFifoWindow() {
+    List<DrumCandidate> drums = drums(100, 100, 70, 30);
+    DrumAllocationPlan plan = engine.allocate(drums, 130, new DrumAllocationOptions(0, 0, null));
+
+    // Without slack only the first two drums may be touched.
+    assertThat(takes(plan)).containsExactly(0L, 1L);
+    assertThat(plan.getCutCount()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectsShortage() {
+    assertThatThrownBy(() -> engine.allocate(drums(10, 20), 31, DrumAllocationOptions.defaults()))
+        .isInstanceOf(StockValidationException.class);
+  }
+
+  @Test
+  void largeWindowStaysWithinBudgetAndCoversRequirement() {
+    List<Integer> qtys = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      qtys.add(50 + (i * 37 % 20) * 25);
+    }
+    List<DrumCandidate> drums = drums(qtys.stream().mapToInt(Integer::intValue).toArray());
+    long started = System.nanoTime();
+    DrumAllocationPlan plan = engine.allocate(drums, 100_017, new DrumAllocationOptions(1000, 30, Duration.ofMillis(20)));
+    long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+    assertThat(sum(plan)).isEqualTo(100_017);
+    assertThat(plan.getCutCount()).isLessThanOrEqualTo(1);
+    assertThat(elapsedMs).isLessThan(1000);
+  }
+
+  private static List<DrumCandidate> drums(int... qtys) {
+    List<DrumCandidate> drums = new ArrayList<>();
+    for (int i = 0; i < qtys.length; i++) {
+      drums.add(new DrumCandidate((long) i, "R1", "B1", "DQ", qtys[i]));
+    }
+    return drums;
+  }
+
+  private static List<Long> takes(DrumAllocationPlan plan) {
+    return plan.getAssignments().stream().map(a -> a.getDrum().getStockId()).toList();
+  }
+
+  private static int sum(DrumAllocationPlan plan) {
+    return plan.getAssignments().stream().mapToInt(DrumAssignment::getTakeQty).sum();
+  }
+}
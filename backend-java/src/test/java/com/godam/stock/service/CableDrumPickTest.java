@@ -0,0 +1,148 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.godam.common.exception.StockValidationException;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.movements.service.MovementWriteBuffer;
+import com.godam.movements.service.StockMovementService;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.allocation.DrumAllocationEngine;
+import com.godam.stock.dto.DrumAllocationRequest;
+import com.godam.stock.dto.DrumAllocationResponse;
+import com.godam.stock.dto.StockPickContext;
+import com.godam.stock.repository.StockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    StockService.class,
+    StockDeductionEngine.class,
+    DrumAllocationEngine.class,
+    PartHierarchyCache.class,
+    StockChangeListener.class,
+    StockMovementService.class,
+    MovementWriteBuffer.class,
+    MovementLedgerWindow.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class,
+    CableDrumPickTest.Metrics.class
+})
+class CableDrumPickTest {
+  private static final String CABLE = "CBL-1";
+
+  @Autowired
+  private StockService stockService;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @MockBean
+  private PasswordEncoder passwordEncoder;
+
+  @BeforeEach
+  void seed() {
+    // Cutting 200 from the oldest 210m drum leaves a 10m offcut, so the engine cuts R-02 instead.
+    stockRepository.save(drum("R-01", 210, Instant.parse("2026-01-01T00:00:00Z")));
+    stockRepository.save(drum("R-02", 400, Instant.parse("2026-02-01T00:00:00Z")));
+    stockRepository.save(drum("R-03", 90, Instant.parse("2026-03-01T00:00:00Z")));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void anAllocatedDrumPassesThePickChecks() {
+    DrumAllocationResponse plan = stockService.allocateCable(request(200));
+    assertThat(plan.getLines()).hasSize(1);
+    DrumAllocationResponse.Line line = plan.getLines().get(0);
+    assertThat(line.getRack()).isEqualTo("R-02");
+
+    StockPickContext context = stockService.preparePickContext("WH1", CABLE, line.getTakeQty(), line.getRack());
+
+    assertThat(context.getSuggestedRack()).isEqualTo("R-01");
+    assertThat(context.getActualRack()).isEqualTo("R-02");
+    assertThat(context.getReference()).isEqualTo("DQ:R-02");
+
+    stockService.applyConfirmedDeduction("WH1", CABLE, line.getTakeQty(), line.getRack());
+    entityManager.flush();
+    entityManager.clear();
+    assertThat(stockRepository.findByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", CABLE))
+        .extracting(Stock::getQty)
+        .containsExactly(210, 200, 90);
+  }
+
+  @Test
+  void aRackWithoutADrumOfThePartIsStillAFifoViolation() {
+    assertThatThrownBy(() -> stockService.preparePickContext("WH1", CABLE, 50, "R-09"))
+        .isInstanceOf(StockValidationException.class)
+        .hasMessageContaining("FIFO violation for part " + CABLE + ": expected rack R-01");
+  }
+
+  @Test
+  void aDrumOutsideTheFifoWindowIsStillAFifoViolation() {
+    // For 200 the window is R-01 plus three slack drums (R-02, R-03, R-04); R-05 lies beyond it.
+    stockRepository.save(drum("R-04", 100, Instant.parse("2026-04-01T00:00:00Z")));
+    stockRepository.save(drum("R-05", 300, Instant.parse("2026-05-01T00:00:00Z")));
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThatThrownBy(() -> stockService.preparePickContext("WH1", CABLE, 200, "R-05"))
+        .isInstanceOf(StockValidationException.class)
+        .hasMessageContaining("FIFO violation for part " + CABLE + ": expected rack R-01");
+    // R-03 is in the window but too short to cover the pick.
+    assertThatThrownBy(() -> stockService.preparePickContext("WH1", CABLE, 200, "R-03"))
+        .isInstanceOf(StockValidationException.class)
+        .hasMessageContaining("FIFO violation for part " + CABLE + ": expected rack R-01");
+  }
+
+  private static DrumAllocationRequest request(int requiredQty) {
+    DrumAllocationRequest request = new DrumAllocationRequest();
+    request.setWarehouseNo("WH1");
+    request.setPartNumber(CABLE);
+    request.setRequiredQty(requiredQty);
+    request.setMinRemnantQty(50);
+    return request;
+  }
+
+  private static Stock drum(String rack, int qty, Instant createdAt) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo("WH1");
+    stock.setPartNumber(CABLE);
+    stock.setRack(rack);
+    stock.setQty(qty);
+    stock.setCreatedAt(createdAt);
+    stock.setPnIndicator("DQ");
+    return stock;
+  }
+
+  @TestConfiguration
+  static class Metrics {
+    @Bean
+    MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.repository.StockRepository;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({MovementLedgerWindow.class, StockChangeListener.class, PartHierarchyCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PartHierarchyCacheTest {
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private PartHierarchyCache cache;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+
+  @BeforeEach
+  void seed() {
+    tx = new TransactionTemplate(transactionManager);
+    tx.executeWithoutResult(status -> {
+      stockRepository.save(stock("WH1", "PARENT", null, "P", 5));
+      stockRepository.save(stock("WH1", "CHILD-A", "PARENT", "C", 2));
+      stockRepository.save(stock("WH2", "PARENT", null, "P", 3));
+      stockRepository.save(stock("WH2", "CHILD-A", "PARENT", "C", 3));
+    });
+    cache.clear();
+  }
+
+  @AfterEach
+  void clean() {
+    tx.executeWithoutResult(status -> stockRepository.deleteAll());
+    cache.clear();
+  }
+
+  @Test
+  void warehouseSegmentsSeeOnlyTheirOwnRows() {
+    assertThat(cache.parentTotals("PARENT").getCalculatedQty()).isEqualTo(5);
+    assertThat(cache.parentTotals("WH1", "PARENT").getCalculatedQty()).isEqualTo(2);
+    assertThat(cache.parentTotals("WH1", "PARENT").getParentQty()).isEqualTo(5);
+    assertThat(cache.parentTotals("WH2", "PARENT").getCalculatedQty()).isEqualTo(3);
+    assertThat(cache.resolveMainPartNumber("WH2", "CHILD-A")).isEqualTo("PARENT");
+    assertThat(cache.resolveMainPartNumber("WH3", "CHILD-A")).isEqualTo("CHILD-A");
+    assertThat(cache.size()).isEqualTo(5);
+  }
+
+  @Test
+  void committedMoveBetweenWarehousesUpdatesBothSegments() {
+    assertThat(cache.parentTotals("WH1", "PARENT").getCalculatedQty()).isEqualTo(2);
+    assertThat(cache.parentTotals("WH2", "PARENT").getCalculatedQty()).isEqualTo(3);
+    long misses = cache.getMisses();
+
+    tx.executeWithoutResult(status -> {
+      Stock child = stockRepository.findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", "CHILD-A")
+          .orElseThrow();
+      child.setWarehouseNo("WH2");
+      stockRepository.save(child);
+    });
+
+    assertThat(cache.parentTotals("WH1", "PARENT").hasChildren()).isFalse();
+    assertThat(cache.parentTotals("WH2", "PARENT").getCalculatedQty()).isEqualTo(5);
+    assertThat(cache.getMisses()).isEqualTo(misses);
+  }
+
+  private static Stock stock(String warehouse, String partNumber, String parentPn, String indicator, int qty) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo(warehouse);
+    stock.setPartNumber(partNumber);
+    stock.setParentPn(parentPn);
+    stock.setPnIndicator(indicator);
+    stock.setQty(qty);
+    stock.setCreatedAt(Instant.now());
+    return stock;
+  }
+}
@@ -0,0 +1,162 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.dto.LocationOccupancyDto;
+import com.godam.stock.dto.SlottingSuggestionDto;
+import com.godam.stock.dto.StorageLocationRequest;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.repository.StorageLocationRepository;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+    "godam.stock.slotting.warm-up=false",
+    "godam.stock.slotting.default-bin-capacity=100"
+})
+@Import({MovementLedgerWindow.class, StockChangeListener.class, RackOccupancyIndex.class, SlottingService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SlottingServiceTest {
+  private static final Instant OLDEST = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Autowired
+  private SlottingService slottingService;
+
+  @Autowired
+  private RackOccupancyIndex occupancyIndex;
+
+  @Autowired
+  private StockChangeListener stockChangeListener;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StorageLocationRepository storageLocationRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+
+  @BeforeEach
+  void seed() {
+    tx = new TransactionTemplate(transactionManager);
+    tx.executeWithoutResult(status -> {
+      stockRepository.save(stock("PN-A", "R-01", "B-01", 40, OLDEST));
+      stockRepository.save(stock("PN-X", "R-01", "B-02", 50, OLDEST));
+      stockRepository.save(stock("PN-A", "R-02", "B-01", 10, OLDEST.plusSeconds(60)));
+      stockRepository.save(stock("PN-Y", "R-03", "B-01", 10, OLDEST));
+    });
+    slottingService.register(List.of(location("R-01", "B-03", null), location("R-04", "B-01", null)));
+    occupancyIndex.rebuild();
+  }
+
+  @AfterEach
+  void clean() {
+    tx.executeWithoutResult(status -> {
+      stockRepository.deleteAll();
+      storageLocationRepository.deleteAll();
+    });
+    occupancyIndex.rebuild();
+  }
+
+  @Test
+  void suggestsTheFifoLotsAndTheirNeighboursBeforeBalancingRacks() {
+    List<SlottingSuggestionDto> suggestions = slottingService.suggest("WH1", "PN-A", 20, null);
+
+    // R-02 is the emptier rack, so its newer lot comes first; R-01/B-02 holds another family.
+    assertThat(suggestions)
+        .extracting(SlottingSuggestionDto::getRack, SlottingSuggestionDto::getBin, SlottingSuggestionDto::getReason)
+        .containsExactly(
+            tuple("R-02", "B-01", SlottingService.REASON_SAME_PART),
+            tuple("R-01", "B-01", SlottingService.REASON_SAME_PART),
+            tuple("R-01", "B-03", SlottingService.REASON_SAME_RACK),
+            tuple("R-04", "B-01", SlottingService.REASON_NEARBY));
+
+    assertThat(slottingService.suggest("WH1", "PN-NEW", 20, null))
+        .extracting(SlottingSuggestionDto::getRack, SlottingSuggestionDto::getReason)
+        .containsExactly(
+            tuple("R-04", SlottingService.REASON_BALANCE),
+            tuple("R-01", SlottingService.REASON_BALANCE));
+  }
+
+  @Test
+  void followsCommittedWritesBulkUpdatesAndCapacityChanges() throws InterruptedException {
+    Stock lot = tx.execute(status -> stockRepository.save(stock("PN-Z", "R-04", "B-01", 30, Instant.now())));
+
+    assertThat(slottingService.occupancy("WH1", "r-04"))
+        .extracting(LocationOccupancyDto::getQty, LocationOccupancyDto::getLots, LocationOccupancyDto::getFamilies)
+        .containsExactly(tuple(30L, 1, List.of("PN-Z")));
+
+    slottingService.register(List.of(location("R-04", "B-01", 40)));
+    assertThat(slottingService.suggest("WH1", "PN-Z", 20, null))
+        .extracting(SlottingSuggestionDto::getRack)
+        .doesNotContain("R-04");
+
+    tx.executeWithoutResult(status -> {
+      jdbcTemplate.update("update stock set qty = qty - 25 where id = ?", lot.getId());
+      stockChangeListener.invalidate(List.of(RowState.touched(lot.getId(), lot.getPartNumber(), null)));
+    });
+
+    LocationOccupancyDto refreshed = awaitQty("R-04", 5);
+    assertThat(refreshed.getCapacityQty()).isEqualTo(40);
+    assertThat(slottingService.suggest("WH1", "PN-Z", 20, 1))
+        .extracting(SlottingSuggestionDto::getRack, SlottingSuggestionDto::getReason)
+        .containsExactly(tuple("R-04", SlottingService.REASON_SAME_PART));
+  }
+
+  private LocationOccupancyDto awaitQty(String rack, long qty) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    LocationOccupancyDto location = slottingService.occupancy("WH1", rack).get(0);
+    while (location.getQty() != qty && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+      location = slottingService.occupancy("WH1", rack).get(0);
+    }
+    assertThat(location.getQty()).isEqualTo(qty);
+    return location;
+  }
+
+  private static Stock stock(String partNumber, String rack, String bin, int qty, Instant createdAt) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo("WH1");
+    stock.setPartNumber(partNumber);
+    stock.setRack(rack);
+    stock.setBin(bin);
+    stock.setQty(qty);
+    stock.setCreatedAt(createdAt);
+    return stock;
+  }
+
+  private static StorageLocationRequest location(String rack, String bin, Integer capacity) {
+    StorageLocationRequest request = new StorageLocationRequest();
+    request.setWarehouseNo("WH1");
+    request.setRack(rack);
+    request.setBin(bin);
+    request.setCapacityQty(capacity);
+    return request;
+  }
+}
@@ -0,0 +1,168 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    MovementLedgerWindow.class,
+    StockChangeListener.class,
+    StockDeductionEngine.class,
+    SimpleMeterRegistry.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockDeductionEngineStressTest {
+  private static final Logger log = LoggerFactory.getLogger(StockDeductionEngineStressTest.class);
+  private static final String PART = "STRESS-PN";
+  private static final int ROWS = 3;
+  private static final int QTY_PER_ROW = 200;
+  private static final int THREADS = 8;
+  private static final int REQUESTS_PER_THREAD = 60;
+
+  @Autowired
+  private StockDeductionEngine engine;
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @AfterEach
+  void cleanUp() {
+    stockRepository.deleteAll(stockRepository.findByPartNumberOrderByCreatedAtAsc(PART));
+  }
+
+  @Test
+  void concurrentDeductionsNeverLoseUpdatesOrGoNegative() throws Exception {
+    seedRows();
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+    AtomicInteger deducted = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    List<Future<?>> workers = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      workers.add(pool.submit(() -> {
+        start.await();
+        for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+          int qty = ThreadLocalRandom.current().nextInt(1, 4);
+          try {
+            tx.executeWithoutResult(status -> {
+              if (engine.deduct("WH1", PART, qty, null) > 0) {
+                // Same as the services: a shortfall rolls back whatever was deducted.
+                throw new IllegalStateException("short");
+              }
+            });
+            deducted.addAndGet(qty);
+          } catch (IllegalStateException ex) {
+            rejected.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+
+    long started = System.nanoTime();
+    start.countDown();
+    for (Future<?> worker : workers) {
+      worker.get(60, TimeUnit.SECONDS);
+    }
+    long elapsedNanos = System.nanoTime() - started;
+    pool.shutdown();
+
+    List<Stock> rows = stockRepository.findByPartNumberOrderByCreatedAtAsc(PART);
+    int left = rows.stream().mapToInt(Stock::getQty).sum();
+    assertThat(rows).allSatisfy(row -> assertThat(row.getQty()).isNotNegative());
+    assertThat(deducted.get() + left).isEqualTo(ROWS * QTY_PER_ROW);
+    assertThat(deducted.get() + rejected.get()).isPositive();
+    double perSecond = THREADS * REQUESTS_PER_THREAD / (elapsedNanos / 1e9);
+    assertThat(perSecond).isPositive();
+    log.info("Stock deduction stress: {} requests, {} rejected, {} req/s",
+        THREADS * REQUESTS_PER_THREAD, rejected.get(), Math.round(perSecond));
+  }
+
+  @Test
+  void rackDeductionUsesOneRowAndFifoSpillsAcrossRows() {
+    seedRows();
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+    Integer rackShortfall = tx.execute(status -> engine.deduct("WH1", PART, QTY_PER_ROW + 5, "R-2"));
+    Integer fifoShortfall = tx.execute(status -> engine.deduct("WH1", PART, QTY_PER_ROW + 5, null));
+
+    List<Stock> rows = stockRepository.findByPartNumberOrderByCreatedAtAsc(PART);
+    assertThat(rackShortfall).isEqualTo(5);
+    assertThat(fifoShortfall).isZero();
+    assertThat(rows).extracting(Stock::getQty).containsExactly(0, 0, QTY_PER_ROW - 5);
+  }
+
+  @Test
+  void deductionStaysInsideItsWarehouseWhenRackNamesRepeat() {
+    seedRows();
+    Stock otherSite = new Stock();
+    otherSite.setWarehouseNo("WH2");
+    otherSite.setPartNumber(PART);
+    otherSite.setRack("R-1");
+    otherSite.setQty(QTY_PER_ROW);
+    otherSite.setCreatedAt(Instant.parse("2023-01-01T00:00:00Z"));
+    stockRepository.save(otherSite);
+    TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+    Integer shortfall = tx.execute(status -> engine.deduct("WH1", PART, 50, "R-1"));
+
+    assertThat(shortfall).isZero();
+    assertThat(stockRepository.findByPartNumberOrderByCreatedAtAsc(PART))
+        .extracting(Stock::getWarehouseNo, Stock::getRack, Stock::getQty)
+        .containsExactly(
+            tuple("WH2", "R-1", QTY_PER_ROW),
+            tuple("WH1", "R-1", QTY_PER_ROW - 50),
+            tuple("WH1", "R-2", QTY_PER_ROW),
+            tuple("WH1", "R-3", QTY_PER_ROW));
+  }
+
+  private void seedRows() {
+    Instant base = Instant.parse("2024-01-01T00:00:00Z");
+    List<Stock> rows = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      Stock row = new Stock();
+      row.setWarehouseNo("WH1");
+      row.setPartNumber(PART);
+      row.setRack("R-" + (i + 1));
+      row.setQty(QTY_PER_ROW);
+      row.setCreatedAt(base.plusSeconds(i));
+      rows.add(row);
+    }
+    stockRepository.saveAll(rows);
+  }
+}
@@ -0,0 +1,102 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.dto.StockListFilter;
+import com.godam.stock.repository.StockRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+    "godam.stock.export.xlsx-window=2"
+})
+@Import({MovementLedgerWindow.class, StockChangeListener.class, StockExportService.class})
+class StockExportServiceTest {
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockExportService exportService;
+
+  @BeforeEach
+  void seed() {
+    for (int i = 0; i < 7; i++) {
+      stockRepository.save(stock("WH1", "PN-" + i, i % 2 == 0 ? "CABLE" : "PANEL", 10 + i));
+    }
+    stockRepository.save(stock("WH2", "PN-0", "CABLE", 99));
+    Stock risky = stock("WH2", "=HYPERLINK(\"x\")", "PANEL", 1);
+    risky.setDescription("Panel, 3 \"phase\"");
+    stockRepository.saveAndFlush(risky);
+  }
+
+  @Test
+  void pagesFilterAndSortInTheDatabase() {
+    Page<Stock> page = stockRepository.findPage(
+        "WH1", null, "CABLE", null, null, null,
+        PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "qty").and(Sort.by("id"))));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getTotalPages()).isEqualTo(2);
+    assertThat(page.getContent()).extracting(Stock::getPartNumber).containsExactly("PN-2", "PN-0");
+  }
+
+  @Test
+  void csvStreamsFilteredRowsAndNeutralisesFormulas() throws Exception {
+    StockListFilter filter = new StockListFilter();
+    filter.setWarehouseNo(" WH2 ");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    exportService.writeCsv(filter, out);
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(0)).startsWith("\uFEFFWarehouse,");
+    assertThat(lines.get(1))
+        .startsWith("WH2,,\"'=HYPERLINK(\"\"x\"\")\",,\"Panel, 3 \"\"phase\"\"\",")
+        .contains(",1,");
+    assertThat(lines.get(2)).startsWith("WH2,,PN-0,").contains(",99,");
+  }
+
+  @Test
+  void xlsxWritesEveryRowThroughTheStreamingWindow() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    exportService.writeXlsx(new StockListFilter(), out);
+
+    try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+      Sheet sheet = workbook.getSheet("Stock");
+      assertThat(sheet.getLastRowNum()).isEqualTo(9);
+      assertThat(sheet.getRow(1).getCell(2).getStringCellValue()).isEqualTo("PN-0");
+      assertThat(sheet.getRow(1).getCell(9).getNumericCellValue()).isEqualTo(10.0);
+    }
+  }
+
+  private static Stock stock(String warehouse, String partNumber, String category, int qty) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo(warehouse);
+    stock.setPartNumber(partNumber);
+    stock.setCategory(category);
+    stock.setQty(qty);
+    stock.setCreatedAt(Instant.now());
+    return stock;
+  }
+}
@@ -0,0 +1,142 @@
+package com.godam.stock.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.movements.MovementType;
+import com.godam.movements.ParkedQtyListener;
+import com.godam.movements.StockMovement;
+import com.godam.movements.repository.StockMovementRepository;
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.stock.Stock;
+import com.godam.stock.StockChangeListener;
+import com.godam.stock.dto.StockSummaryDto;
+import com.godam.stock.repository.StockRepository;
+import com.godam.stock.service.PartHierarchyCache.RowState;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+    "godam.stock.summary.shards=2"
+})
+@Import({MovementLedgerWindow.class, StockChangeListener.class, ParkedQtyListener.class, StockSummaryIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockSummaryIndexTest {
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockMovementRepository stockMovementRepository;
+
+  @Autowired
+  private StockChangeListener stockChangeListener;
+
+  @Autowired
+  private StockSummaryIndex summaryIndex;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private TransactionTemplate tx;
+
+  @BeforeEach
+  void seed() {
+    tx = new TransactionTemplate(transactionManager);
+    tx.executeWithoutResult(status -> {
+      stockRepository.save(stock("WH1", "PN-1", "CABLE", "ACME", 10));
+      stockRepository.save(stock("WH1", "PN-1", "CABLE", "ACME", 5));
+      stockRepository.save(stock("WH1", "PN-2", "CABLE", "ACME", 0));
+      stockRepository.save(stock("WH1", "PN-3", "PANEL", "VOLT", 7));
+      stockRepository.save(stock("WH2", "PN-1", "CABLE", "ACME", 4));
+      stockMovementRepository.save(movement(MovementType.O103_PICKED, "WH1", "PN-1", 3));
+      stockMovementRepository.save(movement(MovementType.A101_ADJUSTMENT_INCREASE, "WH1", "PN-1", 50));
+    });
+    summaryIndex.rebuild();
+  }
+
+  @AfterEach
+  void clean() {
+    tx.executeWithoutResult(status -> {
+      stockMovementRepository.deleteAll();
+      stockRepository.deleteAll();
+    });
+  }
+
+  @Test
+  void rebuildGroupsDistinctPartsQtyZeroStockAndParked() {
+    List<StockSummaryDto> byCategory = summaryIndex.summarize("WH1", null, null, "warehouse,category");
+
+    assertThat(byCategory).extracting(StockSummaryDto::getCategory).containsExactly("CABLE", "PANEL");
+    StockSummaryDto cable = byCategory.get(0);
+    assertThat(cable.getTotalParts()).isEqualTo(2);
+    assertThat(cable.getTotalQty()).isEqualTo(15);
+    assertThat(cable.getZeroStockParts()).isEqualTo(1);
+    assertThat(cable.getParkedQty()).isEqualTo(3);
+
+    StockSummaryDto total = summaryIndex.summarize(null, null, null, "none").get(0);
+    assertThat(total.getTotalParts()).isEqualTo(4);
+    assertThat(total.getTotalQty()).isEqualTo(26);
+  }
+
+  @Test
+  void committedWritesKeepTotalsEqualToARebuild() {
+    tx.executeWithoutResult(status -> {
+      Stock pn3 = stockRepository.findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH1", "PN-3").orElseThrow();
+      pn3.setQty(0);
+      stockRepository.save(pn3);
+      stockRepository.save(stock("WH2", "PN-9", "PANEL", "VOLT", 12));
+      stockMovementRepository.save(movement(MovementType.O104_CHECKED, "WH1", "PN-1", 2));
+    });
+    tx.executeWithoutResult(status -> {
+      Stock pn1 = stockRepository.findFirstByWarehouseNoAndPartNumberOrderByCreatedAtAsc("WH2", "PN-1").orElseThrow();
+      stockRepository.decrementQtyIfAvailable(pn1.getId(), 4);
+      stockChangeListener.invalidate(List.of(RowState.touched(pn1.getId(), pn1.getPartNumber(), null)));
+    });
+    tx.executeWithoutResult(status -> {
+      stockRepository.save(stock("WH1", "PN-7", "CABLE", "ACME", 100));
+      status.setRollbackOnly();
+    });
+
+    List<StockSummaryDto> incremental = summaryIndex.summarize(null, null, null, "warehouse");
+    assertThat(incremental.get(0).getZeroStockParts()).isEqualTo(2);
+    assertThat(incremental.get(0).getParkedQty()).isEqualTo(5);
+    assertThat(incremental.get(1).getTotalQty()).isEqualTo(12);
+    assertThat(incremental.get(1).getZeroStockParts()).isEqualTo(1);
+
+    List<StockSummaryDto> rebuilt = summaryIndex.rebuild();
+    assertThat(rebuilt).usingRecursiveFieldByFieldElementComparator().isEqualTo(incremental);
+  }
+
+  private static Stock stock(String warehouse, String partNumber, String category, String vendor, int qty) {
+    Stock stock = new Stock();
+    stock.setWarehouseNo(warehouse);
+    stock.setPartNumber(partNumber);
+    stock.setCategory(category);
+    stock.setVendorName(vendor);
+    stock.setQty(qty);
+    stock.setCreatedAt(Instant.now());
+    return stock;
+  }
+
+  private static StockMovement movement(MovementType type, String warehouse, String partNumber, int qty) {
+    StockMovement movement = new StockMovement();
+    movement.setMovementType(type);
+    movement.setWarehouseNo(warehouse);
+    movement.setPartNumber(partNumber);
+    movement.setQtyChange(qty);
+    movement.setCreatedAt(Instant.now());
+    return movement;
+  }
+}
@@ -0,0 +1,154 @@
+package com.godam.stock.upload;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.godam.movements.service.MovementLedgerWindow;
+import com.godam.security.MaliciousContentScanner;
+import com.godam.security.UploadValidationPipeline;
+import com.godam.stock.Stock;
+import com.godam.stock.repository.StockRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "logging.level.org.hibernate.SQL=INFO",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@Import({
+    MovementLedgerWindow.class,
+    StockExcelParser.class,
+    StockErrorExcelWriter.class,
+    UploadValidationPipeline.class,
+    MaliciousContentScanner.class
+})
+class StockUploadValidatorServiceTest {
+  private static final int ROWS = 1500;
+  private static final List<String> HEADERS = List.of(
+      "warehouse_no", "storage_location", "part_number", "sap_pn", "qty", "uom", "combine_rack");
+
+  @Autowired
+  private StockRepository stockRepository;
+
+  @Autowired
+  private StockExcelParser parser;
+
+  @Autowired
+  private StockErrorExcelWriter errorWriter;
+
+  @Autowired
+  private UploadValidationPipeline uploadValidationPipeline;
+
+  @Test
+  void parallelValidationMatchesSequentialOnTheSameSheet() throws IOException {
+    for (int i = 71; i <= ROWS; i += 71) {
+      Stock existing = new Stock();
+      existing.setWarehouseNo("WH1");
+      existing.setPartNumber("PN-" + i);
+      existing.setQty(5);
+      stockRepository.save(existing);
+    }
+    MockMultipartFile sheet = sheet();
+
+    StockUploadValidatorService sequential = service(ROWS + 1);
+    StockUploadValidatorService parallel = service(1000);
+    StockUploadContext below;
+    StockUploadContext above;
+    try {
+      below = sequential.validate(sheet);
+      above = parallel.validate(sheet);
+    } finally {
+      sequential.shutdown();
+      parallel.shutdown();
+    }
+
+    assertThat(below.getInvalidRows()).isNotEmpty();
+    assertThat(below.getDuplicates()).isNotEmpty();
+    assertThat(errors(above)).containsExactlyElementsOf(errors(below));
+    assertThat(errors(below)).isSortedAccordingTo((a, b) ->
+        Integer.compare(Integer.parseInt(a.split("\\|")[0]), Integer.parseInt(b.split("\\|")[0])));
+    assertThat(duplicates(above)).containsExactlyElementsOf(duplicates(below));
+    assertThat(valid(above)).containsExactlyElementsOf(valid(below));
+    assertThat(errorFile(above)).containsExactlyElementsOf(errorFile(below));
+  }
+
+  private StockUploadValidatorService service(int parallelThreshold) {
+    return new StockUploadValidatorService(
+        stockRepository, parser, errorWriter, uploadValidationPipeline, 4, parallelThreshold, 64);
+  }
+
+  // Every kind of finding, spread over the sheet so it lands in many different chunks.
+  private static MockMultipartFile sheet() throws IOException {
+    try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+      Sheet sheet = workbook.createSheet("Stock");
+      Row header = sheet.createRow(0);
+      for (int col = 0; col < HEADERS.size(); col++) {
+        header.createCell(col).setCellValue(HEADERS.get(col));
+      }
+      for (int i = 1; i <= ROWS; i++) {
+        String partNumber = i % 50 == 0 ? "PN-" + (i - 1) : i % 83 == 0 ? "' OR 1=1" : "PN-" + i;
+        String sapPn = i % 89 == 0 ? "" : "SAP-" + i;
+        String qty = i % 97 == 0 ? "abc" : i % 61 == 0 ? "-3" : String.valueOf(i % 20 + 1);
+        List<String> values = List.of("WH1", "SL1", partNumber, sapPn, qty, "EA", "CR-" + (i % 7));
+        Row row = sheet.createRow(i);
+        for (int col = 0; col < values.size(); col++) {
+          row.createCell(col).setCellValue(values.get(col));
+        }
+      }
+      workbook.write(out);
+      return new MockMultipartFile("file", "stock.xlsx", null, out.toByteArray());
+    }
+  }
+
+  private static List<String> errors(StockUploadContext context) {
+    return context.getInvalidRows().stream()
+        .map(row -> row.getRow().getRowNumber() + "|" + row.getReason())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> duplicates(StockUploadContext context) {
+    return context.getDuplicates().stream()
+        .map(duplicate -> duplicate.getRow().getRowNumber() + "|" + duplicate.getPartNumber()
+            + "|" + duplicate.getExistingQty() + "|" + duplicate.getUploadedQty())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> valid(StockUploadContext context) {
+    return context.getValidItems().stream()
+        .map(item -> item.getPartNumber() + "|" + item.getQty())
+        .collect(Collectors.toList());
+  }
+
+  private static List<List<String>> errorFile(StockUploadContext context) throws IOException {
+    List<List<String>> rows = new ArrayList<>();
+    try (InputStream in = Files.newInputStream(context.getErrorFile());
+        Workbook workbook = WorkbookFactory.create(in)) {
+      for (Row row : workbook.getSheetAt(0)) {
+        List<String> cells = new ArrayList<>();
+        for (Cell cell : row) {
+          cells.add(cell.getStringCellValue());
+        }
+        rows.add(cells);
+      }
+    } finally {
+      Files.deleteIfExists(context.getErrorFile());
+    }
+    return rows;
+  }
+}